@@ -26,7 +26,7 @@ public class AccountsApi implements AccountsDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "accounts";
 
     /***
@@ -45,9 +45,8 @@ public class AccountsApi implements AccountsDetails {
      */
     @Override
     public Accounts getAccounts(String memberId) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("memberId", memberId);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("memberId", memberId);
 
         String r = send(RequestMethod.GET, CONNECTION, AREA, null,
                 AREA, null, null, ApiVersion.ACCOUNTS, q, null);
@@ -68,10 +67,11 @@ public class AccountsApi implements AccountsDetails {
         var ids = new ArrayList<>();
         ids.add("ms.vss-features.my-organizations-data-provider");
 
-        var b = new HashMap<String, Object>(){{
-            put("contributionIds", ids);
-            put("dataProviderContext", new HashMap<String, Object>(){{ put("properties", "{}"); }});
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("contributionIds", ids);
+        var dataProviderContext = new HashMap<String, Object>();
+        dataProviderContext.put("properties", "{}");
+        b.put("dataProviderContext", dataProviderContext);
 
         String r = send(RequestMethod.POST, CONNECTION, null, null,
                 "Contribution", null, "HierarchyQuery", ApiVersion.ACCOUNTS, null, b);
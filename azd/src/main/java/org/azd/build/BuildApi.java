@@ -6,7 +6,9 @@ import org.azd.connection.Connection;
 import org.azd.enums.RequestMethod;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.helpers.JsonMapper;
+import org.azd.helpers.JsonPatcher;
 import org.azd.interfaces.BuildDetails;
 
 import java.util.Arrays;
@@ -24,7 +26,7 @@ public class BuildApi implements BuildDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "build";
     private final String BUILD = "5d6898bb-45ec-463f-95f9-54d49c71752e";
 
@@ -34,6 +36,14 @@ public class BuildApi implements BuildDetails {
      */
     public BuildApi(Connection connection) { this.CONNECTION = connection; }
 
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, e.g., to poll for changes from any number of threads
+     * @return build api bound to the uncached view of the connection {@link Connection#uncached()}
+     */
+    @Override
+    public BuildApi uncached() { return CONNECTION.isUncached() ? this : new BuildApi(CONNECTION.uncached()); }
+
     /***
      * Deletes a build.
      * @param buildId pass the build id to delete
@@ -100,11 +110,10 @@ public class BuildApi implements BuildDetails {
     public BuildChanges getBuildChanges(
             int buildId, int top, String continuationToken, boolean includeSourceChange) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>() {{
-            put("$top", top);
-            put("continuationToken", continuationToken);
-            put("includeSourceChange", includeSourceChange);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
+        q.put("continuationToken", continuationToken);
+        q.put("includeSourceChange", includeSourceChange);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds", Integer.toString(buildId), "changes", ApiVersion.BUILD_CHANGES, q, null);
@@ -140,10 +149,9 @@ public class BuildApi implements BuildDetails {
     @Override
     public String getBuildLog(int buildId, int logId, long startLine, long endLine) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("startLine", startLine);
-            put("endLine", endLine);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("startLine", startLine);
+        q.put("endLine", endLine);
 
         return send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds", Integer.toString(buildId),"logs/" + logId, ApiVersion.BUILD_LOGS, q, null,"text");
@@ -195,9 +203,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildWorkItems getBuildWorkItems(int buildId, int top) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$top", top);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                         AREA + "/builds", Integer.toString(buildId),"workitems", ApiVersion.BUILD_WORK_ITEMS, q,null);
@@ -218,11 +225,10 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildChanges getChangesBetweenBuilds(int fromBuildId, int toBuildId, int top) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$top", top);
-            put("fromBuildId", fromBuildId);
-            put("toBuildId", toBuildId);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
+        q.put("fromBuildId", fromBuildId);
+        q.put("toBuildId", toBuildId);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA, null, "changes", ApiVersion.BUILD_CHANGES, q,null);
@@ -243,11 +249,10 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildWorkItems getWorkItemsBetweenBuilds(int fromBuildId, int toBuildId, int top) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$top", top);
-            put("fromBuildId", fromBuildId);
-            put("toBuildId", toBuildId);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
+        q.put("fromBuildId", fromBuildId);
+        q.put("toBuildId", toBuildId);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA, null,"workitems", ApiVersion.BUILD_WORK_ITEMS, q,null);
@@ -284,9 +289,8 @@ public class BuildApi implements BuildDetails {
 
         String ids = Arrays.stream(buildIds).mapToObj(String::valueOf).collect(Collectors.joining(","));
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("buildIds", ids);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("buildIds", ids);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds",null,null, ApiVersion.BUILD, q,null);
@@ -305,9 +309,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public Builds getBuilds(int top) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$top", top);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds",null,null, ApiVersion.BUILD, q,null);
@@ -316,14 +319,35 @@ public class BuildApi implements BuildDetails {
     }
 
     /***
-     * Gets a list of builds.
+     * Gets a list of builds and only binds the given properties of each build.
      * @param top specify how many builds to retrieve
+     * @param projection properties of the build to bind, e.g., FieldProjection.of("id", "status", "result") {@link FieldProjection}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     * @return an array of build
+     */
+    @Override
+    public Builds getBuilds(int top, FieldProjection projection) throws ConnectionException, AzDException {
+
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
+
+        String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
+                AREA + "/builds",null,null, ApiVersion.BUILD, q,null);
+
+        return MAPPER.mapJsonResponse(r, Builds.class, projection);
+    }
+
+    /***
+     * Gets a list of builds.
+     * @param top specify how many builds to retrieve; 0 for the default of the API
      * @param branchName If specified, filters to builds that built branches that built this branch.
      * @param buildNumber If specified, filters to builds that match this build number. Append * to do a prefix search.
      * @param continuationToken A continuation token, returned by a previous call to this method, that can be used to return the next set of builds.
      * @param definitions A comma-delimited list of definition IDs. If specified, filters to builds for these definitions.
      * @param deletedFilter Indicates whether to exclude, include, or only return deleted builds.
-     * @param maxBuildsPerDefinition The maximum number of builds to return per definition.
+     * @param maxBuildsPerDefinition The maximum number of builds to return per definition; 0 for no limit.
      * @param maxTime If specified, filters to builds that finished/started/queued before this date based on the queryOrder specified.
      * @param minTime If specified, filters to builds that finished/started/queued after this date based on the queryOrder specified.
      * @param properties A comma-delimited list of properties to retrieve.
@@ -352,27 +376,26 @@ public class BuildApi implements BuildDetails {
             String ids = (definitions != null) ? Arrays.stream(definitions).mapToObj(String::valueOf).collect(Collectors.joining(",")) : null;
             String queueIds = (queues != null) ? Arrays.stream(queues).mapToObj(String::valueOf).collect(Collectors.joining(",")) : null;
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$top", top);
-            put("branchName", branchName);
-            put("buildNumber", buildNumber);
-            put("continuationToken", continuationToken);
-            put("definitions", ids);
-            put("deletedFilter", deletedFilter);
-            put("maxBuildsPerDefinition", maxBuildsPerDefinition);
-            put("maxTime", maxTime);
-            put("minTime", minTime);
-            put("properties", (properties != null) ? String.join(",", properties) : null);
-            put("queryOrder", queryOrder);
-            put("queues", queueIds);
-            put("reasonFilter", reasonFilter);
-            put("repositoryType", repositoryType);
-            put("requestedFor", requestedFor);
-            put("resultFilter", resultFilter);
-            put("repositoryId", repositoryId);
-            put("statusFilter", statusFilter);
-            put("tagFilters", tagFilters);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top > 0 ? top : null);
+        q.put("branchName", branchName);
+        q.put("buildNumber", buildNumber);
+        q.put("continuationToken", continuationToken);
+        q.put("definitions", ids);
+        q.put("deletedFilter", deletedFilter);
+        q.put("maxBuildsPerDefinition", maxBuildsPerDefinition > 0 ? maxBuildsPerDefinition : null);
+        q.put("maxTime", maxTime);
+        q.put("minTime", minTime);
+        q.put("properties", (properties != null) ? String.join(",", properties) : null);
+        q.put("queryOrder", queryOrder);
+        q.put("queues", queueIds);
+        q.put("reasonFilter", reasonFilter);
+        q.put("repositoryType", repositoryType);
+        q.put("requestedFor", requestedFor);
+        q.put("resultFilter", resultFilter);
+        q.put("repositoryId", repositoryId);
+        q.put("statusFilter", statusFilter);
+        q.put("tagFilters", tagFilters);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds",null,null, ApiVersion.BUILD, q,null);
@@ -391,9 +414,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public Build queueBuild(int definitionId) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>() {{
-            put("definitionId", String.valueOf(definitionId));
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("definitionId", String.valueOf(definitionId));
 
         String r = send(RequestMethod.POST, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds",null,null, ApiVersion.BUILD, q,null);
@@ -418,6 +440,25 @@ public class BuildApi implements BuildDetails {
         return MAPPER.mapJsonResponse(r, Build.class);
     }
 
+    /***
+     * Cancels a build that is queued or running
+     * @param buildId id of the build to cancel
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     * @return the build that is being cancelled {@link Build}
+     */
+    @Override
+    public Build cancelBuild(int buildId) throws ConnectionException, AzDException {
+        var body = new HashMap<String, Object>();
+        body.put("status", "cancelling");
+
+        String r = send(RequestMethod.PATCH, CONNECTION, BUILD, CONNECTION.getProject(),
+                AREA + "/builds", Integer.toString(buildId), null, ApiVersion.BUILD, null, body);
+
+        return MAPPER.mapJsonResponse(r, Build.class);
+    }
+
     /***
      * Gets controllers
      * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
@@ -445,9 +486,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildControllers getBuildControllers(String name) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("name", name);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("name", name);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD,null,
                 AREA,null,"controllers", ApiVersion.BUILD_CONTROLLERS, q,null);
@@ -483,12 +523,30 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildDefinition createBuildDefinition(String buildDefinitionParameters) throws ConnectionException, AzDException {
 
-        if (buildDefinitionParameters.isEmpty()) throw new AzDException();
+        return createBuildDefinition(buildDefinitionParameters, null);
+    }
 
-        var requestBody = MAPPER.mapJsonResponse(buildDefinitionParameters, Map.class);
+    /***
+     * Creates a new definition from a template. The template is validated, then patched while it is copied and posted
+     * as is, without being bound to objects.
+     * @param template json string of the build definition to create the definition from
+     * @param patch properties to replace in the template, e.g., name, path and repository {@link JsonPatcher}. Pass null to post the template as is
+     * @return build definition {@link BuildDefinition}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public BuildDefinition createBuildDefinition(String template, JsonPatcher patch) throws ConnectionException, AzDException {
+
+        if (template == null || template.isEmpty()) throw new AzDException();
+
+        // fail on malformed json before sending it; patching streams the template and fails on it as well.
+        if (patch == null) JsonPatcher.validate(template);
 
         String r = send(RequestMethod.POST, CONNECTION, BUILD, CONNECTION.getProject(),
-                        AREA,null,"definitions", ApiVersion.BUILD_DEFINITIONS,null, requestBody);
+                        AREA,null,"definitions", ApiVersion.BUILD_DEFINITIONS,null, true,
+                        patch == null ? template : patch.apply(template));
 
         return MAPPER.mapJsonResponse(r, BuildDefinition.class);
     }
@@ -520,15 +578,29 @@ public class BuildApi implements BuildDetails {
         }
 
         if (!Integer.toString(def).isEmpty()) {
-            var definitionObject = getBuildDefinition(def);
-            definitionObject.setName(definitionCloneName);
-            var res = MAPPER.convertToString(definitionObject);
-            return createBuildDefinition(res);
+            return cloneBuildDefinition(def, JsonPatcher.create().set("name", definitionCloneName));
         }
 
         return null;
     }
 
+    /***
+     * Clone an existing definition/pipeline. The definition is patched while it is copied and posted back
+     * without being bound to objects.
+     * @param definitionId id of the build definition/pipeline to clone
+     * @param patch properties to replace in the clone. The name must be set. E.g.,
+     *              {@code JsonPatcher.create().set("name", "WebApp-CI").set("path", "\\Apps").set("repository/name", "WebApp")}
+     * @return build definition {@link BuildDefinition}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public BuildDefinition cloneBuildDefinition(int definitionId, JsonPatcher patch) throws ConnectionException, AzDException {
+        // the lazy definition only validates the response; its raw json is posted as received.
+        return createBuildDefinition(getLazyBuildDefinition(definitionId).toJson(), patch);
+    }
+
     /***
      * Deletes a definition and all associated builds.
      * @param definitionId pass the definition id
@@ -564,6 +636,45 @@ public class BuildApi implements BuildDetails {
         return MAPPER.mapJsonResponse(r, BuildDefinition.class);
     }
 
+    /***
+     * Gets a definition without binding it. The nested objects are bound only when they are accessed.
+     * @param definitionId pass the definition id
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     * @return Lazy build definition object {@link LazyBuildDefinition}
+     */
+    @Override
+    public LazyBuildDefinition getLazyBuildDefinition(int definitionId) throws ConnectionException, AzDException {
+
+        String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
+                        AREA + "/definitions", Integer.toString(definitionId),null, ApiVersion.BUILD_DEFINITIONS,null,null);
+
+        return new LazyBuildDefinition(r);
+    }
+
+    /***
+     * Updates an existing build definition. The properties that were not changed are sent as received from the API.
+     * In order for this operation to succeed, the value of the "Revision" property of the request body must match
+     * the existing build definition's. It is recommended that you obtain the existing build definition by using
+     * {@link #getLazyBuildDefinition(int)}, modify the build definition as necessary, and then submit the modified
+     * definition.
+     * @param definition pass the modified build definition {@link LazyBuildDefinition}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     * @return Lazy build definition object {@link LazyBuildDefinition}
+     */
+    @Override
+    public LazyBuildDefinition updateBuildDefinition(LazyBuildDefinition definition) throws ConnectionException, AzDException {
+
+        String r = send(RequestMethod.PUT, CONNECTION, BUILD, CONNECTION.getProject(),
+                        AREA + "/definitions", Integer.toString(definition.getId()),null, ApiVersion.BUILD_DEFINITIONS,
+                        null, true, definition.toJson());
+
+        return new LazyBuildDefinition(r);
+    }
+
     /***
      * Gets a definition, optionally at a specific revision.
      * @param definitionId The ID of the definition.
@@ -579,11 +690,10 @@ public class BuildApi implements BuildDetails {
     public BuildDefinition getBuildDefinition(
             int definitionId, boolean includeLatestBuilds, String minMetricsTime, int revision) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("includeLatestBuilds", includeLatestBuilds);
-            put("minMetricsTime", minMetricsTime);
-            put("revision", revision);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("includeLatestBuilds", includeLatestBuilds);
+        q.put("minMetricsTime", minMetricsTime);
+        q.put("revision", revision);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                         AREA + "/definitions", Integer.toString(definitionId),null, ApiVersion.BUILD_DEFINITIONS, q,null);
@@ -637,9 +747,8 @@ public class BuildApi implements BuildDetails {
 
         String ids = Arrays.stream(definitionIds).mapToObj(String::valueOf).collect(Collectors.joining(","));
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("definitionIds", ids);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("definitionIds", ids);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/definitions",null,null, ApiVersion.BUILD_DEFINITIONS, q,null);
@@ -658,9 +767,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildDefinitions getBuildDefinitions(int top) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$top", top);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/definitions",null,null, ApiVersion.BUILD_DEFINITIONS, q,null);
@@ -679,9 +787,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildDefinitions getBuildDefinitions(String name) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("name", name);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("name", name);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/definitions", null, null, ApiVersion.BUILD_DEFINITIONS, q,null);
@@ -716,21 +823,20 @@ public class BuildApi implements BuildDetails {
             String path, int processType, String queryOrder, String repositoryId,
             String repositoryType, String taskIdFilter, String yamlFilename) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("builtAfter", builtAfter);
-            put("continuationToken", continuationToken);
-            put("includeAllProperties", includeAllProperties);
-            put("includeLatestBuilds", includeLatestBuilds);
-            put("minMetricsTime", minMetricsTime);
-            put("notBuiltAfter", notBuiltAfter);
-            put("path", path);
-            put("processType", processType);
-            put("queryOrder", queryOrder);
-            put("repositoryId", repositoryId);
-            put("repositoryType", repositoryType);
-            put("taskIdFilter", taskIdFilter);
-            put("yamlFilename", yamlFilename);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("builtAfter", builtAfter);
+        q.put("continuationToken", continuationToken);
+        q.put("includeAllProperties", includeAllProperties);
+        q.put("includeLatestBuilds", includeLatestBuilds);
+        q.put("minMetricsTime", minMetricsTime);
+        q.put("notBuiltAfter", notBuiltAfter);
+        q.put("path", path);
+        q.put("processType", processType);
+        q.put("queryOrder", queryOrder);
+        q.put("repositoryId", repositoryId);
+        q.put("repositoryType", repositoryType);
+        q.put("taskIdFilter", taskIdFilter);
+        q.put("yamlFilename", yamlFilename);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                         AREA + "/definitions",null,null, ApiVersion.BUILD_DEFINITIONS, q,null);
@@ -750,9 +856,8 @@ public class BuildApi implements BuildDetails {
     @Override
     public BuildDefinition restoreBuildDefinition(int definitionId, boolean deleted) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("deleted", deleted);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("deleted", deleted);
 
         String r = send(RequestMethod.PATCH, CONNECTION, BUILD, CONNECTION.getProject(),
                         AREA + "/definitions", Integer.toString(definitionId),null, ApiVersion.BUILD_DEFINITIONS, q,null);
@@ -923,9 +1028,8 @@ public class BuildApi implements BuildDetails {
      */
     @Override
     public BuildTags getDefinitionTags(int definitionId, int revision) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("revision", revision);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("revision", revision);
 
         String r = send(RequestMethod.GET, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/definitions", Integer.toString(definitionId),"tags", ApiVersion.BUILD_TAGS, q,null);
@@ -963,9 +1067,8 @@ public class BuildApi implements BuildDetails {
 
         var tagValue = toRemove ? "tagsToRemove" : "tagsToAdd" ;
 
-        var body = new HashMap<String, Object>(){{
-            put(tagValue, tags);
-        }};
+        var body = new HashMap<String, Object>();
+        body.put(tagValue, tags);
 
         String r = send(RequestMethod.PATCH, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/builds", Integer.toString(buildId),"tags", ApiVersion.BUILD_TAGS, null, body);
@@ -987,9 +1090,8 @@ public class BuildApi implements BuildDetails {
     public BuildTags updateDefinitionTags(int definitionId, String[] tags, boolean toRemove) throws ConnectionException, AzDException {
         var tagValue = toRemove ? "tagsToRemove" : "tagsToAdd" ;
 
-        var body = new HashMap<String, Object>(){{
-            put(tagValue, tags);
-        }};
+        var body = new HashMap<String, Object>();
+        body.put(tagValue, tags);
 
         String r = send(RequestMethod.PATCH, CONNECTION, BUILD, CONNECTION.getProject(),
                 AREA + "/definitions", Integer.toString(definitionId),"tags", ApiVersion.BUILD_TAGS, null, body);
@@ -0,0 +1,140 @@
+package org.azd.build.types;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/***
+ * Position of a build history tracker. Persist it after each poll and pass it to the next one so that only the
+ * builds queued, started, finished or deleted since then are listed.
+ */
+public class BuildHistoryWatermark {
+    /***
+     * Latest queue time that is listed.
+     */
+    @JsonProperty("queueTime")
+    private String queueTime;
+    /***
+     * Ids of the builds queued at the queue time.
+     */
+    @JsonProperty("queueTimeIds")
+    private int[] queueTimeIds;
+    /***
+     * Latest start time that is listed.
+     */
+    @JsonProperty("startTime")
+    private String startTime;
+    /***
+     * Ids of the builds started at the start time.
+     */
+    @JsonProperty("startTimeIds")
+    private int[] startTimeIds;
+    /***
+     * Latest finish time that is listed.
+     */
+    @JsonProperty("finishTime")
+    private String finishTime;
+    /***
+     * Ids of the builds finished at the finish time.
+     */
+    @JsonProperty("finishTimeIds")
+    private int[] finishTimeIds;
+    /***
+     * Status of the builds that are not completed, keyed by id.
+     */
+    @JsonProperty("openBuilds")
+    private Map<Integer, String> openBuilds;
+    /***
+     * Latest deletion time that is listed.
+     */
+    @JsonProperty("deletedTime")
+    private String deletedTime;
+    /***
+     * Ids of the builds deleted at the deletion time.
+     */
+    @JsonProperty("deletedIds")
+    private int[] deletedIds;
+
+    public String getQueueTime() {
+        return queueTime;
+    }
+
+    public void setQueueTime(String queueTime) {
+        this.queueTime = queueTime;
+    }
+
+    public int[] getQueueTimeIds() {
+        return queueTimeIds;
+    }
+
+    public void setQueueTimeIds(int[] queueTimeIds) {
+        this.queueTimeIds = queueTimeIds;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public int[] getStartTimeIds() {
+        return startTimeIds;
+    }
+
+    public void setStartTimeIds(int[] startTimeIds) {
+        this.startTimeIds = startTimeIds;
+    }
+
+    public String getFinishTime() {
+        return finishTime;
+    }
+
+    public void setFinishTime(String finishTime) {
+        this.finishTime = finishTime;
+    }
+
+    public int[] getFinishTimeIds() {
+        return finishTimeIds;
+    }
+
+    public void setFinishTimeIds(int[] finishTimeIds) {
+        this.finishTimeIds = finishTimeIds;
+    }
+
+    public Map<Integer, String> getOpenBuilds() {
+        return openBuilds;
+    }
+
+    public void setOpenBuilds(Map<Integer, String> openBuilds) {
+        this.openBuilds = openBuilds;
+    }
+
+    public String getDeletedTime() {
+        return deletedTime;
+    }
+
+    public void setDeletedTime(String deletedTime) {
+        this.deletedTime = deletedTime;
+    }
+
+    public int[] getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(int[] deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildHistoryWatermark{" +
+                "queueTime='" + queueTime + '\'' +
+                ", startTime='" + startTime + '\'' +
+                ", finishTime='" + finishTime + '\'' +
+                ", openBuilds=" + openBuilds +
+                ", deletedTime='" + deletedTime + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package org.azd.build.types;
+
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.LazyJsonObject;
+
+/***
+ * Build definition that keeps the raw json and binds the nested objects like the process, phases and steps
+ * only when they are accessed. Updating the definition re-emits the untouched parts verbatim.
+ */
+public class LazyBuildDefinition extends LazyJsonObject {
+
+    /***
+     * Create the build definition from the json returned by the API
+     * @param content build definition json
+     * @throws AzDException if the content is not a valid build definition
+     */
+    public LazyBuildDefinition(String content) throws AzDException {
+        super(content);
+    }
+
+    /***
+     * The ID of the referenced definition.
+     * @return definition id
+     * @throws AzDException if the property can't be bound
+     */
+    public int getId() throws AzDException {
+        return getInt("id");
+    }
+
+    /***
+     * The name of the referenced definition.
+     * @return definition name
+     * @throws AzDException if the property can't be bound
+     */
+    public String getName() throws AzDException {
+        return getString("name");
+    }
+
+    /***
+     * Set the name of the definition
+     * @param name definition name
+     */
+    public void setName(String name) {
+        set("name", name);
+    }
+
+    /***
+     * The folder path of the definition.
+     * @return folder path
+     * @throws AzDException if the property can't be bound
+     */
+    public String getPath() throws AzDException {
+        return getString("path");
+    }
+
+    /***
+     * Set the folder path of the definition
+     * @param path folder path. E.g., \\Release
+     */
+    public void setPath(String path) {
+        set("path", path);
+    }
+
+    /***
+     * The definition revision number.
+     * @return revision number
+     * @throws AzDException if the property can't be bound
+     */
+    public int getRevision() throws AzDException {
+        return getInt("revision");
+    }
+
+    /***
+     * The repository of the definition. Bound on first access.
+     * @return build repository {@link BuildRepository}
+     * @throws AzDException if the property can't be bound
+     */
+    public BuildRepository getRepository() throws AzDException {
+        return get("repository", BuildRepository.class);
+    }
+
+    /***
+     * The build process with phases and steps. Bound on first access.
+     * @return build process {@link Process}
+     * @throws AzDException if the property can't be bound
+     */
+    public Process getProcess() throws AzDException {
+        return get("process", Process.class);
+    }
+}
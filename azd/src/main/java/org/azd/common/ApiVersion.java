@@ -32,6 +32,7 @@ public abstract class ApiVersion {
     public static final String WIKI = "6.1-preview.2";
     public static final String WORK = "6.1-preview.1";
     public static final String WORK_ITEM_TRACKING = "6.1-preview.3";
+    public static final String WORK_ITEMS_BATCH = "6.0";
     public static final String WIT_WIQL = "6.1-preview.2";
     public static final String WIT_RECYCLE_BIN = "6.1-preview.2";
     public static final String WORK_ITEM_TYPES = "6.0";
@@ -1,10 +1,14 @@
 package org.azd.connection;
 
+import org.azd.enums.CacheMode;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
-import org.azd.oauth.OAuthApi;
+import org.azd.helpers.LocalStore;
+import org.azd.helpers.RateLimiter;
 import org.azd.oauth.types.AuthorizedToken;
 
+import java.time.Duration;
+
 /**
  * The factory class which sets the default parameters to use this library.
  * <p>
@@ -13,12 +17,18 @@ import org.azd.oauth.types.AuthorizedToken;
  * </p>
  */
 public class Connection {
-    private String organization;
-    private String project;
-    private String personalAccessToken;
+    private volatile String organization;
+    private volatile String project;
+    private volatile String personalAccessToken;
     private String appSecret;
     private String appCallBackURL;
-    private AuthorizedToken oauthToken = null;
+    private volatile OAuthTokenManager tokenManager = null;
+    private volatile LocalStore localStore;
+    private volatile CacheMode cacheMode = CacheMode.NONE;
+    private volatile Duration cacheMaxAge;
+    private volatile RateLimiter rateLimiter;
+    private final Connection credentials;
+    private final Connection cached;
     private TokenRefreshedHandler tokenRefreshedHandler = defaultTokenRefreshedHandler;
     private static TokenRefreshedHandler defaultTokenRefreshedHandler = new TokenRefreshedHandler() {
 
@@ -30,11 +40,20 @@ public class Connection {
 
     public interface TokenRefreshedHandler {
         void tokenRefreshed (AuthorizedToken newToken);
+
+        /***
+         * Called from the background thread when a refresh of the oauth token fails. The refresh is retried
+         * after a backoff.
+         * @param e failure of the refresh
+         */
+        default void refreshFailed(Throwable e) { }
     }
     /***
      * default with no parameters
      */
     public Connection() {
+        this.credentials = null;
+        this.cached = null;
     }
 
 
@@ -48,10 +67,38 @@ public class Connection {
         this.organization = organization;
         this.project = project;
         this.personalAccessToken = personalAccessToken;
-        this.oauthToken = oauthToken;
         this.appSecret = appSecret;
         this.appCallBackURL = appCallBackURL;
         this.tokenRefreshedHandler = tokenRefreshedHandler != null ? tokenRefreshedHandler : defaultTokenRefreshedHandler;
+        this.credentials = null;
+        this.cached = null;
+        if (oauthToken != null)
+            this.tokenManager = new OAuthTokenManager(oauthToken, appSecret, appCallBackURL, this.tokenRefreshedHandler);
+    }
+
+    /***
+     * Instantiates a connection to an organization and project that uses the credentials and the local store of
+     * another connection, see {@link ConnectionContext#createConnection()}
+     * @param credentials connection object that holds the personal access token or oauth token
+     * @param organization pass the organization name
+     * @param project provide the project name
+     * @param rateLimiter rate limiter for the requests or null
+     */
+    Connection(Connection credentials, String organization, String project, RateLimiter rateLimiter) {
+        this.credentials = credentials;
+        this.cached = null;
+        this.organization = organization;
+        this.project = project;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /***
+     * Instantiates the uncached view of a connection, see {@link #uncached()}
+     * @param cached connection to read and set everything on
+     */
+    private Connection(Connection cached) {
+        this.credentials = cached;
+        this.cached = cached;
     }
 
     /**
@@ -131,58 +178,149 @@ public class Connection {
      * Get the default organization name
      * @return organization name
      * */
-    public String getOrganization() { return this.organization; }
+    public String getOrganization() { return cached != null ? cached.getOrganization() : this.organization; }
 
     /**
      * Set the organization name to default
      * @param organization pass the organization name
      * */
-    public void setOrganization(String organization) { this.organization = organization; }
+    public void setOrganization(String organization) {
+        if (cached != null) cached.setOrganization(organization);
+        else this.organization = organization;
+    }
 
     /**
      * Get the default Project name
      * @return project name
      * */
-    public String getProject() { return this.project; }
+    public String getProject() { return cached != null ? cached.getProject() : this.project; }
 
     /**
      * Set the project name to default
      * @param project pass the project name
      * */
-    public void setProject(String project) { this.project = project; }
+    public void setProject(String project) {
+        if (cached != null) cached.setProject(project);
+        else this.project = project;
+    }
+
+    /***
+     * Get the rate limiter applied to the requests sent with this connection
+     * @return rate limiter or null if the requests are not limited
+     */
+    public RateLimiter getRateLimiter() { return cached != null ? cached.getRateLimiter() : this.rateLimiter; }
+
+    /***
+     * Limit the requests sent with this connection
+     * @param rateLimiter rate limiter {@link RateLimiter}. Pass null to send the requests without limit
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        if (cached != null) cached.setRateLimiter(rateLimiter);
+        else this.rateLimiter = rateLimiter;
+    }
 
     /***
-     * Get the personal access token
+     * Read the responses of the GET requests sent with this connection from a local store. On a connection created
+     * by a {@link ConnectionContext}, the store is set on the parent connection.
+     * @param localStore store of the responses {@link LocalStore}. Pass null to send all the requests
+     * @param cacheMode how the store is used {@link CacheMode}
+     * @param maxAge maximum age of a stored response to read it in {@link CacheMode#READ_THROUGH} mode; null if the responses don't expire
+     */
+    public void setLocalStore(LocalStore localStore, CacheMode cacheMode, Duration maxAge) {
+        if (credentials != null) {
+            credentials.setLocalStore(localStore, cacheMode, maxAge);
+            return;
+        }
+        this.localStore = localStore;
+        this.cacheMode = localStore == null || cacheMode == null ? CacheMode.NONE : cacheMode;
+        this.cacheMaxAge = maxAge;
+    }
+
+    /***
+     * Get the local store of the responses
+     * @return local store or null if the responses aren't stored
+     */
+    public LocalStore getLocalStore() { return credentials != null ? credentials.getLocalStore() : this.localStore; }
+
+    /***
+     * Get how the local store is used
+     * @return cache mode {@link CacheMode}
+     */
+    public CacheMode getCacheMode() { return credentials != null ? credentials.getCacheMode() : this.cacheMode; }
+
+    /***
+     * Get the maximum age of a stored response
+     * @return maximum age or null if the responses don't expire
+     */
+    public Duration getCacheMaxAge() { return credentials != null ? credentials.getCacheMaxAge() : this.cacheMaxAge; }
+
+    /***
+     * Get a view of this connection that sends its GET requests to the API even if a fresh response is in the local
+     * store, e.g., to poll for changes. The responses are still stored in {@link CacheMode#READ_THROUGH} mode, and a
+     * connection in {@link CacheMode#OFFLINE} mode fails the requests. Everything else is read from and set on this
+     * connection.
+     * @return uncached connection object
+     */
+    public Connection uncached() { return cached != null ? this : new Connection(this); }
+
+    /***
+     * Check if the GET requests sent with this connection skip the local store, see {@link #uncached()}
+     * @return true if the connection is an uncached view
+     */
+    public boolean isUncached() { return cached != null; }
+
+    /***
+     * Get the personal access token. If the connection is created with an oauth token, the token is refreshed
+     * in the background before it expires and this method only waits for the refresh if the token has already expired.
      * @return the personal access token
      * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
      * and project. This validates the connection object and throws exception if it is not provided.
      * @throws AzDException Default Api Exception handler.
      */
     public String getPersonalAccessToken() throws AzDException, ConnectionException {
-        if(oauthToken != null) {
-            if(OAuthApi.hasTokenExpired(oauthToken)){
-                setOauthToken(OAuthApi.getRefreshToken(appSecret,oauthToken.getRefreshToken(),appCallBackURL));
-            }
-            return oauthToken.getAccessToken();
+        if (credentials != null) return credentials.getPersonalAccessToken();
+        var manager = this.tokenManager;
+        if(manager != null) {
+            return manager.getAccessToken();
         }
         return this.personalAccessToken;
     }
 
     /**
-     * Set the personal access token
+     * Set the personal access token. On a connection created by a {@link ConnectionContext}, the token is set on the
+     * parent connection.
      * @param personalAccessToken pass the personal access token
      * */
     public void setPersonalAccessToken(String personalAccessToken) {
-        this.oauthToken = null;
+        if (credentials != null) {
+            credentials.setPersonalAccessToken(personalAccessToken);
+            return;
+        }
+        this.tokenManager = null;
         this.personalAccessToken = personalAccessToken;
     }
 
     /**
-     * Set the oauth access token
+     * Set the oauth access token. On a connection created by a {@link ConnectionContext}, the token is set on the
+     * parent connection.
      * @param oauthToken pass the oauth access token
      * */
     public void setOauthToken(AuthorizedToken oauthToken) {
-        this.oauthToken = oauthToken;
+        if (credentials != null) {
+            credentials.setOauthToken(oauthToken);
+            return;
+        }
+        setOwnOauthToken(oauthToken);
+    }
+
+    private synchronized void setOwnOauthToken(AuthorizedToken oauthToken) {
+        var manager = this.tokenManager;
+        if (oauthToken == null)
+            this.tokenManager = null;
+        else if (manager == null)
+            this.tokenManager = new OAuthTokenManager(oauthToken, appSecret, appCallBackURL, tokenRefreshedHandler);
+        else
+            manager.setToken(oauthToken);
         tokenRefreshedHandler.tokenRefreshed(oauthToken);
     }
 
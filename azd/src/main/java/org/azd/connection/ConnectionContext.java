@@ -0,0 +1,86 @@
+package org.azd.connection;
+
+import org.azd.helpers.RateLimiter;
+
+/***
+ * Immutable organization and project that requests are sent to with the credentials of a connection.
+ * <p>
+ *     The context holds the connection it was created from and creates a {@link Connection} for the Api classes
+ *     that sends the requests to its organization and project. That connection shares the credentials and the
+ *     local store of the parent connection, so an oauth token refreshed through one context is seen by all of them.
+ *     Since the organization and project of a context can't be changed, a single context can be used by many
+ *     threads at once.
+ * </p>
+ */
+public final class ConnectionContext {
+    private final Connection CREDENTIALS;
+    private final String ORGANIZATION;
+    private final String PROJECT;
+    private final RateLimiter RATE_LIMITER;
+
+    /***
+     * Create the connection context
+     * @param credentials connection object that holds the personal access token or oauth token
+     * @param organization pass the organization name
+     * @param project provide the project name
+     * @param rateLimiter rate limiter shared by all the requests to the organization. Pass null to send the requests without limit
+     */
+    public ConnectionContext(Connection credentials, String organization, String project, RateLimiter rateLimiter) {
+        this.CREDENTIALS = credentials;
+        this.ORGANIZATION = organization;
+        this.PROJECT = project;
+        this.RATE_LIMITER = rateLimiter;
+    }
+
+    /***
+     * Create a new context for another project of the same organization
+     * @param project provide the project name
+     * @return connection context {@link ConnectionContext}
+     */
+    public ConnectionContext withProject(String project) {
+        return new ConnectionContext(CREDENTIALS, ORGANIZATION, project, RATE_LIMITER);
+    }
+
+    /***
+     * Create a new context for another organization with the same rate limiter
+     * @param organization pass the organization name
+     * @return connection context {@link ConnectionContext}
+     */
+    public ConnectionContext withOrganization(String organization) {
+        return new ConnectionContext(CREDENTIALS, organization, PROJECT, RATE_LIMITER);
+    }
+
+    /***
+     * Create a connection that sends the requests to the organization and project of the context. Its credentials
+     * and local store are those of the parent connection, and setting them sets them on the parent connection;
+     * its organization, project and rate limiter are its own.
+     * @return connection object {@link Connection}
+     */
+    public Connection createConnection() {
+        return new Connection(CREDENTIALS, ORGANIZATION, PROJECT, RATE_LIMITER);
+    }
+
+    /***
+     * Get the connection the context shares its credentials and local store with
+     * @return connection object {@link Connection}
+     */
+    public Connection getCredentials() { return CREDENTIALS; }
+
+    /***
+     * Get the organization name
+     * @return organization name
+     */
+    public String getOrganization() { return ORGANIZATION; }
+
+    /***
+     * Get the project name
+     * @return project name
+     */
+    public String getProject() { return PROJECT; }
+
+    /***
+     * Get the rate limiter shared by the requests to the organization
+     * @return rate limiter or null if the requests are not limited
+     */
+    public RateLimiter getRateLimiter() { return RATE_LIMITER; }
+}
@@ -0,0 +1,204 @@
+package org.azd.connection;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.oauth.OAuthApi;
+import org.azd.oauth.types.AuthorizedToken;
+
+import java.lang.System.Logger.Level;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/***
+ * Holds the oauth token of a connection and refreshes it in the background.
+ * <p>
+ *     Reads of the current token are lock-free. The token is refreshed ahead of its expiry by a single
+ *     background task; callers only wait for the refresh when the token has already expired, and all the
+ *     waiting callers share the same in-flight refresh. The {@link Connection.TokenRefreshedHandler} is
+ *     notified from the background thread.
+ * </p>
+ * <p>
+ *     A failed refresh is logged and passed to the handler, and no other refresh is started for a backoff that
+ *     doubles from a second up to a minute with each failure. Callers with an expired token get the failure again
+ *     until the backoff ends.
+ * </p>
+ */
+final class OAuthTokenManager {
+    /***
+     * Refresh the token when it is about to expire in the given milliseconds.
+     */
+    private static final long REFRESH_AHEAD_MILLIS = 5 * 60 * 1000L;
+    private static final long MIN_BACKOFF_MILLIS = 1000L;
+    private static final long MAX_BACKOFF_MILLIS = 60 * 1000L;
+    private static final System.Logger LOGGER = System.getLogger(OAuthTokenManager.class.getName());
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        var t = new Thread(r, "azd-token-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicReference<AuthorizedToken> token;
+    private final AtomicReference<CompletableFuture<AuthorizedToken>> refresh = new AtomicReference<>();
+    private final Refresher refresher;
+    private final Connection.TokenRefreshedHandler tokenRefreshedHandler;
+    private volatile Throwable failure;
+    private volatile long backoff;
+    private volatile long retryAt;
+
+    /***
+     * Gets a new token for the refresh token of the current one
+     */
+    @FunctionalInterface
+    interface Refresher {
+        AuthorizedToken refresh(AuthorizedToken token) throws AzDException, ConnectionException;
+    }
+
+    /***
+     * Creates the token manager
+     * @param token oauth access token
+     * @param appSecret app/client secret used to refresh the access token
+     * @param appCallBackURL app/client callBackURL used to refresh the access token
+     * @param tokenRefreshedHandler handler to be called on oauth token refresh
+     */
+    OAuthTokenManager(AuthorizedToken token, String appSecret, String appCallBackURL,
+                      Connection.TokenRefreshedHandler tokenRefreshedHandler) {
+        this(token, current -> OAuthApi.getRefreshToken(appSecret, current.getRefreshToken(), appCallBackURL),
+                tokenRefreshedHandler);
+    }
+
+    /***
+     * Creates the token manager
+     * @param token oauth access token
+     * @param refresher gets the refreshed token
+     * @param tokenRefreshedHandler handler to be called on oauth token refresh
+     */
+    OAuthTokenManager(AuthorizedToken token, Refresher refresher, Connection.TokenRefreshedHandler tokenRefreshedHandler) {
+        this.token = new AtomicReference<>(token);
+        this.refresher = refresher;
+        this.tokenRefreshedHandler = tokenRefreshedHandler;
+    }
+
+    /***
+     * Get the current token
+     * @return the oauth token
+     */
+    AuthorizedToken getToken() { return token.get(); }
+
+    /***
+     * Replace the current token
+     * @param token oauth token
+     */
+    void setToken(AuthorizedToken token) {
+        this.token.set(token);
+        this.failure = null;
+        this.backoff = 0;
+        this.retryAt = 0;
+    }
+
+    /***
+     * Get the failure of the last refresh
+     * @return the failure or null if the last refresh succeeded
+     */
+    Throwable getRefreshFailure() { return failure; }
+
+    /***
+     * Get the access token. Waits for a refresh only if the token has expired, otherwise a background
+     * refresh is started when the token is about to expire and the current token is returned.
+     * @return the access token
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    String getAccessToken() throws AzDException, ConnectionException {
+        var current = token.get();
+
+        var backingOff = System.currentTimeMillis() < retryAt;
+
+        if (OAuthApi.hasTokenExpired(current)) {
+            var cause = failure;
+            if (backingOff && cause != null) throw toAzDException(cause);
+            try {
+                return refresh(current).join().getAccessToken();
+            } catch (CompletionException e) {
+                throw toAzDException(e.getCause());
+            }
+        }
+
+        long expiresAt = current.getReceivedTimestamp() + current.getExpiresIn() * 1000L;
+        long refreshAhead = Math.min(REFRESH_AHEAD_MILLIS, current.getExpiresIn() * 500L);
+        if (!backingOff && System.currentTimeMillis() >= expiresAt - refreshAhead) refresh(current);
+
+        return current.getAccessToken();
+    }
+
+    /***
+     * Start a refresh of the given token or join the one that is already running.
+     * @param current token to refresh
+     * @return future completed with the refreshed token
+     */
+    private CompletableFuture<AuthorizedToken> refresh(AuthorizedToken current) {
+        while (true) {
+            var inFlight = refresh.get();
+            if (inFlight != null) return inFlight;
+
+            var next = new CompletableFuture<AuthorizedToken>();
+            if (!refresh.compareAndSet(null, next)) continue;
+
+            // another thread may have finished refreshing the token while we were waiting.
+            var latest = token.get();
+            if (latest != current) {
+                refresh.compareAndSet(next, null);
+                next.complete(latest);
+                return next;
+            }
+
+            EXECUTOR.execute(() -> {
+                AuthorizedToken refreshed;
+                try {
+                    refreshed = refresher.refresh(current);
+                } catch (Throwable e) {
+                    failed(e);
+                    refresh.compareAndSet(next, null);
+                    next.completeExceptionally(e);
+                    return;
+                }
+                failure = null;
+                backoff = 0;
+                retryAt = 0;
+                token.compareAndSet(current, refreshed);
+                refresh.compareAndSet(next, null);
+                next.complete(refreshed);
+                try {
+                    tokenRefreshedHandler.tokenRefreshed(refreshed);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "The token refreshed handler failed.", e);
+                }
+            });
+            return next;
+        }
+    }
+
+    /***
+     * Backs off the next refresh and reports the failure
+     * @param e failure of the refresh
+     */
+    private void failed(Throwable e) {
+        backoff = backoff == 0 ? MIN_BACKOFF_MILLIS : Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        retryAt = System.currentTimeMillis() + backoff;
+        failure = e;
+        LOGGER.log(Level.WARNING, "The oauth token refresh failed; retrying in " + backoff + " ms.", e);
+        try {
+            tokenRefreshedHandler.refreshFailed(e);
+        } catch (RuntimeException handlerFailure) {
+            LOGGER.log(Level.WARNING, "The token refreshed handler failed.", handlerFailure);
+        }
+    }
+
+    private static AzDException toAzDException(Throwable e) throws ConnectionException {
+        if (e instanceof ConnectionException) throw (ConnectionException) e;
+        return e instanceof AzDException ? (AzDException) e : new AzDException(e);
+    }
+}
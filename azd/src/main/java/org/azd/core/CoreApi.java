@@ -23,7 +23,7 @@ public class CoreApi implements CoreDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String CORE = "79134c72-4a58-4b42-976c-04e7115f32bf";
     private final String AREA = "projects";
 
@@ -61,18 +61,17 @@ public class CoreApi implements CoreDetails {
     @Override
     public OperationReference createProject(String projectName, String description) throws ConnectionException, AzDException {
 
-        LinkedHashMap<String, Object> h = new LinkedHashMap<>() {{
-            put("name", projectName);
-            put("description", description);
-            put("capabilities", new LinkedHashMap<String, Object>() {{
-                put("versioncontrol", new LinkedHashMap<String, Object>() {{
-                    put("sourceControlType", "Git");
-                }});
-                put("processTemplate", new LinkedHashMap<String, Object>() {{
-                    put("templateTypeId", "6b724908-ef14-45cf-84f8-768b5384da45");
-                }});
-            }});
-        }};
+        LinkedHashMap<String, Object> h = new LinkedHashMap<>();
+        h.put("name", projectName);
+        h.put("description", description);
+        var capabilities = new LinkedHashMap<String, Object>();
+        var versioncontrol = new LinkedHashMap<String, Object>();
+        versioncontrol.put("sourceControlType", "Git");
+        capabilities.put("versioncontrol", versioncontrol);
+        var processTemplate = new LinkedHashMap<String, Object>();
+        processTemplate.put("templateTypeId", "6b724908-ef14-45cf-84f8-768b5384da45");
+        capabilities.put("processTemplate", processTemplate);
+        h.put("capabilities", capabilities);
 
         String r = send(RequestMethod.POST, CONNECTION, CORE,null,
                         AREA,null, null, ApiVersion.PROJECT,null, h);
@@ -95,18 +94,17 @@ public class CoreApi implements CoreDetails {
     public OperationReference createProject(String projectName, String description, String sourceControlType,
                              String templateTypeId) throws ConnectionException, AzDException {
 
-        LinkedHashMap<String, Object> h = new LinkedHashMap<>() {{
-            put("name", projectName);
-            put("description", description);
-            put("capabilities", new LinkedHashMap<String, Object>() {{
-                put("versioncontrol", new LinkedHashMap<String, Object>() {{
-                    put("sourceControlType", sourceControlType);
-                }});
-                put("processTemplate", new LinkedHashMap<String, Object>() {{
-                    put("templateTypeId", templateTypeId);
-                }});
-            }});
-        }};
+        LinkedHashMap<String, Object> h = new LinkedHashMap<>();
+        h.put("name", projectName);
+        h.put("description", description);
+        var capabilities = new LinkedHashMap<String, Object>();
+        var versioncontrol = new LinkedHashMap<String, Object>();
+        versioncontrol.put("sourceControlType", sourceControlType);
+        capabilities.put("versioncontrol", versioncontrol);
+        var processTemplate = new LinkedHashMap<String, Object>();
+        processTemplate.put("templateTypeId", templateTypeId);
+        capabilities.put("processTemplate", processTemplate);
+        h.put("capabilities", capabilities);
 
         String r = send(RequestMethod.POST, CONNECTION, CORE,null,
                         AREA,null,null, ApiVersion.PROJECT, null, h);
@@ -166,10 +164,9 @@ public class CoreApi implements CoreDetails {
     @Override
     public Project getProject(String projectName, boolean includeCapabilities, boolean includeHistory) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>() {{
-            put("includeCapabilities", includeCapabilities);
-            put("includeHistory", includeHistory);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("includeCapabilities", includeCapabilities);
+        q.put("includeHistory", includeHistory);
 
         String r = send(RequestMethod.GET, CONNECTION, CORE,null,
                         AREA, projectName,null, ApiVersion.PROJECT, q,null);
@@ -226,13 +223,12 @@ public class CoreApi implements CoreDetails {
     public Projects getProjects(int skip, int top, String continuationToken,
                                 boolean getDefaultTeamImageUrl, String stateFilter) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$skip", skip);
-            put("$top", top);
-            put("continuationToken", continuationToken);
-            put("getDefaultTeamImageUrl", getDefaultTeamImageUrl);
-            put("stateFilter", stateFilter);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$skip", skip);
+        q.put("$top", top);
+        q.put("continuationToken", continuationToken);
+        q.put("getDefaultTeamImageUrl", getDefaultTeamImageUrl);
+        q.put("stateFilter", stateFilter);
 
         String r = send(RequestMethod.GET, CONNECTION, CORE, null,
                         AREA, null, null, ApiVersion.PROJECT, q, null);
@@ -271,9 +267,8 @@ public class CoreApi implements CoreDetails {
     @Override
     public WebApiTeam createTeam(String projectName, String teamName) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>(){{
-            put("name", teamName);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("name", teamName);
 
         String r = send(RequestMethod.POST, CONNECTION, CORE, null,
                         AREA, projectName, "teams", ApiVersion.PROJECT_TEAMS, null, h);
@@ -331,9 +326,8 @@ public class CoreApi implements CoreDetails {
     @Override
     public Team getTeam(String projectName, String teamName, boolean expandIdentity) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$expandIdentity", expandIdentity);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$expandIdentity", expandIdentity);
 
         String r = send(RequestMethod.GET, CONNECTION, CORE, null,
                 AREA, projectName, "teams/" + teamName, ApiVersion.PROJECT_TEAMS, q, null);
@@ -370,12 +364,11 @@ public class CoreApi implements CoreDetails {
     @Override
     public Teams getTeams(boolean expandIdentity, String mine, int skip, int top) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>(){{
-            put("$expandIdentity", expandIdentity);
-            put("$mine", mine);
-            put("$skip", skip);
-            put("$top", top);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("$expandIdentity", expandIdentity);
+        q.put("$mine", mine);
+        q.put("$skip", skip);
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, CORE, null,
                         "teams", null, null, ApiVersion.PROJECT_TEAMS, q, null);
@@ -396,10 +389,9 @@ public class CoreApi implements CoreDetails {
     @Override
     public Team updateTeams(String projectName, String teamName, String description) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>(){{
-            put("name", teamName);
-            put("description", description);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("name", teamName);
+        h.put("description", description);
 
         String r = send(RequestMethod.PATCH, CONNECTION, CORE, null,
                         AREA, projectName, "teams/" + teamName, ApiVersion.PROJECT_TEAMS, null, h);
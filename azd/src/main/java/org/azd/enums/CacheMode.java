@@ -0,0 +1,20 @@
+package org.azd.enums;
+
+/***
+ * How the GET requests of a connection use its local store
+ */
+public enum CacheMode {
+    /***
+     * Every request is sent to the API
+     */
+    NONE,
+    /***
+     * Responses stored within the maximum age are read from the store; the others, and those of the requests sent
+     * with the {@link org.azd.connection.Connection#uncached()} view of the connection, are requested and stored
+     */
+    READ_THROUGH,
+    /***
+     * Responses are read from the store only, whatever their age; a response that isn't stored is an error
+     */
+    OFFLINE
+}
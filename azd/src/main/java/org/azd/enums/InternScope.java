@@ -0,0 +1,19 @@
+package org.azd.enums;
+
+/***
+ * Scope in which the shared reference objects, like authors, projects and repositories, are interned during deserialization
+ */
+public enum InternScope {
+    /***
+     * Each reference object is a separate instance
+     */
+    NONE,
+    /***
+     * Equal reference objects with the same id are one instance within a response
+     */
+    RESPONSE,
+    /***
+     * Equal reference objects with the same id are one instance across responses while they are reachable
+     */
+    SESSION
+}
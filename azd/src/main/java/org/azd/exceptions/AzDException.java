@@ -5,18 +5,36 @@ package org.azd.exceptions;
  */
 @SuppressWarnings("serial")
 public class AzDException extends Exception {
+    /***
+     * Type of the exception, e.g., the type key of the error returned by the API
+     */
+    private final String exceptionType;
 
     public AzDException() {
         super("Validate the arguments passed for the parameters;");
+        this.exceptionType = null;
     }
 
-    public AzDException(Throwable cause) { super(cause); }
+    public AzDException(Throwable cause) {
+        super(cause);
+        this.exceptionType = null;
+    }
 
     public AzDException(String message) {
         super("An Error Occurred: " + message);
+        this.exceptionType = null;
     }
 
     public AzDException(String exceptionType, String message) {
         super(exceptionType + ": " + message);
+        this.exceptionType = exceptionType;
+    }
+
+    /***
+     * Get the type of the exception, e.g., GitPullRequestNotFoundException for a pull request that doesn't exist
+     * @return type of the exception or null if it has none
+     */
+    public String getExceptionType() {
+        return exceptionType;
     }
 }
@@ -24,7 +24,7 @@ public class ExtensionManagementApi implements ExtensionManagementDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "extensionmanagement";
     private final String EXTENSIONMANAGEMENT = "6c2b0933-3600-42ae-bf8b-93d4f7e83594";
 
@@ -64,9 +64,8 @@ public class ExtensionManagementApi implements ExtensionManagementDetails {
     @Override
     public InstalledExtension getExtension(String extensionId, String publisherId, String[] assetTypes)
             throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("assetTypes", String.join(",", assetTypes));
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("assetTypes", String.join(",", assetTypes));
         String r = send(RequestMethod.GET, CONNECTION, EXTENSIONMANAGEMENT, null,
                 AREA + "/installedextensions" , extensionId + "/" + publisherId, null, ApiVersion.EXTENSION_MANAGEMENT,q, null);
 
@@ -151,10 +150,9 @@ public class ExtensionManagementApi implements ExtensionManagementDetails {
             throws ConnectionException, AzDException {
         try {
             String id = publisherId + "/" + extensionId;
-            var q = new HashMap<String, Object>(){{
-                put("reason",reason);
-                put("reasonCode",reasonCode);
-            }};
+            var q = new HashMap<String, Object>();
+            q.put("reason",reason);
+            q.put("reasonCode",reasonCode);
 
             String r = send(RequestMethod.DELETE, CONNECTION, EXTENSIONMANAGEMENT, null,
                     AREA + "/installedextensionsbyname", id, null, ApiVersion.EXTENSION_MANAGEMENT, q, null);
@@ -179,13 +177,12 @@ public class ExtensionManagementApi implements ExtensionManagementDetails {
     @Override
     public InstalledExtension updateExtension(String publisherId, String extensionId, ExtensionStateFlags extensionState)
             throws ConnectionException, AzDException {
-        var body = new HashMap<String, Object>(){{
-            put("publisherId", publisherId);
-            put("extensionId", extensionId);
-            put("installState", new HashMap<String, Object>(){{
-                put("flags", extensionState.toString().toLowerCase());
-            }});
-        }};
+        var body = new HashMap<String, Object>();
+        body.put("publisherId", publisherId);
+        body.put("extensionId", extensionId);
+        var installState = new HashMap<String, Object>();
+        installState.put("flags", extensionState.toString().toLowerCase());
+        body.put("installState", installState);
 
         String r = send(RequestMethod.PATCH, CONNECTION, EXTENSIONMANAGEMENT, null,
                 AREA + "/installedextensions" , null, null, ApiVersion.EXTENSION_MANAGEMENT,null, body);
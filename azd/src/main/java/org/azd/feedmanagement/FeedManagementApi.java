@@ -25,7 +25,7 @@ public class FeedManagementApi implements FeedManagementDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "packaging";
     private final String PACKAGING = "7ab4e64e-c4d8-4f50-ae73-5ef2e21642a5";
 
@@ -57,12 +57,11 @@ public class FeedManagementApi implements FeedManagementDetails {
             String name, String description, boolean badgesEnabled,
             boolean hideDeletedPackageVersions) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> requestBody = new HashMap<>() {{
-            put("name", name);
-            put("description", description);
-            put("badgesEnabled", badgesEnabled);
-            put("hideDeletedPackageVersions", hideDeletedPackageVersions);
-        }};
+        HashMap<String, Object> requestBody = new HashMap<>();
+        requestBody.put("name", name);
+        requestBody.put("description", description);
+        requestBody.put("badgesEnabled", badgesEnabled);
+        requestBody.put("hideDeletedPackageVersions", hideDeletedPackageVersions);
 
         String r = send(RequestMethod.POST, CONNECTION, PACKAGING,
                         CONNECTION.getProject() != null ? CONNECTION.getProject() : null,
@@ -89,11 +88,10 @@ public class FeedManagementApi implements FeedManagementDetails {
     public FeedView createFeedView(String feedName, String name,
                                    FeedViewType feedViewType, FeedVisibility visibility) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> requestBody = new HashMap<>() {{
-            put("name", name);
-            put("type", feedViewType.toString().toLowerCase());
-            put("visibility", visibility.toString().toLowerCase());
-        }};
+        HashMap<String, Object> requestBody = new HashMap<>();
+        requestBody.put("name", name);
+        requestBody.put("type", feedViewType.toString().toLowerCase());
+        requestBody.put("visibility", visibility.toString().toLowerCase());
 
         String r = send(RequestMethod.POST, CONNECTION, PACKAGING,
                         CONNECTION.getProject() != null ? CONNECTION.getProject() : null,
@@ -186,9 +184,8 @@ public class FeedManagementApi implements FeedManagementDetails {
     @Override
     public Feed getFeed(String feedName, boolean includeDeletedUpstreams) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>() {{
-            put("includeDeletedUpstreams", includeDeletedUpstreams);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("includeDeletedUpstreams", includeDeletedUpstreams);
 
         String r = send(RequestMethod.GET, CONNECTION, PACKAGING,
                 CONNECTION.getProject() != null ? CONNECTION.getProject() : null,
@@ -240,12 +237,11 @@ public class FeedManagementApi implements FeedManagementDetails {
             String feedName, boolean excludeInheritedPermissions, String identityDescriptor,
             boolean includeDeletedFeeds, boolean includeIds) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>() {{
-            put("excludeInheritedPermissions", excludeInheritedPermissions);
-            put("identityDescriptor", identityDescriptor);
-            put("includeDeletedFeeds", includeDeletedFeeds);
-            put("includeIds", includeIds);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("excludeInheritedPermissions", excludeInheritedPermissions);
+        q.put("identityDescriptor", identityDescriptor);
+        q.put("includeDeletedFeeds", includeDeletedFeeds);
+        q.put("includeIds", includeIds);
 
         String r = send(RequestMethod.GET, CONNECTION, PACKAGING,
                 CONNECTION.getProject() != null ? CONNECTION.getProject() : null,
@@ -337,11 +333,10 @@ public class FeedManagementApi implements FeedManagementDetails {
             String feedRole, boolean includeDeletedUpstreams,
             boolean includeUrls) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> q = new HashMap<>() {{
-            put("feedRole", feedRole);
-            put("includeDeletedUpstreams", includeDeletedUpstreams);
-            put("includeUrls", includeUrls);
-        }};
+        HashMap<String, Object> q = new HashMap<>();
+        q.put("feedRole", feedRole);
+        q.put("includeDeletedUpstreams", includeDeletedUpstreams);
+        q.put("includeUrls", includeUrls);
 
         String r = send(RequestMethod.GET, CONNECTION, PACKAGING,
                 CONNECTION.getProject() != null ? CONNECTION.getProject() : null,
@@ -371,12 +366,11 @@ public class FeedManagementApi implements FeedManagementDetails {
             String feedName, String displayName,
             String identityDescriptor, boolean isInheritedRole, String role) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>() {{
-            put("displayName", displayName);
-            put("identityDescriptor", identityDescriptor);
-            put("isInheritedRole", isInheritedRole);
-            put("role", role);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("displayName", displayName);
+        h.put("identityDescriptor", identityDescriptor);
+        h.put("isInheritedRole", isInheritedRole);
+        h.put("role", role);
 
         List<Object> o = List.of(h);
 
@@ -408,13 +402,12 @@ public class FeedManagementApi implements FeedManagementDetails {
             String feedName, boolean badgesEnabled, String description,
             boolean hideDeletedPackageVersions, boolean upstreamEnabled) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>() {{
-            put("name", feedName);
-            put("badgesEnabled", badgesEnabled);
-            put("description", description);
-            put("hideDeletedPackageVersions", hideDeletedPackageVersions);
-            put("upstreamEnabled", upstreamEnabled);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("name", feedName);
+        h.put("badgesEnabled", badgesEnabled);
+        h.put("description", description);
+        h.put("hideDeletedPackageVersions", hideDeletedPackageVersions);
+        h.put("upstreamEnabled", upstreamEnabled);
 
         List<Object> o = List.of(h);
 
@@ -443,11 +436,10 @@ public class FeedManagementApi implements FeedManagementDetails {
     public FeedView updateFeedView(String feedName, String feedViewName, FeedViewType feedViewType, FeedVisibility visibility)
             throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>() {{
-            put("name", feedViewName);
-            put("type", feedViewType.toString().toLowerCase());
-            put("visibility", visibility.toString().toLowerCase());
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("name", feedViewName);
+        h.put("type", feedViewType.toString().toLowerCase());
+        h.put("visibility", visibility.toString().toLowerCase());
 
         String r = send(RequestMethod.PATCH, CONNECTION, PACKAGING,
                 CONNECTION.getProject() != null ? CONNECTION.getProject() : null,
@@ -8,9 +8,11 @@ import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
 import org.azd.git.types.*;
 import org.azd.helpers.JsonMapper;
+import org.azd.helpers.PagedStream;
 import org.azd.interfaces.GitDetails;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.azd.utils.Client.send;
 
@@ -23,7 +25,7 @@ public class GitApi implements GitDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "git";
     private final String GIT = "4e080c62-fa21-4fbc-8fef-2a10a2b38049";
 
@@ -33,6 +35,14 @@ public class GitApi implements GitDetails {
      */
     public GitApi(Connection connection) { this.CONNECTION = connection; }
 
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, e.g., to poll for changes from any number of threads
+     * @return git api bound to the uncached view of the connection {@link Connection#uncached()}
+     */
+    @Override
+    public GitApi uncached() { return CONNECTION.isUncached() ? this : new GitApi(CONNECTION.uncached()); }
+
     /***
      * Create a git repository in a team project.
      * @param repositoryName Name of the repository
@@ -45,12 +55,11 @@ public class GitApi implements GitDetails {
     @Override
     public Repository createRepository(String repositoryName, String projectId) throws ConnectionException, AzDException {
 
-        LinkedHashMap<String, Object> h = new LinkedHashMap<>(){{
-            put("name", repositoryName);
-            put("project", new LinkedHashMap<String, String>(){{
-                put("id", projectId);
-            }});
-        }};
+        LinkedHashMap<String, Object> h = new LinkedHashMap<>();
+        h.put("name", repositoryName);
+        var project = new LinkedHashMap<String, String>();
+        project.put("id", projectId);
+        h.put("project", project);
         String r = send(RequestMethod.POST, CONNECTION, GIT, projectId,
                         AREA, null, "repositories", ApiVersion.GIT, null, h);
         return MAPPER.mapJsonResponse(r, Repository.class);
@@ -170,9 +179,8 @@ public class GitApi implements GitDetails {
     @Override
     public Repository restoreRepositoryFromRecycleBin(String repositoryId, boolean deleted) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>(){{
-            put("deleted", deleted);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("deleted", deleted);
 
         String r = send(RequestMethod.PATCH, CONNECTION, GIT, CONNECTION.getProject(),
                         AREA + "/recycleBin/repositories", repositoryId, null, ApiVersion.GIT, null, h);
@@ -193,10 +201,9 @@ public class GitApi implements GitDetails {
     @Override
     public Repository updateRepository(String repositoryId, String repositoryName, String defaultBranchName) throws ConnectionException, AzDException {
 
-        HashMap<String, Object> h = new HashMap<>(){{
-            put("name", repositoryName);
-            put("defaultBranch", "refs/heads/" + defaultBranchName);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("name", repositoryName);
+        h.put("defaultBranch", "refs/heads/" + defaultBranchName);
 
         String r = send(RequestMethod.PATCH, CONNECTION, GIT, CONNECTION.getProject(),
                         AREA + "/repositories", repositoryId, null, ApiVersion.GIT, null, h);
@@ -225,17 +232,17 @@ public class GitApi implements GitDetails {
         List<Object> o = new ArrayList<>();
 
         for (String reviewer : reviewers) {
-            HashMap<String, String> id = new HashMap<>(){{ put("id", reviewer); }};
+            HashMap<String, String> id = new HashMap<>();
+            id.put("id", reviewer);
             o.add(id);
         }
 
-        HashMap<String, Object> h = new HashMap<>(){{
-            put("sourceRefName", sourceRefName);
-            put("targetRefName", targetRefName);
-            put("title", title);
-            put("description", description);
-            put("reviewers", o);
-        }};
+        HashMap<String, Object> h = new HashMap<>();
+        h.put("sourceRefName", sourceRefName);
+        h.put("targetRefName", targetRefName);
+        h.put("title", title);
+        h.put("description", description);
+        h.put("reviewers", o);
 
         String r = send(RequestMethod.POST, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA + "/repositories", repositoryId, "pullrequests", ApiVersion.GIT, null, h);
@@ -264,13 +271,12 @@ public class GitApi implements GitDetails {
         var sourceBranch = sourceRefName.contains(referenceHead) ? sourceRefName : referenceHead + sourceRefName;
         var targetBranch = targetRefName.contains(referenceHead) ? targetRefName : referenceHead + targetRefName;
 
-        var b = new HashMap<String, Object>(){{
-            put("sourceRefName", sourceBranch);
-            put("targetRefName", targetBranch);
-            put("title", title);
-            put("description", description);
-            put("isDraft", isDraft);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("sourceRefName", sourceBranch);
+        b.put("targetRefName", targetBranch);
+        b.put("title", title);
+        b.put("description", description);
+        b.put("isDraft", isDraft);
 
         String r = send(RequestMethod.POST, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA + "/repositories", repositoryId, "pullrequests", ApiVersion.GIT, null, b);
@@ -358,9 +364,8 @@ public class GitApi implements GitDetails {
      */
     @Override
     public PullRequests getPullRequestsByProject(int top) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$top", top);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA, null, "pullrequests", ApiVersion.GIT, q,null);
@@ -379,9 +384,8 @@ public class GitApi implements GitDetails {
      */
     @Override
     public PullRequests getPullRequestsByProject(PullRequestStatus status) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("searchCriteria.status", status.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("searchCriteria.status", status.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA, null, "pullrequests", ApiVersion.GIT, q,null);
@@ -412,18 +416,17 @@ public class GitApi implements GitDetails {
                                                  boolean includeLinks, String repositoryId, String reviewerId,
                                                  String sourceRefName, String sourceRepositoryId, PullRequestStatus status,
                                                  String targetRefName) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$skip", skip);
-            put("$top", top);
-            put("searchCriteria.creatorId", creatorId);
-            put("searchCriteria.includeLinks", includeLinks);
-            put("searchCriteria.repositoryId", repositoryId);
-            put("searchCriteria.reviewerId", reviewerId);
-            put("searchCriteria.sourceRefName", sourceRefName);
-            put("searchCriteria.sourceRepositoryId", sourceRepositoryId);
-            put("searchCriteria.status", status.toString().toLowerCase());
-            put("searchCriteria.targetRefName", targetRefName);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$skip", skip);
+        q.put("$top", top);
+        q.put("searchCriteria.creatorId", creatorId);
+        q.put("searchCriteria.includeLinks", includeLinks);
+        q.put("searchCriteria.repositoryId", repositoryId);
+        q.put("searchCriteria.reviewerId", reviewerId);
+        q.put("searchCriteria.sourceRefName", sourceRefName);
+        q.put("searchCriteria.sourceRepositoryId", sourceRepositoryId);
+        q.put("searchCriteria.status", status.toString().toLowerCase());
+        q.put("searchCriteria.targetRefName", targetRefName);
 
         String r = send(RequestMethod.GET, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA, null, "pullrequests", ApiVersion.GIT, q,null);
@@ -431,6 +434,35 @@ public class GitApi implements GitDetails {
         return MAPPER.mapJsonResponse(r, PullRequests.class);
     }
 
+    /***
+     * Streams all the pull requests of a project that match the criteria. To get the pull requests from non-default
+     * project you have to call setProject method from {@link Connection}. The first page is requested when the stream
+     * is consumed; once it is full, the next pages are requested at the same time, and the pull requests are streamed
+     * in order. A page that fails throws a {@link java.util.concurrent.CompletionException} with the
+     * {@link AzDException} or {@link ConnectionException} as the cause.
+     * @param top The number of pull requests per page.
+     * @param maxConcurrency The maximum number of pages requested at the same time.
+     * @param creatorId If set, search for pull requests that were created by this identity.
+     * @param includeLinks Whether to include the _links field on the shallow references
+     * @param repositoryId If set, search for pull requests whose target branch is in this repository.
+     * @param reviewerId If set, search for pull requests that have this identity as a reviewer.
+     * @param sourceRefName If set, search for pull requests from this branch.
+     * @param sourceRepositoryId If set, search for pull requests whose source branch is in this repository.
+     * @param status Search for pull requests that are in this state.
+     * @param targetRefName If set, search for pull requests into this branch.
+     * @return stream of {@link PullRequest}; close it to stop the pages that are still requested
+     */
+    @Override
+    public Stream<PullRequest> streamPullRequestsByProject(int top, int maxConcurrency, String creatorId, boolean includeLinks,
+                                                           String repositoryId, String reviewerId, String sourceRefName,
+                                                           String sourceRepositoryId, PullRequestStatus status, String targetRefName) {
+        return PagedStream.of(top, maxConcurrency, (skip, t) -> {
+            var pullRequests = getPullRequestsByProject(skip, t, creatorId, includeLinks, repositoryId, reviewerId,
+                    sourceRefName, sourceRepositoryId, status, targetRefName).getPullRequests();
+            return pullRequests == null ? List.of() : pullRequests;
+        });
+    }
+
     /***
      * Lock or Unlock a branch with repository name and branch name.
      * @param repositoryName The name or ID of the repository.
@@ -443,13 +475,11 @@ public class GitApi implements GitDetails {
      */
     @Override
     public GitRef updateBranchLock(String repositoryName, String branchName, boolean isLocked) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("filter", "heads/" + branchName);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("filter", "heads/" + branchName);
 
-        var b = new HashMap<String, Object>(){{
-            put("isLocked", isLocked);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("isLocked", isLocked);
 
         String r = send(RequestMethod.PATCH, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA + "/repositories", repositoryName, "refs", ApiVersion.GIT, q,b);
@@ -488,9 +518,8 @@ public class GitApi implements GitDetails {
     public WebApiTagDefinition createPullRequestLabel(String repositoryName, int pullRequestId, String labelName)
             throws ConnectionException, AzDException {
 
-        var b = new HashMap<String, Object>(){{
-            put("name", labelName);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("name", labelName);
 
         String r = send(RequestMethod.POST, CONNECTION, GIT, CONNECTION.getProject(),
                 AREA + "/repositories", repositoryName, "pullrequests/" + pullRequestId + "/labels", ApiVersion.GIT, null, b);
@@ -572,10 +601,9 @@ public class GitApi implements GitDetails {
     @Override
     public PullRequestReviewer createPullRequestReviewer(int pullRequestId, String repositoryName,
                                                          String reviewerId, int vote, boolean isRequired) throws ConnectionException, AzDException {
-        var b = new HashMap<String, Object>(){{
-            put("vote", vote);
-            put("id", reviewerId);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("vote", vote);
+        b.put("id", reviewerId);
 
         String id = repositoryName + "/pullrequests/" + pullRequestId + "/reviewers/" + reviewerId;
 
@@ -663,10 +691,9 @@ public class GitApi implements GitDetails {
     public PullRequestReviewer updatePullRequestReviewer(int pullRequestId, String repositoryName,
                                                          String reviewerId, boolean isFlagged, boolean hasDeclined)
             throws ConnectionException, AzDException {
-        var b = new HashMap<String, Object>(){{
-            put("isFlagged", isFlagged);
-            put("hasDeclined", hasDeclined);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("isFlagged", isFlagged);
+        b.put("hasDeclined", hasDeclined);
 
         String id = repositoryName + "/pullrequests/" + pullRequestId + "/reviewers/" + reviewerId;
 
@@ -25,7 +25,7 @@ public class GraphApi implements GraphDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "graph";
     private final String GRAPH = "bb1e7ec9-e901-4b68-999a-de7012b920f8";
 
@@ -51,9 +51,8 @@ public class GraphApi implements GraphDetails {
      */
     @Override
     public GraphUser createUser(String emailId, String userDescriptor) throws ConnectionException, AzDException {
-        var b = new HashMap<String, Object>(){{
-            put("principalName", emailId);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("principalName", emailId);
 
         String r = send(RequestMethod.POST, CONNECTION, GRAPH, null,
                 AREA, null, "users/" + userDescriptor, ApiVersion.GRAPH, null, b);
@@ -73,13 +72,11 @@ public class GraphApi implements GraphDetails {
      */
     @Override
     public GraphUser addUserToGroup(String emailId, String groupDescriptor) throws ConnectionException, AzDException {
-        var b = new HashMap<String, Object>(){{
-            put("principalName", emailId);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("principalName", emailId);
 
-        var q = new HashMap<String, Object>(){{
-            put("groupDescriptors", groupDescriptor);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("groupDescriptors", groupDescriptor);
 
         String r = send(RequestMethod.POST, CONNECTION, GRAPH, null,
                 AREA, null, "users", ApiVersion.GRAPH, q, b);
@@ -155,11 +152,10 @@ public class GraphApi implements GraphDetails {
      */
     @Override
     public GraphUsers getUsers(String continuationToken, String scopeDescriptor, String subjectTypes) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("subjectTypes", String.join(",", subjectTypes));
-            put("continuationToken", continuationToken);
-            put("scopeDescriptor", scopeDescriptor);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("subjectTypes", String.join(",", subjectTypes));
+        q.put("continuationToken", continuationToken);
+        q.put("scopeDescriptor", scopeDescriptor);
 
         String r = send(RequestMethod.GET, CONNECTION, GRAPH, null,
                 AREA, null, "users", ApiVersion.GRAPH, q, null);
@@ -0,0 +1,169 @@
+package org.azd.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ * Set of properties to bind when deserializing a response. All the other properties are skipped in the
+ * token stream without being bound, which saves the parsing and allocation cost of large nested objects.
+ * <p>
+ *     Nested properties are separated with '/', e.g., "definition/name". When the response is bound to a list
+ *     wrapper (a type with a "value" list and a "count") the projection is applied to each item of the list.
+ * </p>
+ * <pre>
+ *     var projection = FieldProjection.of("id", "status", "result", "definition/name");
+ *     var builds = buildApi.getBuilds(100, projection);
+ * </pre>
+ */
+public class FieldProjection {
+    private static final Node ALL = new Node();
+    private final Node root = new Node();
+    private final List<String> fields;
+
+    private FieldProjection(String... fields) {
+        var list = new ArrayList<String>();
+        for (var field : fields) {
+            list.add(field);
+            var node = root;
+            var names = field.split("/");
+            for (int i = 0; i < names.length; i++) {
+                if (node == ALL) break;
+                node = i == names.length - 1
+                        ? node.put(names[i], ALL)
+                        : node.children.computeIfAbsent(names[i], n -> new Node());
+            }
+        }
+        this.fields = Collections.unmodifiableList(list);
+    }
+
+    /***
+     * Create the projection for the given properties
+     * @param fields names of the properties to bind. Separate the nested properties with '/'
+     * @return field projection {@link FieldProjection}
+     */
+    public static FieldProjection of(String... fields) {
+        return new FieldProjection(fields);
+    }
+
+    /***
+     * Get the properties of this projection
+     * @return list of property names
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /***
+     * Get the nested property names under the given property. E.g., for "fields/System.State" and "fields"
+     * returns "System.State". This can be used to push the projection down to the API.
+     * @param name name of the top level property
+     * @return list of nested property names
+     */
+    public List<String> getFields(String name) {
+        var node = root.children.get(name);
+        if (node == null || node == ALL) return Collections.emptyList();
+        return new ArrayList<>(node.children.keySet());
+    }
+
+    /***
+     * Wraps the parser to skip the properties that are not part of this projection
+     * @param parser json parser
+     * @param listWrapper true if the response is a list wrapper, to apply the projection to each item of "value"
+     * @return parser that only returns the projected properties
+     */
+    public JsonParser apply(JsonParser parser, boolean listWrapper) {
+        return new ProjectingParser(parser, root, listWrapper);
+    }
+
+    /***
+     * Node of the projection tree
+     */
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+
+        private Node put(String name, Node node) {
+            children.put(name, node);
+            return node;
+        }
+    }
+
+    /***
+     * Parser that skips the children of the properties that are not projected
+     */
+    private static class ProjectingParser extends JsonParserDelegate {
+        private final Node root;
+        private final boolean listWrapper;
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private Node next;
+
+        private ProjectingParser(JsonParser parser, Node root, boolean listWrapper) {
+            super(parser);
+            this.root = root;
+            this.listWrapper = listWrapper;
+            this.next = root;
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            var token = delegate.nextToken();
+            while (token == JsonToken.FIELD_NAME) {
+                var node = stack.peek();
+                if (node == ALL) return token;
+
+                var child = child(node, delegate.getCurrentName());
+                if (child != null) {
+                    next = child;
+                    return token;
+                }
+                delegate.nextToken();
+                delegate.skipChildren();
+                token = delegate.nextToken();
+            }
+
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                var parent = stack.peek();
+                stack.push(parent == null ? next : (parent == ALL || delegate.getParsingContext().getParent().inArray()) ? parent : next);
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                stack.pop();
+            }
+            return token;
+        }
+
+        @Override
+        public JsonToken nextValue() throws IOException {
+            var token = nextToken();
+            if (token == JsonToken.FIELD_NAME) token = nextToken();
+            return token;
+        }
+
+        @Override
+        public JsonParser skipChildren() throws IOException {
+            var token = delegate.currentToken();
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                delegate.skipChildren();
+                stack.pop();
+            }
+            return this;
+        }
+
+        private Node child(Node node, String name) {
+            var child = node.children.get(name);
+            if (child == null && listWrapper && node == root && stack.size() == 1) {
+                // list wrappers return the items in "value"; apply the projection to each item.
+                if (name.equals("value")) return root;
+                if (name.equals("count")) return ALL;
+            }
+            return child;
+        }
+    }
+}
@@ -1,16 +1,264 @@
 package org.azd.helpers;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.azd.enums.InternScope;
 import org.azd.exceptions.AzDException;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
 
 /***
  * Helper class to transform json string to POJO and vice versa
  */
 public class JsonMapper extends ObjectMapper {
 
+    /***
+     * Shared instance used by the Api classes so that the serializer and deserializer caches are
+     * built once per JVM instead of once per Api object.
+     */
+    private static final JsonMapper INSTANCE = new JsonMapper();
+
+    /***
+     * Class files of the org.azd.*.types packages.
+     */
+    private static final Pattern TYPES = Pattern.compile("org/azd/[^/]+/types/[^/$]+\\.class");
+
+    /***
+     * Markers of the errors returned by the API in place of the response, see {@link #validateResponse(String)}.
+     */
+    private static final String INNER_EXCEPTION = "innerException";
+    private static final String INVALID_REQUEST = "The request is invalid.";
+    private static final String OBJECT_MOVED = "Object moved";
+    private static final String[] ERRORS = { INNER_EXCEPTION, INVALID_REQUEST, OBJECT_MOVED };
+
+    /***
+     * Readers cached per target type. ObjectReader is immutable and can be shared between threads.
+     */
+    private final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /***
+     * Whether a target type is a list wrapper, cached per type, see {@link #isListWrapper(Class)}.
+     */
+    private final Map<Class<?>, Boolean> LIST_WRAPPERS = new ConcurrentHashMap<>();
+
+    /***
+     * Writer used to serialize the request bodies.
+     */
+    private volatile ObjectWriter writer;
+
+    /***
+     * Scope of the interning of the reference objects, see {@link #setInternScope(InternScope)}.
+     */
+    private volatile InternScope internScope = InternScope.NONE;
+
+    /***
+     * Reference objects interned across responses.
+     */
+    private final ReferenceInterner SESSION_INTERNER = new ReferenceInterner(true, this);
+
+    /***
+     * Reference objects interned within the response that is being read by the thread.
+     */
+    private final ThreadLocal<ReferenceInterner> RESPONSE_INTERNER = new ThreadLocal<>();
+
+    /***
+     * Creates the mapper. Accessors of the types are generated with the Blackbird module instead of reflection, and
+     * unknown properties are ignored for all the types as the API adds new properties over time.
+     */
+    public JsonMapper() {
+        super();
+        // native images can't define classes at runtime, the accessors are compiled ahead of time instead.
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") == null) this.registerModule(new BlackbirdModule());
+        this.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.registerModule(new SimpleModule("azd-reference-interning").setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription description, JsonDeserializer<?> deserializer) {
+                // types can be registered after their deserializer is built; the interner checks the type of each value.
+                return new InterningDeserializer(deserializer);
+            }
+        }));
+    }
+
+    /***
+     * Enables the readers generated at build time for the types, see {@link #setGeneratedReadersEnabled(boolean)}.
+     */
+    private volatile boolean generatedReaders = true;
+
+    /***
+     * Returns the shared JsonMapper instance. The instance is thread-safe and must not be reconfigured
+     * after use as the configuration is shared across all the Api classes.
+     * @return shared instance of JsonMapper
+     */
+    public static JsonMapper getInstance() {
+        return INSTANCE;
+    }
+
+    /***
+     * Returns the cached reader for the given type.
+     * @param valueType class name to convert to POJO
+     * @return ObjectReader for the given type
+     */
+    public ObjectReader readerFor(Class<?> valueType) {
+        return READERS.computeIfAbsent(valueType, super::readerFor);
+    }
+
+    /***
+     * Enable or disable the readers generated at build time. When enabled, the types of org.azd.*.types packages
+     * are read from the token stream by generated code instead of being bound by reflection. Enabled by default.
+     * @param enabled false to bind all the types with Jackson
+     */
+    public void setGeneratedReadersEnabled(boolean enabled) {
+        this.generatedReaders = enabled;
+    }
+
+    /***
+     * Check if the types are read by the readers generated at build time
+     * @return true if the generated readers are enabled and available
+     */
+    public boolean isGeneratedReadersEnabled() {
+        return generatedReaders && TypeReaders.size() > 0;
+    }
+
+    /***
+     * Set the scope in which the reference objects, like the authors, projects and repositories of the items of a
+     * response, are interned so that all the items share one instance per id and value. The shared instances must be
+     * treated as read-only. Types to intern are registered with {@link ReferenceInterner#register}, also after the
+     * mapper is used. Defaults to NONE.
+     * @param scope intern scope {@link InternScope}
+     */
+    public void setInternScope(InternScope scope) {
+        this.internScope = scope;
+        if (scope != InternScope.SESSION) SESSION_INTERNER.clear();
+    }
+
+    /***
+     * Get the scope in which the reference objects are interned
+     * @return intern scope {@link InternScope}
+     */
+    public InternScope getInternScope() {
+        return internScope;
+    }
+
+    /***
+     * Get the shared instance of a reference object read from a response
+     * @param value value read from a response
+     * @param <T> Type name
+     * @return the shared instance or the value itself
+     */
+    <T> T intern(T value) {
+        var scope = internScope;
+        if (value == null || scope == InternScope.NONE) return value;
+        var interner = scope == InternScope.SESSION ? SESSION_INTERNER : RESPONSE_INTERNER.get();
+        return interner == null ? value : interner.intern(value);
+    }
+
+    /***
+     * Starts the response scope of the interning on this thread, unless a response is already being read
+     * @return true if the scope was started and must be ended by the caller
+     */
+    private boolean beginResponse() {
+        if (internScope != InternScope.RESPONSE || RESPONSE_INTERNER.get() != null) return false;
+        RESPONSE_INTERNER.set(new ReferenceInterner(false, this));
+        return true;
+    }
+
+    /***
+     * Builds and caches the deserializers of all the types in org.azd.*.types packages, so that the first
+     * call to each Api doesn't pay for it. Types that can't be deserialized are skipped.
+     * @return number of types warmed up
+     */
+    public int warmUp() {
+        int count = 0;
+        for (var type : findTypes()) {
+            try {
+                readerFor(type);
+                count++;
+            } catch (RuntimeException | LinkageError ignored) { }
+        }
+        return count;
+    }
+
+    /***
+     * Warms up the mapper on a background thread. See {@link #warmUp()}.
+     * @return future completed with the number of types warmed up
+     */
+    public CompletableFuture<Integer> warmUpAsync() {
+        var future = new CompletableFuture<Integer>();
+        var t = new Thread(() -> future.complete(warmUp()), "azd-mapper-warm-up");
+        t.setDaemon(true);
+        t.start();
+        return future;
+    }
+
+    /***
+     * Finds the classes of org.azd.*.types packages in the jar or directory this class is loaded from.
+     * @return list of types
+     */
+    private static List<Class<?>> findTypes() {
+        var types = new ArrayList<Class<?>>();
+        var names = new ArrayList<String>();
+        try {
+            var source = JsonMapper.class.getProtectionDomain().getCodeSource();
+            if (source == null) return types;
+            var location = Paths.get(source.getLocation().toURI());
+
+            if (Files.isDirectory(location)) {
+                try (var files = Files.walk(location.resolve("org/azd"))) {
+                    files.forEach(f -> names.add(location.relativize(f).toString().replace(File.separatorChar, '/')));
+                }
+            } else {
+                try (var jar = new JarFile(location.toFile())) {
+                    jar.stream().forEach(e -> names.add(e.getName()));
+                }
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return types;
+        }
+
+        var loader = JsonMapper.class.getClassLoader();
+        for (var name : names) {
+            if (!TYPES.matcher(name).matches()) continue;
+            try {
+                var type = Class.forName(name.substring(0, name.length() - 6).replace('/', '.'), false, loader);
+                if (!type.isInterface() && !type.isAnonymousClass()) types.add(type);
+            } catch (ClassNotFoundException | LinkageError ignored) { }
+        }
+        return types;
+    }
+
+    /***
+     * Returns the cached writer.
+     * @return ObjectWriter to serialize the objects
+     */
+    @Override
+    public ObjectWriter writer() {
+        if (writer == null) writer = super.writer();
+        return writer;
+    }
+
     /***
      * Converts the object to string
      * @param value any non null json object
@@ -19,7 +267,7 @@ public class JsonMapper extends ObjectMapper {
      */
     public String convertToString(Object value) throws AzDException {
         try {
-            return this.writeValueAsString(value);
+            return this.writer().writeValueAsString(value);
         } catch (JsonProcessingException e) {
             throw new AzDException("Couldn't parse the request content, validate the arguments passed. \n" + value);
         }
@@ -34,19 +282,117 @@ public class JsonMapper extends ObjectMapper {
      * @throws AzDException Api exception handler
      */
     public <T> T mapJsonResponse(String content, Class<T> valueType) throws AzDException {
+        var response = beginResponse();
         try {
-            if (content.contains("innerException"))
-                throw new AzDException(this.readValue(content, ApiException.class).getTypeKey(), this.readValue(content, ApiException.class).getMessage());
-            if (content.contains("The request is invalid."))
+            validateResponse(content);
+            var reader = generatedReaders ? TypeReaders.get(valueType) : null;
+            if (reader != null) {
+                try (var parser = this.getFactory().createParser(content)) {
+                    parser.nextToken();
+                    return reader.read(parser, this);
+                }
+            }
+            return this.readerFor(valueType).readValue(content);
+        } catch (IOException | RuntimeException e) {
+            // a generated reader fails with the exceptions of its setters where Jackson wraps them.
+            throw new AzDException("Couldn't parse the response content, validate the arguments passed. \n" + content);
+        } finally {
+            if (response) RESPONSE_INTERNER.remove();
+        }
+    }
+
+    /***
+     * Handles the deserialization of json string to object of given type and only binds the properties of the projection.
+     * The other properties are skipped without being bound.
+     * @param content json response from API
+     * @param valueType class name to convert to POJO
+     * @param projection properties to bind {@link FieldProjection}
+     * @param <T> Type name
+     * @return the given type
+     * @throws AzDException Api exception handler
+     */
+    public <T> T mapJsonResponse(String content, Class<T> valueType, FieldProjection projection) throws AzDException {
+        if (projection == null) return mapJsonResponse(content, valueType);
+        var response = beginResponse();
+        try {
+            validateResponse(content);
+            try (var parser = projection.apply(this.getFactory().createParser(content), isListWrapper(valueType))) {
+                return this.readerFor(valueType).readValue(parser);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new AzDException("Couldn't parse the response content, validate the arguments passed. \n" + content);
+        } finally {
+            if (response) RESPONSE_INTERNER.remove();
+        }
+    }
+
+    /***
+     * Checks if a type is a list wrapper, i.e., it binds a list from the "value" property of the response
+     * @param valueType class name of the POJO
+     * @return true if the type is a list wrapper
+     */
+    private boolean isListWrapper(Class<?> valueType) {
+        return LIST_WRAPPERS.computeIfAbsent(valueType, type -> getDeserializationConfig()
+                .introspect(constructType(type))
+                .findProperties()
+                .stream()
+                .anyMatch(property -> property.getName().equals("value") && property.getPrimaryType().isCollectionLikeType()));
+    }
+
+    /***
+     * Creates a parser over a response for the types that read the token stream themselves
+     * @param content json response from API
+     * @return json parser positioned before the first token
+     * @throws AzDException Api exception handler
+     */
+    public JsonParser createResponseParser(String content) throws AzDException {
+        try {
+            validateResponse(content);
+            return getFactory().createParser(content);
+        } catch (AzDException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AzDException("Couldn't parse the response content, validate the arguments passed. \n" + content);
+        }
+    }
+
+    /***
+     * Check if the response is an error returned by the API
+     * @param content response from API
+     * @return true if parsing the response would throw the error
+     */
+    public boolean isErrorResponse(String content) {
+        return errorOf(content) != null;
+    }
+
+    /***
+     * Throws the error returned by the API, if any
+     * @param content json response from API
+     * @throws AzDException Api exception handler
+     * @throws JsonProcessingException if the error can't be parsed
+     */
+    void validateResponse(String content) throws AzDException, JsonProcessingException {
+        var error = errorOf(content);
+        if (error == null) return;
+        switch (error) {
+            case INNER_EXCEPTION:
+                var e = this.readerFor(ApiException.class).<ApiException>readValue(content);
+                throw new AzDException(e.getTypeKey(), e.getMessage());
+            case INVALID_REQUEST:
                 throw new AzDException();
-            if (content.contains("Object moved"))
+            default:
                 throw new AzDException("InvalidPersonalAccessTokenException", "Personal access token passed is invalid; Pass the valid token and try again.");
-            return this.readValue(content, valueType);
-        } catch (JsonProcessingException e) {
-            throw new AzDException("Couldn't parse the response content, validate the arguments passed. \n" + content);
         }
     }
 
+    /***
+     * Marker of the error returned by the API in the response, or null if the response isn't an error
+     */
+    private static String errorOf(String content) {
+        for (var error : ERRORS) if (content.contains(error)) return error;
+        return null;
+    }
+
     /***
      * Handles the deserialization of json string to given object from a file.
      * @param src file name
@@ -62,4 +408,23 @@ public class JsonMapper extends ObjectMapper {
             throw new AzDException("Couldn't parse the content from file, validate the file & path and try again. \n" + src);
         }
     }
+
+    /***
+     * Deserializer of the registered reference types that returns the shared instance of each value read
+     */
+    private final class InterningDeserializer extends DelegatingDeserializer {
+        InterningDeserializer(JsonDeserializer<?> deserializer) {
+            super(deserializer);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> deserializer) {
+            return new InterningDeserializer(deserializer);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext context) throws IOException {
+            return intern(super.deserialize(p, context));
+        }
+    }
 }
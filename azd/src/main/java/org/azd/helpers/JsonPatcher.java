@@ -0,0 +1,197 @@
+package org.azd.helpers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import org.azd.exceptions.AzDException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/***
+ * Replaces or removes properties of a json object while copying the token stream, without binding the json to objects.
+ * <p>
+ *     Nested properties are separated with '/', e.g., "repository/name". Properties inside arrays are not patched.
+ *     A property that doesn't exist is added at the end of its parent object when the parent exists.
+ * </p>
+ * <pre>
+ *     var patch = JsonPatcher.create()
+ *             .set("name", "WebApp-CI")
+ *             .set("path", "\\Onboarding")
+ *             .set("repository/name", "WebApp");
+ *     var json = patch.apply(templateJson);
+ * </pre>
+ */
+public class JsonPatcher {
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
+    private static final Object REMOVED = new Object();
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    private JsonPatcher() { }
+
+    /***
+     * Create an empty patch
+     * @return json patcher {@link JsonPatcher}
+     */
+    public static JsonPatcher create() {
+        return new JsonPatcher();
+    }
+
+    /***
+     * Replace the value of a property
+     * @param path path of the property. Separate the nested properties with '/'
+     * @param value new value of the property
+     * @return this patch
+     */
+    public JsonPatcher set(String path, Object value) {
+        values.put(path, value);
+        return this;
+    }
+
+    /***
+     * Remove a property
+     * @param path path of the property. Separate the nested properties with '/'
+     * @return this patch
+     */
+    public JsonPatcher remove(String path) {
+        values.put(path, REMOVED);
+        return this;
+    }
+
+    /***
+     * Get the value set for a property
+     * @param path path of the property
+     * @return the value or null if the property is not set or is removed
+     */
+    public Object get(String path) {
+        var value = values.get(path);
+        return value == REMOVED ? null : value;
+    }
+
+    /***
+     * Get the paths of the patched properties
+     * @return set of paths
+     */
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /***
+     * Check that the content is a json object by reading its tokens, without binding it to objects
+     * @param content json object string
+     * @throws AzDException if the content is not a valid json object
+     */
+    public static void validate(String content) throws AzDException {
+        if (content == null) throw new AzDException("Couldn't parse the content, expected a json object.");
+        try (var p = MAPPER.getFactory().createParser(content)) {
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new AzDException("Couldn't parse the content, expected a json object. \n" + content);
+            while (p.nextToken() != null) {
+                // the parser fails on the first malformed token
+            }
+        } catch (IOException e) {
+            throw new AzDException("Couldn't parse the content, validate the arguments passed. \n" + content);
+        }
+    }
+
+    /***
+     * Apply the patch to a json object
+     * @param content json object string
+     * @return patched json string
+     * @throws AzDException if the content is not a valid json object
+     */
+    public String apply(String content) throws AzDException {
+        if (values.isEmpty()) {
+            validate(content);
+            return content;
+        }
+
+        var writer = new StringWriter(content.length() + 64);
+        // prefix of the properties of each open object; null inside arrays where nothing is patched.
+        Deque<String> prefixes = new LinkedList<>();
+        Deque<Set<String>> patched = new ArrayDeque<>();
+        String field = null;
+
+        try (var p = MAPPER.getFactory().createParser(content);
+             var g = MAPPER.getFactory().createGenerator(writer)) {
+            g.setCodec(MAPPER);
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new AzDException("Couldn't parse the content, expected a json object. \n" + content);
+
+            for (var token = p.currentToken(); token != null; token = p.nextToken()) {
+                var prefix = prefixes.peek();
+                switch (token) {
+                    case FIELD_NAME:
+                        if (prefix != null) {
+                            var path = prefix + p.getCurrentName();
+                            if (values.containsKey(path)) {
+                                patched.peek().add(path);
+                                write(g, p.getCurrentName(), values.get(path));
+                                p.nextToken();
+                                p.skipChildren();
+                                continue;
+                            }
+                            field = path;
+                        }
+                        g.copyCurrentEvent(p);
+                        continue;
+                    case START_OBJECT:
+                        prefixes.push(prefixes.isEmpty() ? "" : (p.getParsingContext().getParent().inArray() || prefix == null) ? null : field + "/");
+                        patched.push(new HashSet<>());
+                        g.copyCurrentEvent(p);
+                        continue;
+                    case START_ARRAY:
+                        prefixes.push(null);
+                        patched.push(Collections.emptySet());
+                        g.copyCurrentEvent(p);
+                        continue;
+                    case END_OBJECT:
+                        if (prefix != null) {
+                            var done = patched.peek();
+                            for (var entry : values.entrySet()) {
+                                var path = entry.getKey();
+                                if (done.contains(path) || !path.startsWith(prefix)) continue;
+                                var name = path.substring(prefix.length());
+                                if (name.indexOf('/') < 0) write(g, name, entry.getValue());
+                            }
+                        }
+                        // fall through
+                    case END_ARRAY:
+                        prefixes.pop();
+                        patched.pop();
+                        g.copyCurrentEvent(p);
+                        continue;
+                    case VALUE_NUMBER_FLOAT:
+                        // keep the number as written instead of converting it to double
+                        g.writeNumber(p.getText());
+                        continue;
+                    default:
+                        g.copyCurrentEvent(p);
+                }
+            }
+        } catch (IOException e) {
+            throw new AzDException("Couldn't parse the content, validate the arguments passed. \n" + content);
+        }
+        return writer.toString();
+    }
+
+    /***
+     * Writes the property unless it is removed
+     * @param g json generator
+     * @param name name of the property
+     * @param value value of the property
+     * @throws IOException if the value can't be serialized
+     */
+    private static void write(JsonGenerator g, String name, Object value) throws IOException {
+        if (value == REMOVED) return;
+        g.writeFieldName(name);
+        g.writeObject(value);
+    }
+}
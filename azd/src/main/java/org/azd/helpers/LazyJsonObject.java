@@ -0,0 +1,381 @@
+package org.azd.helpers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.azd.exceptions.AzDException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/***
+ * Json object that keeps the raw json and binds the properties only when they are accessed.
+ * <p>
+ *     Creating the object only scans the top level properties and records where each value starts and ends;
+ *     nothing is bound. Properties are bound to the requested type on first access and cached. When the object
+ *     is written back with {@link #toJson()} the properties that were not changed are copied verbatim from the
+ *     raw json, so updating a large definition doesn't need a full bind and serialize cycle.
+ * </p>
+ */
+@JsonSerialize(using = LazyJsonObject.Serializer.class)
+public class LazyJsonObject {
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
+    private static final Object REMOVED = new Object();
+
+    private final String content;
+    private final Map<String, int[]> offsets = new LinkedHashMap<>();
+    private final Map<String, Object> bound = new ConcurrentHashMap<>();
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    /***
+     * Create the object from a json string
+     * @param content json object string
+     * @throws AzDException if the content is not a valid json object or is an error response from API
+     */
+    public LazyJsonObject(String content) throws AzDException {
+        this.content = content;
+        try {
+            MAPPER.validateResponse(content);
+            try (var p = MAPPER.getFactory().createParser(content)) {
+                if (p.nextToken() != JsonToken.START_OBJECT)
+                    throw new AzDException("Couldn't parse the response content, expected a json object. \n" + content);
+                var token = p.nextToken();
+                while (token == JsonToken.FIELD_NAME) {
+                    var name = p.getCurrentName();
+                    p.nextToken();
+                    int start = (int) p.getTokenLocation().getCharOffset();
+                    p.skipChildren();
+                    token = p.nextToken();
+                    offsets.put(name, new int[]{ start, valueEnd(content, p) });
+                }
+            }
+        } catch (IOException e) {
+            throw new AzDException("Couldn't parse the response content, validate the arguments passed. \n" + content);
+        }
+    }
+
+    /***
+     * Splits a json array string into the raw json of each item without binding them
+     * @param content json array string
+     * @return list of raw json items
+     * @throws AzDException if the content is not a valid json array
+     */
+    public static List<String> splitArray(String content) throws AzDException {
+        var items = new ArrayList<String>();
+        if (content == null || content.equals("null")) return items;
+        try (var p = MAPPER.getFactory().createParser(content)) {
+            if (p.nextToken() != JsonToken.START_ARRAY)
+                throw new AzDException("Couldn't parse the content, expected a json array. \n" + content);
+            var token = p.nextToken();
+            while (token != JsonToken.END_ARRAY) {
+                int start = (int) p.getTokenLocation().getCharOffset();
+                p.skipChildren();
+                token = p.nextToken();
+                items.add(content.substring(start, valueEnd(content, p)));
+            }
+        } catch (IOException e) {
+            throw new AzDException("Couldn't parse the content, validate the arguments passed. \n" + content);
+        }
+        return items;
+    }
+
+    /***
+     * Gets the end of the value that precedes the current token of the parser
+     * @param content json string
+     * @param p parser positioned on the token after the value
+     * @return exclusive end index of the value
+     */
+    private static int valueEnd(String content, JsonParser p) {
+        int end = (int) p.getTokenLocation().getCharOffset();
+        while (Character.isWhitespace(content.charAt(end - 1))) end--;
+        if (content.charAt(end - 1) == ',') end--;
+        while (Character.isWhitespace(content.charAt(end - 1))) end--;
+        return end;
+    }
+
+    /***
+     * Check if the property exists
+     * @param name name of the property
+     * @return true if the property exists
+     */
+    public synchronized boolean has(String name) {
+        if (changes.containsKey(name)) return changes.get(name) != REMOVED;
+        return offsets.containsKey(name);
+    }
+
+    /***
+     * Get the names of the properties
+     * @return list of property names
+     */
+    public synchronized List<String> getNames() {
+        var names = new ArrayList<String>();
+        for (var name : offsets.keySet()) if (changes.get(name) != REMOVED) names.add(name);
+        for (var entry : changes.entrySet())
+            if (entry.getValue() != REMOVED && !offsets.containsKey(entry.getKey())) names.add(entry.getKey());
+        return Collections.unmodifiableList(names);
+    }
+
+    /***
+     * Get the raw json of a property as received from the API
+     * @param name name of the property
+     * @return raw json string or null if the property doesn't exist
+     */
+    public String getRaw(String name) {
+        var offset = offsets.get(name);
+        if (offset == null) return null;
+        return content.substring(offset[0], offset[1]);
+    }
+
+    /***
+     * Get a property bound to the given type. The property is bound on first access.
+     * @param name name of the property
+     * @param valueType type of the property
+     * @param <T> Type name
+     * @return the property value or null if it doesn't exist
+     * @throws AzDException if the property can't be bound to the type
+     */
+    public <T> T get(String name, Class<T> valueType) throws AzDException {
+        synchronized (this) {
+            if (changes.containsKey(name)) {
+                var changed = changes.get(name);
+                if (changed == REMOVED || changed == null) return null;
+                return valueType.isInstance(changed) ? valueType.cast(changed) : MAPPER.convertValue(changed, valueType);
+            }
+        }
+        var key = name + "#" + valueType.getName();
+        var value = bound.get(key);
+        if (value == null) {
+            var raw = getRaw(name);
+            if (raw == null) return null;
+            try {
+                value = MAPPER.readerFor(valueType).readValue(raw);
+            } catch (IOException e) {
+                throw new AzDException("Couldn't parse the property '" + name + "'. \n" + raw);
+            }
+            if (value != null) bound.put(key, value);
+        }
+        return valueType.cast(value);
+    }
+
+    /***
+     * Get a property bound to the given generic type, e.g., a list of objects. The property is bound on first access.
+     * @param name name of the property
+     * @param valueType type reference of the property
+     * @param <T> Type name
+     * @return the property value or null if it doesn't exist
+     * @throws AzDException if the property can't be bound to the type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, TypeReference<T> valueType) throws AzDException {
+        synchronized (this) {
+            if (changes.containsKey(name)) {
+                var changed = changes.get(name);
+                if (changed == REMOVED || changed == null) return null;
+                return MAPPER.convertValue(changed, valueType);
+            }
+        }
+        var key = name + "#" + valueType.getType().getTypeName();
+        var value = bound.get(key);
+        if (value == null) {
+            var raw = getRaw(name);
+            if (raw == null) return null;
+            try {
+                value = MAPPER.readValue(raw, valueType);
+            } catch (IOException e) {
+                throw new AzDException("Couldn't parse the property '" + name + "'. \n" + raw);
+            }
+            if (value != null) bound.put(key, value);
+        }
+        return (T) value;
+    }
+
+    /***
+     * Get a string property
+     * @param name name of the property
+     * @return the property value or null if it doesn't exist
+     * @throws AzDException if the property is not a string
+     */
+    public String getString(String name) throws AzDException {
+        return get(name, String.class);
+    }
+
+    /***
+     * Get a number property
+     * @param name name of the property
+     * @return the property value or 0 if it doesn't exist
+     * @throws AzDException if the property is not a number
+     */
+    public int getInt(String name) throws AzDException {
+        var value = get(name, Integer.class);
+        return value == null ? 0 : value;
+    }
+
+    /***
+     * Get a property as json tree
+     * @param name name of the property
+     * @return the json node or null if it doesn't exist
+     * @throws AzDException if the property can't be parsed
+     */
+    public JsonNode getNode(String name) throws AzDException {
+        return get(name, JsonNode.class);
+    }
+
+    /***
+     * Get the items of an array property as lazy objects without binding them
+     * @param name name of the property
+     * @return list of lazy objects
+     * @throws AzDException if the property is not an array of objects
+     */
+    public List<LazyJsonObject> getObjects(String name) throws AzDException {
+        return getObjects(name, LazyJsonObject.class, LazyJsonObject::new);
+    }
+
+    /***
+     * Get the items of an array property as lazy objects of the given type without binding them.
+     * Changes made to the items are written back when the list is set on this object with {@link #set(String, Object)}.
+     * @param name name of the property
+     * @param type type of the lazy objects
+     * @param factory creates the lazy object from the raw json of an item
+     * @param <T> Type name
+     * @return list of lazy objects
+     * @throws AzDException if the property is not an array of objects
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends LazyJsonObject> List<T> getObjects(String name, Class<T> type, Factory<T> factory) throws AzDException {
+        var key = name + "#" + type.getName();
+        var value = (List<T>) bound.get(key);
+        if (value == null) {
+            synchronized (this) {
+                if (changes.containsKey(name)) {
+                    var changed = changes.get(name);
+                    if (changed == REMOVED || changed == null) return null;
+                    if (changed instanceof List) return (List<T>) changed;
+                }
+            }
+            var raw = getRaw(name);
+            if (raw == null) return null;
+            value = new ArrayList<>();
+            for (var item : splitArray(raw)) value.add(factory.create(item));
+            bound.put(key, value);
+        }
+        return value;
+    }
+
+    /***
+     * Set or replace a property. Changed properties are serialized when the object is written back.
+     * @param name name of the property
+     * @param value value of the property
+     */
+    public synchronized void set(String name, Object value) {
+        changes.put(name, value);
+        bound.keySet().removeIf(k -> k.startsWith(name + "#"));
+    }
+
+    /***
+     * Remove a property
+     * @param name name of the property
+     */
+    public synchronized void remove(String name) {
+        set(name, REMOVED);
+    }
+
+    /***
+     * Bind the whole object to the given type
+     * @param valueType class name to convert to POJO
+     * @param <T> Type name
+     * @return the given type
+     * @throws AzDException Api exception handler
+     */
+    public <T> T bind(Class<T> valueType) throws AzDException {
+        return MAPPER.mapJsonResponse(toJson(), valueType);
+    }
+
+    /***
+     * Write the object to json. Properties that were not changed are copied from the raw json without
+     * being bound or serialized.
+     * @return json string
+     * @throws AzDException if a changed property can't be serialized
+     */
+    public synchronized String toJson() throws AzDException {
+        if (changes.isEmpty()) return content;
+
+        var writer = new StringWriter(content.length() + 64);
+        try (var g = MAPPER.getFactory().createGenerator(writer)) {
+            write(g);
+        } catch (IOException e) {
+            throw new AzDException("Couldn't parse the request content, validate the arguments passed.");
+        }
+        return writer.toString();
+    }
+
+    /***
+     * Writes the object to the generator
+     * @param g json generator
+     * @throws IOException if the object can't be written
+     */
+    private synchronized void write(JsonGenerator g) throws IOException {
+        if (changes.isEmpty()) {
+            g.writeRawValue(content);
+            return;
+        }
+        g.writeStartObject();
+        for (var entry : offsets.entrySet()) {
+            var name = entry.getKey();
+            if (changes.containsKey(name)) {
+                var value = changes.get(name);
+                if (value == REMOVED) continue;
+                g.writeFieldName(name);
+                g.writeObject(value);
+            } else {
+                var offset = entry.getValue();
+                g.writeFieldName(name);
+                g.writeRawValue(content, offset[0], offset[1] - offset[0]);
+            }
+        }
+        for (var entry : changes.entrySet()) {
+            if (entry.getValue() == REMOVED || offsets.containsKey(entry.getKey())) continue;
+            g.writeFieldName(entry.getKey());
+            g.writeObject(entry.getValue());
+        }
+        g.writeEndObject();
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return toJson();
+        } catch (AzDException e) {
+            return content;
+        }
+    }
+
+    /***
+     * Creates a lazy object from raw json
+     * @param <T> Type name
+     */
+    @FunctionalInterface
+    protected interface Factory<T extends LazyJsonObject> {
+        T create(String content) throws AzDException;
+    }
+
+    /***
+     * Writes the lazy object as raw json when it is part of another object
+     */
+    public static class Serializer extends JsonSerializer<LazyJsonObject> {
+        @Override
+        public void serialize(LazyJsonObject value, JsonGenerator g, SerializerProvider provider) throws IOException {
+            value.write(g);
+        }
+    }
+}
@@ -0,0 +1,556 @@
+package org.azd.helpers;
+
+import org.azd.exceptions.AzDException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/***
+ * Embedded store that keeps the raw json of Azure DevOps entities on disk so that they don't have to be requested
+ * again after a restart.
+ * <p>
+ *     Entities are keyed by type and id, and each has a revision; an entity is only replaced by the same or a newer
+ *     revision. Every change is appended to the current segment file of the directory, and the index of where the
+ *     latest revision of each entity is stored is kept in memory and rebuilt by reading the segments when the store is
+ *     opened. A record at the end of the last segment that was only partly written when the process stopped is
+ *     dropped; a bad record anywhere else fails the opening of the store. Replaced and deleted entities stay in the
+ *     segments until {@link #compact()} rewrites the live entities to new segments.
+ * </p>
+ * <pre>
+ *     var store = new LocalStore(Path.of("azd-store"));
+ *     connection.setLocalStore(store, CacheMode.READ_THROUGH, Duration.ofMinutes(10));
+ * </pre>
+ * <p>
+ *     A directory must only be opened by one store at a time.
+ * </p>
+ */
+public final class LocalStore implements AutoCloseable {
+    private static final byte[] MAGIC = {'A', 'Z', 'D', 'S'};
+    private static final byte VERSION = 1;
+    private static final int HEADER = MAGIC.length + 1;
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+    private static final String SUFFIX = ".seg";
+
+    private final Path DIRECTORY;
+    private final long SEGMENT_SIZE;
+    private final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, Location>> INDEX = new HashMap<>();
+    private final TreeMap<Integer, FileChannel> SEGMENTS = new TreeMap<>();
+    private long garbage;
+    private boolean closed;
+
+    /***
+     * Open the store with segments of 64 MB
+     * @param directory directory of the segment files; created if it doesn't exist
+     * @throws AzDException if the directory can't be read
+     */
+    public LocalStore(Path directory) throws AzDException {
+        this(directory, 64L << 20);
+    }
+
+    /***
+     * Open the store
+     * @param directory directory of the segment files; created if it doesn't exist
+     * @param segmentSize size in bytes after which a new segment is started
+     * @throws AzDException if the directory can't be read
+     */
+    public LocalStore(Path directory, long segmentSize) throws AzDException {
+        this.DIRECTORY = directory;
+        this.SEGMENT_SIZE = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            var ids = new ArrayList<Integer>();
+            try (var files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (var file : files) {
+                    var name = file.getFileName().toString();
+                    try {
+                        ids.add(Integer.parseInt(name.substring(0, name.length() - SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // not a segment of the store
+                    }
+                }
+            }
+            ids.sort(null);
+            for (int i = 0; i < ids.size(); i++) load(ids.get(i), open(ids.get(i)), i == ids.size() - 1);
+            if (SEGMENTS.isEmpty()) open(0);
+        } catch (IOException e) {
+            closeSegments();
+            throw new AzDException("LocalStoreException", "Couldn't open the store in " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /***
+     * Get the latest revision of an entity
+     * @param type type of the entity, e.g., "build"
+     * @param id id of the entity
+     * @return the stored entity or null if it isn't stored {@link StoredEntity}
+     * @throws AzDException if the store can't be read
+     */
+    public StoredEntity get(String type, String id) throws AzDException {
+        LOCK.readLock().lock();
+        try {
+            ensureOpen();
+            var entities = INDEX.get(type);
+            var location = entities == null ? null : entities.get(id);
+            if (location == null) return null;
+            var record = read(location);
+            return new StoredEntity(type, id, location.REV, Instant.ofEpochMilli(location.STORED_AT), record.JSON);
+        } catch (IOException e) {
+            throw new AzDException("LocalStoreException", "Couldn't read " + type + " " + id + ": " + e.getMessage());
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /***
+     * Get the revision of an entity without reading its json
+     * @param type type of the entity
+     * @param id id of the entity
+     * @return the stored revision or -1 if the entity isn't stored
+     */
+    public long getRevision(String type, String id) {
+        LOCK.readLock().lock();
+        try {
+            var entities = INDEX.get(type);
+            var location = entities == null ? null : entities.get(id);
+            return location == null ? -1 : location.REV;
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /***
+     * Get the ids of the stored entities of a type
+     * @param type type of the entities
+     * @return ids in no particular order
+     */
+    public List<String> getIds(String type) {
+        LOCK.readLock().lock();
+        try {
+            var entities = INDEX.get(type);
+            return entities == null ? new ArrayList<>() : new ArrayList<>(entities.keySet());
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /***
+     * Store a revision of an entity
+     * @param type type of the entity, e.g., "build"
+     * @param id id of the entity
+     * @param rev revision of the entity
+     * @param json raw json of the entity
+     * @return false if a newer revision is already stored
+     * @throws AzDException if the store can't be written
+     */
+    public boolean put(String type, String id, long rev, String json) throws AzDException {
+        LOCK.writeLock().lock();
+        try {
+            ensureOpen();
+            var entities = INDEX.get(type);
+            var current = entities == null ? null : entities.get(id);
+            if (current != null && current.REV > rev) return false;
+            append(new Record(PUT, System.currentTimeMillis(), rev, type, id, json));
+            return true;
+        } catch (IOException e) {
+            throw new AzDException("LocalStoreException", "Couldn't store " + type + " " + id + ": " + e.getMessage());
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /***
+     * Delete an entity
+     * @param type type of the entity
+     * @param id id of the entity
+     * @return false if the entity isn't stored
+     * @throws AzDException if the store can't be written
+     */
+    public boolean delete(String type, String id) throws AzDException {
+        LOCK.writeLock().lock();
+        try {
+            ensureOpen();
+            var entities = INDEX.get(type);
+            if (entities == null || !entities.containsKey(id)) return false;
+            append(new Record(DELETE, System.currentTimeMillis(), 0, type, id, null));
+            return true;
+        } catch (IOException e) {
+            throw new AzDException("LocalStoreException", "Couldn't delete " + type + " " + id + ": " + e.getMessage());
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /***
+     * Get the number of stored entities
+     * @return number of entities of all the types
+     */
+    public int size() {
+        LOCK.readLock().lock();
+        try {
+            return INDEX.values().stream().mapToInt(Map::size).sum();
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /***
+     * Get the number of bytes taken by replaced and deleted entities, which {@link #compact()} frees
+     * @return number of bytes
+     */
+    public long getGarbageSize() {
+        LOCK.readLock().lock();
+        try {
+            return garbage;
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /***
+     * Rewrite the live entities to new segments and delete the old segments once the new ones are forced to the disk
+     * @throws AzDException if the store can't be written
+     */
+    public void compact() throws AzDException {
+        LOCK.writeLock().lock();
+        try {
+            ensureOpen();
+            var old = new TreeMap<>(SEGMENTS);
+            open(old.lastKey() + 1);
+            // copy the records as they are, in the order they were written, so a crash leaves the newest revisions
+            var live = new ArrayList<Location>();
+            for (var entities : INDEX.values()) live.addAll(entities.values());
+            live.sort((a, b) -> a.SEGMENT != b.SEGMENT ? Integer.compare(a.SEGMENT, b.SEGMENT) : Long.compare(a.POSITION, b.POSITION));
+            for (var location : live) {
+                var bytes = ByteBuffer.allocate(location.LENGTH);
+                readFully(old.get(location.SEGMENT), bytes, location.POSITION);
+                INDEX.get(location.TYPE).put(location.ID,
+                        write(bytes.array(), location.TYPE, location.ID, location.REV, location.STORED_AT));
+            }
+            // the copies must be on the disk before the only other copy of the records is deleted
+            for (var segment : SEGMENTS.tailMap(old.lastKey(), false).values()) segment.force(true);
+            forceDirectory();
+            for (var segment : old.entrySet()) {
+                SEGMENTS.remove(segment.getKey());
+                segment.getValue().close();
+                Files.delete(path(segment.getKey()));
+            }
+            forceDirectory();
+            garbage = 0;
+        } catch (IOException e) {
+            throw new AzDException("LocalStoreException", "Couldn't compact the store in " + DIRECTORY + ": " + e.getMessage());
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /***
+     * Force the written entities to the disk
+     * @throws AzDException if the store can't be written
+     */
+    public void flush() throws AzDException {
+        LOCK.writeLock().lock();
+        try {
+            ensureOpen();
+            SEGMENTS.lastEntry().getValue().force(false);
+        } catch (IOException e) {
+            throw new AzDException("LocalStoreException", "Couldn't flush the store in " + DIRECTORY + ": " + e.getMessage());
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /***
+     * Flush and close the segments
+     * @throws AzDException if the store can't be written
+     */
+    @Override
+    public void close() throws AzDException {
+        LOCK.writeLock().lock();
+        try {
+            if (closed) return;
+            flush();
+            closed = true;
+            closeSegments();
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    private void ensureOpen() throws AzDException {
+        if (closed) throw new AzDException("LocalStoreException", "The store in " + DIRECTORY + " is closed.");
+    }
+
+    /***
+     * Forces the names of the segment files to the disk. Some platforms, e.g., Windows, can't open a directory; their
+     * file systems write the names with the files.
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel directory;
+        try {
+            directory = FileChannel.open(DIRECTORY, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (directory) {
+            directory.force(true);
+        }
+    }
+
+    private Path path(int segment) {
+        return DIRECTORY.resolve(String.format("%010d", segment) + SUFFIX);
+    }
+
+    private FileChannel open(int segment) throws IOException {
+        var channel = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        SEGMENTS.put(segment, channel);
+        if (channel.size() == 0) {
+            var header = ByteBuffer.allocate(HEADER).put(MAGIC).put(VERSION);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header, HEADER - header.remaining());
+        }
+        return channel;
+    }
+
+    private void closeSegments() {
+        for (var channel : SEGMENTS.values()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing is written after the flush
+            }
+        }
+        SEGMENTS.clear();
+    }
+
+    /***
+     * Reads the records of a segment into the index. Only the last segment can end with a record that was partly
+     * written; a bad record in an earlier segment is corruption and fails the load.
+     */
+    private void load(int segment, FileChannel channel, boolean last) throws IOException {
+        var size = channel.size();
+        var header = ByteBuffer.allocate(HEADER);
+        readFully(channel, header, 0);
+        for (int i = 0; i < MAGIC.length; i++)
+            if (header.get(i) != MAGIC[i]) throw new IOException(path(segment) + " isn't a segment of the store");
+        if (header.get(MAGIC.length) != VERSION)
+            throw new IOException(path(segment) + " is of an unsupported version " + header.get(MAGIC.length));
+
+        long position = HEADER;
+        var head = ByteBuffer.allocate(8);
+        while (position + 8 <= size) {
+            head.clear();
+            readFully(channel, head, position);
+            int length = head.getInt(0);
+            int crc = head.getInt(4);
+            if (length <= 0 || position + 8 + length > size) break;
+            var body = ByteBuffer.allocate(length);
+            readFully(channel, body, position + 8);
+            if (crc(body.array()) != crc) break;
+            var record = Record.decode(body.array());
+            apply(record, new Location(record.TYPE, record.ID, segment, position, 8 + length, record.REV, record.STORED_AT));
+            position += 8 + length;
+        }
+        if (position == size) return;
+        if (!last)
+            throw new IOException(path(segment) + " is corrupt at byte " + position);
+        // the rest is a record that was only partly written
+        channel.truncate(position);
+    }
+
+    private void append(Record record) throws IOException {
+        var body = record.encode();
+        var bytes = ByteBuffer.allocate(8 + body.length).putInt(body.length).putInt(crc(body)).put(body);
+        apply(record, write(bytes.array(), record.TYPE, record.ID, record.REV, record.STORED_AT));
+    }
+
+    /***
+     * Appends a record to the last segment, starting a new segment when it is full
+     */
+    private Location write(byte[] bytes, String type, String id, long rev, long storedAt) throws IOException {
+        var last = SEGMENTS.lastEntry();
+        var channel = last.getValue();
+        var segment = last.getKey();
+        if (channel.size() > HEADER && channel.size() + bytes.length > SEGMENT_SIZE) {
+            segment++;
+            channel = open(segment);
+        }
+        var position = channel.size();
+        var buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) channel.write(buffer, position + buffer.position());
+        return new Location(type, id, segment, position, bytes.length, rev, storedAt);
+    }
+
+    private void apply(Record record, Location location) {
+        var entities = INDEX.computeIfAbsent(record.TYPE, t -> new HashMap<>());
+        var current = entities.get(record.ID);
+        if (record.OP == DELETE) {
+            garbage += location.LENGTH;
+            if (current != null) {
+                garbage += current.LENGTH;
+                entities.remove(record.ID);
+            }
+            return;
+        }
+        if (current != null && current.REV > record.REV) {
+            garbage += location.LENGTH;
+            return;
+        }
+        if (current != null) garbage += current.LENGTH;
+        entities.put(record.ID, location);
+    }
+
+    private Record read(Location location) throws IOException {
+        var bytes = ByteBuffer.allocate(location.LENGTH - 8);
+        readFully(SEGMENTS.get(location.SEGMENT), bytes, location.POSITION + 8);
+        return Record.decode(bytes.array());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        var crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /***
+     * Where the latest revision of an entity is stored
+     */
+    private static final class Location {
+        private final String TYPE;
+        private final String ID;
+        private final int SEGMENT;
+        private final long POSITION;
+        private final int LENGTH;
+        private final long REV;
+        private final long STORED_AT;
+
+        Location(String type, String id, int segment, long position, int length, long rev, long storedAt) {
+            this.TYPE = type;
+            this.ID = id;
+            this.SEGMENT = segment;
+            this.POSITION = position;
+            this.LENGTH = length;
+            this.REV = rev;
+            this.STORED_AT = storedAt;
+        }
+    }
+
+    /***
+     * Change of an entity as it is written to a segment
+     */
+    private static final class Record {
+        private final byte OP;
+        private final long STORED_AT;
+        private final long REV;
+        private final String TYPE;
+        private final String ID;
+        private final String JSON;
+
+        Record(byte op, long storedAt, long rev, String type, String id, String json) {
+            this.OP = op;
+            this.STORED_AT = storedAt;
+            this.REV = rev;
+            this.TYPE = type;
+            this.ID = id;
+            this.JSON = json;
+        }
+
+        byte[] encode() throws IOException {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+            out.writeByte(OP);
+            out.writeLong(STORED_AT);
+            out.writeLong(REV);
+            writeString(out, TYPE);
+            writeString(out, ID);
+            writeString(out, JSON);
+            return bytes.toByteArray();
+        }
+
+        static Record decode(byte[] bytes) {
+            var in = ByteBuffer.wrap(bytes);
+            return new Record(in.get(), in.getLong(), in.getLong(), readString(in), readString(in), readString(in));
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(ByteBuffer in) {
+            var length = in.getInt();
+            if (length < 0) return null;
+            var bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /***
+     * Revision of an entity read from the store
+     */
+    public static final class StoredEntity {
+        private final String TYPE;
+        private final String ID;
+        private final long REV;
+        private final Instant STORED_AT;
+        private final String JSON;
+
+        StoredEntity(String type, String id, long rev, Instant storedAt, String json) {
+            this.TYPE = type;
+            this.ID = id;
+            this.REV = rev;
+            this.STORED_AT = storedAt;
+            this.JSON = json;
+        }
+
+        public String getType() { return TYPE; }
+
+        public String getId() { return ID; }
+
+        public long getRev() { return REV; }
+
+        public Instant getStoredAt() { return STORED_AT; }
+
+        public String getJson() { return JSON; }
+
+        /***
+         * Check if the entity was stored within the maximum age
+         * @param maxAge maximum age or null if the entity doesn't expire
+         * @return true if the entity is fresh
+         */
+        public boolean isFresh(Duration maxAge) {
+            return maxAge == null || STORED_AT.plus(maxAge).isAfter(Instant.now());
+        }
+    }
+}
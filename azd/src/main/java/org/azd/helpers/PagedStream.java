@@ -0,0 +1,289 @@
+package org.azd.helpers;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/***
+ * Streams the items of a list api that pages with $skip and $top or with continuation tokens.
+ * <p>
+ *     The first page is requested when the stream is consumed. With $skip and $top, once a page is full the next skip
+ *     windows are requested at the same time, up to the given number of pages in flight, and the stream ends at the
+ *     first page that isn't full. With continuation tokens, each chain of pages, e.g., a time slice, is followed by
+ *     its own thread, up to the given number of chains at the same time, and the next page of a chain is requested as
+ *     soon as the previous one arrives. Each page is deserialized by the thread that received it and the items are
+ *     streamed in the order of the pages. A page that fails throws a {@link CompletionException} with the
+ *     {@link AzDException} or {@link ConnectionException} as the cause. Closing the stream cancels the pages that are
+ *     still requested.
+ * </p>
+ */
+public final class PagedStream {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private PagedStream() { }
+
+    /***
+     * Gets a page of items
+     * @param <T> type of the items
+     */
+    @FunctionalInterface
+    public interface Page<T> {
+        List<T> get(int skip, int top) throws ConnectionException, AzDException;
+    }
+
+    /***
+     * Gets a page of items of a chain
+     * @param <T> type of the items
+     */
+    @FunctionalInterface
+    public interface Chain<T> {
+        /***
+         * Get a page
+         * @param continuationToken continuation token returned with the previous page, null for the first page
+         * @return the page {@link Chunk}
+         */
+        Chunk<T> get(String continuationToken) throws ConnectionException, AzDException;
+    }
+
+    /***
+     * Page of items with the continuation token of the next page
+     * @param <T> type of the items
+     */
+    public static final class Chunk<T> {
+        private final List<T> ITEMS;
+        private final String CONTINUATION_TOKEN;
+
+        /***
+         * Create the page
+         * @param items items of the page
+         * @param continuationToken continuation token of the next page or null if this is the last page
+         */
+        public Chunk(List<T> items, String continuationToken) {
+            this.ITEMS = items == null ? List.of() : items;
+            this.CONTINUATION_TOKEN = continuationToken;
+        }
+
+        public List<T> getItems() { return ITEMS; }
+
+        public String getContinuationToken() { return CONTINUATION_TOKEN; }
+    }
+
+    /***
+     * Stream the items of the pages
+     * @param top number of items per page
+     * @param maxConcurrency maximum number of pages requested at the same time
+     * @param page gets a page of items
+     * @param <T> type of the items
+     * @return ordered stream of the items
+     */
+    public static <T> Stream<T> of(int top, int maxConcurrency, Page<T> page) {
+        var pages = new Pages<>(Math.max(1, top), Math.max(1, maxConcurrency), page);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(pages::close);
+    }
+
+    /***
+     * Stream the items of chains of pages that are followed with continuation tokens. The items of each chain are
+     * streamed after the items of the chains before it.
+     * @param maxConcurrency maximum number of chains followed at the same time
+     * @param chains chains of pages, e.g., one for each time slice
+     * @param <T> type of the items
+     * @return ordered stream of the items
+     */
+    public static <T> Stream<T> ofContinuationTokens(int maxConcurrency, List<Chain<T>> chains) {
+        var pages = new Chains<>(Math.max(1, maxConcurrency), chains);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(pages::close);
+    }
+
+    private static ThreadPoolExecutor executor(int maxConcurrency) {
+        var executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            var t = new Thread(r, "azd-paged-stream-" + COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // a stream that is dropped without being closed doesn't keep its threads.
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class Pages<T> implements Iterator<T> {
+        private final int TOP;
+        private final int MAX_CONCURRENCY;
+        private final Page<T> PAGE;
+        private final ArrayDeque<CompletableFuture<List<T>>> PENDING = new ArrayDeque<>();
+        private ThreadPoolExecutor executor;
+        private Iterator<T> current = Collections.emptyIterator();
+        private int next;
+        private boolean last;
+
+        Pages(int top, int maxConcurrency, Page<T> page) {
+            this.TOP = top;
+            this.MAX_CONCURRENCY = maxConcurrency;
+            this.PAGE = page;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (last) return false;
+                // most lists fit in a page; request ahead once a page is full.
+                var ahead = next == 0 ? 1 : MAX_CONCURRENCY;
+                while (PENDING.size() < ahead) request(next++ * TOP);
+
+                List<T> items;
+                try {
+                    items = PENDING.poll().join();
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+                if (items == null || items.size() < TOP) close();
+                if (items != null) current = items.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (hasNext()) action.accept(current.next());
+        }
+
+        private void request(int skip) {
+            if (executor == null) executor = executor(MAX_CONCURRENCY);
+            PENDING.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return PAGE.get(skip, TOP);
+                } catch (ConnectionException | AzDException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        private void close() {
+            last = true;
+            for (var page : PENDING) page.cancel(true);
+            PENDING.clear();
+            if (executor != null) executor.shutdownNow();
+        }
+    }
+
+    private static final class Chains<T> implements Iterator<T> {
+        // each chain buffers the page it is consuming and the next one
+        private static final int BUFFERED_PAGES = 2;
+        private static final Object END = new Object();
+        private final int MAX_CONCURRENCY;
+        private final ArrayDeque<Chain<T>> WAITING;
+        private final ArrayDeque<BlockingQueue<Object>> RUNNING = new ArrayDeque<>();
+        private ThreadPoolExecutor executor;
+        private Iterator<T> current = Collections.emptyIterator();
+        private volatile boolean closed;
+
+        Chains(int maxConcurrency, List<Chain<T>> chains) {
+            this.MAX_CONCURRENCY = maxConcurrency;
+            this.WAITING = new ArrayDeque<>(chains);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (closed) return false;
+                if (executor == null) {
+                    executor = executor(MAX_CONCURRENCY);
+                    // chains start in order, so the chain that is consumed always has a thread.
+                    while (!WAITING.isEmpty()) start(WAITING.poll());
+                }
+                if (RUNNING.isEmpty()) {
+                    close();
+                    return false;
+                }
+
+                Object page;
+                try {
+                    page = RUNNING.peek().take();
+                } catch (InterruptedException e) {
+                    close();
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+                if (page == END) {
+                    RUNNING.poll();
+                } else if (page instanceof CompletionException) {
+                    close();
+                    throw (CompletionException) page;
+                } else {
+                    current = ((List<T>) page).iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (hasNext()) action.accept(current.next());
+        }
+
+        private void start(Chain<T> chain) {
+            var pages = new ArrayBlockingQueue<Object>(BUFFERED_PAGES);
+            RUNNING.add(pages);
+            executor.execute(() -> {
+                try {
+                    String token = null;
+                    do {
+                        Chunk<T> chunk;
+                        try {
+                            chunk = chain.get(token);
+                        } catch (ConnectionException | AzDException | RuntimeException e) {
+                            pages.put(new CompletionException(e));
+                            return;
+                        }
+                        pages.put(chunk.getItems());
+                        token = chunk.getContinuationToken();
+                    } while (token != null && !closed);
+                    pages.put(END);
+                } catch (InterruptedException e) {
+                    // the stream is closed
+                }
+            });
+        }
+
+        private void close() {
+            closed = true;
+            RUNNING.clear();
+            WAITING.clear();
+            if (executor != null) executor.shutdownNow();
+        }
+    }
+}
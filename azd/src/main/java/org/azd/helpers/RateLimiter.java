@@ -0,0 +1,42 @@
+package org.azd.helpers;
+
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Simple rate limiter that spaces the requests evenly to the given number of requests per second.
+ * The limiter is thread-safe and can be shared by all the connections of an organization.
+ */
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    /***
+     * Create the rate limiter
+     * @param requestsPerSecond number of requests allowed per second
+     */
+    public RateLimiter(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) throw new IllegalArgumentException("Requests per second must be greater than zero.");
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    }
+
+    /***
+     * Blocks the calling thread until a request is allowed. If the thread is interrupted while waiting
+     * the interrupt flag is restored and the method returns.
+     */
+    public void acquire() {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (nextFreeNanos < now) nextFreeNanos = now;
+            waitNanos = nextFreeNanos - now;
+            nextFreeNanos += intervalNanos;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
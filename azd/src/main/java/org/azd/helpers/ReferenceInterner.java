@@ -0,0 +1,155 @@
+package org.azd.helpers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.azd.common.types.Author;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/***
+ * Interns the reference objects that repeat across the items of a response, e.g., the author, project and repository
+ * of each build, so that all the items share one instance per distinct value.
+ * <p>
+ *     Instances are shared only when they have the same id and all their properties are equal, compared by their
+ *     json, so a reference that is read with more or other properties than an earlier one with the same id, e.g., a
+ *     project with and without its description, stays a separate instance. The shared objects must be treated as
+ *     read-only. The response scope keeps the instances in a map that is dropped with the response; the session scope
+ *     keeps weak references so instances are shared for as long as any item holds them.
+ * </p>
+ * <pre>
+ *     JsonMapper.getInstance().setInternScope(InternScope.SESSION);
+ *     ReferenceInterner.register(MyIdentity.class, MyIdentity::getId);
+ * </pre>
+ */
+public final class ReferenceInterner {
+    private static final Map<Class<?>, Function<Object, String>> KEYS = new ConcurrentHashMap<>();
+
+    static {
+        register(Author.class, a -> a.getDescriptor() != null ? a.getDescriptor() : a.getId());
+        register(org.azd.build.types.RequestedFor.class, a -> a.getDescriptor() != null ? a.getDescriptor() : a.getId());
+        register(org.azd.core.types.Project.class, org.azd.core.types.Project::getId);
+        register(org.azd.core.types.TeamProjectReference.class, org.azd.core.types.TeamProjectReference::getId);
+        register(org.azd.release.types.ProjectReference.class, org.azd.release.types.ProjectReference::getId);
+        register(org.azd.memberentitlementmanagement.types.ProjectRef.class, org.azd.memberentitlementmanagement.types.ProjectRef::getId);
+        register(org.azd.build.types.Repository.class, org.azd.build.types.Repository::getId);
+        register(org.azd.build.types.BuildRepository.class, org.azd.build.types.BuildRepository::getId);
+        register(org.azd.git.types.Repository.class, org.azd.git.types.Repository::getId);
+        register(org.azd.git.types.GitRepositoryRef.class, org.azd.git.types.GitRepositoryRef::getId);
+    }
+
+    private final boolean WEAK;
+    private final ObjectMapper MAPPER;
+    private final Map<Class<?>, Map<String, Object>> VALUES;
+    private final ReferenceQueue<Object> CLEARED;
+
+    /***
+     * Create an interner
+     * @param weak true to keep weak references that are shared across threads, false for a map used by one thread
+     * @param mapper mapper that writes the values to compare them
+     */
+    ReferenceInterner(boolean weak, ObjectMapper mapper) {
+        this.WEAK = weak;
+        this.MAPPER = mapper;
+        this.VALUES = weak ? new ConcurrentHashMap<>() : new HashMap<>();
+        this.CLEARED = weak ? new ReferenceQueue<>() : null;
+    }
+
+    /***
+     * Register a type to intern
+     * @param type reference type
+     * @param key function that returns the id of an instance; instances with a null id are not interned
+     * @param <T> Type name
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void register(Class<T> type, Function<T, String> key) {
+        KEYS.put(type, (Function<Object, String>) key);
+    }
+
+    /***
+     * Check if a type is interned
+     * @param type type to check
+     * @return true if the type is registered
+     */
+    public static boolean isRegistered(Class<?> type) {
+        return KEYS.containsKey(type);
+    }
+
+    /***
+     * Get the shared instance that is equal to the value
+     * @param value value read from a response
+     * @param <T> Type name
+     * @return the shared instance, or the value itself if it is the first of its kind or its type is not registered
+     */
+    @SuppressWarnings("unchecked")
+    <T> T intern(T value) {
+        var key = KEYS.get(value.getClass());
+        if (key == null) return value;
+        var id = key.apply(value);
+        if (id == null) return value;
+        try {
+            // the id leads the key so values with different ids never compare their json.
+            id = id + '\u0000' + MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return value;
+        }
+
+        if (!WEAK) {
+            var shared = VALUES.computeIfAbsent(value.getClass(), t -> new HashMap<>()).putIfAbsent(id, value);
+            return shared == null ? value : (T) shared;
+        }
+
+        expunge();
+        var values = VALUES.computeIfAbsent(value.getClass(), t -> new ConcurrentHashMap<>());
+        while (true) {
+            var ref = (Entry) values.putIfAbsent(id, new Entry(value, values, id, CLEARED));
+            if (ref == null) return value;
+            var shared = ref.get();
+            if (shared != null) return (T) shared;
+            // the shared instance is collected; replace the cleared reference.
+            values.remove(id, ref);
+        }
+    }
+
+    /***
+     * Get the number of interned instances
+     * @return number of instances, including the collected ones that are not removed yet
+     */
+    int size() {
+        expunge();
+        return VALUES.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /***
+     * Drop all the interned instances
+     */
+    void clear() {
+        VALUES.clear();
+    }
+
+    private void expunge() {
+        if (CLEARED == null) return;
+        for (var ref = CLEARED.poll(); ref != null; ref = CLEARED.poll()) {
+            var entry = (Entry) ref;
+            entry.OWNER.remove(entry.ID, entry);
+        }
+    }
+
+    /***
+     * Weak reference to a shared instance that knows where it is stored so it can be removed once it is collected
+     */
+    private static final class Entry extends WeakReference<Object> {
+        private final Map<String, Object> OWNER;
+        private final String ID;
+
+        Entry(Object value, Map<String, Object> owner, String id, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.OWNER = owner;
+            this.ID = id;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.azd.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/***
+ * Reads a value from the token stream without reflection. The parser is positioned on the first token of the value
+ * and is left on the last token of the value.
+ * @param <T> type of the value
+ */
+interface TypeReader<T> {
+    T read(JsonParser p, JsonMapper m) throws IOException;
+}
@@ -0,0 +1,160 @@
+package org.azd.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/***
+ * Registry of the readers generated at build time for the org.azd.*.types packages and the helpers they are built on.
+ * <p>
+ *     The readers are generated by {@link org.azd.helpers.codegen.TypeReaderProcessor} into
+ *     {@code org.azd.helpers.GeneratedTypeReaders}. When the library is compiled without the processor, e.g., by an
+ *     IDE, no reader is registered and the mapper binds all the types with Jackson. Values the readers don't
+ *     expect, like a string where a number is expected, are handed over to Jackson so the result and the errors
+ *     are the same.
+ * </p>
+ */
+final class TypeReaders {
+    static final TypeReader<String> STRING = TypeReaders::readString;
+    private static volatile Map<Class<?>, TypeReader<?>> READERS = Collections.emptyMap();
+
+    static {
+        try {
+            // the generated class registers its readers when it is initialized.
+            Class.forName("org.azd.helpers.GeneratedTypeReaders");
+        } catch (ClassNotFoundException ignored) { }
+    }
+
+    private TypeReaders() { }
+
+    /***
+     * Registers the generated readers
+     * @param readers readers keyed by type
+     */
+    static void register(Map<Class<?>, TypeReader<?>> readers) {
+        READERS = Collections.unmodifiableMap(readers);
+    }
+
+    /***
+     * Get the generated reader of a type
+     * @param valueType type to read
+     * @param <T> Type name
+     * @return the reader or null if no reader is generated for the type
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeReader<T> get(Class<T> valueType) {
+        return (TypeReader<T>) READERS.get(valueType);
+    }
+
+    /***
+     * Get the number of generated readers
+     * @return number of readers
+     */
+    static int size() {
+        return READERS.size();
+    }
+
+    /***
+     * Casts a generated reader to the type it reads
+     * @param reader generated reader
+     * @param <T> Type name
+     * @return the reader
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeReader<T> typed(TypeReader<?> reader) {
+        return (TypeReader<T>) reader;
+    }
+
+    /***
+     * Reader that binds the value with Jackson
+     * @param valueType type to read
+     * @param <T> Type name
+     * @return reader
+     */
+    static <T> TypeReader<T> reader(Class<T> valueType) {
+        return (p, m) -> read(p, m, valueType);
+    }
+
+    static <T> T read(JsonParser p, JsonMapper m, Class<T> valueType) throws IOException {
+        return m.readerFor(valueType).readValue(p);
+    }
+
+    static <T> T read(JsonParser p, JsonMapper m, TypeReference<T> valueType) throws IOException {
+        return m.readerFor(valueType).readValue(p);
+    }
+
+    static String readString(JsonParser p, JsonMapper m) throws IOException {
+        var t = p.currentToken();
+        if (t == JsonToken.VALUE_STRING) return p.getText();
+        if (t == JsonToken.VALUE_NULL) return null;
+        return read(p, m, String.class);
+    }
+
+    static int readInt(JsonParser p, JsonMapper m) throws IOException {
+        var t = p.currentToken();
+        if (t == JsonToken.VALUE_NUMBER_INT) return p.getIntValue();
+        if (t == JsonToken.VALUE_NULL) return 0;
+        return read(p, m, int.class);
+    }
+
+    static long readLong(JsonParser p, JsonMapper m) throws IOException {
+        var t = p.currentToken();
+        if (t == JsonToken.VALUE_NUMBER_INT) return p.getLongValue();
+        if (t == JsonToken.VALUE_NULL) return 0L;
+        return read(p, m, long.class);
+    }
+
+    static double readDouble(JsonParser p, JsonMapper m) throws IOException {
+        var t = p.currentToken();
+        if (t == JsonToken.VALUE_NUMBER_FLOAT || t == JsonToken.VALUE_NUMBER_INT) return p.getDoubleValue();
+        if (t == JsonToken.VALUE_NULL) return 0d;
+        return read(p, m, double.class);
+    }
+
+    static boolean readBoolean(JsonParser p, JsonMapper m) throws IOException {
+        var t = p.currentToken();
+        if (t == JsonToken.VALUE_TRUE) return true;
+        if (t == JsonToken.VALUE_FALSE || t == JsonToken.VALUE_NULL) return false;
+        return read(p, m, boolean.class);
+    }
+
+    static JsonNode readTree(JsonParser p, JsonMapper m) throws IOException {
+        return m.readTree(p);
+    }
+
+    static String[] readStringArray(JsonParser p, JsonMapper m) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return read(p, m, String[].class);
+        var values = new ArrayList<String>();
+        while (p.nextToken() != JsonToken.END_ARRAY) values.add(readString(p, m));
+        return values.toArray(new String[0]);
+    }
+
+    static int[] readIntArray(JsonParser p, JsonMapper m) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return read(p, m, int[].class);
+        var values = new int[8];
+        int size = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = readInt(p, m);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> readList(JsonParser p, JsonMapper m, TypeReader<T> reader) throws IOException {
+        var t = p.currentToken();
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t != JsonToken.START_ARRAY) return read(p, m, List.class);
+        var values = new ArrayList<T>();
+        while (p.nextToken() != JsonToken.END_ARRAY) values.add(reader.read(p, m));
+        return values;
+    }
+}
@@ -1,7 +1,13 @@
 package org.azd.helpers;
 
+import java.lang.reflect.Array;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.StringJoiner;
 
 /***
  * Url helper class to encode the special characters in the url.
@@ -28,4 +34,77 @@ public class URLHelper {
     public static String encodeSpecialChars(String s) {
         return URLEncoder.encode(s, StandardCharsets.UTF_8);
     }
+
+    /***
+     * Builds the query string from the parameters. Parameters without a value are dropped, arrays and collections are
+     * joined with ',', the keys are sorted so that the same parameters always give the same url, and the keys and
+     * values are percent-encoded.
+     * @param parameters query parameters
+     * @return query string with each parameter prefixed by '&amp;', or an empty string
+     */
+    public static String encodeQueryString(Map<String, Object> parameters) {
+        if (parameters == null || parameters.isEmpty()) return "";
+        var keys = new ArrayList<String>(parameters.size());
+        for (var key : parameters.keySet()) if (key != null) keys.add(key);
+        Collections.sort(keys);
+
+        var query = new StringBuilder();
+        for (var key : keys) {
+            var value = toQueryValue(parameters.get(key));
+            if (value == null) continue;
+            query.append('&').append(encodeQueryComponent(key)).append('=').append(encodeQueryComponent(value));
+        }
+        return query.toString();
+    }
+
+    /***
+     * Percent-encodes a query string key or value. Characters that are allowed in a query, like ',' and '/', are kept
+     * as they are to keep the url short; '&amp;', '=', '+', '#', '%' and spaces are encoded.
+     * @param s key or value
+     * @return the encoded string
+     */
+    public static String encodeQueryComponent(String s) {
+        int i = 0;
+        while (i < s.length() && isQuerySafe(s.charAt(i))) i++;
+        if (i == s.length()) return s;
+
+        var encoded = new StringBuilder(s.length() + 16).append(s, 0, i);
+        for (var b : s.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            var c = (char) (b & 0xff);
+            if (c < 0x80 && isQuerySafe(c)) encoded.append(c);
+            else encoded.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+        }
+        return encoded.toString();
+    }
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static boolean isQuerySafe(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~'
+                || c == '$' || c == ',' || c == ':' || c == '/' || c == '@' || c == '!' || c == '*' || c == '\'' || c == '(' || c == ')';
+    }
+
+    /***
+     * Converts a parameter value to its query string text
+     * @param value value of the parameter
+     * @return text or null if the parameter has no value
+     */
+    private static String toQueryValue(Object value) {
+        if (value == null) return null;
+        if (value instanceof Collection) return join(((Collection<?>) value).toArray());
+        if (value instanceof Object[]) return join((Object[]) value);
+        if (value.getClass().isArray()) {
+            var values = new Object[Array.getLength(value)];
+            for (int i = 0; i < values.length; i++) values[i] = Array.get(value, i);
+            return join(values);
+        }
+        return value.toString();
+    }
+
+    private static String join(Object[] values) {
+        var joined = new StringJoiner(",");
+        for (var value : values) if (value != null) joined.add(value.toString());
+        return joined.length() == 0 ? null : joined.toString();
+    }
 }
@@ -0,0 +1,467 @@
+package org.azd.helpers.codegen;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/***
+ * Annotation processor that generates streaming readers for the classes of the org.azd.*.types packages.
+ * <p>
+ *     The processor runs while the library is compiled and writes {@code org.azd.helpers.GeneratedTypeReaders}, which
+ *     reads each type from the token stream and calls its setters directly, so no reflection is needed to bind the
+ *     responses. It follows the same rules as Jackson: a property is a setter, named after the field with
+ *     {@code @JsonProperty} when there is one, and unknown properties are skipped or passed to the
+ *     {@code @JsonAnySetter}. Types it can't read the same way as Jackson, e.g., an annotated field without a
+ *     setter, are not generated and are left to Jackson.
+ * </p>
+ * <p>
+ *     The processor is not registered as a service. The build compiles it first and names it explicitly when
+ *     compiling the library, see the azd pom.xml.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class TypeReaderProcessor extends AbstractProcessor {
+    private static final String PACKAGE = "org.azd.helpers";
+    private static final String CLASS_NAME = "GeneratedTypeReaders";
+    private static final Pattern TYPES = Pattern.compile("org\\.azd\\.[^.]+\\.types");
+    private static final String REFLECT_CONFIG = "META-INF/native-image/io.github.hkarthik7/azd/reflect-config.json";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_ANY_SETTER = "com.fasterxml.jackson.annotation.JsonAnySetter";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (generated || round.processingOver()) return false;
+
+        var all = new ArrayList<TypeElement>();
+        var candidates = new ArrayList<TypeElement>();
+        for (var element : round.getRootElements()) {
+            if (element.getKind() != ElementKind.CLASS) continue;
+            var type = (TypeElement) element;
+            var name = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+            if (!TYPES.matcher(name).matches()) continue;
+            all.add(type);
+            if (isReadable(type)) candidates.add(type);
+        }
+        if (candidates.isEmpty()) return false;
+        generated = true;
+
+        var readers = new LinkedHashMap<String, Reader>();
+        for (var type : candidates) {
+            var reader = reader(type);
+            if (reader != null) readers.put(type.getQualifiedName().toString(), reader);
+            else processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "No reader is generated for " + type.getQualifiedName() + ", it is bound by Jackson.");
+        }
+
+        try {
+            write(readers);
+            writeReflectConfig(all);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Couldn't write the type readers: " + e);
+        }
+        return false;
+    }
+
+    /***
+     * Writes the native-image reflection metadata of the types, which are still bound by Jackson when they have no
+     * generated reader or are passed to the mapper directly, and of ApiVersion.
+     * @param types all the classes of the types packages
+     * @throws IOException if the file can't be written
+     */
+    private void writeReflectConfig(List<TypeElement> types) throws IOException {
+        var file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", REFLECT_CONFIG);
+        try (var out = new PrintWriter(file.openWriter())) {
+            out.println("[");
+            for (var type : types) {
+                out.println("  {");
+                out.println("    \"name\": \"" + processingEnv.getElementUtils().getBinaryName(type) + "\",");
+                out.println("    \"allDeclaredConstructors\": true,");
+                out.println("    \"allPublicConstructors\": true,");
+                out.println("    \"allDeclaredMethods\": true,");
+                out.println("    \"allPublicMethods\": true,");
+                out.println("    \"allDeclaredFields\": true");
+                out.println("  },");
+            }
+            out.println("  {");
+            out.println("    \"name\": \"org.azd.common.ApiVersion\",");
+            out.println("    \"allPublicFields\": true");
+            out.println("  }");
+            out.println("]");
+        }
+    }
+
+    /***
+     * Property of a type that is set with a setter or a public field
+     */
+    private static class Property {
+        private final String name;
+        private final String target;
+        private final TypeMirror type;
+        private final boolean field;
+
+        private Property(String name, String target, TypeMirror type, boolean field) {
+            this.name = name;
+            this.target = target;
+            this.type = type;
+            this.field = field;
+        }
+    }
+
+    /***
+     * Properties of a type to generate the reader for
+     */
+    private static class Reader {
+        private final TypeElement type;
+        private final List<Property> properties;
+        private final String anySetter;
+        private int index;
+
+        private Reader(TypeElement type, List<Property> properties, String anySetter) {
+            this.type = type;
+            this.properties = properties;
+            this.anySetter = anySetter;
+        }
+    }
+
+    private boolean isReadable(TypeElement type) {
+        var modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) return false;
+        if (type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) return false;
+        // custom serialization or creators are left to Jackson
+        for (var annotation : type.getAnnotationMirrors())
+            if (annotation.getAnnotationType().toString().startsWith("com.fasterxml.jackson")) return false;
+
+        var constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (var constructor : constructors) {
+            if (!constructor.getAnnotationMirrors().isEmpty()) return false;
+        }
+        if (constructors.isEmpty()) return true;
+        for (var constructor : constructors)
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) return true;
+        return false;
+    }
+
+    /***
+     * Collects the properties of the type
+     * @param type type element
+     * @return reader or null if the type can't be read like Jackson does
+     */
+    private Reader reader(TypeElement type) {
+        var members = processingEnv.getElementUtils().getAllMembers(type);
+        var setters = new LinkedHashMap<String, ExecutableElement>();
+        String anySetter = null;
+
+        for (var method : ElementFilter.methodsIn(members)) {
+            var name = method.getSimpleName().toString();
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) continue;
+            if (has(method, JSON_IGNORE)) continue;
+            if (has(method, JSON_ANY_SETTER)) {
+                if (method.getParameters().size() != 2) return null;
+                anySetter = name;
+                continue;
+            }
+            if (!name.startsWith("set") || name.length() == 3 || method.getParameters().size() != 1) continue;
+            var property = value(method, JSON_PROPERTY);
+            var implicit = property == null || property.isEmpty() ? mangle(name.substring(3)) : property;
+            // overloaded setters are resolved by Jackson
+            if (setters.put(implicit, method) != null) return null;
+        }
+
+        var properties = new LinkedHashMap<String, Property>();
+        for (var field : ElementFilter.fieldsIn(members)) {
+            if (field.getModifiers().contains(Modifier.STATIC)) continue;
+            var implicit = field.getSimpleName().toString();
+            if (has(field, JSON_IGNORE)) {
+                setters.remove(implicit);
+                continue;
+            }
+            var property = value(field, JSON_PROPERTY);
+            if (property == null && !field.getModifiers().contains(Modifier.PUBLIC)) continue;
+
+            var name = property == null || property.isEmpty() ? implicit : property;
+            var setter = setters.remove(implicit);
+            if (setter != null) {
+                properties.put(name, new Property(name, setter.getSimpleName().toString(), setter.getParameters().get(0).asType(), false));
+            } else if (field.getModifiers().contains(Modifier.PUBLIC) && !field.getModifiers().contains(Modifier.FINAL)) {
+                properties.put(name, new Property(name, implicit, field.asType(), true));
+            } else if ((setter = assigningSetter(field, members)) != null) {
+                // Jackson sets the field directly; the setter that only assigns the field does the same.
+                properties.put(name, new Property(name, setter.getSimpleName().toString(), setter.getParameters().get(0).asType(), false));
+            } else {
+                // private field set by reflection
+                return null;
+            }
+        }
+
+        for (var entry : setters.entrySet())
+            properties.putIfAbsent(entry.getKey(), new Property(entry.getKey(), entry.getValue().getSimpleName().toString(),
+                    entry.getValue().getParameters().get(0).asType(), false));
+
+        // collections without a setter are filled through the getter by Jackson
+        var types = processingEnv.getTypeUtils();
+        var collection = types.erasure(processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType());
+        var map = types.erasure(processingEnv.getElementUtils().getTypeElement("java.util.Map").asType());
+        for (var method : ElementFilter.methodsIn(members)) {
+            var name = method.getSimpleName().toString();
+            if (!name.startsWith("get") || name.length() == 3 || !method.getParameters().isEmpty()) continue;
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) continue;
+            var returnType = types.erasure(method.getReturnType());
+            if (!types.isAssignable(returnType, collection) && !types.isAssignable(returnType, map)) continue;
+            var implicit = mangle(name.substring(3));
+            if (!properties.containsKey(implicit) && !has(method, JSON_IGNORE) && !isProperty(members, implicit)) return null;
+        }
+
+        return new Reader(type, new ArrayList<>(properties.values()), anySetter);
+    }
+
+    /***
+     * Finds the setter whose body only assigns the parameter to the field
+     * @param field private field
+     * @param members members of the type
+     * @return the setter or null if there is no such setter
+     */
+    private ExecutableElement assigningSetter(VariableElement field, List<? extends Element> members) {
+        Trees trees;
+        try {
+            trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        for (var method : ElementFilter.methodsIn(members)) {
+            if (method.getParameters().size() != 1 || !method.getModifiers().contains(Modifier.PUBLIC)
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || method.getEnclosingElement() != field.getEnclosingElement()
+                    || !processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType())) continue;
+
+            var tree = trees.getTree(method);
+            if (tree == null || tree.getBody() == null || tree.getBody().getStatements().size() != 1) continue;
+            var statement = tree.getBody().getStatements().get(0);
+            if (!(statement instanceof ExpressionStatementTree)) continue;
+            var expression = ((ExpressionStatementTree) statement).getExpression();
+            if (!(expression instanceof AssignmentTree)) continue;
+
+            var assignment = (AssignmentTree) expression;
+            var target = assignment.getVariable();
+            var fieldName = field.getSimpleName();
+            var parameterName = method.getParameters().get(0).getSimpleName();
+            // a parameter with the name of the field hides it, unless it's qualified with 'this'
+            var assignsField = target instanceof IdentifierTree
+                    ? ((IdentifierTree) target).getName().contentEquals(fieldName) && !parameterName.contentEquals(fieldName)
+                    : target instanceof MemberSelectTree
+                        && ((MemberSelectTree) target).getIdentifier().contentEquals(fieldName)
+                        && ((MemberSelectTree) target).getExpression().toString().equals("this");
+            var value = assignment.getExpression();
+            if (assignsField && value instanceof IdentifierTree
+                    && ((IdentifierTree) value).getName().contentEquals(parameterName))
+                return method;
+        }
+        return null;
+    }
+
+    /***
+     * Check if a renamed field backs the getter
+     */
+    private boolean isProperty(List<? extends Element> members, String implicit) {
+        for (var field : ElementFilter.fieldsIn(members))
+            if (field.getSimpleName().contentEquals(implicit) && value(field, JSON_PROPERTY) != null) return true;
+        return false;
+    }
+
+    private static boolean has(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors())
+            if (mirror.getAnnotationType().toString().equals(annotation)) return true;
+        return false;
+    }
+
+    /***
+     * Get the value of an annotation
+     * @return the value, empty if the annotation has no value or null if the element is not annotated
+     */
+    private static String value(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().toString().equals(annotation)) continue;
+            for (var entry : mirror.getElementValues().entrySet())
+                if (entry.getKey().getSimpleName().contentEquals("value")) return entry.getValue().getValue().toString();
+            return "";
+        }
+        return null;
+    }
+
+    /***
+     * Property name of an accessor, with the leading upper case characters in lower case like Jackson does
+     */
+    private static String mangle(String name) {
+        var sb = new StringBuilder(name.length());
+        int i = 0;
+        while (i < name.length() && Character.isUpperCase(name.charAt(i))) sb.append(Character.toLowerCase(name.charAt(i++)));
+        return sb.append(name.substring(i)).toString();
+    }
+
+    private static String method(String typeName) {
+        return "read_" + typeName.replace('.', '_');
+    }
+
+    private void write(Map<String, Reader> readers) throws IOException {
+        int index = 0;
+        for (var reader : readers.values()) reader.index = index++;
+
+        var file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + CLASS_NAME);
+        try (var out = new PrintWriter(file.openWriter())) {
+            out.println("package " + PACKAGE + ";");
+            out.println();
+            out.println("import com.fasterxml.jackson.core.JsonParser;");
+            out.println("import com.fasterxml.jackson.core.JsonToken;");
+            out.println();
+            out.println("import java.io.IOException;");
+            out.println("import java.util.HashMap;");
+            out.println("import java.util.Map;");
+            out.println();
+            out.println("/***");
+            out.println(" * Streaming readers of the org.azd.*.types packages. Generated by TypeReaderProcessor, do not edit.");
+            out.println(" */");
+            out.println("final class " + CLASS_NAME + " {");
+            out.println("    private static final Reader[] READERS = new Reader[" + readers.size() + "];");
+            out.println();
+            out.println("    static {");
+            out.println("        Map<Class<?>, TypeReader<?>> readers = new HashMap<>(" + (readers.size() * 4 / 3 + 1) + ");");
+            for (var entry : readers.entrySet()) {
+                var i = entry.getValue().index;
+                out.println("        READERS[" + i + "] = new Reader(" + i + ");");
+                out.println("        readers.put(" + entry.getKey() + ".class, READERS[" + i + "]);");
+            }
+            out.println("        TypeReaders.register(readers);");
+            out.println("    }");
+            out.println();
+            out.println("    private " + CLASS_NAME + "() { }");
+            out.println();
+            out.println("    private static final class Reader implements TypeReader<Object> {");
+            out.println("        private final int index;");
+            out.println();
+            out.println("        private Reader(int index) {");
+            out.println("            this.index = index;");
+            out.println("        }");
+            out.println();
+            out.println("        @Override");
+            out.println("        public Object read(JsonParser p, JsonMapper m) throws IOException {");
+            out.println("            switch (index) {");
+            for (var entry : readers.entrySet())
+                out.println("                case " + entry.getValue().index + ": return " + method(entry.getKey()) + "(p, m);");
+            out.println("                default: throw new IllegalStateException();");
+            out.println("            }");
+            out.println("        }");
+            out.println("    }");
+
+            for (var entry : readers.entrySet()) {
+                var typeName = entry.getKey();
+                var reader = entry.getValue();
+                out.println();
+                out.println("    static " + typeName + " " + method(typeName) + "(JsonParser p, JsonMapper m) throws IOException {");
+                out.println("        if (p.currentToken() != JsonToken.START_OBJECT) return TypeReaders.read(p, m, " + typeName + ".class);");
+                out.println("        var o = new " + typeName + "();");
+                out.println("        for (var t = p.nextToken(); t == JsonToken.FIELD_NAME; t = p.nextToken()) {");
+                out.println("            var name = p.getCurrentName();");
+                out.println("            p.nextToken();");
+                out.println("            switch (name) {");
+                for (var property : reader.properties) {
+                    var value = expression(property.type, readers);
+                    out.println("                case \"" + escape(property.name) + "\": " + (property.field
+                            ? "o." + property.target + " = " + value + ";"
+                            : "o." + property.target + "(" + value + ");") + " break;");
+                }
+                out.println("                default: " + (reader.anySetter == null
+                        ? "p.skipChildren();"
+                        : "o." + reader.anySetter + "(name, TypeReaders.read(p, m, Object.class));"));
+                out.println("            }");
+                out.println("        }");
+                out.println("        return m.intern(o);");
+                out.println("    }");
+            }
+            out.println("}");
+        }
+    }
+
+    /***
+     * Expression that reads a value of the given type from the parser 'p' with the mapper 'm'
+     */
+    private String expression(TypeMirror type, Map<String, Reader> readers) {
+        var types = processingEnv.getTypeUtils();
+        switch (type.getKind()) {
+            case INT: return "TypeReaders.readInt(p, m)";
+            case LONG: return "TypeReaders.readLong(p, m)";
+            case DOUBLE: return "TypeReaders.readDouble(p, m)";
+            case BOOLEAN: return "TypeReaders.readBoolean(p, m)";
+            case ARRAY: {
+                var component = ((ArrayType) type).getComponentType();
+                if (component.getKind() == TypeKind.INT) return "TypeReaders.readIntArray(p, m)";
+                if (component.toString().equals("java.lang.String")) return "TypeReaders.readStringArray(p, m)";
+                break;
+            }
+            case DECLARED: {
+                var declared = (DeclaredType) type;
+                var name = types.erasure(type).toString();
+                if (name.equals("java.lang.String")) return "TypeReaders.readString(p, m)";
+                if (name.equals("com.fasterxml.jackson.databind.JsonNode")) return "TypeReaders.readTree(p, m)";
+                if (readers.containsKey(name)) return method(name) + "(p, m)";
+                if (name.equals("java.util.List") && declared.getTypeArguments().size() == 1) {
+                    var element = declared.getTypeArguments().get(0);
+                    var elementName = types.erasure(element).toString();
+                    if (element.getKind() == TypeKind.DECLARED && ((DeclaredType) element).getTypeArguments().isEmpty()) {
+                        if (readers.containsKey(elementName))
+                            return "TypeReaders.readList(p, m, TypeReaders.<" + elementName + ">typed(READERS[" + readers.get(elementName).index + "]))";
+                        if (elementName.equals("java.lang.String"))
+                            return "TypeReaders.readList(p, m, TypeReaders.STRING)";
+                        return "TypeReaders.readList(p, m, TypeReaders.reader(" + elementName + ".class))";
+                    }
+                }
+                if (!declared.getTypeArguments().isEmpty())
+                    return "TypeReaders.read(p, m, new com.fasterxml.jackson.core.type.TypeReference<" + type + ">() { })";
+                break;
+            }
+            default:
+                break;
+        }
+        if (type.getKind().isPrimitive())
+            return "(" + type + ") TypeReaders.read(p, m, " + type + ".class)";
+        return "TypeReaders.read(p, m, " + types.erasure(type) + ".class)";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
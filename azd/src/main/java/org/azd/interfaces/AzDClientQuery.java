@@ -0,0 +1,13 @@
+package org.azd.interfaces;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+
+/***
+ * Query to run against an organization or project using the given client
+ * @param <T> type of the result
+ */
+@FunctionalInterface
+public interface AzDClientQuery<T> {
+    T execute(AzDClient client) throws ConnectionException, AzDException;
+}
@@ -3,6 +3,8 @@ package org.azd.interfaces;
 import org.azd.build.types.*;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
+import org.azd.helpers.JsonPatcher;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -37,6 +39,8 @@ public interface BuildDetails {
 
     Builds getBuilds(int top) throws ConnectionException, AzDException;
 
+    Builds getBuilds(int top, FieldProjection projection) throws ConnectionException, AzDException;
+
     Builds getBuilds(
             int top, String branchName, String buildNumber, String continuationToken, int[] definitions,
             String deletedFilter, int maxBuildsPerDefinition, String maxTime, String minTime,
@@ -48,6 +52,8 @@ public interface BuildDetails {
 
     Build queueBuild(HashMap<String, Object> buildParameters) throws ConnectionException, AzDException;
 
+    Build cancelBuild(int buildId) throws ConnectionException, AzDException;
+
     BuildControllers getBuildControllers() throws ConnectionException, AzDException;
 
     BuildControllers getBuildControllers(String name) throws ConnectionException, AzDException;
@@ -56,12 +62,20 @@ public interface BuildDetails {
 
     BuildDefinition createBuildDefinition(String buildDefinitionParameters) throws ConnectionException, AzDException;
 
+    BuildDefinition createBuildDefinition(String template, JsonPatcher patch) throws ConnectionException, AzDException;
+
     BuildDefinition cloneBuildDefinition(String definitionName, String definitionCloneName) throws ConnectionException, AzDException;
 
+    BuildDefinition cloneBuildDefinition(int definitionId, JsonPatcher patch) throws ConnectionException, AzDException;
+
     void deleteBuildDefinition(int definitionId) throws ConnectionException, AzDException;
 
     BuildDefinition getBuildDefinition(int definitionId) throws ConnectionException, AzDException;
 
+    LazyBuildDefinition getLazyBuildDefinition(int definitionId) throws ConnectionException, AzDException;
+
+    LazyBuildDefinition updateBuildDefinition(LazyBuildDefinition definition) throws ConnectionException, AzDException;
+
     BuildDefinition getBuildDefinition(
             int definitionId, boolean includeLatestBuilds, String minMetricsTime, int revision) throws ConnectionException, AzDException;
 
@@ -108,4 +122,12 @@ public interface BuildDetails {
     BuildTags updateBuildTags(int buildId, String[] tags, boolean toRemove) throws ConnectionException, AzDException;
 
     BuildTags updateDefinitionTags(int definitionId, String[] tags, boolean toRemove) throws ConnectionException, AzDException;
+
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, see {@link org.azd.connection.Connection#uncached()}. An implementation without a local store
+     * returns itself.
+     * @return uncached build api
+     */
+    default BuildDetails uncached() { return this; }
 }
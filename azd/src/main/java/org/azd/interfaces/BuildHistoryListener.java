@@ -0,0 +1,41 @@
+package org.azd.interfaces;
+
+import org.azd.build.types.Build;
+import org.azd.build.types.BuildHistoryWatermark;
+import org.azd.exceptions.AzDException;
+
+/***
+ * Receives the changes found by a build history tracker. The methods are called by the thread that polls.
+ */
+public interface BuildHistoryListener {
+    /***
+     * Called for each build the tracker lists for the first time
+     * @param build the build {@link Build}
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void added(Build build) throws AzDException;
+
+    /***
+     * Called for each known build whose status or result changed since it was last listed
+     * @param build the build {@link Build}
+     * @param previousStatus status the build had when it was last listed
+     * @param previousResult result the build had when it was last listed, null if it wasn't completed or isn't known
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void updated(Build build, String previousStatus, String previousResult) throws AzDException;
+
+    /***
+     * Called for each build that is deleted since the last poll
+     * @param id id of the build
+     * @throws AzDException if the deletion can't be applied; the poll stops
+     */
+    void deleted(int id) throws AzDException;
+
+    /***
+     * Called after each page of builds with the position of the tracker so far. Persisting it makes an interrupted
+     * poll resume from the last page instead of from the start.
+     * @param watermark position of the tracker {@link BuildHistoryWatermark}
+     * @throws AzDException if the watermark can't be persisted; the poll stops
+     */
+    default void checkpoint(BuildHistoryWatermark watermark) throws AzDException { }
+}
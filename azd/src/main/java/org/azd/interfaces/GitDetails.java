@@ -5,6 +5,8 @@ import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
 import org.azd.git.types.*;
 
+import java.util.stream.Stream;
+
 public interface GitDetails {
     Repository createRepository(String repositoryName, String projectId) throws ConnectionException, AzDException;
 
@@ -48,6 +50,10 @@ public interface GitDetails {
                                           String repositoryId, String reviewerId, String sourceRefName,
                                           String sourceRepositoryId, PullRequestStatus status, String targetRefName) throws ConnectionException, AzDException;
 
+    Stream<PullRequest> streamPullRequestsByProject(int top, int maxConcurrency, String creatorId, boolean includeLinks,
+                                                    String repositoryId, String reviewerId, String sourceRefName,
+                                                    String sourceRepositoryId, PullRequestStatus status, String targetRefName);
+
     GitRef updateBranchLock(String repositoryName, String branchName, boolean isLocked) throws ConnectionException, AzDException;
 
     ResourceRefs getPullRequestWorkItems(int pullRequestId, String repositoryName) throws ConnectionException, AzDException;
@@ -72,4 +78,12 @@ public interface GitDetails {
 
     PullRequestReviewer updatePullRequestReviewer(int pullRequestId, String repositoryId, String reviewerId,
                                                   boolean isFlagged, boolean hasDeclined) throws ConnectionException, AzDException;
+
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, see {@link org.azd.connection.Connection#uncached()}. An implementation without a local store
+     * returns itself.
+     * @return uncached git api
+     */
+    default GitDetails uncached() { return this; }
 }
@@ -0,0 +1,22 @@
+package org.azd.interfaces;
+
+import org.azd.exceptions.AzDException;
+
+import java.time.Instant;
+import java.util.List;
+
+/***
+ * Receives the items found by a history crawler, a time slice at a time. The slices complete in any order, so the
+ * slices written so far are the ranges to skip when a crawl is resumed. The method is called by the thread that crawls.
+ * @param <T> type of the items
+ */
+public interface HistorySink<T> {
+    /***
+     * Called once for each slice of the range with the items of the slice
+     * @param from start of the slice, inclusive
+     * @param to end of the slice, exclusive
+     * @param items items with a time in the slice, in the order they were listed
+     * @throws AzDException if the items can't be written; the crawl stops
+     */
+    void write(Instant from, Instant to, List<T> items) throws AzDException;
+}
@@ -26,4 +26,12 @@ public interface PipelinesDetails {
     PipelineRuns getPipelineRuns(int pipelineId) throws ConnectionException, AzDException;
     PipelineRun runPipeline(int pipelineId) throws ConnectionException, AzDException;
     PipelineRun runPipeline(int pipelineId, Map pipelineRunParameters) throws ConnectionException, AzDException;
+
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, see {@link org.azd.connection.Connection#uncached()}. An implementation without a local store
+     * returns itself.
+     * @return uncached pipelines api
+     */
+    default PipelinesDetails uncached() { return this; }
 }
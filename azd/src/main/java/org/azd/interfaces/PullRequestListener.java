@@ -0,0 +1,41 @@
+package org.azd.interfaces;
+
+import org.azd.exceptions.AzDException;
+import org.azd.git.types.PullRequest;
+import org.azd.utils.PullRequestIndex;
+
+/***
+ * Receives the changes found by a pull request tracker. The methods are called by the thread that polls.
+ */
+public interface PullRequestListener {
+    /***
+     * Called for each active pull request the tracker lists for the first time
+     * @param pullRequest the pull request {@link PullRequest}
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void created(PullRequest pullRequest) throws AzDException;
+
+    /***
+     * Called for each active pull request whose target branch, last merge source commit, reviewers or votes changed
+     * since it was last listed, or that is reactivated
+     * @param pullRequest the pull request {@link PullRequest}
+     * @param previous state of the pull request when it was last listed {@link PullRequestIndex.Entry}
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void updated(PullRequest pullRequest, PullRequestIndex.Entry previous) throws AzDException;
+
+    /***
+     * Called for each known pull request that is completed or abandoned since it was last listed
+     * @param pullRequest the pull request {@link PullRequest}
+     * @param previous state of the pull request when it was last listed {@link PullRequestIndex.Entry}
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void closed(PullRequest pullRequest, PullRequestIndex.Entry previous) throws AzDException;
+
+    /***
+     * Called for each known pull request that no longer exists, e.g., because its repository is deleted
+     * @param previous state of the pull request when it was last listed {@link PullRequestIndex.Entry}
+     * @throws AzDException if the removal can't be applied; the poll stops
+     */
+    default void removed(PullRequestIndex.Entry previous) throws AzDException { }
+}
@@ -0,0 +1,35 @@
+package org.azd.interfaces;
+
+import org.azd.exceptions.AzDException;
+import org.azd.release.types.Release;
+import org.azd.release.types.ReleaseEnvironment;
+
+/***
+ * Receives the changes found by a release deployment tracker. The methods are called by the thread that polls.
+ */
+public interface ReleaseDeploymentListener {
+    /***
+     * Called for each release the tracker lists for the first time, or again after all its environments finished,
+     * e.g., when an environment is redeployed
+     * @param release the release as listed, with the id, name, status and creation time, and the id, name, status,
+     * rank and approvals of each environment {@link Release}
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void added(Release release) throws AzDException;
+
+    /***
+     * Called for each environment of a known release whose status, rank or approvals changed since it was last listed
+     * @param release full details of the release {@link Release}
+     * @param environment the environment that changed {@link ReleaseEnvironment}
+     * @param previousStatus status the environment had when it was last listed, null if it is a new environment
+     * @throws AzDException if the change can't be applied; the poll stops
+     */
+    void environmentChanged(Release release, ReleaseEnvironment environment, String previousStatus) throws AzDException;
+
+    /***
+     * Called for each known release that no longer exists
+     * @param releaseId id of the release
+     * @throws AzDException if the removal can't be applied; the poll stops
+     */
+    default void removed(int releaseId) throws AzDException { }
+}
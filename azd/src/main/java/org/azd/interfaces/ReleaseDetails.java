@@ -3,13 +3,19 @@ package org.azd.interfaces;
 import org.azd.enums.*;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.release.types.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
 public interface ReleaseDetails {
     Release createRelease(int releaseDefinitionId, String description, String artifactAlias,
                           String artifactId, String artifactName,
                           boolean isDraft) throws ConnectionException, AzDException;
     Release getRelease(int releaseId) throws ConnectionException, AzDException;
+    LazyRelease getLazyRelease(int releaseId) throws ConnectionException, AzDException;
     Release getRelease(int releaseId, SingleReleaseExpands expand) throws ConnectionException, AzDException;
     Release getRelease(int releaseId, SingleReleaseExpands expand,
                        ReleaseApprovalFilters approvalFilters, String[] propertyFilters,
@@ -21,6 +27,7 @@ public interface ReleaseDetails {
     Releases getReleases(ReleaseExpands expand) throws ConnectionException, AzDException;
     Releases getReleases(int definitionId) throws ConnectionException, AzDException;
     Releases getReleases(ReleaseExpands expand, int top) throws ConnectionException, AzDException;
+    Releases getReleases(ReleaseExpands expand, int top, FieldProjection projection) throws ConnectionException, AzDException;
     Releases getReleases(String[] releaseIdFilter) throws ConnectionException, AzDException;
     Releases getReleases(ReleaseExpands expand, String artifactVersionId) throws ConnectionException, AzDException;
     Releases getReleases(ReleaseExpands expand, int top, String artifactTypeId,
@@ -30,11 +37,23 @@ public interface ReleaseDetails {
                          String path, String[] propertyFilters, ReleaseQueryOrder queryOrder,
                          String[] releaseIdFilter, String searchText, String sourceBranchFilter,
                          String sourceId, ReleaseStatus statusFilter, String[] tagFilter) throws ConnectionException, AzDException;
+    Stream<Release> streamReleases(ReleaseExpands[] expand, int top, Instant minCreatedTime, Instant maxCreatedTime,
+                                   Duration slice, int maxConcurrency, int definitionId, ReleaseStatus statusFilter,
+                                   FieldProjection projection);
     ReleaseDefinition createReleaseDefinition(String releaseDefinitionParameters) throws ConnectionException, AzDException;
     void deleteReleaseDefinition(int definitionId) throws ConnectionException, AzDException;
     void deleteReleaseDefinition(int definitionId, String comment, boolean forceDelete) throws ConnectionException, AzDException;
     ReleaseDefinition getReleaseDefinition(int definitionId) throws ConnectionException, AzDException;
+    LazyReleaseDefinition getLazyReleaseDefinition(int definitionId) throws ConnectionException, AzDException;
+    LazyReleaseDefinition updateReleaseDefinition(LazyReleaseDefinition definition) throws ConnectionException, AzDException;
     ReleaseDefinitionRevisions getReleaseDefinitionHistory(int definitionId) throws ConnectionException, AzDException;
     ReleaseDefinitions getReleaseDefinitions() throws ConnectionException, AzDException;
 
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, see {@link org.azd.connection.Connection#uncached()}. An implementation without a local store
+     * returns itself.
+     * @return uncached release api
+     */
+    default ReleaseDetails uncached() { return this; }
 }
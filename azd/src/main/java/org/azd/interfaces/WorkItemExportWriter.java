@@ -0,0 +1,33 @@
+package org.azd.interfaces;
+
+import org.azd.workitemtracking.types.CompactWorkItem;
+
+import java.io.IOException;
+import java.util.List;
+
+/***
+ * Receives the rows of a work item export batch by batch, e.g., to write them to a columnar file.
+ * The methods are called by one thread at a time and in the order of the query result.
+ */
+public interface WorkItemExportWriter {
+    /***
+     * Called once before the first batch
+     * @param columns reference names of the columns of the query
+     * @throws IOException if the output can't be written
+     */
+    void start(List<String> columns) throws IOException;
+
+    /***
+     * Called for each batch of work items
+     * @param rows work items of the batch in query order
+     * @throws IOException if the output can't be written
+     */
+    void write(List<CompactWorkItem> rows) throws IOException;
+
+    /***
+     * Called once after the last batch
+     * @param rowCount total number of rows written
+     * @throws IOException if the output can't be written
+     */
+    void finish(long rowCount) throws IOException;
+}
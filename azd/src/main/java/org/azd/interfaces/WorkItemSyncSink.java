@@ -0,0 +1,33 @@
+package org.azd.interfaces;
+
+import org.azd.exceptions.AzDException;
+import org.azd.workitemtracking.types.WorkItem;
+import org.azd.workitemtracking.types.WorkItemSyncWatermark;
+
+/***
+ * Receives the changes found by a work item sync. The methods are called by one thread at a time, the changed work
+ * items in the order of their System.ChangedDate.
+ */
+public interface WorkItemSyncSink {
+    /***
+     * Called for each work item that is created or changed since the last sync
+     * @param workItem the work item {@link WorkItem}
+     * @throws AzDException if the change can't be applied; the sync stops
+     */
+    void changed(WorkItem workItem) throws AzDException;
+
+    /***
+     * Called for each work item that is moved to the recycle bin since the last sync
+     * @param id id of the work item
+     * @throws AzDException if the deletion can't be applied; the sync stops
+     */
+    void deleted(int id) throws AzDException;
+
+    /***
+     * Called after each batch of changes with the position of the sync so far. Persisting it makes an interrupted sync
+     * resume from the last batch instead of from the start.
+     * @param watermark position of the sync {@link WorkItemSyncWatermark}
+     * @throws AzDException if the watermark can't be persisted; the sync stops
+     */
+    default void checkpoint(WorkItemSyncWatermark watermark) throws AzDException { }
+}
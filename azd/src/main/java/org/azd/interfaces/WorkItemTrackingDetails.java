@@ -5,9 +5,11 @@ import org.azd.enums.WorkItemExpand;
 import org.azd.enums.WorkItemOperation;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.workitemtracking.types.*;
 
 import java.util.HashMap;
+import java.util.List;
 
 public interface WorkItemTrackingDetails {
     WorkItem createWorkItem(String workItemType, WorkItemOperation operation, String title) throws ConnectionException, AzDException;
@@ -29,6 +31,9 @@ public interface WorkItemTrackingDetails {
     WorkItemList getWorkItems(int[] ids, WorkItemExpand expand, String[] fields) throws ConnectionException, AzDException;
     WorkItemList getWorkItems(int[] ids, WorkItemExpand expand, String[] fields,
                               String asOf, WorkItemErrorPolicy errorPolicy) throws ConnectionException, AzDException;
+    WorkItemList getWorkItems(int[] ids, FieldProjection projection) throws ConnectionException, AzDException;
+    List<CompactWorkItem> getCompactWorkItems(int[] ids, WorkItemFieldLayout layout) throws ConnectionException, AzDException;
+    List<CompactWorkItem> getCompactWorkItems(int[] ids, String[] fields, WorkItemFieldLayout layout) throws ConnectionException, AzDException;
     WorkItemList getWorkItemRevisions(int workItemId) throws ConnectionException, AzDException;
     WorkItemList getWorkItemRevisions(int workItemId, WorkItemExpand expand) throws ConnectionException, AzDException;
     WorkItemList getWorkItemRevisions(int workItemId, WorkItemExpand expand, int top, int skip) throws ConnectionException, AzDException;
@@ -46,4 +51,13 @@ public interface WorkItemTrackingDetails {
                             boolean validateOnly, HashMap<String, Object> fieldsToUpdate) throws ConnectionException, AzDException;
     WorkItemTypes getWorkItemTypes() throws ConnectionException, AzDException;
     WorkItemType getWorkItemType(String workItemTypeName) throws ConnectionException, AzDException;
+    WorkItemFieldLayout getWorkItemFieldLayout() throws ConnectionException, AzDException;
+
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, see {@link org.azd.connection.Connection#uncached()}. An implementation without a local store
+     * returns itself.
+     * @return uncached work item tracking api
+     */
+    default WorkItemTrackingDetails uncached() { return this; }
 }
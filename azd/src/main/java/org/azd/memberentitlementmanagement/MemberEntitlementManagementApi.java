@@ -27,7 +27,7 @@ public class MemberEntitlementManagementApi implements MemberEntitlementManageme
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String GROUP_AREA = "groupentitlements";
     private final String USER_AREA = "userentitlements";
     private final String MEMBERENTITLEMENTMANAGEMENT = "68ddce18-2501-45f1-a17b-7931a9922690";
@@ -113,10 +113,9 @@ public class MemberEntitlementManagementApi implements MemberEntitlementManageme
      */
     @Override
     public PagedGraphMemberList getMembers(String groupId, int maxResults, String pagingToken) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-           put("maxResults", maxResults);
-            put("pagingToken", pagingToken);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("maxResults", maxResults);
+        q.put("pagingToken", pagingToken);
 
         String r = send(RequestMethod.GET, CONNECTION, MEMBERENTITLEMENTMANAGEMENT, null,
                 GROUP_AREA, groupId, "members", ApiVersion.MEMBERSHIP_ENTITLEMENT_MANAGEMENT, q, null);
@@ -161,25 +160,23 @@ public class MemberEntitlementManagementApi implements MemberEntitlementManageme
     public UserEntitlementsResponse addUserEntitlement(AccountLicenseType accountLicenseType, String emailId, GroupType groupType, String projectId)
             throws ConnectionException, AzDException {
 
-        var projectEntitlement = new LinkedHashMap<String, Object>(){{
-            put("group", new LinkedHashMap<String, Object>(){{
-                put("groupType", groupType.toString().toLowerCase());
-            }});
-            put("projectRef", new LinkedHashMap<String, Object>(){{
-                put("id", projectId);
-            }});
-        }};
-
-        var body = new LinkedHashMap<String, Object>(){{
-            put("accessLevel", new LinkedHashMap<String, Object>(){{
-                put("accountLicenseType", accountLicenseType.toString().toLowerCase());
-            }});
-            put("user", new LinkedHashMap<String, Object>(){{
-                put("principalName", emailId);
-                put("subjectKind", "user");
-            }});
-            put("projectEntitlements", List.of(projectEntitlement));
-        }};
+        var projectEntitlement = new LinkedHashMap<String, Object>();
+        var group = new LinkedHashMap<String, Object>();
+        group.put("groupType", groupType.toString().toLowerCase());
+        projectEntitlement.put("group", group);
+        var projectRef = new LinkedHashMap<String, Object>();
+        projectRef.put("id", projectId);
+        projectEntitlement.put("projectRef", projectRef);
+
+        var body = new LinkedHashMap<String, Object>();
+        var accessLevel = new LinkedHashMap<String, Object>();
+        accessLevel.put("accountLicenseType", accountLicenseType.toString().toLowerCase());
+        body.put("accessLevel", accessLevel);
+        var user = new LinkedHashMap<String, Object>();
+        user.put("principalName", emailId);
+        user.put("subjectKind", "user");
+        body.put("user", user);
+        body.put("projectEntitlements", List.of(projectEntitlement));
 
         String r = send(RequestMethod.POST, CONNECTION, MEMBERENTITLEMENTMANAGEMENT, null,
                 USER_AREA, null, null, ApiVersion.USER_ENTITLEMENTS, null, body);
@@ -271,15 +268,14 @@ public class MemberEntitlementManagementApi implements MemberEntitlementManageme
     @Override
     public UserEntitlementsResponse updateUserEntitlement(String userId, AccountLicenseType accountLicenseType, LicensingSource licensingSource)
             throws ConnectionException, AzDException {
-        var pos = new LinkedHashMap<String, Object>(){{
-            put("from", "");
-            put("op", "replace");
-            put("path", "/accessLevel");
-            put("value", new LinkedHashMap<String, Object>(){{
-                put("accountLicenseType", accountLicenseType.toString().toLowerCase());
-                put("licensingSource", licensingSource.toString().toLowerCase());
-            }});
-        }};
+        var pos = new LinkedHashMap<String, Object>();
+        pos.put("from", "");
+        pos.put("op", "replace");
+        pos.put("path", "/accessLevel");
+        var value = new LinkedHashMap<String, Object>();
+        value.put("accountLicenseType", accountLicenseType.toString().toLowerCase());
+        value.put("licensingSource", licensingSource.toString().toLowerCase());
+        pos.put("value", value);
 
         String r = send(RequestMethod.PATCH, CONNECTION, MEMBERENTITLEMENTMANAGEMENT, null,
                 USER_AREA, userId, null, ApiVersion.USER_ENTITLEMENTS, null,
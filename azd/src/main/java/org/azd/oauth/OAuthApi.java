@@ -18,7 +18,7 @@ public class OAuthApi {
     /***
      * Deserialize JSON response to POJO
      */
-    private static final JsonMapper MAPPER = new JsonMapper();
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
     private static final String AREA = "accounts";
 
     private static String VSTS_BASE_URL;
@@ -46,12 +46,11 @@ public class OAuthApi {
      */
     public static String getAuthorizationEndpoint(String clientId, String state, String scope, String redirectUrl) {
 
-        var queryString = new LinkedHashMap<String, Object>(){{
-            put("response_type", "Assertion");
-            put("state", state);
-            put("scope", URLHelper.encodeSpace(scope));
-            put("redirect_uri", URLHelper.encodeSpecialChars(redirectUrl));
-        }};
+        var queryString = new LinkedHashMap<String, Object>();
+        queryString.put("response_type", "Assertion");
+        queryString.put("state", state);
+        queryString.put("scope", URLHelper.encodeSpace(scope));
+        queryString.put("redirect_uri", URLHelper.encodeSpecialChars(redirectUrl));
 
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(VSTS_BASE_URL);
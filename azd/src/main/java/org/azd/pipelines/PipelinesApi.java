@@ -24,7 +24,7 @@ public class PipelinesApi implements PipelinesDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "pipelines";
     private final String PIPELINES = "2e0bf237-8973-4ec9-a581-9c3d679d1776";
 
@@ -34,6 +34,14 @@ public class PipelinesApi implements PipelinesDetails {
      */
     public PipelinesApi(Connection connection) { this.CONNECTION = connection; }
 
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, e.g., to poll for changes from any number of threads
+     * @return pipelines api bound to the uncached view of the connection {@link Connection#uncached()}
+     */
+    @Override
+    public PipelinesApi uncached() { return CONNECTION.isUncached() ? this : new PipelinesApi(CONNECTION.uncached()); }
+
     /***
      * Get a specific artifact from a pipeline run
      * @param pipelineId ID of the pipeline.
@@ -46,9 +54,8 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public PipelinesArtifact getArtifacts(int pipelineId, int runId, String artifactName) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("artifactName", artifactName);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("artifactName", artifactName);
 
         String r = send(RequestMethod.GET, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "runs/" + runId + "/artifacts", ApiVersion.PIPELINES, q, null);
@@ -70,10 +77,9 @@ public class PipelinesApi implements PipelinesDetails {
     @Override
     public PipelinesArtifact getArtifacts(int pipelineId, int runId, String artifactName, PipelinesExpandOptions expandOptions)
             throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("artifactName", artifactName);
-            put("$expand", expandOptions.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("artifactName", artifactName);
+        q.put("$expand", expandOptions.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "runs/" + runId + "/artifacts", ApiVersion.PIPELINES, q, null);
@@ -112,9 +118,8 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public PipelineLog getPipelineLog(int pipelineId, int runId, int logId, PipelinesExpandOptions expandOptions) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expandOptions.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expandOptions.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "runs/" + runId + "/logs/" + logId, ApiVersion.PIPELINES, q, null);
@@ -151,9 +156,8 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public LogCollection getPipelineLogs(int pipelineId, int runId, PipelinesExpandOptions expandOptions) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expandOptions.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expandOptions.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "runs/" + runId + "/logs", ApiVersion.PIPELINES, null, null);
@@ -177,19 +181,18 @@ public class PipelinesApi implements PipelinesDetails {
     public Pipeline createPipeline(String name, String folder, String pathOfYamlFile, String repositoryId, String repositoryName) throws ConnectionException, AzDException {
         var git = new GitApi(CONNECTION);
 
-        var body = new HashMap<String, Object>(){{
-            put("name", name);
-            put("folder", folder);
-            put("configuration", new HashMap<>(){{
-                put("type", "yaml");
-                put("path", pathOfYamlFile);
-                put("repository", new HashMap<>(){{
-                    put("id", repositoryId);
-                    put("name", repositoryName);
-                    put("type", "azureReposGit");
-                }});
-            }});
-        }};
+        var body = new HashMap<String, Object>();
+        body.put("name", name);
+        body.put("folder", folder);
+        var configuration = new HashMap<String, Object>();
+        configuration.put("type", "yaml");
+        configuration.put("path", pathOfYamlFile);
+        var repository = new HashMap<String, Object>();
+        repository.put("id", repositoryId);
+        repository.put("name", repositoryName);
+        repository.put("type", "azureReposGit");
+        configuration.put("repository", repository);
+        body.put("configuration", configuration);
 
         String r = send(RequestMethod.POST, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.PIPELINES, null, body);
@@ -224,9 +227,8 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public Pipeline getPipeline(int pipelineId, String pipelineVersion) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("pipelineVersion", pipelineVersion);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("pipelineVersion", pipelineVersion);
 
         String r = send(RequestMethod.GET, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), null, ApiVersion.PIPELINES, q, null);
@@ -260,9 +262,8 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public PreviewRun previewPipeline(int pipelineId, boolean previewRun) throws ConnectionException, AzDException {
-        var body = new HashMap<String, Object>(){{
-            put("previewRun", previewRun);
-        }};
+        var body = new HashMap<String, Object>();
+        body.put("previewRun", previewRun);
 
         String r = send(RequestMethod.POST, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "preview", ApiVersion.PIPELINES, null, body);
@@ -283,10 +284,9 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public PreviewRun previewPipeline(int pipelineId, boolean previewRun, String yamlOverride) throws ConnectionException, AzDException {
-        var body = new HashMap<String, Object>(){{
-            put("previewRun", previewRun);
-            put("yamlOverride", yamlOverride);
-        }};
+        var body = new HashMap<String, Object>();
+        body.put("previewRun", previewRun);
+        body.put("yamlOverride", yamlOverride);
 
         String r = send(RequestMethod.POST, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "preview", ApiVersion.PIPELINES, null, body);
@@ -337,9 +337,8 @@ public class PipelinesApi implements PipelinesDetails {
      */
     @Override
     public PipelineRun runPipeline(int pipelineId) throws ConnectionException, AzDException {
-        var body = new HashMap<String, Object>(){{
-           put("resources", "{}");
-        }};
+        var body = new HashMap<String, Object>();
+        body.put("resources", "{}");
 
         String r = send(RequestMethod.POST, CONNECTION, PIPELINES, CONNECTION.getProject(),
                 AREA, Integer.toString(pipelineId), "runs", ApiVersion.PIPELINES, null, body);
@@ -26,7 +26,7 @@ public class PolicyApi implements PolicyDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "policy";
     private final String POLICY = "fb13a388-40dd-4a04-b530-013a739c72ef";
 
@@ -51,14 +51,13 @@ public class PolicyApi implements PolicyDetails {
      */
     @Override
     public PolicyConfiguration createPolicyConfiguration(String typeId, boolean isEnabled, boolean isBlocking, Map settings) throws ConnectionException, AzDException {
-        LinkedHashMap<String, Object> h = new LinkedHashMap<>(){{
-            put("isEnabled", isEnabled);
-            put("isBlocking", isBlocking);
-            put("type", new LinkedHashMap<String, String>(){{
-                put("id", typeId);
-            }});
-            put("settings", settings);
-        }};
+        LinkedHashMap<String, Object> h = new LinkedHashMap<>();
+        h.put("isEnabled", isEnabled);
+        h.put("isBlocking", isBlocking);
+        var type = new LinkedHashMap<String, String>();
+        type.put("id", typeId);
+        h.put("type", type);
+        h.put("settings", settings);
 
         String r = send(RequestMethod.POST, CONNECTION, POLICY, CONNECTION.getProject(),
                 AREA + "/configurations", null, null, ApiVersion.POLICY, null, h);
@@ -127,11 +126,10 @@ public class PolicyApi implements PolicyDetails {
      */
     @Override
     public PolicyConfigurations getPolicyConfigurations(int top, String continuationToken, String policyType) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$top", top);
-            put("continuationToken", continuationToken);
-            put("policyType", policyType);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$top", top);
+        q.put("continuationToken", continuationToken);
+        q.put("policyType", policyType);
 
         String r = send(RequestMethod.GET, CONNECTION, POLICY, CONNECTION.getProject(),
                 AREA + "/configurations", null, null, ApiVersion.POLICY, null, null);
@@ -161,14 +159,13 @@ public class PolicyApi implements PolicyDetails {
         if (typeId.isEmpty()) id = getPolicyConfiguration(configurationId).getType().getId();
         else id = typeId;
 
-        LinkedHashMap<String, Object> h = new LinkedHashMap<>(){{
-            put("isEnabled", isEnabled);
-            put("isBlocking", isBlocking);
-            put("type", new LinkedHashMap<String, String>(){{
-                put("id", id);
-            }});
-            put("settings", settings);
-        }};
+        LinkedHashMap<String, Object> h = new LinkedHashMap<>();
+        h.put("isEnabled", isEnabled);
+        h.put("isBlocking", isBlocking);
+        var type = new LinkedHashMap<String, String>();
+        type.put("id", id);
+        h.put("type", type);
+        h.put("settings", settings);
 
         String r = send(RequestMethod.PUT, CONNECTION, POLICY, CONNECTION.getProject(),
                 AREA + "/configurations", Integer.toString(configurationId), null, ApiVersion.POLICY, null, h);
@@ -5,15 +5,27 @@ import org.azd.connection.Connection;
 import org.azd.enums.*;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.helpers.JsonMapper;
+import org.azd.helpers.PagedStream;
 import org.azd.interfaces.ReleaseDetails;
 import org.azd.release.types.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.azd.utils.Client.get;
 import static org.azd.utils.Client.send;
 
 /***
@@ -24,7 +36,7 @@ public class ReleaseApi implements ReleaseDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "release/releases";
     private final String RELEASE = "efc2f575-36ef-48e9-b672-0c6fb4a48ac5";
 
@@ -34,6 +46,14 @@ public class ReleaseApi implements ReleaseDetails {
      */
     public ReleaseApi(Connection connection) { this.CONNECTION = connection; }
 
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, e.g., to poll for changes from any number of threads
+     * @return release api bound to the uncached view of the connection {@link Connection#uncached()}
+     */
+    @Override
+    public ReleaseApi uncached() { return CONNECTION.isUncached() ? this : new ReleaseApi(CONNECTION.uncached()); }
+
     /***
      * Create a release.
      * @param releaseDefinitionId pass definition Id to create a release.
@@ -52,22 +72,20 @@ public class ReleaseApi implements ReleaseDetails {
                                  String artifactId, String artifactName,
                                  boolean isDraft) throws ConnectionException, AzDException {
 
-        var artifacts = new LinkedHashMap<String, Object>(){{
-            put("alias", artifactAlias);
-            put("instanceReference", new LinkedHashMap<String, Object>(){{
-                put("id", artifactId);
-                put("name", artifactName);
-            }});
-        }};
-
-        var h = new LinkedHashMap<String, Object>(){{
-            put("definitionId", Integer.toString(releaseDefinitionId));
-            put("description", description);
-            put("artifacts", List.of(artifacts));
-            put("isDraft", isDraft);
-            put("reason", "none");
-            put("manualEnvironments", null);
-        }};
+        var artifacts = new LinkedHashMap<String, Object>();
+        artifacts.put("alias", artifactAlias);
+        var instanceReference = new LinkedHashMap<String, Object>();
+        instanceReference.put("id", artifactId);
+        instanceReference.put("name", artifactName);
+        artifacts.put("instanceReference", instanceReference);
+
+        var h = new LinkedHashMap<String, Object>();
+        h.put("definitionId", Integer.toString(releaseDefinitionId));
+        h.put("description", description);
+        h.put("artifacts", List.of(artifacts));
+        h.put("isDraft", isDraft);
+        h.put("reason", "none");
+        h.put("manualEnvironments", null);
 
         String r = send(RequestMethod.POST, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.RELEASE, null, h);
@@ -91,6 +109,22 @@ public class ReleaseApi implements ReleaseDetails {
         return MAPPER.mapJsonResponse(r, Release.class);
     }
 
+    /***
+     * Gets a Release without binding it. The environments are bound only when they are accessed.
+     * @param releaseId pass the release id
+     * @return Lazy release {@link LazyRelease}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public LazyRelease getLazyRelease(int releaseId) throws ConnectionException, AzDException {
+        String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
+                AREA, Integer.toString(releaseId), null, ApiVersion.RELEASE, null, null);
+
+        return new LazyRelease(r);
+    }
+
     /***
      * Gets a Release
      * @param releaseId pass the release id
@@ -102,9 +136,8 @@ public class ReleaseApi implements ReleaseDetails {
      */
     @Override
     public Release getRelease(int releaseId, SingleReleaseExpands expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, Integer.toString(releaseId), null, ApiVersion.RELEASE, q, null);
@@ -131,12 +164,11 @@ public class ReleaseApi implements ReleaseDetails {
     public Release getRelease(int releaseId, SingleReleaseExpands expand,
                               ReleaseApprovalFilters approvalFilters, String[] propertyFilters,
                               int topGateRecords) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("approvalFilters", approvalFilters);
-            put("propertyFilters", String.join(",", propertyFilters));
-            put("$expand", expand.toString().toLowerCase());
-            put("$topGateRecords", topGateRecords);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("approvalFilters", approvalFilters);
+        q.put("propertyFilters", String.join(",", propertyFilters));
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("$topGateRecords", topGateRecords);
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, Integer.toString(releaseId), null, ApiVersion.RELEASE, q, null);
@@ -175,9 +207,8 @@ public class ReleaseApi implements ReleaseDetails {
     @Override
     public ReleaseEnvironment getReleaseEnvironment(int releaseId, int environmentId,
                                                     SingleReleaseExpands expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, Integer.toString(releaseId), "environments/" + environmentId,
@@ -211,9 +242,8 @@ public class ReleaseApi implements ReleaseDetails {
      */
     @Override
     public Releases getReleases(ReleaseExpands expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.RELEASE, q, null);
@@ -231,9 +261,8 @@ public class ReleaseApi implements ReleaseDetails {
      */
     @Override
     public Releases getReleases(int definitionId) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("definitionId", definitionId);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("definitionId", definitionId);
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.RELEASE, q, null);
@@ -252,10 +281,9 @@ public class ReleaseApi implements ReleaseDetails {
      */
     @Override
     public Releases getReleases(ReleaseExpands expand, int top) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expand.toString().toLowerCase());
-            put("$top", top);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.RELEASE, q, null);
@@ -264,23 +292,41 @@ public class ReleaseApi implements ReleaseDetails {
     }
 
     /***
-     * Get a list of releases
-     * @param releaseIdFilter A comma-delimited list of releases Ids. Only releases with these Ids will be returned.
+     * Get a list of releases and only bind the given properties of each release
+     * @param expand The property that should be expanded in the list of releases. {@link ReleaseExpands}
+     * @param top Number of releases to get. Default is 50.
+     * @param projection properties of the release to bind, e.g., FieldProjection.of("id", "name", "status") {@link FieldProjection}
      * @return Releases {@link Releases}
      * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
      * and project. This validates the connection object and throws exception if it is not provided.
      * @throws AzDException Default Api Exception handler.
      */
     @Override
-    public Releases getReleases(String[] releaseIdFilter) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("releaseIdFilter", String.join(",", releaseIdFilter));
-        }};
+    public Releases getReleases(ReleaseExpands expand, int top, FieldProjection projection) throws ConnectionException, AzDException {
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("$top", top);
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.RELEASE, q, null);
 
-        return MAPPER.mapJsonResponse(r, Releases.class);
+        return MAPPER.mapJsonResponse(r, Releases.class, projection);
+    }
+
+    /***
+     * Get a list of releases
+     * @param releaseIdFilter A comma-delimited list of releases Ids. Only releases with these Ids will be returned.
+     * @return Releases {@link Releases}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public Releases getReleases(String[] releaseIdFilter) throws ConnectionException, AzDException {
+        var q = new HashMap<String, Object>();
+        q.put("releaseIdFilter", String.join(",", releaseIdFilter));
+
+        return getReleases(q, null);
     }
 
     /***
@@ -294,10 +340,9 @@ public class ReleaseApi implements ReleaseDetails {
      */
     @Override
     public Releases getReleases(ReleaseExpands expand, String artifactVersionId) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expand.toString().toLowerCase());
-            put("artifactVersionId", artifactVersionId);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("artifactVersionId", artifactVersionId);
 
         String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
                 AREA, null, null, ApiVersion.RELEASE, q, null);
@@ -306,7 +351,8 @@ public class ReleaseApi implements ReleaseDetails {
     }
 
     /***
-     * Get a list of releases
+     * Get a list of releases. Filters that are null, 0 or false are not sent. The continuation token of the next page
+     * is returned in {@link Releases#getContinuationToken()}.
      * @param expand The property that should be expanded in the list of releases. {@link ReleaseExpands}
      * @param top Number of releases to get. Default is 50.
      * @param artifactTypeId Releases with given artifactTypeId will be returned.
@@ -348,34 +394,128 @@ public class ReleaseApi implements ReleaseDetails {
                                 String path, String[] propertyFilters, ReleaseQueryOrder queryOrder, String[] releaseIdFilter,
                                 String searchText, String sourceBranchFilter, String sourceId, ReleaseStatus statusFilter,
                                 String[] tagFilter) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("definitionId", definitionId);
-            put("definitionEnvironmentId", definitionEnvironmentId);
-            put("searchText", searchText);
-            put("createdBy", createdBy);
-            put("statusFilter", statusFilter);
-            put("environmentStatusFilter", environmentStatusFilter);
-            put("minCreatedTime", minCreatedTime);
-            put("maxCreatedTime", maxCreatedTime);
-            put("queryOrder", queryOrder.toString().toLowerCase());
-            put("$top", top);
-            put("continuationToken", continuationToken);
-            put("artifactTypeId", artifactTypeId);
-            put("sourceId", sourceId);
-            put("artifactVersionId", artifactVersionId);
-            put("sourceBranchFilter", sourceBranchFilter);
-            put("isDeleted", isDeleted);
-            put("$expand", expand.toString().toLowerCase());
-            put("tagFilter", String.join(",", tagFilter));
-            put("propertyFilters", String.join(",", propertyFilters));
-            put("path", path);
-            put("releaseIdFilter", String.join(",", releaseIdFilter));
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("definitionId", definitionId > 0 ? definitionId : null);
+        q.put("definitionEnvironmentId", definitionEnvironmentId > 0 ? definitionEnvironmentId : null);
+        q.put("searchText", searchText);
+        q.put("createdBy", createdBy);
+        q.put("statusFilter", (statusFilter != null) ? statusFilter.toString().toLowerCase() : null);
+        q.put("environmentStatusFilter", environmentStatusFilter > 0 ? environmentStatusFilter : null);
+        q.put("minCreatedTime", minCreatedTime);
+        q.put("maxCreatedTime", maxCreatedTime);
+        q.put("queryOrder", (queryOrder != null) ? queryOrder.toString().toLowerCase() : null);
+        q.put("$top", top > 0 ? top : null);
+        q.put("continuationToken", continuationToken > 0 ? continuationToken : null);
+        q.put("artifactTypeId", artifactTypeId);
+        q.put("sourceId", sourceId);
+        q.put("artifactVersionId", artifactVersionId);
+        q.put("sourceBranchFilter", sourceBranchFilter);
+        q.put("isDeleted", isDeleted ? true : null);
+        q.put("$expand", (expand != null) ? expand.toString().toLowerCase() : null);
+        q.put("tagFilter", (tagFilter != null) ? String.join(",", tagFilter) : null);
+        q.put("propertyFilters", (propertyFilters != null) ? String.join(",", propertyFilters) : null);
+        q.put("path", path);
+        q.put("releaseIdFilter", (releaseIdFilter != null) ? String.join(",", releaseIdFilter) : null);
+
+        return getReleases(q, null);
+    }
 
-        String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
-                AREA, null, null, ApiVersion.RELEASE, q, null);
+    /***
+     * Streams the releases created in a time range, oldest first, by following the continuation token of each page.
+     * When a slice is given, the range is split into slices of that length that are crawled at the same time, up to
+     * maxConcurrency slices, and the next page of each slice is requested as soon as the previous one arrives. A page
+     * that fails throws a {@link java.util.concurrent.CompletionException} with the {@link AzDException} or
+     * {@link ConnectionException} as the cause.
+     * @param expand The properties that should be expanded in the list of releases, or null. {@link ReleaseExpands}
+     * @param top Number of releases per page. Default is 50.
+     * @param minCreatedTime Releases that were created after this time, or null.
+     * @param maxCreatedTime Releases that were created before this time, or null.
+     * @param slice length of the time slices, or null to crawl the range as one slice. Requires both times.
+     * @param maxConcurrency maximum number of slices crawled at the same time.
+     * @param definitionId Releases from this release definition Id, or 0 for all.
+     * @param statusFilter Releases that have the status from {@link ReleaseStatus}, or null.
+     * @param projection properties of the release to bind, or null for all {@link FieldProjection}
+     * @return stream of {@link Release}; close it to stop the pages that are still requested
+     */
+    @Override
+    public Stream<Release> streamReleases(ReleaseExpands[] expand, int top, Instant minCreatedTime, Instant maxCreatedTime,
+                                          Duration slice, int maxConcurrency, int definitionId, ReleaseStatus statusFilter,
+                                          FieldProjection projection) {
+        var chains = new ArrayList<PagedStream.Chain<Release>>();
+        var boundaries = new HashSet<Instant>();
+        if (slice == null || slice.isZero() || slice.isNegative() || minCreatedTime == null || maxCreatedTime == null) {
+            chains.add(getReleases(expand, top, minCreatedTime, maxCreatedTime, definitionId, statusFilter, projection));
+        } else {
+            for (var from = minCreatedTime; from.isBefore(maxCreatedTime); from = from.plus(slice)) {
+                var to = from.plus(slice).isBefore(maxCreatedTime) ? from.plus(slice) : maxCreatedTime;
+                chains.add(getReleases(expand, top, from, to, definitionId, statusFilter, projection));
+                if (to.isBefore(maxCreatedTime)) boundaries.add(to);
+            }
+        }
 
-        return MAPPER.mapJsonResponse(r, Releases.class);
+        // a release created on the boundary of two slices can be listed by both. Only the ids of those releases are
+        // kept, in a concurrent set, so that the filter holds when the stream is made parallel.
+        var listed = ConcurrentHashMap.<Integer>newKeySet();
+        var releases = PagedStream.ofContinuationTokens(maxConcurrency, chains);
+        if (boundaries.isEmpty()) return releases;
+        return releases.filter(release -> !boundaries.contains(instant(release.getCreatedOn())) || listed.add(release.getId()));
+    }
+
+    /***
+     * Parses the creation time of a release, or returns null if it isn't an ISO 8601 instant
+     */
+    private static Instant instant(String time) {
+        if (time == null) return null;
+        try {
+            return Instant.parse(time);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /***
+     * Pages of the releases created in a time range
+     */
+    private PagedStream.Chain<Release> getReleases(ReleaseExpands[] expand, int top, Instant minCreatedTime, Instant maxCreatedTime,
+                                                   int definitionId, ReleaseStatus statusFilter, FieldProjection projection) {
+        return continuationToken -> {
+            var q = new HashMap<String, Object>();
+            if (expand != null && expand.length > 0)
+                q.put("$expand", Arrays.stream(expand).map(e -> e.toString().toLowerCase()).collect(Collectors.joining(",")));
+            if (top > 0) q.put("$top", top);
+            if (minCreatedTime != null) q.put("minCreatedTime", minCreatedTime.toString());
+            if (maxCreatedTime != null) q.put("maxCreatedTime", maxCreatedTime.toString());
+            if (definitionId > 0) q.put("definitionId", definitionId);
+            if (statusFilter != null) q.put("statusFilter", statusFilter.toString().toLowerCase());
+            q.put("queryOrder", "ascending");
+            q.put("continuationToken", continuationToken);
+
+            var releases = getReleases(q, projection);
+            var next = releases.getContinuationToken() == 0 ? null : String.valueOf(releases.getContinuationToken());
+            // the token is the position after the page; one that doesn't move would read the same page again.
+            if (next != null && next.equals(continuationToken))
+                throw new AzDException("PagingException", "The continuation token " + next + " of the releases didn't move.");
+            return new PagedStream.Chunk<>(releases.getReleases(), next);
+        };
+    }
+
+    /***
+     * Gets a page of releases with the continuation token of the next page from the response header
+     */
+    private Releases getReleases(Map<String, Object> q, FieldProjection projection) throws ConnectionException, AzDException {
+        var headers = new HashMap<String, String>();
+        String r = get(CONNECTION, RELEASE, CONNECTION.getProject(), AREA, null, null, ApiVersion.RELEASE, q, headers);
+
+        var releases = MAPPER.mapJsonResponse(r, Releases.class, projection);
+        var token = headers.get("x-ms-continuationtoken");
+        if (token != null && !token.isBlank()) {
+            try {
+                releases.setContinuationToken(Integer.parseInt(token.trim()));
+            } catch (NumberFormatException e) {
+                throw new AzDException("PagingException", "The continuation token " + token + " of the releases isn't a number.");
+            }
+        }
+        return releases;
     }
 
     /***
@@ -430,10 +570,9 @@ public class ReleaseApi implements ReleaseDetails {
     @Override
     public void deleteReleaseDefinition(int definitionId, String comment, boolean forceDelete) throws ConnectionException, AzDException {
         try {
-            var q = new HashMap<String, Object>(){{
-                put("comment", comment);
-                put("forceDelete", forceDelete);
-            }};
+            var q = new HashMap<String, Object>();
+            q.put("comment", comment);
+            q.put("forceDelete", forceDelete);
 
             String r = send(RequestMethod.DELETE, CONNECTION, RELEASE, CONNECTION.getProject(),
                     AREA.replace("releases", "definitions"), Integer.toString(definitionId),
@@ -461,6 +600,40 @@ public class ReleaseApi implements ReleaseDetails {
         return MAPPER.mapJsonResponse(r, ReleaseDefinition.class);
     }
 
+    /***
+     * Get a release definition without binding it. The environments are bound only when they are accessed.
+     * @param definitionId Id of the release definition/pipeline.
+     * @return Lazy release definition {@link LazyReleaseDefinition}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public LazyReleaseDefinition getLazyReleaseDefinition(int definitionId) throws ConnectionException, AzDException {
+        String r = send(RequestMethod.GET, CONNECTION, RELEASE, CONNECTION.getProject(),
+                AREA.replace("releases", "definitions"), Integer.toString(definitionId),
+                null, ApiVersion.RELEASE_DEFINITION, null, null);
+
+        return new LazyReleaseDefinition(r);
+    }
+
+    /***
+     * Update a release definition. The properties that were not changed are sent as received from the API.
+     * @param definition pass the modified release definition {@link LazyReleaseDefinition}
+     * @return Lazy release definition {@link LazyReleaseDefinition}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public LazyReleaseDefinition updateReleaseDefinition(LazyReleaseDefinition definition) throws ConnectionException, AzDException {
+        String r = send(RequestMethod.PUT, CONNECTION, RELEASE, CONNECTION.getProject(),
+                AREA.replace("releases", "definitions"), null,
+                null, ApiVersion.RELEASE_DEFINITION, null, true, definition.toJson());
+
+        return new LazyReleaseDefinition(r);
+    }
+
     /***
      * Get revision history for a release definition
      * @param definitionId Id of the release definition/pipeline.
@@ -0,0 +1,58 @@
+package org.azd.release.types;
+
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.LazyJsonObject;
+
+import java.util.List;
+
+/***
+ * Release that keeps the raw json and binds the environments only when they are accessed.
+ */
+public class LazyRelease extends LazyJsonObject {
+
+    /***
+     * Create the release from the json returned by the API
+     * @param content release json
+     * @throws AzDException if the content is not a valid release
+     */
+    public LazyRelease(String content) throws AzDException {
+        super(content);
+    }
+
+    /***
+     * Gets the unique identifier of this field.
+     * @return release id
+     * @throws AzDException if the property can't be bound
+     */
+    public int getId() throws AzDException {
+        return getInt("id");
+    }
+
+    /***
+     * Gets name.
+     * @return release name
+     * @throws AzDException if the property can't be bound
+     */
+    public String getName() throws AzDException {
+        return getString("name");
+    }
+
+    /***
+     * Gets status.
+     * @return release status
+     * @throws AzDException if the property can't be bound
+     */
+    public String getStatus() throws AzDException {
+        return getString("status");
+    }
+
+    /***
+     * Gets list of environments. The environments are not bound; each environment binds its own
+     * properties on first access.
+     * @return list of environments {@link LazyReleaseEnvironment}
+     * @throws AzDException if the property can't be parsed
+     */
+    public List<LazyReleaseEnvironment> getEnvironments() throws AzDException {
+        return getObjects("environments", LazyReleaseEnvironment.class, LazyReleaseEnvironment::new);
+    }
+}
@@ -0,0 +1,67 @@
+package org.azd.release.types;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.LazyJsonObject;
+
+import java.util.List;
+
+/***
+ * Release definition that keeps the raw json and binds the environments, artifacts and triggers only when
+ * they are accessed. Updating the definition re-emits the untouched parts verbatim.
+ */
+public class LazyReleaseDefinition extends LazyJsonObject {
+
+    /***
+     * Create the release definition from the json returned by the API
+     * @param content release definition json
+     * @throws AzDException if the content is not a valid release definition
+     */
+    public LazyReleaseDefinition(String content) throws AzDException {
+        super(content);
+    }
+
+    /***
+     * Gets the unique identifier of release definition.
+     * @return definition id
+     * @throws AzDException if the property can't be bound
+     */
+    public int getId() throws AzDException {
+        return getInt("id");
+    }
+
+    /***
+     * Gets or sets the name of the release definition.
+     * @return definition name
+     * @throws AzDException if the property can't be bound
+     */
+    public String getName() throws AzDException {
+        return getString("name");
+    }
+
+    /***
+     * Set the name of the release definition
+     * @param name definition name
+     */
+    public void setName(String name) {
+        set("name", name);
+    }
+
+    /***
+     * Gets the revision number.
+     * @return revision number
+     * @throws AzDException if the property can't be bound
+     */
+    public int getRevision() throws AzDException {
+        return getInt("revision");
+    }
+
+    /***
+     * Gets or sets the list of environments. Bound on first access.
+     * @return list of environments {@link ReleaseDefinitionEnvironment}
+     * @throws AzDException if the property can't be bound
+     */
+    public List<ReleaseDefinitionEnvironment> getEnvironments() throws AzDException {
+        return get("environments", new TypeReference<List<ReleaseDefinitionEnvironment>>() {});
+    }
+}
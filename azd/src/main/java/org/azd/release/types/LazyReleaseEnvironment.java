@@ -0,0 +1,85 @@
+package org.azd.release.types;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.LazyJsonObject;
+
+import java.util.List;
+
+/***
+ * Release environment that keeps the raw json and binds the deploy phases and approvals only when they are accessed.
+ */
+public class LazyReleaseEnvironment extends LazyJsonObject {
+
+    /***
+     * Create the release environment from the json returned by the API
+     * @param content release environment json
+     * @throws AzDException if the content is not a valid release environment
+     */
+    public LazyReleaseEnvironment(String content) throws AzDException {
+        super(content);
+    }
+
+    /***
+     * Gets the unique identifier of this field.
+     * @return environment id
+     * @throws AzDException if the property can't be bound
+     */
+    public int getId() throws AzDException {
+        return getInt("id");
+    }
+
+    /***
+     * Gets name.
+     * @return environment name
+     * @throws AzDException if the property can't be bound
+     */
+    public String getName() throws AzDException {
+        return getString("name");
+    }
+
+    /***
+     * Gets environment status.
+     * @return environment status
+     * @throws AzDException if the property can't be bound
+     */
+    public String getStatus() throws AzDException {
+        return getString("status");
+    }
+
+    /***
+     * Gets rank.
+     * @return rank of the environment
+     * @throws AzDException if the property can't be bound
+     */
+    public int getRank() throws AzDException {
+        return getInt("rank");
+    }
+
+    /***
+     * Gets list of deploy phases snapshot. Bound on first access.
+     * @return list of deploy phases {@link DeployPhase}
+     * @throws AzDException if the property can't be bound
+     */
+    public List<DeployPhase> getDeployPhasesSnapshot() throws AzDException {
+        return get("deployPhasesSnapshot", new TypeReference<List<DeployPhase>>() {});
+    }
+
+    /***
+     * Gets list of pre deploy approvals. Bound on first access.
+     * @return list of approvals {@link ReleaseApproval}
+     * @throws AzDException if the property can't be bound
+     */
+    public List<ReleaseApproval> getPreDeployApprovals() throws AzDException {
+        return get("preDeployApprovals", new TypeReference<List<ReleaseApproval>>() {});
+    }
+
+    /***
+     * Gets list of post deploy approvals. Bound on first access.
+     * @return list of approvals {@link ReleaseApproval}
+     * @throws AzDException if the property can't be bound
+     */
+    public List<ReleaseApproval> getPostDeployApprovals() throws AzDException {
+        return get("postDeployApprovals", new TypeReference<List<ReleaseApproval>>() {});
+    }
+}
@@ -1,5 +1,6 @@
 package org.azd.release.types;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -15,6 +16,11 @@ public class Releases {
      */
     @JsonProperty("value")
     private List<Release> Releases;
+    /***
+     * Continuation token of the next page from the x-ms-continuationtoken header; 0 if this is the last page
+     */
+    @JsonIgnore
+    private int continuationToken;
 
     public List<Release> getReleases() {
         return Releases;
@@ -24,10 +30,19 @@ public class Releases {
         Releases = releases;
     }
 
+    public int getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(int continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
     @Override
     public String toString() {
         return "Releases{" +
                 "Releases=" + Releases +
+                ", continuationToken=" + continuationToken +
                 '}';
     }
 }
@@ -24,7 +24,7 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "serviceendpoint";
     private final String SERVICE_ENDPOINT = "1814ab31-2f4f-4a9f-8761-f4d77dc5a5d7";
     private final CoreApi CORE;
@@ -79,38 +79,36 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
                                                         String subscriptionName) throws ConnectionException, AzDException {
         var project = CORE.getProject(CONNECTION.getProject());
 
-        var ref = new LinkedHashMap<String, Object>(){{
-            put("projectReference", new LinkedHashMap<String, Object>(){{
-                put("id", project.getId());
-                put("name", project.getName());
-            }});
-            put("name", endpointName);
-        }};
+        var ref = new LinkedHashMap<String, Object>();
+        var projectReference = new LinkedHashMap<String, Object>();
+        projectReference.put("id", project.getId());
+        projectReference.put("name", project.getName());
+        ref.put("projectReference", projectReference);
+        ref.put("name", endpointName);
 
         var lRef = List.of(ref);
 
-        var body = new LinkedHashMap<String, Object>(){{
-            put("authorization", new LinkedHashMap<String, Object>(){{
-                put("parameters", new LinkedHashMap<String, Object>(){{
-                    put("tenantid", tenantId);
-                    put("serviceprincipalid", servicePrincipalId);
-                    put("authenticationType", "spnKey");
-                    put("serviceprincipalkey", servicePrincipalKey);
-                }});
-                put("scheme", "ServicePrincipal");
-            }});
-            put("data", new LinkedHashMap<String, Object>(){{
-                put("subscriptionId", subscriptionId);
-                put("subscriptionName", subscriptionName);
-                put("environment", "AzureCloud");
-                put("scopeLevel", "Subscription");
-                put("creationMode", "Manual");
-            }});
-            put("url", "https://management.azure.com/");
-            put("isShared", false);
-            put("isReady", true);
-            put("serviceEndpointProjectReferences", lRef);
-        }};
+        var body = new LinkedHashMap<String, Object>();
+        var authorization = new LinkedHashMap<String, Object>();
+        var parameters = new LinkedHashMap<String, Object>();
+        parameters.put("tenantid", tenantId);
+        parameters.put("serviceprincipalid", servicePrincipalId);
+        parameters.put("authenticationType", "spnKey");
+        parameters.put("serviceprincipalkey", servicePrincipalKey);
+        authorization.put("parameters", parameters);
+        authorization.put("scheme", "ServicePrincipal");
+        body.put("authorization", authorization);
+        var data = new LinkedHashMap<String, Object>();
+        data.put("subscriptionId", subscriptionId);
+        data.put("subscriptionName", subscriptionName);
+        data.put("environment", "AzureCloud");
+        data.put("scopeLevel", "Subscription");
+        data.put("creationMode", "Manual");
+        body.put("data", data);
+        body.put("url", "https://management.azure.com/");
+        body.put("isShared", false);
+        body.put("isReady", true);
+        body.put("serviceEndpointProjectReferences", lRef);
 
         return createServiceEndpoint(endpointName, "azurerm", body);
     }
@@ -141,7 +139,8 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
      */
     @Override
     public ServiceEndpoint getServiceEndpoint(String endpointId, ServiceEndpointActionFilter actionFilter) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{ put("actionFilter", actionFilter.toString().toLowerCase()); }};
+        var q = new HashMap<String, Object>();
+        q.put("actionFilter", actionFilter.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, SERVICE_ENDPOINT, CONNECTION.getProject(),
                 AREA + "/endpoints", endpointId, null, ApiVersion.SERVICE_ENDPOINTS, q, null);
@@ -173,7 +172,8 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
     @Override
     public void deleteServiceEndpoint(String endpointId, String[] projectIds) throws ConnectionException, AzDException {
         try {
-            var q = new HashMap<String, Object>(){{ put("projectIds", String.join(",", projectIds)); }};
+            var q = new HashMap<String, Object>();
+            q.put("projectIds", String.join(",", projectIds));
 
             String r = send(RequestMethod.DELETE, CONNECTION, SERVICE_ENDPOINT, CONNECTION.getProject(),
                 AREA + "/endpoints", endpointId, null, ApiVersion.SERVICE_ENDPOINTS, q, null);
@@ -196,10 +196,9 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
     @Override
     public void deleteServiceEndpoint(String endpointId, String[] projectIds, boolean deep) throws ConnectionException, AzDException {
         try {
-            var q = new HashMap<String, Object>(){{
-                put("projectIds", String.join(",", projectIds));
-                put("deep", deep);
-            }};
+            var q = new HashMap<String, Object>();
+            q.put("projectIds", String.join(",", projectIds));
+            q.put("deep", deep);
 
             String r = send(RequestMethod.DELETE, CONNECTION, SERVICE_ENDPOINT, CONNECTION.getProject(),
                     AREA + "/endpoints", endpointId, null, ApiVersion.SERVICE_ENDPOINTS, q, null);
@@ -220,7 +219,8 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
      */
     @Override
     public ServiceEndpoints getServiceEndpointsByNames(String[] endpointNames) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{ put("endpointNames", String.join(",", endpointNames)); }};
+        var q = new HashMap<String, Object>();
+        q.put("endpointNames", String.join(",", endpointNames));
 
         String r = send(RequestMethod.GET, CONNECTION, SERVICE_ENDPOINT, CONNECTION.getProject(),
                 AREA + "/endpoints", null, null, ApiVersion.SERVICE_ENDPOINTS, q, null);
@@ -244,14 +244,13 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
     @Override
     public ServiceEndpoints getServiceEndpointsByNames(String[] endpointNames, String[] authSchemes, boolean includeDetails,
                                                        boolean includeFailed, String owner, String type) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("endpointNames", String.join(",", endpointNames));
-            put("type", type);
-            put("authSchemes", String.join(",", authSchemes));
-            put("owner", owner);
-            put("includeFailed", includeFailed);
-            put("includeDetails", includeDetails);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("endpointNames", String.join(",", endpointNames));
+        q.put("type", type);
+        q.put("authSchemes", String.join(",", authSchemes));
+        q.put("owner", owner);
+        q.put("includeFailed", includeFailed);
+        q.put("includeDetails", includeDetails);
 
         String r = send(RequestMethod.GET, CONNECTION, SERVICE_ENDPOINT, CONNECTION.getProject(),
                 AREA + "/endpoints", null, null, ApiVersion.SERVICE_ENDPOINTS, q, null);
@@ -272,13 +271,12 @@ public class ServiceEndpointApi implements ServiceEndpointDetails {
         try {
             var project = CORE.getProject(projectName);
 
-            var body = new LinkedHashMap<String, Object>(){{
-                put("projectReference", new LinkedHashMap<String, Object>(){{
-                    put("id", project.getId());
-                    put("name", project.getName());
-                }});
-                put("name", connectionName);
-            }};
+            var body = new LinkedHashMap<String, Object>();
+            var projectReference = new LinkedHashMap<String, Object>();
+            projectReference.put("id", project.getId());
+            projectReference.put("name", project.getName());
+            body.put("projectReference", projectReference);
+            body.put("name", connectionName);
 
             var ref = new ArrayList<>();
             ref.add(body);
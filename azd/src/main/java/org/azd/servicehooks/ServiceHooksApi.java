@@ -24,7 +24,7 @@ public class ServiceHooksApi implements ServiceHooksDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "hooks";
 
 
@@ -79,12 +79,11 @@ public class ServiceHooksApi implements ServiceHooksDetails {
     @Override
     public ServiceHooksSubscriptions getSubscriptions(String consumerActionId, String consumerId, String eventType, String publisherId)
             throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("publisherId", publisherId);
-            put("eventType", eventType);
-            put("consumerId", consumerId);
-            put("consumerActionId", consumerActionId);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("publisherId", publisherId);
+        q.put("eventType", eventType);
+        q.put("consumerId", consumerId);
+        q.put("consumerActionId", consumerActionId);
 
         String r = send(RequestMethod.GET, CONNECTION, null, null,
                 AREA + "/subscriptions",  null, null, ApiVersion.SERVICE_HOOKS, q,null);
@@ -132,15 +131,14 @@ public class ServiceHooksApi implements ServiceHooksDetails {
                                                        LinkedHashMap<String, Object> consumerInputs)
             throws ConnectionException, AzDException {
 
-        var requestBody = new LinkedHashMap<String, Object>(){{
-            put("publisherId", publisherId);
-            put("eventType", eventType);
-            put("resourceVersion", resourceVersion);
-            put("consumerId", consumerId);
-            put("consumerActionId", consumerActionId);
-            put("publisherInputs", publisherInputs);
-            put("consumerInputs", consumerInputs);
-        }};
+        var requestBody = new LinkedHashMap<String, Object>();
+        requestBody.put("publisherId", publisherId);
+        requestBody.put("eventType", eventType);
+        requestBody.put("resourceVersion", resourceVersion);
+        requestBody.put("consumerId", consumerId);
+        requestBody.put("consumerActionId", consumerActionId);
+        requestBody.put("publisherInputs", publisherInputs);
+        requestBody.put("consumerInputs", consumerInputs);
 
         String r = send(RequestMethod.POST, CONNECTION, null, null,
                 AREA + "/subscriptions",  null, null, ApiVersion.SERVICE_HOOKS, null,requestBody);
@@ -3,6 +3,7 @@ package org.azd.utils;
 import org.azd.accounts.AccountsApi;
 import org.azd.build.BuildApi;
 import org.azd.connection.Connection;
+import org.azd.connection.ConnectionContext;
 import org.azd.core.CoreApi;
 import org.azd.extensionmanagement.ExtensionManagementApi;
 import org.azd.feedmanagement.FeedManagementApi;
@@ -22,21 +23,51 @@ import org.azd.work.WorkApi;
 import org.azd.workitemtracking.WorkItemTrackingApi;
 
 /***
- * AzDClientApi class to easily call VSTS REST Api with the connection parameters
+ * AzDClientApi class to easily call VSTS REST Api with the connection parameters.
+ * <p>
+ *     Api instances are created once per client and the same instance is returned on every call, until the
+ *     project or organization of a client bound to a {@link ConnectionContext} is changed.
+ *     The Api classes hold no state other than the connection object, so the returned instances
+ *     are safe to share between threads.
+ * </p>
  */
 public class AzDClientApi implements AzDClient {
 
     /***
-     * Instance of connection object
+     * Registry the client is handed out by, or null
      */
-    private final Connection CONNECTION;
+    private final AzDClientRegistry REGISTRY;
+
+    /***
+     * Api instances bound to the connection object
+     */
+    private volatile Apis apis;
 
     /***
      * Pass the VSTS organization name and personal access token to create a connection object
      * @param connection Connection object {@link Connection}
      */
     public AzDClientApi(Connection connection) {
-        this.CONNECTION = connection;
+        this.REGISTRY = null;
+        this.apis = new Apis(connection, null);
+    }
+
+    /***
+     * Create a client bound to a connection context
+     * @param context connection context of the client {@link ConnectionContext}
+     */
+    public AzDClientApi(ConnectionContext context) {
+        this(null, context);
+    }
+
+    /***
+     * Create a client handed out by a registry
+     * @param registry registry that creates the connection contexts {@link AzDClientRegistry}
+     * @param context connection context of the client {@link ConnectionContext}
+     */
+    AzDClientApi(AzDClientRegistry registry, ConnectionContext context) {
+        this.REGISTRY = registry;
+        this.apis = new Apis(context.createConnection(), context);
     }
 
     /***
@@ -45,7 +76,7 @@ public class AzDClientApi implements AzDClient {
      * @param personalAccessToken Personal access token
      */
     public AzDClientApi(String organizationName, String personalAccessToken) {
-        this.CONNECTION = new Connection(organizationName, personalAccessToken);
+        this(new Connection(organizationName, personalAccessToken));
     }
 
     /***
@@ -55,31 +86,58 @@ public class AzDClientApi implements AzDClient {
      * @param personalAccessToken Personal access token
      */
     public AzDClientApi(String organizationName, String projectName, String personalAccessToken) {
-        this.CONNECTION = new Connection(organizationName, projectName, personalAccessToken);
+        this(new Connection(organizationName, projectName, personalAccessToken));
     }
 
-    public void setProject(String project) {
-        if(this.CONNECTION != null) {
-            this.CONNECTION.setProject(project);
+    /***
+     * Set the project of the client. A client bound to a {@link ConnectionContext} is bound to a new context for
+     * the project, and its Api instances are created again; other clients aren't affected.
+     * @param project provide the project name
+     */
+    public synchronized void setProject(String project) {
+        var context = apis.CONTEXT;
+        if (context != null) {
+            bind(REGISTRY != null ? REGISTRY.getContext(context.getOrganization(), project) : context.withProject(project));
+        } else if (apis.CONNECTION != null) {
+            apis.CONNECTION.setProject(project);
         }
     }
 
-    public void setOrganization(String org) {
-        if(this.CONNECTION != null) {
-            this.CONNECTION.setOrganization(org);
+    /***
+     * Set the organization of the client. A client bound to a {@link ConnectionContext} is bound to a new context
+     * for the organization, and its Api instances are created again; other clients aren't affected.
+     * @param org pass the organization name
+     */
+    public synchronized void setOrganization(String org) {
+        var context = apis.CONTEXT;
+        if (context != null) {
+            bind(REGISTRY != null ? REGISTRY.getContext(org, context.getProject()) : context.withOrganization(org));
+        } else if (apis.CONNECTION != null) {
+            apis.CONNECTION.setOrganization(org);
         }
     }
 
+    private void bind(ConnectionContext context) {
+        apis = new Apis(context.createConnection(), context);
+    }
+
     public String getOrganization() {
-        if(this.CONNECTION != null) {
-            return this.CONNECTION.getOrganization();
+        var connection = apis.CONNECTION;
+        if(connection != null) {
+            return connection.getOrganization();
         }
         return null;
     }
 
+    /***
+     * Set the oauth token of the client. The token of a client bound to a {@link ConnectionContext} is set on the
+     * connection the context shares its credentials with.
+     * @param token pass the oauth access token
+     */
     public void setOauthToken(AuthorizedToken token) {
-        if(this.CONNECTION != null) {
-            this.CONNECTION.setOauthToken(token);
+        var connection = apis.CONNECTION;
+        if(connection != null) {
+            connection.setOauthToken(token);
         }
     }
 
@@ -88,7 +146,7 @@ public class AzDClientApi implements AzDClient {
      * @return an instance of AccountsApi {@link AccountsApi}
      */
     @Override
-    public AccountsApi getAccountsApi() { return new AccountsApi(CONNECTION); }
+    public AccountsApi getAccountsApi() { return apis.ACCOUNTS; }
 
     /***
      * Returns an instance of Build Api
@@ -96,7 +154,7 @@ public class AzDClientApi implements AzDClient {
      */
     @Override
     public BuildApi getBuildApi() {
-        return new BuildApi(CONNECTION);
+        return apis.BUILD;
     }
 
     /***
@@ -105,7 +163,7 @@ public class AzDClientApi implements AzDClient {
      */
     @Override
     public CoreApi getCoreApi() {
-        return new CoreApi(CONNECTION);
+        return apis.CORE;
     }
 
     /***
@@ -114,7 +172,7 @@ public class AzDClientApi implements AzDClient {
      */
     @Override
     public FeedManagementApi getFeedManagementApi() {
-        return new FeedManagementApi(CONNECTION);
+        return apis.FEED_MANAGEMENT;
     }
 
     /***
@@ -122,63 +180,63 @@ public class AzDClientApi implements AzDClient {
      * @return instance of Git Api {@link GitApi}
      */
     @Override
-    public GitApi getGitApi() { return new GitApi(CONNECTION); }
+    public GitApi getGitApi() { return apis.GIT; }
 
     /***
      * Returns an instance of GraphApi
      * @return instance of Graph Api {@link GraphApi}
      */
     @Override
-    public GraphApi getGraphApi() { return new GraphApi(CONNECTION); }
+    public GraphApi getGraphApi() { return apis.GRAPH; }
 
     /***
      * Returns an instance of Member Entitlement management Api
      * @return instance of Member Entitle management Api {@link MemberEntitlementManagementApi}
      */
     @Override
-    public MemberEntitlementManagementApi getMemberEntitlementManagementApi() { return new MemberEntitlementManagementApi(CONNECTION); }
+    public MemberEntitlementManagementApi getMemberEntitlementManagementApi() { return apis.MEMBER_ENTITLEMENT_MANAGEMENT; }
 
     /***
      * Returns an instance of Release Api
      * @return instance of Release Api {@link ReleaseApi}
      */
     @Override
-    public ReleaseApi getReleaseApi() { return new ReleaseApi(CONNECTION); }
+    public ReleaseApi getReleaseApi() { return apis.RELEASE; }
 
     /***
      * Returns an instance of Service Hooks Api
      * @return instance of Service Hooks Api {@link ServiceHooksApi}
      */
     @Override
-    public ServiceHooksApi getServiceHooksApi() { return new ServiceHooksApi(CONNECTION); }
+    public ServiceHooksApi getServiceHooksApi() { return apis.SERVICE_HOOKS; }
 
     /***
      * Returns an instance of WikiApi
      * @return instance of Wiki Api {@link WikiApi}
      */
     @Override
-    public WikiApi getWikiApi() { return new WikiApi(CONNECTION); }
+    public WikiApi getWikiApi() { return apis.WIKI; }
 
     /***
      * Returns an instance of Work Api
      * @return instance of Work Api {@link WorkApi}
      */
     @Override
-    public WorkApi getWorkApi() { return new WorkApi(CONNECTION); }
+    public WorkApi getWorkApi() { return apis.WORK; }
 
     /***
      * Returns an instance of Work item tracking Api
      * @return instance of work item tracking Api {@link WorkItemTrackingApi}
      */
     @Override
-    public WorkItemTrackingApi getWorkItemTrackingApi() { return new WorkItemTrackingApi(CONNECTION); }
+    public WorkItemTrackingApi getWorkItemTrackingApi() { return apis.WORK_ITEM_TRACKING; }
 
     /***
      * Returns an instance of OAuth Api
      * @return instance of OAuth Api {@link OAuthApi}
      */
     @Override
-    public OAuthApi getOAuth() { return new OAuthApi(); }
+    public OAuthApi getOAuth() { return apis.OAUTH; }
 
     /***
      * Returns an instance of Service endpoint Api
@@ -186,7 +244,7 @@ public class AzDClientApi implements AzDClient {
      */
     @Override
     public ServiceEndpointApi getServiceEndpointApi() {
-        return new ServiceEndpointApi(CONNECTION);
+        return apis.SERVICE_ENDPOINT;
     }
 
     /***
@@ -195,7 +253,7 @@ public class AzDClientApi implements AzDClient {
      */
     @Override
     public ExtensionManagementApi getExtensionManagementApi() {
-        return new ExtensionManagementApi(CONNECTION);
+        return apis.EXTENSION_MANAGEMENT;
     }
 
     /***
@@ -203,12 +261,59 @@ public class AzDClientApi implements AzDClient {
      * @return instance of PolicyApi {@link PolicyApi}
      */
     @Override
-    public PolicyApi getPolicyApi() { return new PolicyApi(CONNECTION); }
+    public PolicyApi getPolicyApi() { return apis.POLICY; }
 
     /***
      * Returns an instance of Pipelines Api
      * @return instance of PipelinesApi {@link PipelinesApi}
      */
     @Override
-    public PipelinesApi getPipelinesApi() { return new PipelinesApi(CONNECTION); }
+    public PipelinesApi getPipelinesApi() { return apis.PIPELINES; }
+
+    /***
+     * Api instances bound to a connection object
+     */
+    private static final class Apis {
+        private final Connection CONNECTION;
+        private final ConnectionContext CONTEXT;
+        private final AccountsApi ACCOUNTS;
+        private final BuildApi BUILD;
+        private final CoreApi CORE;
+        private final FeedManagementApi FEED_MANAGEMENT;
+        private final GitApi GIT;
+        private final GraphApi GRAPH;
+        private final MemberEntitlementManagementApi MEMBER_ENTITLEMENT_MANAGEMENT;
+        private final ReleaseApi RELEASE;
+        private final ServiceHooksApi SERVICE_HOOKS;
+        private final WikiApi WIKI;
+        private final WorkApi WORK;
+        private final WorkItemTrackingApi WORK_ITEM_TRACKING;
+        private final OAuthApi OAUTH;
+        private final ServiceEndpointApi SERVICE_ENDPOINT;
+        private final ExtensionManagementApi EXTENSION_MANAGEMENT;
+        private final PolicyApi POLICY;
+        private final PipelinesApi PIPELINES;
+
+        Apis(Connection connection, ConnectionContext context) {
+            this.CONNECTION = connection;
+            this.CONTEXT = context;
+            this.ACCOUNTS = new AccountsApi(connection);
+            this.BUILD = new BuildApi(connection);
+            this.CORE = new CoreApi(connection);
+            this.FEED_MANAGEMENT = new FeedManagementApi(connection);
+            this.GIT = new GitApi(connection);
+            this.GRAPH = new GraphApi(connection);
+            this.MEMBER_ENTITLEMENT_MANAGEMENT = new MemberEntitlementManagementApi(connection);
+            this.RELEASE = new ReleaseApi(connection);
+            this.SERVICE_HOOKS = new ServiceHooksApi(connection);
+            this.WIKI = new WikiApi(connection);
+            this.WORK = new WorkApi(connection);
+            this.WORK_ITEM_TRACKING = new WorkItemTrackingApi(connection);
+            this.OAUTH = new OAuthApi();
+            this.SERVICE_ENDPOINT = new ServiceEndpointApi(connection);
+            this.EXTENSION_MANAGEMENT = new ExtensionManagementApi(connection);
+            this.POLICY = new PolicyApi(connection);
+            this.PIPELINES = new PipelinesApi(connection);
+        }
+    }
 }
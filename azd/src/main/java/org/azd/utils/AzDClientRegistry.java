@@ -0,0 +1,155 @@
+package org.azd.utils;
+
+import org.azd.connection.Connection;
+import org.azd.connection.ConnectionContext;
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.RateLimiter;
+import org.azd.interfaces.AzDClientQuery;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * Registry of clients to work with many organizations and projects at once.
+ * <p>
+ *     Every client created by the registry is bound to an immutable {@link ConnectionContext}, so the
+ *     organization and project can't be changed from another thread; setting the project or organization of a
+ *     client binds only that client to a new context. All the clients share the credentials of
+ *     the connection the registry is created with, the Http client, the resource area cache and a rate
+ *     limiter per organization.
+ * </p>
+ * <pre>
+ *     var registry = new AzDClientRegistry(new Connection(null, personalAccessToken), 10);
+ *     var builds = registry.submit("myOrganisationName", "myProject", c -&gt; c.getBuildApi().getBuilds(10));
+ * </pre>
+ */
+public class AzDClientRegistry implements AutoCloseable {
+    private static final int DEFAULT_PARALLELISM = 8;
+
+    /***
+     * Connection object that holds the credentials
+     */
+    private final Connection CONNECTION;
+    private final double REQUESTS_PER_SECOND;
+    private final int PARALLELISM;
+    private final ExecutorService EXECUTOR;
+    private final Map<String, RateLimiter> RATE_LIMITERS = new ConcurrentHashMap<>();
+
+    /***
+     * Create the registry without limiting the requests
+     * @param connection connection object that holds the personal access token or oauth token
+     */
+    public AzDClientRegistry(Connection connection) {
+        this(connection, 0, DEFAULT_PARALLELISM);
+    }
+
+    /***
+     * Create the registry and limit the requests sent to each organization
+     * @param connection connection object that holds the personal access token or oauth token
+     * @param requestsPerSecond number of requests allowed per second for each organization. Pass 0 to send the requests without limit
+     */
+    public AzDClientRegistry(Connection connection, double requestsPerSecond) {
+        this(connection, requestsPerSecond, DEFAULT_PARALLELISM);
+    }
+
+    /***
+     * Create the registry and limit the requests sent to each organization
+     * @param connection connection object that holds the personal access token or oauth token
+     * @param requestsPerSecond number of requests allowed per second for each organization. Pass 0 to send the requests without limit
+     * @param parallelism number of queries submitted to the registry that can run at the same time
+     */
+    public AzDClientRegistry(Connection connection, double requestsPerSecond, int parallelism) {
+        this.CONNECTION = connection;
+        this.REQUESTS_PER_SECOND = requestsPerSecond;
+        this.PARALLELISM = parallelism;
+        var count = new AtomicInteger();
+        this.EXECUTOR = Executors.newFixedThreadPool(parallelism, r -> {
+            var t = new Thread(r, "azd-client-registry-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /***
+     * Get the number of queries submitted to the registry that can run at the same time
+     * @return parallelism of the registry
+     */
+    public int getParallelism() {
+        return PARALLELISM;
+    }
+
+    /***
+     * Get the rate limiter of an organization
+     * @param organization pass the organization name
+     * @return rate limiter or null if the requests are not limited
+     */
+    public RateLimiter getRateLimiter(String organization) {
+        if (REQUESTS_PER_SECOND <= 0) return null;
+        return RATE_LIMITERS.computeIfAbsent(organization, o -> new RateLimiter(REQUESTS_PER_SECOND));
+    }
+
+    /***
+     * Get an immutable connection context for the organization and project
+     * @param organization pass the organization name
+     * @param project provide the project name
+     * @return connection context {@link ConnectionContext}
+     */
+    public ConnectionContext getContext(String organization, String project) {
+        return new ConnectionContext(CONNECTION, organization, project, getRateLimiter(organization));
+    }
+
+    /***
+     * Create a new client for an organization. Every call creates a client of its own, so setting the project or
+     * organization of one client doesn't change the others.
+     * @param organization pass the organization name
+     * @return client bound to the organization {@link AzDClientApi}
+     */
+    public AzDClientApi newClient(String organization) {
+        return newClient(organization, null);
+    }
+
+    /***
+     * Create a new client for a project of an organization. Every call creates a client of its own, so setting the
+     * project or organization of one client doesn't change the others.
+     * @param organization pass the organization name
+     * @param project provide the project name
+     * @return client bound to the organization and project {@link AzDClientApi}
+     */
+    public AzDClientApi newClient(String organization, String project) {
+        return new AzDClientApi(this, getContext(organization, project));
+    }
+
+    /***
+     * Run the query for the organization and project in the background
+     * @param organization pass the organization name
+     * @param project provide the project name
+     * @param query query to run with the client of the organization
+     * @param <T> type of the result
+     * @return future completed with the result of the query or with the {@link AzDException} or
+     * {@link org.azd.exceptions.ConnectionException} thrown by the query
+     */
+    public <T> CompletableFuture<T> submit(String organization, String project, AzDClientQuery<T> query) {
+        var client = newClient(organization, project);
+        var future = new CompletableFuture<T>();
+        EXECUTOR.execute(() -> {
+            try {
+                future.complete(query.execute(client));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /***
+     * Stops the threads that run the submitted queries
+     */
+    @Override
+    public void close() {
+        EXECUTOR.shutdown();
+    }
+}
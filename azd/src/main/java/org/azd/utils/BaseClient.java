@@ -4,13 +4,32 @@ import org.azd.enums.RequestMethod;
 import org.azd.exceptions.AzDException;
 import org.azd.helpers.JsonMapper;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
 /**
  *  Implements HttpRequest request methods to send GET, POST, PATCH and DELETE request
@@ -19,8 +38,23 @@ import java.util.Map;
 public abstract class BaseClient {
 
     private static final String AUTHORIZATION = "Authorization";
-    private static final JsonMapper MAPPER = new JsonMapper();
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
     private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /***
+     * Request bodies larger than this number of bytes are sent gzip compressed. Disabled by default.
+     */
+    private static volatile int requestCompressionThreshold = -1;
+
+    /***
+     * Compress the request bodies larger than the given number of bytes with gzip. Only enable this for the
+     * services that accept compressed request bodies.
+     * @param bytes minimum size of the request body to compress. Pass -1 to disable the compression
+     */
+    public static void setRequestCompressionThreshold(int bytes) {
+        requestCompressionThreshold = bytes;
+    }
 
     /**
      * Encodes the personal access token to base 64
@@ -42,7 +76,8 @@ public abstract class BaseClient {
         return HttpRequest
                 .newBuilder()
                 .uri(URI.create(requestUrl))
-                .setHeader(AUTHORIZATION, encodePersonalAccessToken(token));
+                .setHeader(AUTHORIZATION, encodePersonalAccessToken(token))
+                .setHeader("Accept-Encoding", ACCEPT_ENCODING);
     }
 
     /***
@@ -53,37 +88,308 @@ public abstract class BaseClient {
     private static HttpRequest.Builder request(String requestUrl) {
         return HttpRequest
                 .newBuilder()
-                .uri(URI.create(requestUrl));
+                .uri(URI.create(requestUrl))
+                .setHeader("Accept-Encoding", ACCEPT_ENCODING);
+    }
+
+    /***
+     * Sets the request method and body. The body is compressed if it is larger than the request compression threshold.
+     * @param builder Http request builder
+     * @param method request method
+     * @param body request body
+     * @return HttpRequest object to build
+     */
+    private static HttpRequest.Builder body(HttpRequest.Builder builder, RequestMethod method, String body) {
+        int threshold = requestCompressionThreshold;
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+
+        if (threshold < 0 || content.length < threshold)
+            return builder.method(method.toString(), HttpRequest.BodyPublishers.ofByteArray(content));
+
+        var out = new ByteArrayOutputStream(content.length / 4);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder
+                .method(method.toString(), HttpRequest.BodyPublishers.ofByteArray(out.toByteArray()))
+                .header("Content-Encoding", "gzip");
     }
 
     /***
      * Response from API for the given request
      * @param r pass the Http request object
      * @return String response from API
+     * @throws AzDException if the response can't be received or decoded
+     */
+    private static String response(HttpRequest r) throws AzDException {
+        try {
+            return join(CLIENT.sendAsync(r, DecodingBodyHandler.INSTANCE));
+        } catch (UncheckedIOException e) {
+            throw new AzDException(e.getCause());
+        }
+    }
+
+    /***
+     * Response from API for the given request
+     * @param r pass the Http request object
+     * @return String response from API
+     * @throws UncheckedIOException if the response can't be received or decoded
+     */
+    private static String uncheckedResponse(HttpRequest r) {
+        return join(CLIENT.sendAsync(r, DecodingBodyHandler.INSTANCE));
+    }
+
+    /***
+     * Response from API for the given request with the response headers
+     * @param r pass the Http request object
+     * @param headers receives the first value of each response header, keyed by the lower case header name
+     * @return String response from API
+     * @throws AzDException if the response can't be received or decoded
+     */
+    private static String response(HttpRequest r, Map<String, String> headers) throws AzDException {
+        try {
+            return join(CLIENT.sendAsync(r, info -> {
+                info.headers().map().forEach((name, values) -> {
+                    if (!values.isEmpty()) headers.put(name.toLowerCase(), values.get(0));
+                });
+                return DecodingBodyHandler.INSTANCE.apply(info);
+            }));
+        } catch (UncheckedIOException e) {
+            throw new AzDException(e.getCause());
+        }
+    }
+
+    /***
+     * Waits for the response body
+     * @param response future of the Http response
+     * @return String response from API
+     * @throws UncheckedIOException if the response can't be received or decoded
+     */
+    private static String join(CompletableFuture<HttpResponse<String>> response) {
+        try {
+            return response.join().body();
+        } catch (CompletionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException) throw new UncheckedIOException((IOException) cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /***
+     * Gets the charset of the response from content type header
+     * @param headers Http response headers
+     * @return charset of the response; defaults to UTF-8
+     */
+    private static Charset charset(HttpHeaders headers) {
+        var contentType = headers.firstValue("Content-Type").orElse("");
+        for (var param : contentType.split(";")) {
+            var p = param.trim();
+            if (p.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(p.substring(8).replace("\"", ""));
+                } catch (IllegalArgumentException e) {
+                    break;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /***
+     * Reads the response body as a string and decompresses it while it is received if the API sent it compressed
+     */
+    private static final class DecodingBodyHandler implements HttpResponse.BodyHandler<String> {
+        private static final DecodingBodyHandler INSTANCE = new DecodingBodyHandler();
+
+        @Override
+        public HttpResponse.BodySubscriber<String> apply(HttpResponse.ResponseInfo info) {
+            var encoding = info.headers().firstValue("Content-Encoding").orElse("").trim();
+            var body = HttpResponse.BodySubscribers.ofString(charset(info.headers()));
+            if (encoding.equalsIgnoreCase("gzip")) return new InflatingSubscriber(body, true);
+            if (encoding.equalsIgnoreCase("deflate")) return new InflatingSubscriber(body, false);
+            return body;
+        }
+    }
+
+    /***
+     * Inflates the chunks of a gzip or deflate response body as they arrive and passes them on. An empty body is
+     * passed on as is; a body that ends before the compressed stream fails with an {@link EOFException}.
      */
-    private static String response(HttpRequest r) {
-        return CLIENT.sendAsync(r, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .join();
+    private static final class InflatingSubscriber implements HttpResponse.BodySubscriber<String> {
+        private static final int GZIP_TRAILER = 8;
+        private final HttpResponse.BodySubscriber<String> downstream;
+        private final boolean gzip;
+        private final byte[] buffer = new byte[8192];
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private final CRC32 crc = new CRC32();
+        private Flow.Subscription subscription;
+        private Inflater inflater;
+        private boolean received;
+        private boolean done;
+        private boolean failed;
+
+        InflatingSubscriber(HttpResponse.BodySubscriber<String> downstream, boolean gzip) {
+            this.downstream = downstream;
+            this.gzip = gzip;
+            if (!gzip) this.inflater = new Inflater();
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (failed) return;
+            var out = new ArrayList<ByteBuffer>();
+            try {
+                for (var item : items) {
+                    var bytes = new byte[item.remaining()];
+                    item.get(bytes);
+                    if (bytes.length > 0) received = true;
+                    pending.write(bytes, 0, bytes.length);
+                }
+                inflate(out);
+            } catch (IOException | DataFormatException e) {
+                fail(e instanceof IOException ? (IOException) e : new ZipException(e.getMessage()));
+                return;
+            }
+            downstream.onNext(out);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (failed) return;
+            end();
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (failed) return;
+            if (received && (inflater != null || pending.size() > 0)) {
+                fail(new EOFException("Unexpected end of the compressed response body."));
+                return;
+            }
+            end();
+            downstream.onComplete();
+        }
+
+        /***
+         * Inflates the pending bytes; the bytes of a header or trailer that isn't complete stay pending
+         */
+        private void inflate(List<ByteBuffer> out) throws IOException, DataFormatException {
+            var input = pending.toByteArray();
+            if (done && input.length > 0) throw new ZipException("Unexpected data after the end of the deflate stream.");
+            int offset = 0;
+            while (offset < input.length) {
+                if (inflater == null) {
+                    // gzip member header; a response may hold more than one member.
+                    int header = gzipHeader(input, offset);
+                    if (header < 0) break;
+                    offset += header;
+                    inflater = new Inflater(true);
+                    crc.reset();
+                    continue;
+                }
+                if (inflater.finished()) {
+                    if (input.length - offset < GZIP_TRAILER) break;
+                    var expected = (input[offset] & 0xffL) | (input[offset + 1] & 0xffL) << 8
+                            | (input[offset + 2] & 0xffL) << 16 | (input[offset + 3] & 0xffL) << 24;
+                    if (expected != crc.getValue()) throw new ZipException("Corrupt gzip trailer.");
+                    offset += GZIP_TRAILER;
+                    end();
+                    continue;
+                }
+                inflater.setInput(input, offset, input.length - offset);
+                int n;
+                while ((n = inflater.inflate(buffer)) > 0) {
+                    if (gzip) crc.update(buffer, 0, n);
+                    out.add(ByteBuffer.wrap(Arrays.copyOf(buffer, n)));
+                }
+                if (inflater.needsDictionary()) throw new ZipException("Preset dictionaries are not supported.");
+                offset = input.length - inflater.getRemaining();
+                if (!inflater.finished()) break;
+                if (!gzip) {
+                    if (offset < input.length) throw new ZipException("Unexpected data after the end of the deflate stream.");
+                    done = true;
+                    end();
+                    pending.reset();
+                    return;
+                }
+            }
+            pending.reset();
+            pending.write(input, offset, input.length - offset);
+        }
+
+        /***
+         * Gets the length of the gzip header that starts at the offset
+         * @return length of the header or -1 if the header isn't complete
+         * @throws ZipException if the header is not valid
+         */
+        private static int gzipHeader(byte[] input, int offset) throws ZipException {
+            int i = offset;
+            if (input.length - i < 10) return -1;
+            if ((input[i] & 0xff) != 0x1f || (input[i + 1] & 0xff) != 0x8b) throw new ZipException("Not in gzip format.");
+            if (input[i + 2] != 8) throw new ZipException("Unsupported gzip compression method.");
+            int flags = input[i + 3] & 0xff;
+            i += 10;
+            if ((flags & 4) != 0) {
+                if (input.length - i < 2) return -1;
+                i += 2 + ((input[i] & 0xff) | (input[i + 1] & 0xff) << 8);
+            }
+            for (int flag : new int[]{ 8, 16 }) {
+                if ((flags & flag) == 0) continue;
+                while (i < input.length && input[i] != 0) i++;
+                if (i++ >= input.length) return -1;
+            }
+            if ((flags & 2) != 0) i += 2;
+            return i > input.length ? -1 : i - offset;
+        }
+
+        private void fail(IOException e) {
+            failed = true;
+            end();
+            subscription.cancel();
+            downstream.onError(e);
+        }
+
+        private void end() {
+            if (inflater != null) inflater.end();
+            inflater = null;
+        }
     }
 
     /**
      * Sends a GET request to REST API
      * @param requestUrl pass the request url
+     * @throws UncheckedIOException if the response can't be received or decoded
      * @return response string from the API
      */
     public static String get(String requestUrl) {
-        return response(request(requestUrl).GET().header("Accept", "application/json").build());
+        return uncheckedResponse(request(requestUrl).GET().header("Accept", "application/json").build());
     }
 
     /**
      * Sends a GET request to REST API with basic authentication
      * @param requestUrl pass the request url
      * @param token pass the personal access token
+     * @throws UncheckedIOException if the response can't be received or decoded
      * @return response string from the API
      */
     public static String get(String requestUrl, String token) {
-        return response(request(requestUrl, token).GET().header("Accept", "application/json").build());
+        return uncheckedResponse(request(requestUrl, token).GET().header("Accept", "application/json").build());
     }
 
     /**
@@ -91,10 +397,25 @@ public abstract class BaseClient {
      * @param requestUrl pass the request url
      * @param token pass the personal access token
      * @param contentType specify the content type
+     * @throws UncheckedIOException if the response can't be received or decoded
      * @return response string from the API
      */
     public static String get(String requestUrl, String token, String contentType) {
-        return response(request(requestUrl, token).GET().header("Accept", contentType).build());
+        return uncheckedResponse(request(requestUrl, token).GET().header("Accept", contentType).build());
+    }
+
+    /**
+     * Sends a GET request to REST API with basic authentication and reads the response headers
+     * @param requestUrl pass the request url
+     * @param token pass the personal access token
+     * @param contentType specify the content type or null for json
+     * @param responseHeaders receives the first value of each response header, keyed by the lower case header name
+     * @throws AzDException throws user friendly error message with error code from API
+     * @return response string from the API
+     */
+    public static String get(String requestUrl, String token, String contentType, Map<String, String> responseHeaders) throws AzDException {
+        return response(request(requestUrl, token).GET()
+                .header("Accept", contentType == null ? "application/json" : contentType).build(), responseHeaders);
     }
 
     /**
@@ -107,8 +428,7 @@ public abstract class BaseClient {
      */
     public static String post(String requestUrl, String token, Map<String, Object> body) throws AzDException {
         return response(
-                request(requestUrl, token)
-                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.POST, MAPPER.convertToString(body))
                     .header("Content-Type", "application/json")
                     .build());
     }
@@ -117,10 +437,11 @@ public abstract class BaseClient {
      * Sends a POST request to REST API with oauth authentication, content length of the request and request body
      * @param requestUrl pass the request url
      * @param body pass the request body to post the request
+     * @throws UncheckedIOException if the response can't be received or decoded
      * @return response string from the API if any
      */
     public static String post(String requestUrl, String body) {
-        return response(
+        return uncheckedResponse(
                 request(requestUrl)
                         .POST(HttpRequest.BodyPublishers.ofString(body))
                         .header("Content-Type", "application/x-www-form-urlencoded")
@@ -138,8 +459,7 @@ public abstract class BaseClient {
      */
     public static String post(String requestUrl, String token, String body, String contentType) throws AzDException {
         return response(
-                request(requestUrl, token)
-                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                body(request(requestUrl, token), RequestMethod.POST, body)
                         .header("Content-Type", contentType)
                         .build());
     }
@@ -154,8 +474,7 @@ public abstract class BaseClient {
      */
     public static String post(String requestUrl, String token, List<Object> body) throws AzDException {
         return response(
-                request(requestUrl, token)
-                        .POST(HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.POST, MAPPER.convertToString(body))
                         .header("Content-Type", "application/json-patch+json")
                         .build());
     }
@@ -170,8 +489,7 @@ public abstract class BaseClient {
      */
     public static String patch(String requestUrl, String token, Map<String, Object> body) throws AzDException {
         return response(
-                request(requestUrl, token)
-                        .method(RequestMethod.PATCH.toString(), HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.PATCH, MAPPER.convertToString(body))
                         .header("Content-Type", "application/json")
                         .build());
     }
@@ -187,8 +505,7 @@ public abstract class BaseClient {
      */
     public static String patch(String requestUrl, String token, Map<String, Object> body, String contentType) throws AzDException {
         return response(
-                request(requestUrl, token)
-                        .method(RequestMethod.PATCH.toString(), HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.PATCH, MAPPER.convertToString(body))
                         .header("Content-Type", contentType)
                         .build());
     }
@@ -203,8 +520,7 @@ public abstract class BaseClient {
      */
     public static String patch(String requestUrl, String token, List<Object> body) throws AzDException {
         return response(
-                request(requestUrl, token)
-                        .method(RequestMethod.PATCH.toString(), HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.PATCH, MAPPER.convertToString(body))
                         .header("Content-Type", "application/json")
                         .build());
     }
@@ -220,8 +536,7 @@ public abstract class BaseClient {
      */
     public static String patch(String requestUrl, String token, List<Object> body, String contentType) throws AzDException {
         return response(
-                request(requestUrl, token)
-                        .method(RequestMethod.PATCH.toString(), HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.PATCH, MAPPER.convertToString(body))
                         .header("Content-Type", contentType)
                         .build());
     }
@@ -236,19 +551,35 @@ public abstract class BaseClient {
      */
     public static String put(String requestUrl, String token, Map body) throws AzDException {
         return response(
-                request(requestUrl, token)
-                .method(RequestMethod.PUT.toString(), HttpRequest.BodyPublishers.ofString(MAPPER.convertToString(body)))
+                body(request(requestUrl, token), RequestMethod.PUT, MAPPER.convertToString(body))
                 .header("Content-Type", "application/json")
                 .build());
     }
 
+    /***
+     * Sends a PUT request to REST API with basic authentication and request body
+     * @param requestUrl pass the request url
+     * @param token pass the personal access token
+     * @param body pass the request body as json string
+     * @param contentType content type. E.g., application/json
+     * @throws AzDException throws user friendly error message with error code from API
+     * @return response string from the API if any
+     */
+    public static String put(String requestUrl, String token, String body, String contentType) throws AzDException {
+        return response(
+                body(request(requestUrl, token), RequestMethod.PUT, body)
+                .header("Content-Type", contentType)
+                .build());
+    }
+
     /**
      *  Sends a DELETE request to REST API with basic authentication
      * @param requestUrl pass the request url
      * @param token pass the personal access token
+     * @throws UncheckedIOException if the response can't be received or decoded
      * @return response string from the API if any
      */
     public static String delete(String requestUrl, String token) {
-        return response(request(requestUrl, token).DELETE().build());
+        return uncheckedResponse(request(requestUrl, token).DELETE().build());
     }
 }
@@ -0,0 +1,109 @@
+package org.azd.utils;
+
+import org.azd.build.types.BuildDefinition;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.JsonPatcher;
+import org.azd.interfaces.BuildDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * Creates many build definitions from one template at the same time.
+ * <p>
+ *     The template json is fetched once and each definition is created by patching the template in the token stream,
+ *     so no definition is bound to objects before it is posted. A failure for one definition doesn't stop the
+ *     others; it is reported in {@link FanOutResult#getFailures()} keyed by the name of the definition.
+ * </p>
+ * <pre>
+ *     var stamper = new BuildDefinitionStamper(client.getBuildApi(), 8);
+ *     var patches = new ArrayList&lt;JsonPatcher&gt;();
+ *     for (var repo : repositories)
+ *         patches.add(JsonPatcher.create().set("name", repo + "-CI").set("repository/name", repo));
+ *     var result = stamper.stamp(templateDefinitionId, patches);
+ * </pre>
+ */
+public class BuildDefinitionStamper {
+    private final BuildDetails BUILD;
+    private final int MAX_CONCURRENCY;
+
+    /***
+     * Create the stamper
+     * @param build build api of the project to create the definitions in
+     * @param maxConcurrency maximum number of definitions to create at the same time
+     */
+    public BuildDefinitionStamper(BuildDetails build, int maxConcurrency) {
+        this.BUILD = build;
+        this.MAX_CONCURRENCY = maxConcurrency;
+    }
+
+    /***
+     * Create a definition for each patch from an existing definition
+     * @param templateDefinitionId id of the build definition to use as template
+     * @param patches properties to replace in the template for each definition. The name must be set
+     * @return created definitions and failures keyed by definition name {@link FanOutResult}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public FanOutResult<BuildDefinition> stamp(int templateDefinitionId, List<JsonPatcher> patches) throws ConnectionException, AzDException {
+        return stamp(BUILD.getLazyBuildDefinition(templateDefinitionId).toJson(), patches);
+    }
+
+    /***
+     * Create a definition for each patch from a template
+     * @param template json string of the build definition to use as template
+     * @param patches properties to replace in the template for each definition. The name must be set
+     * @return created definitions and failures keyed by definition name {@link FanOutResult}
+     */
+    public FanOutResult<BuildDefinition> stamp(String template, List<JsonPatcher> patches) {
+        var result = new FanOutResult<BuildDefinition>();
+        // check the template once instead of failing the same way for every definition
+        try {
+            JsonPatcher.validate(template);
+        } catch (AzDException e) {
+            for (int i = 0; i < patches.size(); i++) result.addFailure(key(patches.get(i), i), e);
+            return result;
+        }
+
+        var count = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_CONCURRENCY, patches.size())), r -> {
+            var t = new Thread(r, "azd-definition-stamper-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < patches.size(); i++) {
+                var patch = patches.get(i);
+                var key = key(patch, i);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        result.addResult(key, BUILD.createBuildDefinition(template, patch), true);
+                    } catch (Throwable e) {
+                        result.addFailure(key, e);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+        return result;
+    }
+
+    /***
+     * Get the key of the definition created with a patch
+     * @param patch properties to replace in the template
+     * @param index position of the patch in the list
+     * @return name of the definition or the position of the patch when the name is not set
+     */
+    private static String key(JsonPatcher patch, int index) {
+        return patch.get("name") == null ? Integer.toString(index) : patch.get("name").toString();
+    }
+}
@@ -0,0 +1,168 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/***
+ * In-memory index of the builds listed by a {@link BuildHistoryTracker}, by definition, branch and result.
+ * <p>
+ *     Each build is kept as a small entry with its definition, branch, status, result and times, and the strings are
+ *     shared between entries, so thousands of builds take a few hundred bytes each. The ids for each definition,
+ *     branch and result are kept in sorted arrays.
+ * </p>
+ * <pre>
+ *     var failed = tracker.getIndex().getBuildIds("12", "refs/heads/main", "failed");
+ * </pre>
+ */
+public class BuildHistoryIndex {
+    private final Map<Integer, Entry> ENTRIES = new HashMap<>();
+    private final Map<String, SortedIds> DEFINITIONS = new HashMap<>();
+    private final Map<String, SortedIds> BRANCHES = new HashMap<>();
+    private final Map<String, SortedIds> RESULTS = new HashMap<>();
+    private final Map<String, String> STRINGS = new HashMap<>();
+
+    /***
+     * Get the entry of a build
+     * @param id id of the build
+     * @return the entry or null if the build isn't indexed {@link Entry}
+     */
+    public synchronized Entry get(int id) {
+        return ENTRIES.get(id);
+    }
+
+    /***
+     * Get the number of indexed builds
+     * @return number of builds
+     */
+    public synchronized int size() {
+        return ENTRIES.size();
+    }
+
+    /***
+     * Get the ids of the builds that match all the given filters
+     * @param definitionId id of the definition or null for any
+     * @param sourceBranch source branch, e.g., refs/heads/main, or null for any
+     * @param result result, e.g., succeeded, or null for any. Builds that are not completed have no result.
+     * @return sorted build ids
+     */
+    public synchronized int[] getBuildIds(String definitionId, String sourceBranch, String result) {
+        SortedIds smallest = null;
+        for (var ids : new SortedIds[]{
+                definitionId == null ? null : DEFINITIONS.getOrDefault(definitionId, SortedIds.EMPTY),
+                sourceBranch == null ? null : BRANCHES.getOrDefault(sourceBranch, SortedIds.EMPTY),
+                result == null ? null : RESULTS.getOrDefault(result, SortedIds.EMPTY)}) {
+            if (ids != null && (smallest == null || ids.size() < smallest.size())) smallest = ids;
+        }
+
+        if (smallest == null) return ENTRIES.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        var matches = new int[smallest.size()];
+        int n = 0;
+        for (int i = 0; i < smallest.size(); i++) {
+            var entry = ENTRIES.get(smallest.get(i));
+            if ((definitionId == null || definitionId.equals(entry.DEFINITION_ID)) &&
+                    (sourceBranch == null || sourceBranch.equals(entry.SOURCE_BRANCH)) &&
+                    (result == null || result.equals(entry.RESULT))) matches[n++] = entry.ID;
+        }
+        return Arrays.copyOf(matches, n);
+    }
+
+    /***
+     * Index the latest state of a build
+     * @param build the build
+     * @return the previous entry of the build or null if it wasn't indexed
+     */
+    synchronized Entry put(Build build) {
+        var entry = new Entry(build.getId(),
+                intern(build.getDefinition() == null ? null : build.getDefinition().getId()),
+                intern(build.getSourceBranch()),
+                intern(build.getStatus()),
+                intern(build.getResult()),
+                build.getQueueTime(),
+                build.getFinishTime());
+        var previous = remove(build.getId());
+        ENTRIES.put(entry.ID, entry);
+        add(DEFINITIONS, entry.DEFINITION_ID, entry.ID);
+        add(BRANCHES, entry.SOURCE_BRANCH, entry.ID);
+        add(RESULTS, entry.RESULT, entry.ID);
+        return previous;
+    }
+
+    /***
+     * Remove a build
+     * @param id id of the build
+     * @return the entry of the build or null if it wasn't indexed
+     */
+    synchronized Entry remove(int id) {
+        var entry = ENTRIES.remove(id);
+        if (entry == null) return null;
+        remove(DEFINITIONS, entry.DEFINITION_ID, id);
+        remove(BRANCHES, entry.SOURCE_BRANCH, id);
+        remove(RESULTS, entry.RESULT, id);
+        return entry;
+    }
+
+    private String intern(String value) {
+        return value == null ? null : STRINGS.computeIfAbsent(value, v -> v);
+    }
+
+    private static void add(Map<String, SortedIds> index, String key, int id) {
+        if (key != null) index.computeIfAbsent(key, k -> new SortedIds()).add(id);
+    }
+
+    private static void remove(Map<String, SortedIds> index, String key, int id) {
+        if (key == null) return;
+        var ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.size() == 0) index.remove(key);
+    }
+
+    /***
+     * Indexed state of a build
+     */
+    public static final class Entry {
+        private final int ID;
+        private final String DEFINITION_ID;
+        private final String SOURCE_BRANCH;
+        private final String STATUS;
+        private final String RESULT;
+        private final String QUEUE_TIME;
+        private final String FINISH_TIME;
+
+        Entry(int id, String definitionId, String sourceBranch, String status, String result, String queueTime, String finishTime) {
+            this.ID = id;
+            this.DEFINITION_ID = definitionId;
+            this.SOURCE_BRANCH = sourceBranch;
+            this.STATUS = status;
+            this.RESULT = result;
+            this.QUEUE_TIME = queueTime;
+            this.FINISH_TIME = finishTime;
+        }
+
+        public int getId() { return ID; }
+
+        public String getDefinitionId() { return DEFINITION_ID; }
+
+        public String getSourceBranch() { return SOURCE_BRANCH; }
+
+        public String getStatus() { return STATUS; }
+
+        public String getResult() { return RESULT; }
+
+        public String getQueueTime() { return QUEUE_TIME; }
+
+        public String getFinishTime() { return FINISH_TIME; }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "id=" + ID +
+                    ", definitionId='" + DEFINITION_ID + '\'' +
+                    ", sourceBranch='" + SOURCE_BRANCH + '\'' +
+                    ", status='" + STATUS + '\'' +
+                    ", result='" + RESULT + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.build.types.BuildHistoryWatermark;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.BuildHistoryListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/***
+ * Follows the build history of a project by listing only the builds that were queued, started, finished or deleted
+ * since the last poll.
+ * <p>
+ *     Each poll lists the builds with the minTime filter in the queueTimeAscending, startTimeAscending and
+ *     finishTimeAscending orders from the latest time of each order seen so far, a page of 1000 builds at a time, so
+ *     this usually costs three small requests instead of listing a large window. Builds listed for the first time are
+ *     added; known builds whose status or result changed are updated. The listed builds are kept in a
+ *     {@link BuildHistoryIndex}.
+ * </p>
+ * <p>
+ *     The api can't list the deleted builds by deletion time, so each poll also lists all the deleted builds queued
+ *     since the start of the history, a page of 1000 at a time, and passes those deleted after the latest deletion
+ *     time seen so far; the watermark only keeps that time and the builds deleted at it. The first poll, without a
+ *     watermark, only records the latest deletion. Pass a recent start of the history to keep this listing short.
+ * </p>
+ * <p>
+ *     A poll that lists nothing new sends the same requests as the one before, so all the requests are sent through
+ *     the {@link BuildDetails#uncached()} api; a local store of the connection never returns a stale page.
+ * </p>
+ * <pre>
+ *     var tracker = new BuildHistoryTracker(client.getBuildApi(), Instant.now().minus(Duration.ofDays(7)), null);
+ *     var watermark = tracker.poll(load(), listener);
+ *     save(watermark);
+ * </pre>
+ */
+public class BuildHistoryTracker {
+    private static final int PAGE_SIZE = 1000;
+    private static final String COMPLETED = "completed";
+    private final BuildDetails BUILD;
+    private final String SINCE;
+    private final int[] DEFINITIONS;
+    private final BuildHistoryIndex INDEX = new BuildHistoryIndex();
+
+    /***
+     * Create the tracker
+     * @param build build api of the project
+     * @param since start of the history; builds queued before it are only listed when they start or finish later. Pass null for the whole history
+     * @param definitions ids of the definitions to track or null for all
+     */
+    public BuildHistoryTracker(BuildDetails build, Instant since, int[] definitions) {
+        this.BUILD = build.uncached();
+        this.SINCE = since == null ? null : since.toString();
+        this.DEFINITIONS = definitions;
+    }
+
+    /***
+     * Get the index of the builds listed by this tracker
+     * @return build index {@link BuildHistoryIndex}
+     */
+    public BuildHistoryIndex getIndex() {
+        return INDEX;
+    }
+
+    /***
+     * Pass the changes since the watermark to the listener
+     * @param from watermark returned by the last poll or null to list the whole history {@link BuildHistoryWatermark}
+     * @param listener listener for the changes {@link BuildHistoryListener}
+     * @return watermark to pass to the next poll
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public BuildHistoryWatermark poll(BuildHistoryWatermark from, BuildHistoryListener listener) throws ConnectionException, AzDException {
+        var state = new State(from);
+        // the deletions are listed first, so the builds deleted while the builds are listed show up on the next poll.
+        listDeleted(from == null, state, listener);
+
+        list("queueTimeAscending", state.queued, Build::getQueueTime, state, listener);
+        list("startTimeAscending", state.started, Build::getStartTime, state, listener);
+        list("finishTimeAscending", state.finished, Build::getFinishTime, state, listener);
+
+        var watermark = state.toWatermark();
+        listener.checkpoint(watermark);
+        return watermark;
+    }
+
+    /***
+     * Lists the builds in the order from the cursor and moves the cursor
+     */
+    private void list(String order, TimeCursor cursor, Function<Build, String> time, State state, BuildHistoryListener listener)
+            throws ConnectionException, AzDException {
+        cursor.page(SINCE, PAGE_SIZE, (since, afterId) -> getBuilds(order, since, null), time, Build::getId, null, builds -> {
+            for (var build : builds) visit(build, state, listener);
+            listener.checkpoint(state.toWatermark());
+        });
+    }
+
+    private void visit(Build build, State state, BuildHistoryListener listener) throws AzDException {
+        var previous = INDEX.put(build);
+        var status = build.getStatus();
+        var openStatus = COMPLETED.equals(status) ? state.open.remove(build.getId()) : state.open.put(build.getId(), status);
+
+        if (previous != null) {
+            if (!Objects.equals(previous.getStatus(), status) || !Objects.equals(previous.getResult(), build.getResult()))
+                listener.updated(build, previous.getStatus(), previous.getResult());
+        } else if (openStatus != null) {
+            // known from the watermark of an earlier process
+            if (!openStatus.equals(status)) listener.updated(build, openStatus, null);
+        } else {
+            listener.added(build);
+        }
+    }
+
+    private List<Build> getBuilds(String order, String minTime, String deletedFilter) throws ConnectionException, AzDException {
+        var builds = BUILD.getBuilds(PAGE_SIZE, null, null, null, DEFINITIONS, deletedFilter, 0, null, minTime,
+                null, order, null, null, null, null, null, null, null, null).getBuildResults();
+        return builds == null ? List.of() : builds;
+    }
+
+    /***
+     * Passes the builds deleted after the deletion cursor to the listener in order of deletion and moves the cursor
+     * @param record true to only move the cursor
+     */
+    private void listDeleted(boolean record, State state, BuildHistoryListener listener) throws ConnectionException, AzDException {
+        var deleted = new ArrayList<Build>();
+        new TimeCursor(null, (int[]) null).page(SINCE, PAGE_SIZE, (since, afterId) -> getBuilds("queueTimeAscending", since, "onlyDeleted"),
+                Build::getQueueTime, Build::getId, null, deleted::addAll);
+        deleted.removeIf(build -> build.getDeletedDate() == null);
+        deleted.sort(Comparator.comparing((Build build) -> Instant.parse(build.getDeletedDate())).thenComparingInt(Build::getId));
+
+        for (var build : deleted) {
+            if (state.deleted.isListed(build.getId(), build.getDeletedDate())) continue;
+            if (!record) {
+                INDEX.remove(build.getId());
+                state.open.remove(build.getId());
+                listener.deleted(build.getId());
+            }
+            state.deleted.add(build.getId(), 0, build.getDeletedDate());
+        }
+    }
+
+    /***
+     * Position of the tracker while it polls
+     */
+    private static final class State {
+        private final TimeCursor queued;
+        private final TimeCursor started;
+        private final TimeCursor finished;
+        private final TimeCursor deleted;
+        private final Map<Integer, String> open;
+
+        State(BuildHistoryWatermark from) {
+            this.queued = new TimeCursor(from == null ? null : from.getQueueTime(), from == null ? null : from.getQueueTimeIds());
+            this.started = new TimeCursor(from == null ? null : from.getStartTime(), from == null ? null : from.getStartTimeIds());
+            this.finished = new TimeCursor(from == null ? null : from.getFinishTime(), from == null ? null : from.getFinishTimeIds());
+            this.open = from == null || from.getOpenBuilds() == null ? new HashMap<>() : new HashMap<>(from.getOpenBuilds());
+            this.deleted = new TimeCursor(from == null ? null : from.getDeletedTime(), from == null ? null : from.getDeletedIds());
+        }
+
+        BuildHistoryWatermark toWatermark() {
+            var watermark = new BuildHistoryWatermark();
+            watermark.setQueueTime(queued.getTime());
+            watermark.setQueueTimeIds(queued.getIds());
+            watermark.setStartTime(started.getTime());
+            watermark.setStartTimeIds(started.getIds());
+            watermark.setFinishTime(finished.getTime());
+            watermark.setFinishTimeIds(finished.getIds());
+            watermark.setOpenBuilds(new HashMap<>(open));
+            watermark.setDeletedTime(deleted.getTime());
+            watermark.setDeletedIds(deleted.getIds());
+            return watermark;
+        }
+    }
+}
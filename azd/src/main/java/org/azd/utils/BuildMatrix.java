@@ -0,0 +1,198 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.RateLimiter;
+import org.azd.interfaces.BuildDetails;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * Queues a set of builds at once and waits for all of them to complete.
+ * <p>
+ *     Each cell of the matrix is a definition with a set of parameters. The builds are queued by up to the given
+ *     number of threads, each request waiting for the rate limiter if there is one, and are watched to completion by a
+ *     {@link CompletionWatcher}, which checks the status of all of them with a few batched requests. Cancelling the
+ *     matrix stops queueing and cancels the builds that are queued. When the matrix fails fast, a build that can't be
+ *     queued or that completes with a result other than succeeded or partiallySucceeded cancels the matrix. The
+ *     completed builds are handled by the queueing threads, so the cancel requests don't hold up the status checks.
+ * </p>
+ * <pre>
+ *     var matrix = new BuildMatrix(client.getBuildApi(), 16, new RateLimiter(10))
+ *             .add(new int[]{ 12, 13, 14 }, List.of(Map.of("sourceBranch", "refs/heads/main"), Map.of("sourceBranch", "refs/heads/release")))
+ *             .setFailFast(true);
+ *     var result = matrix.run();
+ *     System.out.println(result.getResultCounts() + " in " + result.getElapsed());
+ * </pre>
+ */
+public class BuildMatrix {
+    private final BuildDetails BUILD;
+    private final int MAX_CONCURRENCY;
+    private final RateLimiter RATE_LIMITER;
+    private final List<BuildMatrixResult.Cell> CELLS = new ArrayList<>();
+    private boolean failFast;
+    private Duration minPollInterval = Duration.ofSeconds(5);
+    private Duration maxPollInterval = Duration.ofMinutes(2);
+    private volatile boolean cancelled;
+
+    /***
+     * Create the matrix
+     * @param build build api of the project
+     * @param maxConcurrency maximum number of builds to queue at the same time
+     * @param rateLimiter rate limiter for the queue requests or null to queue without limit
+     */
+    public BuildMatrix(BuildDetails build, int maxConcurrency, RateLimiter rateLimiter) {
+        this.BUILD = build;
+        this.MAX_CONCURRENCY = Math.max(1, maxConcurrency);
+        this.RATE_LIMITER = rateLimiter;
+    }
+
+    /***
+     * Add a build of a definition
+     * @param definitionId id of the definition
+     * @param parameters properties of the queue request besides the definition, e.g., sourceBranch and parameters, or null
+     * @return this matrix
+     */
+    public BuildMatrix add(int definitionId, Map<String, Object> parameters) {
+        CELLS.add(new BuildMatrixResult.Cell(definitionId, parameters == null ? Map.of() : parameters));
+        return this;
+    }
+
+    /***
+     * Add a build of each definition with each set of parameters
+     * @param definitionIds ids of the definitions
+     * @param parameterSets sets of properties of the queue request besides the definition
+     * @return this matrix
+     */
+    public BuildMatrix add(int[] definitionIds, List<Map<String, Object>> parameterSets) {
+        for (var definitionId : definitionIds)
+            for (var parameters : parameterSets) add(definitionId, parameters);
+        return this;
+    }
+
+    /***
+     * Cancel the matrix on the first build that can't be queued or doesn't succeed
+     * @param failFast true to fail fast
+     * @return this matrix
+     */
+    public BuildMatrix setFailFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /***
+     * Set how often the status of a build is checked; defaults to every 5 seconds to 2 minutes
+     * @param min shortest time between two checks of a build
+     * @param max longest time between two checks of a build
+     * @return this matrix
+     */
+    public BuildMatrix setPollInterval(Duration min, Duration max) {
+        this.minPollInterval = min;
+        this.maxPollInterval = max;
+        return this;
+    }
+
+    /***
+     * Queue the builds and wait for them to complete. If the calling thread is interrupted, the matrix is cancelled
+     * and the result has the builds as they were.
+     * @return results of the builds {@link BuildMatrixResult}
+     */
+    public BuildMatrixResult run() {
+        var started = System.nanoTime();
+        var done = new CountDownLatch(CELLS.size());
+        var count = new AtomicInteger();
+        var queueing = Executors.newFixedThreadPool(MAX_CONCURRENCY, r -> {
+            var t = new Thread(r, "azd-build-matrix-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (var watcher = new CompletionWatcher(BUILD, null, minPollInterval, maxPollInterval)) {
+            for (var cell : CELLS) queueing.execute(() -> queue(cell, watcher, queueing, done));
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            queueing.shutdownNow();
+        }
+        return new BuildMatrixResult(new ArrayList<>(CELLS), Duration.ofNanos(System.nanoTime() - started), cancelled);
+    }
+
+    /***
+     * Stop queueing builds and cancel the builds that are queued. The builds are waited for until they are cancelled.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (var cell : CELLS) cancel(cell);
+    }
+
+    private void cancel(BuildMatrixResult.Cell cell) {
+        if (!cell.isQueued() || !cell.requestCancel()) return;
+        try {
+            BUILD.cancelBuild(cell.getBuild().getId());
+        } catch (ConnectionException | AzDException e) {
+            // the build is still watched; it completes with its own result
+        }
+    }
+
+    private void queue(BuildMatrixResult.Cell cell, CompletionWatcher watcher, Executor queueing, CountDownLatch done) {
+        if (cancelled) {
+            cell.notQueued(new CancellationException("The build matrix is cancelled."), 0, 0);
+            done.countDown();
+            return;
+        }
+
+        if (RATE_LIMITER != null) RATE_LIMITER.acquire();
+        var requestedAt = System.nanoTime();
+        Build build;
+        try {
+            var body = new HashMap<>(cell.getParameters());
+            body.put("definition", Map.of("id", cell.getDefinitionId()));
+            build = BUILD.queueBuild(body);
+        } catch (ConnectionException | AzDException | RuntimeException e) {
+            cell.notQueued(e, requestedAt, System.nanoTime());
+            done.countDown();
+            if (failFast) cancel();
+            return;
+        }
+
+        cell.queued(build, requestedAt, System.nanoTime());
+        try {
+            // the callback would otherwise run on the scheduler thread of the watcher, which cancel() would block
+            watcher.watchBuild(build.getId()).whenCompleteAsync((completed, e) -> {
+                cell.completed(completed, e == null ? null : unwrap(e), System.nanoTime());
+                if (failFast && !cancelled && !succeeded(completed)) cancel();
+                done.countDown();
+            }, queueing);
+        } catch (IllegalStateException e) {
+            // the watcher is closed because run() was interrupted
+            done.countDown();
+            return;
+        }
+        // cancel() may have run while the build was being queued
+        if (cancelled) cancel(cell);
+    }
+
+    private static boolean succeeded(Build build) {
+        return build != null && ("succeeded".equals(build.getResult()) || "partiallySucceeded".equals(build.getResult()));
+    }
+
+    private static Exception unwrap(Throwable e) {
+        var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+    }
+}
@@ -0,0 +1,193 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/***
+ * Results and timings of a {@link BuildMatrix}.
+ */
+public class BuildMatrixResult {
+    /***
+     * Result of the cells that were not queued, because queueing failed or the matrix was cancelled first.
+     */
+    public static final String NOT_QUEUED = "notQueued";
+    private final List<Cell> CELLS;
+    private final Duration ELAPSED;
+    private final boolean CANCELLED;
+
+    BuildMatrixResult(List<Cell> cells, Duration elapsed, boolean cancelled) {
+        this.CELLS = Collections.unmodifiableList(cells);
+        this.ELAPSED = elapsed;
+        this.CANCELLED = cancelled;
+    }
+
+    /***
+     * Get the cells in the order they were added to the matrix
+     * @return cells of the matrix {@link Cell}
+     */
+    public List<Cell> getCells() {
+        return CELLS;
+    }
+
+    /***
+     * Get the time from the start of the matrix until the last build completed
+     * @return elapsed time
+     */
+    public Duration getElapsed() {
+        return ELAPSED;
+    }
+
+    /***
+     * Check if the matrix was cancelled, by {@link BuildMatrix#cancel()} or by a failure when it fails fast
+     * @return true if the matrix was cancelled
+     */
+    public boolean isCancelled() {
+        return CANCELLED;
+    }
+
+    /***
+     * Check if all the builds succeeded
+     * @return true if the result of all the cells is succeeded
+     */
+    public boolean isSucceeded() {
+        return CELLS.stream().allMatch(c -> "succeeded".equals(c.getResult()));
+    }
+
+    /***
+     * Get the number of cells by result, e.g., succeeded, partiallySucceeded, failed, canceled and notQueued
+     * @return number of cells keyed by result
+     */
+    public Map<String, Integer> getResultCounts() {
+        var counts = new TreeMap<String, Integer>();
+        for (var cell : CELLS) counts.merge(String.valueOf(cell.getResult()), 1, Integer::sum);
+        return counts;
+    }
+
+    /***
+     * Get the longest time a build took from being queued until it completed
+     * @return longest duration or zero if no build completed
+     */
+    public Duration getMaxDuration() {
+        return CELLS.stream().map(Cell::getDuration).filter(d -> d != null).max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    /***
+     * Get the average time the builds took from being queued until they completed
+     * @return average duration or zero if no build completed
+     */
+    public Duration getAverageDuration() {
+        var durations = CELLS.stream().map(Cell::getDuration).filter(d -> d != null).mapToLong(Duration::toMillis).toArray();
+        if (durations.length == 0) return Duration.ZERO;
+        long total = 0;
+        for (var d : durations) total += d;
+        return Duration.ofMillis(total / durations.length);
+    }
+
+    @Override
+    public String toString() {
+        return "BuildMatrixResult{" +
+                "results=" + getResultCounts() +
+                ", elapsed=" + ELAPSED +
+                ", averageDuration=" + getAverageDuration() +
+                ", maxDuration=" + getMaxDuration() +
+                ", cancelled=" + CANCELLED +
+                '}';
+    }
+
+    /***
+     * Build of a definition with a set of parameters
+     */
+    public static final class Cell {
+        private final int DEFINITION_ID;
+        private final Map<String, Object> PARAMETERS;
+        private volatile Build build;
+        private volatile Exception error;
+        private volatile Duration queueDuration;
+        private volatile Duration duration;
+        private volatile long queuedAt;
+        private volatile boolean completed;
+        private final AtomicBoolean CANCEL_REQUESTED = new AtomicBoolean();
+
+        Cell(int definitionId, Map<String, Object> parameters) {
+            this.DEFINITION_ID = definitionId;
+            this.PARAMETERS = parameters;
+        }
+
+        public int getDefinitionId() { return DEFINITION_ID; }
+
+        public Map<String, Object> getParameters() { return PARAMETERS; }
+
+        /***
+         * Get the build
+         * @return the completed build, the queued build if the matrix stopped waiting for it, or null if it wasn't queued {@link Build}
+         */
+        public Build getBuild() { return build; }
+
+        /***
+         * Get the error that stopped the cell
+         * @return the error of queueing or watching the build, or null
+         */
+        public Exception getError() { return error; }
+
+        /***
+         * Get the time it took to queue the build
+         * @return duration of the queue request or null if it wasn't sent
+         */
+        public Duration getQueueDuration() { return queueDuration; }
+
+        /***
+         * Get the time from the build being queued until it completed
+         * @return duration or null if the build didn't complete
+         */
+        public Duration getDuration() { return duration; }
+
+        /***
+         * Get the result of the build
+         * @return the result of the completed build, null if it didn't complete or {@link #NOT_QUEUED}
+         */
+        public String getResult() {
+            if (build == null) return NOT_QUEUED;
+            return completed ? build.getResult() : null;
+        }
+
+        boolean isQueued() { return build != null && !completed; }
+
+        boolean requestCancel() { return CANCEL_REQUESTED.compareAndSet(false, true); }
+
+        void queued(Build build, long requestedAt, long now) {
+            this.build = build;
+            this.queuedAt = now;
+            this.queueDuration = Duration.ofNanos(now - requestedAt);
+        }
+
+        void notQueued(Exception error, long requestedAt, long now) {
+            this.error = error;
+            if (requestedAt != 0) this.queueDuration = Duration.ofNanos(now - requestedAt);
+        }
+
+        void completed(Build build, Exception error, long now) {
+            if (build != null) {
+                this.build = build;
+                this.completed = true;
+                this.duration = Duration.ofNanos(now - queuedAt);
+            }
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            return "Cell{" +
+                    "definitionId=" + DEFINITION_ID +
+                    ", buildId=" + (build == null ? null : build.getId()) +
+                    ", result='" + getResult() + '\'' +
+                    ", duration=" + duration +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.azd.utils;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * Fetches items by id in chunks, several chunks at the same time, and passes the chunks to a consumer in the order of
+ * the ids on the calling thread. At most the given number of chunks are fetched or waiting at any time.
+ */
+final class ChunkedFetch {
+    private ChunkedFetch() { }
+
+    /***
+     * Fetches a chunk of ids
+     * @param <T> type of the chunk
+     */
+    @FunctionalInterface
+    interface Fetcher<T> {
+        T fetch(int[] ids) throws ConnectionException, AzDException;
+    }
+
+    /***
+     * Consumes the fetched chunks in order
+     * @param <T> type of the chunk
+     */
+    @FunctionalInterface
+    interface Consumer<T> {
+        void accept(T chunk) throws ConnectionException, AzDException, IOException;
+    }
+
+    /***
+     * Fetch the ids and pass each chunk to the consumer
+     * @param name name of the threads
+     * @param ids ids to fetch
+     * @param chunkSize maximum number of ids per chunk
+     * @param maxConcurrency maximum number of chunks to fetch at the same time
+     * @param fetcher fetches a chunk
+     * @param consumer consumes the chunks in order
+     * @param <T> type of the chunk
+     * @throws ConnectionException if a fetch fails to connect
+     * @throws AzDException if a fetch fails
+     * @throws IOException if the consumer fails
+     */
+    static <T> void run(String name, int[] ids, int chunkSize, int maxConcurrency, Fetcher<T> fetcher, Consumer<T> consumer)
+            throws ConnectionException, AzDException, IOException {
+        var count = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrency), r -> {
+            var t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            var pending = new ArrayDeque<CompletableFuture<T>>();
+            int next = 0;
+            while (next < ids.length || !pending.isEmpty()) {
+                while (next < ids.length && pending.size() < Math.max(1, maxConcurrency)) {
+                    var chunk = Arrays.copyOfRange(ids, next, Math.min(next + chunkSize, ids.length));
+                    pending.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return fetcher.fetch(chunk);
+                        } catch (ConnectionException | AzDException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor));
+                    next += chunk.length;
+                }
+                consumer.accept(join(pending.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> chunk) throws ConnectionException, AzDException {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ConnectionException) throw (ConnectionException) e.getCause();
+            if (e.getCause() instanceof AzDException) throw (AzDException) e.getCause();
+            throw e;
+        }
+    }
+}
@@ -2,20 +2,43 @@ package org.azd.utils;
 
 import org.azd.common.types.LocationUrl;
 import org.azd.connection.Connection;
+import org.azd.enums.CacheMode;
 import org.azd.enums.RequestMethod;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
 import org.azd.helpers.JsonMapper;
+import org.azd.helpers.URLHelper;
 
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /***
  * Wrapper class to build request url and to call Azure DevOps REST API
  */
 public abstract class Client extends BaseClient {
-    private static final JsonMapper MAPPER = new JsonMapper();
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
+    private static final String RESPONSE = "response";
+    private static final String RESPONSE_HEADERS = "responseHeaders";
+    private static final String LOCATION_URL = "locationUrl";
+
+    /***
+     * Resource area urls cached per organization and resource id. These don't change for an organization,
+     * so it is shared by all the connections.
+     */
+    private static final Map<String, String> LOCATION_URLS = new ConcurrentHashMap<>();
+
+    /***
+     * Maximum length of the request urls, see {@link #setMaxUrlLength(int)}
+     */
+    private static volatile int maxUrlLength = Integer.getInteger("azd.url.max-length", 4096);
+
+    /***
+     * Url of the Azure DevOps instance
+     */
+    private static volatile String instanceUrl = System.getProperty("azd.instance.url", "https://dev.azure.com/");
 
     /***
      * Request the Azure DevOps REST API and builds the request url dynamically based on resource id and endpoints passed
@@ -46,7 +69,8 @@ public abstract class Client extends BaseClient {
             HashMap<String, Object> queryString,
             boolean contentType,
             String body) throws ConnectionException, AzDException {
-        String requestUrl = buildRequestUrl(connection.getOrganization(), resourceId, project, area, id, resource, apiVersion, queryString);
+        String requestUrl = buildRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString);
+        beforeSend(connection, requestUrl);
 
         // I need to maintain consistency across the library. Since this send method is not used in any of the classes to call
         // the API I've modified it to suit Build Tags API call. Check BuildApi and addBuildTags for implementation.
@@ -54,6 +78,9 @@ public abstract class Client extends BaseClient {
         if (requestMethod.toString().equals("POST") && contentType) {
             return post(requestUrl, connection.getPersonalAccessToken(), body, "application/json");
         }
+        if (requestMethod.toString().equals("PUT") && contentType) {
+            return put(requestUrl, connection.getPersonalAccessToken(), body, "application/json");
+        }
         return null;
     }
 
@@ -84,12 +111,14 @@ public abstract class Client extends BaseClient {
             String apiVersion,
             Map<String, Object> queryString,
             Map<String, Object> body) throws ConnectionException, AzDException {
-        String requestUrl = buildRequestUrl(connection.getOrganization(), resourceId, project, area, id, resource, apiVersion, queryString);
+        String requestUrl = buildRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString);
 
         if (requestMethod.toString().equals("GET")) {
-            return get(requestUrl, connection.getPersonalAccessToken());
+            return get(connection, requestUrl, null, null);
         }
 
+        beforeSend(connection, requestUrl);
+
         if (requestMethod.toString().equals("POST")) {
             return post(requestUrl, connection.getPersonalAccessToken(), body);
         }
@@ -103,7 +132,7 @@ public abstract class Client extends BaseClient {
         }
 
         if (requestMethod.toString().equals("DELETE")) {
-            return delete(requestUrl, connection.getPersonalAccessToken());
+            return delete(connection, requestUrl);
         }
 
         return null;
@@ -138,15 +167,13 @@ public abstract class Client extends BaseClient {
             Map<String, Object> queryString,
             Map<String, Object> body,
             String contentType) throws ConnectionException, AzDException {
-        String requestUrl = buildRequestUrl(connection.getOrganization(), resourceId, project, area, id, resource, apiVersion, queryString);
+        String requestUrl = buildRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString);
 
-        if (requestMethod.toString().equals("GET") & (contentType != null)) {
-            return get(requestUrl, connection.getPersonalAccessToken(), contentType);
+        if (requestMethod.toString().equals("GET")) {
+            return get(connection, requestUrl, contentType, null);
         }
 
-        if (requestMethod.toString().equals("GET") & (contentType == null)) {
-            return get(requestUrl, connection.getPersonalAccessToken());
-        }
+        beforeSend(connection, requestUrl);
 
         if (requestMethod.toString().equals("POST")) {
             return post(requestUrl, connection.getPersonalAccessToken(), body);
@@ -161,7 +188,7 @@ public abstract class Client extends BaseClient {
         }
 
         if (requestMethod.toString().equals("DELETE")) {
-            return delete(requestUrl, connection.getPersonalAccessToken());
+            return delete(connection, requestUrl);
         }
 
         return null;
@@ -198,15 +225,13 @@ public abstract class Client extends BaseClient {
             Map<String, Object> body,
             List<Object> requestBody,
             String contentType) throws ConnectionException, AzDException {
-        String requestUrl = buildRequestUrl(connection.getOrganization(), resourceId, project, area, id, resource, apiVersion, queryString);
+        String requestUrl = buildRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString);
 
-        if (requestMethod.toString().equals("GET") & (contentType != null)) {
-            return get(requestUrl, connection.getPersonalAccessToken(), contentType);
+        if (requestMethod.toString().equals("GET")) {
+            return get(connection, requestUrl, contentType, null);
         }
 
-        if (requestMethod.toString().equals("GET") & (contentType == null)) {
-            return get(requestUrl, connection.getPersonalAccessToken());
-        }
+        beforeSend(connection, requestUrl);
 
         if (requestMethod.toString().equals("POST") & (requestBody == null)) {
             return post(requestUrl, connection.getPersonalAccessToken(), body);
@@ -233,12 +258,42 @@ public abstract class Client extends BaseClient {
         }
 
         if (requestMethod.toString().equals("DELETE")) {
-            return delete(requestUrl, connection.getPersonalAccessToken());
+            return delete(connection, requestUrl);
         }
 
         return null;
     }
 
+    /***
+     * Sends a GET request to the Azure DevOps REST API and reads the response headers, e.g., x-ms-continuationtoken.
+     * The headers are kept in the local store of the connection next to the response, and read back with it.
+     * @param connection connection object
+     * @param resourceId pass the resource id.
+     * @param project name of the project
+     * @param area resource area
+     * @param id resource id
+     * @param resource resource area endpoint
+     * @param apiVersion api version
+     * @param queryString query string to append the url
+     * @param responseHeaders receives the first value of each response header, keyed by the lower case header name
+     * @return String response from API
+     * @throws ConnectionException user must create a Connection Object before calling this method
+     * @throws AzDException throws user understandable error message with error code from API
+     */
+    public static String get(
+            Connection connection,
+            String resourceId,
+            String project,
+            String area,
+            String id,
+            String resource,
+            String apiVersion,
+            Map<String, Object> queryString,
+            Map<String, String> responseHeaders) throws ConnectionException, AzDException {
+        String requestUrl = buildRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString);
+        return get(connection, requestUrl, null, responseHeaders);
+    }
+
     /**
      *  Gets the resource area url based on resource id passed for the organization
      * @param resourceID pass the resource id
@@ -248,13 +303,17 @@ public abstract class Client extends BaseClient {
      */
     public static String getLocationUrl(String resourceID, String organizationName) throws ConnectionException, AzDException {
 
-        String INSTANCE = "https://dev.azure.com/";
+        String INSTANCE = instanceUrl;
 
         if (resourceID == null) return (INSTANCE + organizationName);
 
         // Manage Accounts Api when the resource id is accounts. Accounts Api resource id doesn't return the desired location url.
         if (resourceID.equals("accounts")) return "https://app.vssps.visualstudio.com";
 
+        String key = organizationName + "/" + resourceID;
+        String cached = LOCATION_URLS.get(key);
+        if (cached != null) return cached;
+
         String LOCATION_URL_VERSION = "5.0-preview.1";
 
         String url = new StringBuilder().append(INSTANCE)
@@ -267,15 +326,128 @@ public abstract class Client extends BaseClient {
 
         try {
             String r = MAPPER.mapJsonResponse(BaseClient.get(url), LocationUrl.class).getLocationUrl();
-            return r.replaceAll("/$","");
+            r = r.replaceAll("/$","");
+            LOCATION_URLS.put(key, r);
+            return r;
         } catch (Exception e) {
             throw new AzDException("Couldn't find the organisation name: " + organizationName);
         }
     }
 
+    /***
+     * Get the location url of a resource area, reading it from the local store of the connection if there is one.
+     * The location urls don't change, so they are stored without expiry.
+     * @param connection connection object
+     * @param resourceId pass the resource id
+     * @throws ConnectionException user must create a Connection Object before calling this method
+     * @throws AzDException throws user understandable error message with error code from API
+     * @return resource area url
+     */
+    private static String getLocationUrl(Connection connection, String resourceId) throws ConnectionException, AzDException {
+        var store = connection.getLocalStore();
+        var mode = connection.getCacheMode();
+        if (store == null || mode == CacheMode.NONE || resourceId == null || resourceId.equals("accounts"))
+            return getLocationUrl(resourceId, connection.getOrganization());
+
+        var key = connection.getOrganization() + "/" + resourceId;
+        var stored = store.get(LOCATION_URL, key);
+        if (stored != null) return stored.getJson();
+        if (mode == CacheMode.OFFLINE)
+            throw new AzDException("OfflineException", "The location of the resource area " + resourceId + " isn't in the local store.");
+
+        var url = getLocationUrl(resourceId, connection.getOrganization());
+        store.put(LOCATION_URL, key, 0, url);
+        return url;
+    }
+
+    /***
+     * Set the url of the Azure DevOps instance the requests are sent to, e.g., a local stub server for tests and
+     * benchmarks. It can also be set with the system property azd.instance.url. Defaults to https://dev.azure.com/.
+     * @param url url of the instance, ending with '/'
+     */
+    public static void setInstanceUrl(String url) {
+        instanceUrl = url.endsWith("/") ? url : url + "/";
+        LOCATION_URLS.clear();
+    }
+
+    /***
+     * Waits for the rate limiter of the connection, if any, before sending the request
+     * @param connection connection object
+     * @param requestUrl url of the request
+     * @throws AzDException if the connection is offline
+     */
+    private static void beforeSend(Connection connection, String requestUrl) throws AzDException {
+        if (connection.getCacheMode() == CacheMode.OFFLINE)
+            throw new AzDException("OfflineException", "The connection reads from the local store only; couldn't send the request to " + requestUrl);
+        var rateLimiter = connection.getRateLimiter();
+        if (rateLimiter != null) rateLimiter.acquire();
+    }
+
+    /***
+     * Sends a GET request, or reads its response from the local store of the connection
+     * @param connection connection object
+     * @param requestUrl url of the request
+     * @param contentType content type to pass in the request header or null for json
+     * @param responseHeaders receives the response headers, or null if they aren't needed
+     * @return String response from API
+     * @throws ConnectionException user must create a Connection Object before calling this method
+     * @throws AzDException throws user understandable error message with error code from API
+     */
+    @SuppressWarnings("unchecked")
+    private static String get(Connection connection, String requestUrl, String contentType,
+                              Map<String, String> responseHeaders) throws ConnectionException, AzDException {
+        var store = connection.getLocalStore();
+        var mode = connection.getCacheMode();
+        var key = contentType == null ? requestUrl : contentType + " " + requestUrl;
+
+        if (store != null && mode != CacheMode.NONE && !connection.isUncached()) {
+            var stored = store.get(RESPONSE, key);
+            // a response stored without its headers can't be used by a request that reads them
+            var headers = stored == null || responseHeaders == null ? null : store.get(RESPONSE_HEADERS, key);
+            if (stored != null && (responseHeaders == null || headers != null)
+                    && (mode == CacheMode.OFFLINE || stored.isFresh(connection.getCacheMaxAge()))) {
+                if (headers != null) responseHeaders.putAll(MAPPER.mapJsonResponse(headers.getJson(), Map.class));
+                return stored.getJson();
+            }
+        }
+
+        beforeSend(connection, requestUrl);
+        String response;
+        try {
+            response = responseHeaders != null
+                    ? get(requestUrl, connection.getPersonalAccessToken(), contentType, responseHeaders)
+                    : contentType == null
+                    ? get(requestUrl, connection.getPersonalAccessToken())
+                    : get(requestUrl, connection.getPersonalAccessToken(), contentType);
+        } catch (UncheckedIOException e) {
+            throw new AzDException(e.getCause());
+        }
+        if (store != null && mode == CacheMode.READ_THROUGH && response != null && !MAPPER.isErrorResponse(response)) {
+            if (responseHeaders != null) store.put(RESPONSE_HEADERS, key, 0, MAPPER.convertToString(responseHeaders));
+            store.put(RESPONSE, key, 0, response);
+        }
+        return response;
+    }
+
+    /***
+     * Sends a DELETE request to REST API with the personal access token of the connection
+     * @param connection connection object
+     * @param requestUrl pass the request url
+     * @return String response from API if any
+     * @throws ConnectionException user must create a Connection Object before calling this method
+     * @throws AzDException throws user understandable error message with error code from API
+     */
+    private static String delete(Connection connection, String requestUrl) throws ConnectionException, AzDException {
+        try {
+            return delete(requestUrl, connection.getPersonalAccessToken());
+        } catch (UncheckedIOException e) {
+            throw new AzDException(e.getCause());
+        }
+    }
+
     /**
      *  Builds the request url dynamically for the passed service, resource and area
-     * @param organizationName pass the Azure DevOps organization name
+     * @param connection connection object
      * @param resourceId pass the resource id
      * @param project pass the project name
      * @param area area of the REST API e.g., Release
@@ -288,7 +460,39 @@ public abstract class Client extends BaseClient {
      * @return resource area url
      */
     private static String buildRequestUrl(
-            String organizationName,
+            Connection connection,
+            String resourceId,
+            String project,
+            String area,
+            String id,
+            String resource,
+            String apiVersion,
+            Map<String, Object> queryString) throws ConnectionException, AzDException {
+        String requestUrl = getRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString);
+
+        if (requestUrl.length() > maxUrlLength)
+            throw new AzDException("UrlTooLongException", "The request url is " + requestUrl.length() +
+                    " characters long, which is more than the limit of " + maxUrlLength + ". Request fewer items at once.");
+
+        return requestUrl;
+    }
+
+    /**
+     *  Builds the request url without checking its length
+     * @param connection connection object
+     * @param resourceId pass the resource id
+     * @param project pass the project name
+     * @param area area of the REST API e.g., Release
+     * @param id id of any entity to pass in
+     * @param resource pass the resource entity e.g., Releases
+     * @param apiVersion pass the API version
+     * @param queryString pass the query string to form the url
+     * @throws ConnectionException user must create a Connection Object before calling this method
+     * @throws AzDException throws user understandable error message with error code from API
+     * @return resource area url
+     */
+    private static String getRequestUrl(
+            Connection connection,
             String resourceId,
             String project,
             String area,
@@ -299,7 +503,7 @@ public abstract class Client extends BaseClient {
         // build the request url to dynamically serve the API requests
 
         StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append((getLocationUrl(resourceId, organizationName)));
+        stringBuilder.append(getLocationUrl(connection, resourceId));
 
         if (project != null) {
             stringBuilder.append("/").append(project);
@@ -317,22 +521,56 @@ public abstract class Client extends BaseClient {
             stringBuilder.append("/").append(resource);
         }
         stringBuilder.append("?api-version=").append(apiVersion);
-        if (queryString != null) {
-            for (var key : queryString.keySet()) {
-                stringBuilder.append(getQueryString(key, queryString.get(key)));
-            }
-        }
+        stringBuilder.append(URLHelper.encodeQueryString(queryString));
 
         return stringBuilder.toString();
     }
 
-    /**
-     * Helps to create a query string from given key and value
-     * @param key pass the key of the HashMap
-     * @param value pass the value of the HasMap
-     * @return query string
+    /***
+     * Check if the url of a request would be longer than the limit, so that the caller can use a POST endpoint instead
+     * @param connection connection object
+     * @param resourceId pass the resource id.
+     * @param project name of the project
+     * @param area resource area
+     * @param id resource id
+     * @param resource resource area endpoint
+     * @param apiVersion api version
+     * @param queryString query string to append the url
+     * @return true if the url is longer than the limit
+     * @throws ConnectionException user must create a Connection Object before calling this method
+     * @throws AzDException throws user understandable error message with error code from API
      */
-    private static String getQueryString(String key, Object value) {
-        return "&" + key + "=" + value;
+    public static boolean exceedsMaxUrlLength(
+            Connection connection,
+            String resourceId,
+            String project,
+            String area,
+            String id,
+            String resource,
+            String apiVersion,
+            Map<String, Object> queryString) throws ConnectionException, AzDException {
+        return getRequestUrl(connection, resourceId, project, area, id, resource, apiVersion, queryString)
+                .length() > maxUrlLength;
     }
+
+    /***
+     * Set the maximum length of the request urls. Longer requests fail with an AzDException of type
+     * UrlTooLongException before they are sent. Only the work item getters of {@link org.azd.workitemtracking.WorkItemTrackingApi}
+     * check the length up front and fetch the work items with the batch POST endpoint instead; the other apis have
+     * no such endpoint and throw, so request fewer items at once with them. It can also be set with the system
+     * property azd.url.max-length. Defaults to 4096.
+     * @param length maximum number of characters
+     */
+    public static void setMaxUrlLength(int length) {
+        maxUrlLength = length;
+    }
+
+    /***
+     * Get the maximum length of the request urls
+     * @return maximum number of characters
+     */
+    public static int getMaxUrlLength() {
+        return maxUrlLength;
+    }
+
 }
@@ -0,0 +1,213 @@
+package org.azd.utils;
+
+import org.azd.interfaces.WorkItemExportWriter;
+import org.azd.workitemtracking.types.CompactWorkItem;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ * Writes work items to a columnar file with dictionary encoded strings. Each batch is written as a row group as soon
+ * as it is received, so only one batch and the string dictionaries are held in memory.
+ * <p>
+ *     The layout, all numbers big-endian and strings as int length followed by UTF-8 bytes:
+ * </p>
+ * <pre>
+ *     file      := "AZDC" version:byte columnCount:int columnName:string* rowGroup* -1:int rowCount:long
+ *     rowGroup  := rows:int column*
+ *     column    := type:byte values
+ *     NULL      (0) all the values are null, nothing follows
+ *     LONG      (1) validity:bitmap long[rows]
+ *     DOUBLE    (2) validity:bitmap double[rows]
+ *     BOOLEAN   (3) validity:bitmap byte[rows]
+ *     TIMESTAMP (4) validity:bitmap long[rows] microseconds since epoch, UTC
+ *     DICTIONARY(5) newEntries:int string[newEntries] code:int[rows]; -1 is null
+ *     STRING    (6) string[rows]; length -1 is null
+ *     bitmap    := byte[(rows + 7) / 8], bit i of byte i / 8 is set when row i has a value
+ * </pre>
+ * <p>
+ *     The type of a column can change between row groups. The dictionary of a column spans the whole file, the
+ *     codes index the entries of all the previous row groups. Once a dictionary reaches the maximum size the column
+ *     is written as plain strings, so unique values like titles don't pile up in memory.
+ * </p>
+ * <p>
+ *     Identity fields like System.AssignedTo and other object values are written as their raw json text, e.g.,
+ *     {"displayName":"...","uniqueName":"...",...}, in a DICTIONARY or STRING column; a reader of the file parses
+ *     them when it needs more than the text.
+ * </p>
+ */
+public class ColumnarWorkItemWriter implements WorkItemExportWriter, AutoCloseable {
+    public static final int VERSION = 1;
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte TIMESTAMP = 4;
+    private static final byte DICTIONARY = 5;
+    private static final byte STRING = 6;
+
+    private final DataOutputStream OUT;
+    private final int MAX_DICTIONARY_SIZE;
+    private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+    private List<String> columns;
+
+    /***
+     * Create the writer with dictionaries of up to 65536 entries per column
+     * @param out stream to write to; closed when the writer is closed
+     */
+    public ColumnarWorkItemWriter(OutputStream out) {
+        this(out, 1 << 16);
+    }
+
+    /***
+     * Create the writer
+     * @param out stream to write to; closed when the writer is closed
+     * @param maxDictionarySize maximum number of distinct strings kept for a column
+     */
+    public ColumnarWorkItemWriter(OutputStream out, int maxDictionarySize) {
+        this.OUT = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.MAX_DICTIONARY_SIZE = maxDictionarySize;
+    }
+
+    @Override
+    public void start(List<String> columns) throws IOException {
+        this.columns = new ArrayList<>(columns);
+        OUT.writeBytes("AZDC");
+        OUT.writeByte(VERSION);
+        OUT.writeInt(columns.size());
+        for (var column : columns) {
+            writeString(column);
+            dictionaries.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    public void write(List<CompactWorkItem> rows) throws IOException {
+        if (rows.isEmpty()) return;
+        OUT.writeInt(rows.size());
+        for (int c = 0; c < columns.size(); c++) writeColumn(c, rows);
+    }
+
+    @Override
+    public void finish(long rowCount) throws IOException {
+        OUT.writeInt(-1);
+        OUT.writeLong(rowCount);
+        OUT.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        OUT.close();
+    }
+
+    private void writeColumn(int c, List<CompactWorkItem> rows) throws IOException {
+        var name = columns.get(c);
+        var type = typeOf(c, rows);
+        OUT.writeByte(type);
+
+        switch (type) {
+            case LONG:
+            case DOUBLE:
+            case BOOLEAN:
+            case TIMESTAMP:
+                writeValidity(name, rows);
+                for (var row : rows) {
+                    if (type == LONG) OUT.writeLong(row.getLong(name));
+                    else if (type == DOUBLE) OUT.writeDouble(row.getDouble(name));
+                    else if (type == BOOLEAN) OUT.writeByte(row.getBoolean(name) ? 1 : 0);
+                    else OUT.writeLong(toMicros(row.getInstant(name)));
+                }
+                break;
+            case DICTIONARY:
+                var dictionary = dictionaries.get(c);
+                var codes = new int[rows.size()];
+                var added = new ArrayList<String>();
+                for (int i = 0; i < rows.size(); i++) {
+                    var value = rows.get(i).getString(name);
+                    if (value == null) {
+                        codes[i] = -1;
+                        continue;
+                    }
+                    var code = dictionary.get(value);
+                    if (code == null) {
+                        code = dictionary.size();
+                        dictionary.put(value, code);
+                        added.add(value);
+                    }
+                    codes[i] = code;
+                }
+                OUT.writeInt(added.size());
+                for (var value : added) writeString(value);
+                for (var code : codes) OUT.writeInt(code);
+                break;
+            case STRING:
+                for (var row : rows) writeString(row.getString(name));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /***
+     * Picks the narrowest type that holds all the values of the column in the batch
+     */
+    private byte typeOf(int c, List<CompactWorkItem> rows) {
+        var name = columns.get(c);
+        byte type = NULL;
+        for (var row : rows) {
+            var value = row.getValue(name);
+            byte t;
+            if (value == null) continue;
+            if (value instanceof Long) t = LONG;
+            else if (value instanceof Double) t = DOUBLE;
+            else if (value instanceof Boolean) t = BOOLEAN;
+            else if (value instanceof Instant || row.getInstant(name) != null) t = TIMESTAMP;
+            else t = DICTIONARY;
+
+            if (type == NULL || type == t) type = t;
+            else if ((type == LONG && t == DOUBLE) || (type == DOUBLE && t == LONG)) type = DOUBLE;
+            else type = DICTIONARY;
+        }
+        if (type != DICTIONARY) return type;
+
+        var dictionary = dictionaries.get(c);
+        if (dictionary.size() + rows.size() <= MAX_DICTIONARY_SIZE) return DICTIONARY;
+        // the dictionary may still hold the batch when most of the values are repeated.
+        var distinct = new HashMap<String, Boolean>();
+        for (var row : rows) {
+            var value = row.getString(name);
+            if (value != null && !dictionary.containsKey(value)) distinct.put(value, true);
+        }
+        return dictionary.size() + distinct.size() <= MAX_DICTIONARY_SIZE ? DICTIONARY : STRING;
+    }
+
+    private void writeValidity(String name, List<CompactWorkItem> rows) throws IOException {
+        var bitmap = new byte[(rows.size() + 7) / 8];
+        for (int i = 0; i < rows.size(); i++)
+            if (rows.get(i).has(name)) bitmap[i / 8] |= (byte) (1 << (i % 8));
+        OUT.write(bitmap);
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            OUT.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        OUT.writeInt(bytes.length);
+        OUT.write(bytes);
+    }
+
+    private static long toMicros(Instant instant) {
+        if (instant == null) return 0L;
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1000;
+    }
+}
@@ -0,0 +1,255 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.PipelinesDetails;
+import org.azd.pipelines.types.PipelineRun;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Waits for many builds and pipeline runs to complete with one scheduler thread.
+ * <p>
+ *     A pipeline run is a build with the same id, so the status of all the watched builds and runs is checked with
+ *     {@link BuildDetails#getBuilds(int[])}, 200 ids per request, and a run is only requested once it is completed.
+ *     Both are requested through the {@link BuildDetails#uncached()} apis, so a local store of the connection never
+ *     returns a stale status.
+ *     Each item is checked again after an interval that grows with its position in the queue while it waits for an
+ *     agent and with the time it has been running since, from the minimum to the maximum interval. Items that are
+ *     almost due are checked with the items that are due, since that costs no extra request. An item that can't be
+ *     checked 5 times in a row fails.
+ * </p>
+ * <pre>
+ *     try (var watcher = new CompletionWatcher(client.getBuildApi(), client.getPipelinesApi())) {
+ *         var build = watcher.watchBuild(client.getBuildApi().queueBuild(22).getId());
+ *         var run = watcher.watchPipelineRun(7, Integer.parseInt(client.getPipelinesApi().runPipeline(7).getId()));
+ *         System.out.println(build.join().getResult() + " " + run.join().getResult());
+ *     }
+ * </pre>
+ */
+public class CompletionWatcher implements AutoCloseable {
+    private static final int CHUNK_SIZE = 200;
+    private static final int MAX_FAILURES = 5;
+    private final BuildDetails BUILD;
+    private final PipelinesDetails PIPELINES;
+    private final long MIN_INTERVAL;
+    private final long MAX_INTERVAL;
+    private final ScheduledExecutorService SCHEDULER;
+    private final Map<Integer, Watch<?>> WATCHES = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> nextTick;
+    private long nextTickAt;
+
+    /***
+     * Create the watcher that checks each item every 5 seconds to 2 minutes
+     * @param build build api of the project
+     * @param pipelines pipelines api of the project or null to only watch builds
+     */
+    public CompletionWatcher(BuildDetails build, PipelinesDetails pipelines) {
+        this(build, pipelines, Duration.ofSeconds(5), Duration.ofMinutes(2));
+    }
+
+    /***
+     * Create the watcher
+     * @param build build api of the project
+     * @param pipelines pipelines api of the project or null to only watch builds
+     * @param minInterval shortest time between two checks of an item
+     * @param maxInterval longest time between two checks of an item
+     */
+    public CompletionWatcher(BuildDetails build, PipelinesDetails pipelines, Duration minInterval, Duration maxInterval) {
+        this.BUILD = build.uncached();
+        this.PIPELINES = pipelines == null ? null : pipelines.uncached();
+        this.MIN_INTERVAL = minInterval.toNanos();
+        this.MAX_INTERVAL = Math.max(MIN_INTERVAL, maxInterval.toNanos());
+        this.SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "azd-completion-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /***
+     * Wait for a build to complete
+     * @param buildId id of the build
+     * @return future that completes with the completed build {@link Build}. Cancel it to stop watching the build
+     */
+    public CompletableFuture<Build> watchBuild(int buildId) {
+        return watch(buildId, new Watch<Build>(0));
+    }
+
+    /***
+     * Wait for a pipeline run to complete
+     * @param pipelineId id of the pipeline
+     * @param runId id of the run
+     * @return future that completes with the completed run {@link PipelineRun}. Cancel it to stop watching the run
+     */
+    public CompletableFuture<PipelineRun> watchPipelineRun(int pipelineId, int runId) {
+        if (PIPELINES == null) throw new IllegalStateException("The watcher is created without the pipelines api.");
+        return watch(runId, new Watch<PipelineRun>(pipelineId));
+    }
+
+    /***
+     * Get the number of builds and runs that are watched
+     * @return number of items
+     */
+    public int size() {
+        return WATCHES.size();
+    }
+
+    /***
+     * Stop the scheduler and cancel the futures of the items that are not completed
+     */
+    @Override
+    public void close() {
+        SCHEDULER.shutdownNow();
+        for (var watch : WATCHES.values()) watch.FUTURE.cancel(false);
+        WATCHES.clear();
+    }
+
+    private <T> CompletableFuture<T> watch(int id, Watch<T> watch) {
+        if (SCHEDULER.isShutdown()) throw new IllegalStateException("The watcher is closed.");
+        var existing = WATCHES.putIfAbsent(id, watch);
+        if (existing != null) throw new IllegalArgumentException("The build " + id + " is already watched.");
+        watch.next = watch.STARTED + MIN_INTERVAL;
+        schedule(watch.next);
+        return watch.FUTURE;
+    }
+
+    /***
+     * Makes sure a check runs at the given time
+     */
+    private synchronized void schedule(long at) {
+        if (SCHEDULER.isShutdown()) return;
+        if (nextTick != null && !nextTick.isDone() && nextTickAt <= at) return;
+        if (nextTick != null) nextTick.cancel(false);
+        nextTickAt = at;
+        nextTick = SCHEDULER.schedule(this::tick, Math.max(0, at - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /***
+     * Checks the items that are due and schedules the next check
+     */
+    private void tick() {
+        // items watched while this runs schedule their own check
+        synchronized (this) {
+            nextTick = null;
+        }
+        try {
+            var now = System.nanoTime();
+            var due = new ArrayList<Integer>();
+            for (var entry : WATCHES.entrySet()) {
+                var watch = entry.getValue();
+                if (watch.FUTURE.isDone()) WATCHES.remove(entry.getKey(), watch);
+                else if (watch.next - now <= MIN_INTERVAL / 2) due.add(entry.getKey());
+            }
+
+            for (int i = 0; i < due.size(); i += CHUNK_SIZE) {
+                if (Thread.currentThread().isInterrupted()) return;
+                var ids = due.subList(i, Math.min(i + CHUNK_SIZE, due.size()));
+                try {
+                    check(ids);
+                } catch (RuntimeException e) {
+                    // a build that can't be handled would be checked again and again
+                    for (var id : ids) {
+                        var watch = WATCHES.get(id);
+                        if (watch != null) fail(id, watch, e);
+                    }
+                }
+            }
+        } finally {
+            long next = Long.MAX_VALUE;
+            for (var watch : WATCHES.values()) next = Math.min(next, watch.next);
+            if (next != Long.MAX_VALUE) schedule(next);
+        }
+    }
+
+    private void check(List<Integer> ids) {
+        var now = System.nanoTime();
+        List<Build> builds;
+        try {
+            builds = BUILD.getBuilds(ids.stream().mapToInt(Integer::intValue).toArray()).getBuildResults();
+        } catch (ConnectionException | AzDException | RuntimeException e) {
+            for (var id : ids) {
+                var watch = WATCHES.get(id);
+                if (watch == null) continue;
+                if (++watch.failures >= MAX_FAILURES) fail(id, watch, e);
+                else watch.next = now + Math.min(MAX_INTERVAL, MIN_INTERVAL << watch.failures);
+            }
+            return;
+        }
+
+        var found = new HashMap<Integer, Build>();
+        if (builds != null) for (var build : builds) found.put(build.getId(), build);
+        for (var id : ids) {
+            var watch = WATCHES.get(id);
+            if (watch == null) continue;
+            var build = found.get(id);
+            if (build == null) {
+                fail(id, watch, new AzDException("BuildNotFoundException", "The build " + id + " doesn't exist or is deleted."));
+                continue;
+            }
+            watch.failures = 0;
+            if ("completed".equals(build.getStatus())) complete(id, watch, build);
+            else watch.next = now + interval(watch, build, now);
+        }
+    }
+
+    /***
+     * Time until the next check: waiting builds are checked less often the further back they are in the queue, and
+     * running builds less often the longer they run.
+     */
+    private long interval(Watch<?> watch, Build build, long now) {
+        long interval;
+        if ("notStarted".equals(build.getStatus()) && build.getQueuePosition() > 0)
+            interval = MIN_INTERVAL * (1 + build.getQueuePosition());
+        else
+            interval = (now - watch.STARTED) / 10;
+        return Math.max(MIN_INTERVAL, Math.min(MAX_INTERVAL, interval));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete(int id, Watch<?> watch, Build build) {
+        WATCHES.remove(id, watch);
+        if (watch.PIPELINE_ID == 0) {
+            ((Watch<Build>) watch).FUTURE.complete(build);
+            return;
+        }
+        try {
+            ((Watch<PipelineRun>) watch).FUTURE.complete(PIPELINES.getPipelineRun(watch.PIPELINE_ID, id));
+        } catch (ConnectionException | AzDException | RuntimeException e) {
+            watch.FUTURE.completeExceptionally(e);
+        }
+    }
+
+    private void fail(int id, Watch<?> watch, Exception e) {
+        WATCHES.remove(id, watch);
+        watch.FUTURE.completeExceptionally(e);
+    }
+
+    /***
+     * Build or run that is watched. The fields are only changed by the scheduler thread once it is watched.
+     * @param <T> type of the result
+     */
+    private static final class Watch<T> {
+        private final int PIPELINE_ID;
+        private final long STARTED = System.nanoTime();
+        private final CompletableFuture<T> FUTURE = new CompletableFuture<>();
+        private volatile long next;
+        private int failures;
+
+        Watch(int pipelineId) {
+            this.PIPELINE_ID = pipelineId;
+        }
+    }
+}
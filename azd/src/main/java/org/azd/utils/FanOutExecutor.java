@@ -0,0 +1,183 @@
+package org.azd.utils;
+
+import org.azd.accounts.types.Organization;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.interfaces.AzDClientQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/***
+ * Runs the same query across many organizations or projects in parallel.
+ * <p>
+ *     At most the given number of queries run at the same time on the threads of the {@link AzDClientRegistry}, so
+ *     the number can't be more than the parallelism of the registry, and the requests to each organization are
+ *     limited by the rate limiter of the registry. A failure for one organization or project doesn't stop the
+ *     others; it is reported in {@link FanOutResult#getFailures()}. If the calling thread is interrupted, no more queries
+ *     are submitted, the ones already running are waited for and the rest are reported in
+ *     {@link FanOutResult#getNotRun()}. Results can be streamed to a consumer as soon as
+ *     each query completes instead of being collected in memory.
+ * </p>
+ * <pre>
+ *     var registry = new AzDClientRegistry(new Connection(null, personalAccessToken), 10, 16);
+ *     var fanOut = new FanOutExecutor(registry, 16);
+ *     var organizations = fanOut.getOrganizations("myOrganisationName");
+ *     var result = fanOut.forOrganizations(organizations, c -&gt; c.getCoreApi().getProjects());
+ * </pre>
+ */
+public class FanOutExecutor {
+    private final AzDClientRegistry REGISTRY;
+    private final int MAX_CONCURRENCY;
+
+    /***
+     * Create the fan-out executor
+     * @param registry client registry to get the clients for the organizations
+     * @param maxConcurrency maximum number of queries to run at the same time, from 1 to the parallelism of the registry
+     */
+    public FanOutExecutor(AzDClientRegistry registry, int maxConcurrency) {
+        if (maxConcurrency < 1 || maxConcurrency > registry.getParallelism())
+            throw new IllegalArgumentException("The maximum concurrency must be from 1 to the parallelism of the registry, "
+                    + registry.getParallelism() + ".");
+        this.REGISTRY = registry;
+        this.MAX_CONCURRENCY = maxConcurrency;
+    }
+
+    /***
+     * Get the names of all the organizations the user has access to
+     * @param organization name of any organization the user has access to
+     * @return list of organization names
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public List<String> getOrganizations(String organization) throws ConnectionException, AzDException {
+        return REGISTRY.newClient(organization).getAccountsApi().getOrganizations()
+                .stream()
+                .map(Organization::getName)
+                .collect(Collectors.toList());
+    }
+
+    /***
+     * Run the query for each organization and collect the results
+     * @param organizations list of organization names
+     * @param query query to run with the client of each organization
+     * @param <T> type of the result
+     * @return results and failures keyed by organization {@link FanOutResult}
+     */
+    public <T> FanOutResult<T> forOrganizations(Collection<String> organizations, AzDClientQuery<T> query) {
+        return forOrganizations(organizations, query, null);
+    }
+
+    /***
+     * Run the query for each organization and pass each result to the consumer as soon as it is available.
+     * The consumer is called by one thread at a time, so it doesn't have to be thread-safe.
+     * @param organizations list of organization names
+     * @param query query to run with the client of each organization
+     * @param consumer consumer called with the organization name and the result
+     * @param <T> type of the result
+     * @return failures keyed by organization {@link FanOutResult}
+     */
+    public <T> FanOutResult<T> forOrganizations(Collection<String> organizations, AzDClientQuery<T> query,
+                                                BiConsumer<String, T> consumer) {
+        var targets = new ArrayList<String[]>();
+        for (var organization : organizations) targets.add(new String[]{ organization, null });
+        return execute(targets, query, consumer);
+    }
+
+    /***
+     * Run the query for each project and collect the results
+     * @param projectsByOrganization list of project names for each organization name
+     * @param query query to run with the client of each project
+     * @param <T> type of the result
+     * @return results and failures keyed by organization/project {@link FanOutResult}
+     */
+    public <T> FanOutResult<T> forProjects(Map<String, ? extends Collection<String>> projectsByOrganization,
+                                           AzDClientQuery<T> query) {
+        return forProjects(projectsByOrganization, query, null);
+    }
+
+    /***
+     * Run the query for each project and pass each result to the consumer as soon as it is available.
+     * The consumer is called by one thread at a time, so it doesn't have to be thread-safe.
+     * @param projectsByOrganization list of project names for each organization name
+     * @param query query to run with the client of each project
+     * @param consumer consumer called with organization/project and the result
+     * @param <T> type of the result
+     * @return failures keyed by organization/project {@link FanOutResult}
+     */
+    public <T> FanOutResult<T> forProjects(Map<String, ? extends Collection<String>> projectsByOrganization,
+                                           AzDClientQuery<T> query, BiConsumer<String, T> consumer) {
+        var targets = new ArrayList<String[]>();
+        for (var entry : projectsByOrganization.entrySet())
+            for (var project : entry.getValue()) targets.add(new String[]{ entry.getKey(), project });
+        return execute(targets, query, consumer);
+    }
+
+    /***
+     * Run the query for each organization and project pair
+     * @param targets list of organization and project names
+     * @param query query to run
+     * @param consumer consumer of the results or null to collect them
+     * @param <T> type of the result
+     * @return results and failures {@link FanOutResult}
+     */
+    private <T> FanOutResult<T> execute(List<String[]> targets, AzDClientQuery<T> query, BiConsumer<String, T> consumer) {
+        var result = new FanOutResult<T>();
+        var permits = new Semaphore(MAX_CONCURRENCY);
+        var futures = new ArrayList<CompletableFuture<Void>>();
+
+        for (int i = 0; i < targets.size(); i++) {
+            var target = targets.get(i);
+            var key = key(target);
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // stop submitting; the queries already running are still waited for.
+                Thread.currentThread().interrupt();
+                for (var skipped : targets.subList(i, targets.size())) result.addNotRun(key(skipped));
+                break;
+            }
+
+            futures.add(REGISTRY.submit(target[0], target[1], query)
+                    .handle((r, e) -> {
+                        try {
+                            if (e != null) {
+                                result.addFailure(key, e instanceof CompletionException ? e.getCause() : e);
+                            } else if (consumer != null) {
+                                synchronized (consumer) {
+                                    consumer.accept(key, r);
+                                }
+                                result.addResult(key, r, false);
+                            } else {
+                                result.addResult(key, r, true);
+                            }
+                        } catch (RuntimeException ex) {
+                            result.addFailure(key, ex);
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return result;
+    }
+
+    /***
+     * Get the key of the results and failures of a target
+     * @param target organization and project names
+     * @return organization or organization/project
+     */
+    private static String key(String[] target) {
+        return target[1] == null ? target[0] : target[0] + "/" + target[1];
+    }
+}
@@ -0,0 +1,81 @@
+package org.azd.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ * Result of a query run across organizations or projects by {@link FanOutExecutor}.
+ * Results and failures are keyed by organization name, or organization/project when the query is run per project.
+ * @param <T> type of the query result
+ */
+public class FanOutResult<T> {
+    private final Map<String, T> results = new LinkedHashMap<>();
+    private final Map<String, Throwable> failures = new LinkedHashMap<>();
+    private final List<String> notRun = new ArrayList<>();
+    private int succeeded;
+
+    synchronized void addResult(String key, T result, boolean keep) {
+        succeeded++;
+        if (keep) results.put(key, result);
+    }
+
+    synchronized void addFailure(String key, Throwable e) {
+        failures.put(key, e);
+    }
+
+    synchronized void addNotRun(String key) {
+        notRun.add(key);
+    }
+
+    /***
+     * Get the results of the query. The results are only kept when no consumer is passed to the executor.
+     * @return results keyed by organization or organization/project
+     */
+    public synchronized Map<String, T> getResults() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(results));
+    }
+
+    /***
+     * Get the errors thrown by the query
+     * @return errors keyed by organization or organization/project
+     */
+    public synchronized Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /***
+     * Get the organizations or projects the query was not run for because the executor was interrupted
+     * @return list of organization or organization/project
+     */
+    public synchronized List<String> getNotRun() {
+        return Collections.unmodifiableList(new ArrayList<>(notRun));
+    }
+
+    /***
+     * Get the number of organizations or projects the query succeeded for
+     * @return number of successful queries
+     */
+    public synchronized int getSucceeded() {
+        return succeeded;
+    }
+
+    /***
+     * Check if the query failed for any organization or project
+     * @return true if any query failed
+     */
+    public synchronized boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FanOutResult{" +
+                "succeeded=" + succeeded +
+                ", failures=" + failures.keySet() +
+                ", notRun=" + notRun +
+                '}';
+    }
+}
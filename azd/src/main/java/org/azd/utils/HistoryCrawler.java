@@ -0,0 +1,251 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.enums.ReleaseQueryOrder;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.RateLimiter;
+import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.HistorySink;
+import org.azd.interfaces.ReleaseDetails;
+import org.azd.release.types.Release;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/***
+ * Crawls the history of a list api that filters by time, e.g., the builds of a project by queue time or the releases
+ * by creation time, in time slices that are listed at the same time.
+ * <p>
+ *     The range is split into slices of the given length, and up to the given number of slices are listed at the same
+ *     time, each request waiting for the rate limiter if there is one. A slice that fills a page is split in half and
+ *     listed again, down to the minimum slice length; a minimum slice that is still full is paged through by time,
+ *     and fails if more items than a page have the same time, as the apis can't page past them.
+ *     Each slice is requested with a margin of a second on both sides and only the items with a time in the slice are
+ *     kept, so an item on the border of two slices is written once whether the api includes the borders or not. The
+ *     items of each slice are passed to a {@link HistorySink} as soon as the slice completes.
+ * </p>
+ * <pre>
+ *     var crawler = HistoryCrawler.builds(client.getBuildApi(), null, 16, new RateLimiter(20));
+ *     var count = crawler.crawl(Instant.parse("2023-01-01T00:00:00Z"), Instant.now(), Duration.ofDays(7), sink);
+ * </pre>
+ * @param <T> type of the items
+ */
+public class HistoryCrawler<T> {
+    private static final Duration MARGIN = Duration.ofSeconds(1);
+    private final Source<T> SOURCE;
+    private final Function<T, String> TIME;
+    private final ToIntFunction<T> ID;
+    private final int TOP;
+    private final int MAX_CONCURRENCY;
+    private final RateLimiter RATE_LIMITER;
+    private Duration minSlice = Duration.ofMinutes(1);
+
+    /***
+     * Lists the items of a time range in ascending order of time
+     * @param <T> type of the items
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        /***
+         * List the items
+         * @param from start of the range
+         * @param to end of the range
+         * @param top maximum number of items to list
+         * @return the first items of the range in ascending order of time
+         */
+        List<T> list(Instant from, Instant to, int top) throws ConnectionException, AzDException;
+    }
+
+    /***
+     * Create the crawler
+     * @param source lists the items of a time range
+     * @param time time of an item that the source filters by, as an ISO 8601 instant
+     * @param id id of an item
+     * @param top number of items listed per request
+     * @param maxConcurrency maximum number of slices listed at the same time
+     * @param rateLimiter rate limiter for the requests, in addition to the one of the connection, or null
+     */
+    public HistoryCrawler(Source<T> source, Function<T, String> time, ToIntFunction<T> id, int top, int maxConcurrency,
+                          RateLimiter rateLimiter) {
+        this.SOURCE = source;
+        this.TIME = time;
+        this.ID = id;
+        this.TOP = Math.max(1, top);
+        this.MAX_CONCURRENCY = Math.max(1, maxConcurrency);
+        this.RATE_LIMITER = rateLimiter;
+    }
+
+    /***
+     * Create a crawler of the builds of a project by queue time. To crawl the runs of a pipeline, pass the id of the
+     * pipeline as the definition; the runs api has no time filter.
+     * @param build build api of the project
+     * @param definitions ids of the definitions to crawl or null for all
+     * @param maxConcurrency maximum number of slices listed at the same time
+     * @param rateLimiter rate limiter for the requests, in addition to the one of the connection, or null
+     * @return the crawler
+     */
+    public static HistoryCrawler<Build> builds(BuildDetails build, int[] definitions, int maxConcurrency, RateLimiter rateLimiter) {
+        return new HistoryCrawler<>((from, to, top) -> {
+            var builds = build.getBuilds(top, null, null, null, definitions, null, 0, to.toString(), from.toString(),
+                    null, "queueTimeAscending", null, null, null, null, null, null, null, null).getBuildResults();
+            return builds == null ? List.of() : builds;
+        }, Build::getQueueTime, Build::getId, 1000, maxConcurrency, rateLimiter);
+    }
+
+    /***
+     * Create a crawler of the releases of a project by creation time
+     * @param release release api of the project
+     * @param definitionId id of the release definition to crawl or 0 for all
+     * @param maxConcurrency maximum number of slices listed at the same time
+     * @param rateLimiter rate limiter for the requests, in addition to the one of the connection, or null
+     * @return the crawler
+     */
+    public static HistoryCrawler<Release> releases(ReleaseDetails release, int definitionId, int maxConcurrency, RateLimiter rateLimiter) {
+        return new HistoryCrawler<>((from, to, top) -> {
+            var releases = release.getReleases(null, top, null, null, 0, null, 0, definitionId, 0, false,
+                    to.toString(), from.toString(), null, null, ReleaseQueryOrder.ASCENDING, null, null, null, null,
+                    null, null).getReleases();
+            return releases == null ? List.of() : releases;
+        }, Release::getCreatedOn, Release::getId, 100, maxConcurrency, rateLimiter);
+    }
+
+    /***
+     * Set the shortest slice that is split when it fills a page; defaults to a minute
+     * @param minSlice minimum slice length
+     * @return this crawler
+     */
+    public HistoryCrawler<T> setMinSlice(Duration minSlice) {
+        this.minSlice = minSlice;
+        return this;
+    }
+
+    /***
+     * Crawl the range and pass the items of each slice to the sink
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @param slice length of the first slices
+     * @param sink receives the items of each slice {@link HistorySink}
+     * @return number of items passed to the sink
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public long crawl(Instant from, Instant to, Duration slice, HistorySink<T> sink) throws ConnectionException, AzDException {
+        var count = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(MAX_CONCURRENCY, r -> {
+            var t = new Thread(r, "azd-history-crawler-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            var done = new LinkedBlockingQueue<Slice>();
+            int pending = 0;
+            for (var start = from; start.isBefore(to); start = start.plus(slice)) {
+                var end = start.plus(slice).isBefore(to) ? start.plus(slice) : to;
+                submit(executor, new Slice(start, end), done);
+                pending++;
+            }
+
+            long items = 0;
+            while (pending > 0) {
+                Slice completed;
+                try {
+                    completed = done.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AzDException("InterruptedException", "The crawl was interrupted.");
+                }
+                pending--;
+
+                if (completed.error instanceof ConnectionException) throw (ConnectionException) completed.error;
+                if (completed.error instanceof AzDException) throw (AzDException) completed.error;
+                if (completed.error != null) throw new AzDException(completed.error);
+                if (completed.items == null) {
+                    var middle = completed.FROM.plus(Duration.between(completed.FROM, completed.TO).dividedBy(2));
+                    submit(executor, new Slice(completed.FROM, middle), done);
+                    submit(executor, new Slice(middle, completed.TO), done);
+                    pending += 2;
+                    continue;
+                }
+                sink.write(completed.FROM, completed.TO, completed.items);
+                items += completed.items.size();
+            }
+            return items;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submit(ExecutorService executor, Slice slice, LinkedBlockingQueue<Slice> done) {
+        executor.execute(() -> {
+            try {
+                list(slice);
+            } catch (ConnectionException | AzDException | RuntimeException e) {
+                slice.error = e;
+            }
+            done.add(slice);
+        });
+    }
+
+    /***
+     * Lists the items of the slice, or leaves them null if the slice is full and should be split
+     */
+    private void list(Slice slice) throws ConnectionException, AzDException {
+        var first = request(slice.FROM.minus(MARGIN), slice.TO.plus(MARGIN));
+        if (first.size() >= TOP && Duration.between(slice.FROM, slice.TO).compareTo(minSlice) > 0) return;
+
+        // the slice can't be split further; page through it by time.
+        var items = new ArrayList<T>();
+        new TimeCursor(null, (int[]) null).page(null, TOP,
+                (since, afterId) -> since == null ? first : request(Instant.parse(since), slice.TO.plus(MARGIN)),
+                TIME, ID, null, page -> {
+                    for (var item : page) {
+                        var time = instant(item);
+                        if (time != null && !time.isBefore(slice.FROM) && time.isBefore(slice.TO)) items.add(item);
+                    }
+                });
+        slice.items = items;
+    }
+
+    private List<T> request(Instant from, Instant to) throws ConnectionException, AzDException {
+        if (RATE_LIMITER != null) RATE_LIMITER.acquire();
+        var page = SOURCE.list(from, to, TOP);
+        return page == null ? List.of() : page;
+    }
+
+    private Instant instant(T item) {
+        var time = TIME.apply(item);
+        if (time == null) return null;
+        try {
+            return Instant.parse(time);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /***
+     * Time slice of the range and its items once listed
+     */
+    private final class Slice {
+        private final Instant FROM;
+        private final Instant TO;
+        private volatile List<T> items;
+        private volatile Exception error;
+
+        Slice(Instant from, Instant to) {
+            this.FROM = from;
+            this.TO = to;
+        }
+    }
+}
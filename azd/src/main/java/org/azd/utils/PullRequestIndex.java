@@ -0,0 +1,221 @@
+package org.azd.utils;
+
+import org.azd.git.types.PullRequest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/***
+ * In-memory index of the pull requests listed by a {@link PullRequestTracker}, by repository, target branch, reviewer
+ * and status.
+ * <p>
+ *     Each pull request is kept as a small entry with its repository, target branch, status, last merge source commit
+ *     and the vote of each reviewer, and the strings are shared between entries. The ids for each repository, target
+ *     branch, reviewer and status are kept in sorted arrays.
+ * </p>
+ * <pre>
+ *     var waiting = tracker.getIndex().getPullRequestIds(repositoryId, "refs/heads/main", reviewerId, "active");
+ * </pre>
+ */
+public class PullRequestIndex {
+    private final Map<Integer, Entry> ENTRIES = new HashMap<>();
+    private final Map<String, SortedIds> REPOSITORIES = new HashMap<>();
+    private final Map<String, SortedIds> TARGETS = new HashMap<>();
+    private final Map<String, SortedIds> REVIEWERS = new HashMap<>();
+    private final Map<String, SortedIds> STATUSES = new HashMap<>();
+    private final Map<String, String> STRINGS = new HashMap<>();
+
+    /***
+     * Get the entry of a pull request
+     * @param pullRequestId id of the pull request
+     * @return the entry or null if the pull request isn't indexed {@link Entry}
+     */
+    public synchronized Entry get(int pullRequestId) {
+        return ENTRIES.get(pullRequestId);
+    }
+
+    /***
+     * Get the number of indexed pull requests
+     * @return number of pull requests
+     */
+    public synchronized int size() {
+        return ENTRIES.size();
+    }
+
+    /***
+     * Get the ids of the pull requests that match all the given filters
+     * @param repositoryId id of the repository or null for any
+     * @param targetRefName target branch, e.g., refs/heads/main, or null for any
+     * @param reviewerId id of a reviewer or null for any
+     * @param status status, e.g., active, or null for any
+     * @return sorted pull request ids
+     */
+    public synchronized int[] getPullRequestIds(String repositoryId, String targetRefName, String reviewerId, String status) {
+        SortedIds smallest = null;
+        for (var ids : new SortedIds[]{
+                repositoryId == null ? null : REPOSITORIES.getOrDefault(repositoryId, SortedIds.EMPTY),
+                targetRefName == null ? null : TARGETS.getOrDefault(targetRefName, SortedIds.EMPTY),
+                reviewerId == null ? null : REVIEWERS.getOrDefault(reviewerId, SortedIds.EMPTY),
+                status == null ? null : STATUSES.getOrDefault(status, SortedIds.EMPTY)}) {
+            if (ids != null && (smallest == null || ids.size() < smallest.size())) smallest = ids;
+        }
+
+        if (smallest == null) return ENTRIES.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        var matches = new int[smallest.size()];
+        int n = 0;
+        for (int i = 0; i < smallest.size(); i++) {
+            var entry = ENTRIES.get(smallest.get(i));
+            if ((repositoryId == null || repositoryId.equals(entry.REPOSITORY_ID)) &&
+                    (targetRefName == null || targetRefName.equals(entry.TARGET_REF_NAME)) &&
+                    (reviewerId == null || Arrays.binarySearch(entry.REVIEWER_IDS, reviewerId) >= 0) &&
+                    (status == null || status.equals(entry.STATUS))) matches[n++] = entry.ID;
+        }
+        return Arrays.copyOf(matches, n);
+    }
+
+    /***
+     * Create the entry of a pull request without indexing it
+     * @param pullRequest the pull request
+     * @return the entry {@link Entry}
+     */
+    synchronized Entry toEntry(PullRequest pullRequest) {
+        var reviewers = pullRequest.getReviewers() == null ? new String[0][] : pullRequest.getReviewers().stream()
+                .filter(r -> r.getId() != null)
+                .map(r -> new String[]{ intern(r.getId()), String.valueOf(r.getVote()) })
+                .sorted((a, b) -> a[0].compareTo(b[0]))
+                .toArray(String[][]::new);
+        var ids = new String[reviewers.length];
+        var votes = new int[reviewers.length];
+        for (int i = 0; i < reviewers.length; i++) {
+            ids[i] = reviewers[i][0];
+            votes[i] = Integer.parseInt(reviewers[i][1]);
+        }
+
+        return new Entry(pullRequest.getPullRequestId(),
+                intern(pullRequest.getRepository() == null ? null : pullRequest.getRepository().getId()),
+                intern(pullRequest.getTargetRefName()),
+                intern(pullRequest.getStatus()),
+                pullRequest.getLastMergeSourceCommit() == null ? null : pullRequest.getLastMergeSourceCommit().getCommitId(),
+                ids, votes);
+    }
+
+    /***
+     * Index an entry
+     * @param entry entry of a pull request
+     * @return the previous entry of the pull request or null if it wasn't indexed
+     */
+    synchronized Entry put(Entry entry) {
+        var previous = remove(entry.ID);
+        ENTRIES.put(entry.ID, entry);
+        add(REPOSITORIES, entry.REPOSITORY_ID, entry.ID);
+        add(TARGETS, entry.TARGET_REF_NAME, entry.ID);
+        add(STATUSES, entry.STATUS, entry.ID);
+        for (var reviewer : entry.REVIEWER_IDS) add(REVIEWERS, reviewer, entry.ID);
+        return previous;
+    }
+
+    /***
+     * Remove a pull request
+     * @param pullRequestId id of the pull request
+     * @return the entry of the pull request or null if it wasn't indexed
+     */
+    synchronized Entry remove(int pullRequestId) {
+        var entry = ENTRIES.remove(pullRequestId);
+        if (entry == null) return null;
+        remove(REPOSITORIES, entry.REPOSITORY_ID, pullRequestId);
+        remove(TARGETS, entry.TARGET_REF_NAME, pullRequestId);
+        remove(STATUSES, entry.STATUS, pullRequestId);
+        for (var reviewer : entry.REVIEWER_IDS) remove(REVIEWERS, reviewer, pullRequestId);
+        return entry;
+    }
+
+    private String intern(String value) {
+        return value == null ? null : STRINGS.computeIfAbsent(value, v -> v);
+    }
+
+    private static void add(Map<String, SortedIds> index, String key, int id) {
+        if (key != null) index.computeIfAbsent(key, k -> new SortedIds()).add(id);
+    }
+
+    private static void remove(Map<String, SortedIds> index, String key, int id) {
+        if (key == null) return;
+        var ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.size() == 0) index.remove(key);
+    }
+
+    /***
+     * Indexed state of a pull request
+     */
+    public static final class Entry {
+        private final int ID;
+        private final String REPOSITORY_ID;
+        private final String TARGET_REF_NAME;
+        private final String STATUS;
+        private final String SOURCE_COMMIT_ID;
+        private final String[] REVIEWER_IDS;
+        private final int[] VOTES;
+
+        Entry(int id, String repositoryId, String targetRefName, String status, String sourceCommitId, String[] reviewerIds, int[] votes) {
+            this.ID = id;
+            this.REPOSITORY_ID = repositoryId;
+            this.TARGET_REF_NAME = targetRefName;
+            this.STATUS = status;
+            this.SOURCE_COMMIT_ID = sourceCommitId;
+            this.REVIEWER_IDS = reviewerIds;
+            this.VOTES = votes;
+        }
+
+        public int getPullRequestId() { return ID; }
+
+        public String getRepositoryId() { return REPOSITORY_ID; }
+
+        public String getTargetRefName() { return TARGET_REF_NAME; }
+
+        public String getStatus() { return STATUS; }
+
+        public String getLastMergeSourceCommitId() { return SOURCE_COMMIT_ID; }
+
+        /***
+         * Get the ids of the reviewers
+         * @return reviewer ids, sorted
+         */
+        public String[] getReviewerIds() { return REVIEWER_IDS.clone(); }
+
+        /***
+         * Get the vote of a reviewer
+         * @param reviewerId id of the reviewer
+         * @return the vote, from -10 for rejected to 10 for approved, or null if the identity isn't a reviewer
+         */
+        public Integer getVote(String reviewerId) {
+            var i = Arrays.binarySearch(REVIEWER_IDS, reviewerId);
+            return i < 0 ? null : VOTES[i];
+        }
+
+        /***
+         * Check if the status, target branch, last merge source commit, reviewers or votes differ
+         * @param other entry of the same pull request
+         * @return true if the entries differ
+         */
+        public boolean isChanged(Entry other) {
+            return !Objects.equals(STATUS, other.STATUS) ||
+                    !Objects.equals(TARGET_REF_NAME, other.TARGET_REF_NAME) ||
+                    !Objects.equals(SOURCE_COMMIT_ID, other.SOURCE_COMMIT_ID) ||
+                    !Arrays.equals(REVIEWER_IDS, other.REVIEWER_IDS) ||
+                    !Arrays.equals(VOTES, other.VOTES);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "pullRequestId=" + ID +
+                    ", repositoryId='" + REPOSITORY_ID + '\'' +
+                    ", targetRefName='" + TARGET_REF_NAME + '\'' +
+                    ", status='" + STATUS + '\'' +
+                    ", lastMergeSourceCommitId='" + SOURCE_COMMIT_ID + '\'' +
+                    ", reviewers=" + REVIEWER_IDS.length +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.azd.utils;
+
+import org.azd.enums.PullRequestStatus;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.git.types.PullRequest;
+import org.azd.interfaces.GitDetails;
+import org.azd.interfaces.PullRequestListener;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+/***
+ * Follows the pull requests of a project or a repository and passes the changes since the last poll to a listener.
+ * <p>
+ *     Each poll lists the active pull requests a page of 1000 at a time, with up to the given number of pages
+ *     requested ahead after the first full page while the current one is compared, and stops at the first page that
+ *     isn't full. Pull requests listed for the first time are created; known pull requests whose status, target
+ *     branch, last merge source commit, reviewers or votes changed are updated. The known active pull requests that
+ *     are no longer listed are fetched by id, so a pull request that moved between pages is still compared, and the
+ *     others are closed or removed. The listed pull requests are kept in a {@link PullRequestIndex}; closed pull
+ *     requests stay in it with their last status.
+ *     All the requests are sent through the {@link GitDetails#uncached()} api, so a local store of the connection
+ *     never returns a stale page or pull request.
+ * </p>
+ * <pre>
+ *     var tracker = new PullRequestTracker(client.getGitApi(), null, 4);
+ *     while (running) {
+ *         tracker.poll(listener);
+ *         Thread.sleep(60_000);
+ *     }
+ * </pre>
+ */
+public class PullRequestTracker {
+    private static final int PAGE_SIZE = 1000;
+    private static final String ACTIVE = "active";
+    private static final String NOT_FOUND = "GitPullRequestNotFoundException";
+    private final GitDetails GIT;
+    private final String REPOSITORY_ID;
+    private final int PREFETCH;
+    private final PullRequestIndex INDEX = new PullRequestIndex();
+
+    /***
+     * Create the tracker
+     * @param git git api of the project
+     * @param repositoryId id of the repository to track or null for all the repositories of the project
+     * @param prefetch maximum number of pages or pull requests requested at the same time
+     */
+    public PullRequestTracker(GitDetails git, String repositoryId, int prefetch) {
+        this.GIT = git.uncached();
+        this.REPOSITORY_ID = repositoryId;
+        this.PREFETCH = Math.max(1, prefetch);
+    }
+
+    /***
+     * Get the index of the pull requests listed by this tracker
+     * @return pull request index {@link PullRequestIndex}
+     */
+    public PullRequestIndex getIndex() {
+        return INDEX;
+    }
+
+    /***
+     * Pass the changes since the last poll to the listener. The first poll creates all the active pull requests.
+     * @param listener listener for the changes {@link PullRequestListener}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public void poll(PullRequestListener listener) throws ConnectionException, AzDException {
+        var listed = list(listener);
+
+        var missing = Arrays.stream(INDEX.getPullRequestIds(REPOSITORY_ID, null, null, ACTIVE))
+                .filter(id -> !listed.contains(id)).toArray();
+        try {
+            ChunkedFetch.run("azd-pull-request-tracker", missing, 1, PREFETCH,
+                    ids -> new AbstractMap.SimpleEntry<>(ids[0], getPullRequest(ids[0])),
+                    fetched -> {
+                        if (fetched.getValue() != null) {
+                            visit(fetched.getValue(), listener);
+                        } else {
+                            var previous = INDEX.remove(fetched.getKey());
+                            if (previous != null) listener.removed(previous);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new AzDException(e);
+        }
+    }
+
+    /***
+     * Lists the active pull requests with the next pages requested ahead
+     * @return ids of the listed pull requests
+     */
+    private Set<Integer> list(PullRequestListener listener) throws ConnectionException, AzDException {
+        var listed = new HashSet<Integer>();
+        try (var pullRequests = GIT.streamPullRequestsByProject(PAGE_SIZE, PREFETCH, null, false, REPOSITORY_ID, null,
+                null, null, PullRequestStatus.ACTIVE, null)) {
+            var iterator = pullRequests.iterator();
+            while (iterator.hasNext()) {
+                var pullRequest = iterator.next();
+                // pull requests created or closed while paging shift the pages; a pull request can be listed twice.
+                if (listed.add(pullRequest.getPullRequestId())) visit(pullRequest, listener);
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ConnectionException) throw (ConnectionException) e.getCause();
+            if (e.getCause() instanceof AzDException) throw (AzDException) e.getCause();
+            throw e;
+        }
+        return listed;
+    }
+
+    private void visit(PullRequest pullRequest, PullRequestListener listener) throws AzDException {
+        var entry = INDEX.toEntry(pullRequest);
+        var previous = INDEX.put(entry);
+
+        if (previous == null) {
+            if (ACTIVE.equals(entry.getStatus())) listener.created(pullRequest);
+        } else if (!ACTIVE.equals(entry.getStatus())) {
+            if (ACTIVE.equals(previous.getStatus())) listener.closed(pullRequest, previous);
+        } else if (entry.isChanged(previous)) {
+            listener.updated(pullRequest, previous);
+        }
+    }
+
+    private PullRequest getPullRequest(int id) throws ConnectionException, AzDException {
+        try {
+            return GIT.getPullRequestById(id);
+        } catch (AzDException e) {
+            if (NOT_FOUND.equals(e.getExceptionType())) return null;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.azd.utils;
+
+import org.azd.enums.ReleaseExpands;
+import org.azd.enums.ReleaseQueryOrder;
+import org.azd.enums.ReleaseStatus;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.interfaces.ReleaseDeploymentListener;
+import org.azd.interfaces.ReleaseDetails;
+import org.azd.release.types.Release;
+import org.azd.release.types.ReleaseApproval;
+import org.azd.release.types.ReleaseEnvironment;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/***
+ * Follows the deployments of the active releases of a project and passes the environments that changed since the
+ * last poll to a listener.
+ * <p>
+ *     Each poll lists the active releases created since the start of the history that have an environment not
+ *     started, queued, scheduled or in progress, a page of 100 at a time in the order of creation, with the
+ *     environments expanded. The known releases that are no longer listed are listed once more by id to get their
+ *     final state, and are no longer tracked. The status, rank and approvals of the listed environments are compared
+ *     with the previous poll; only the releases with an environment that changed are fetched in full, up to the given
+ *     number at the same time, and each changed environment is passed to the listener. All the requests, including
+ *     those sent on the threads that fetch the releases, go through the {@link ReleaseDetails#uncached()} api, so a
+ *     local store of the connection never returns a stale listing or release.
+ * </p>
+ * <pre>
+ *     var tracker = new ReleaseDeploymentTracker(client.getReleaseApi(), Instant.now().minus(Duration.ofDays(30)), 8);
+ *     while (running) {
+ *         tracker.poll(listener);
+ *         Thread.sleep(60_000);
+ *     }
+ * </pre>
+ */
+public class ReleaseDeploymentTracker {
+    private static final int PAGE_SIZE = 100;
+    // notStarted, inProgress, queued and scheduled
+    private static final int PENDING = 1 | 2 | 32 | 64;
+    private final ReleaseDetails RELEASE;
+    private final String SINCE;
+    private final int MAX_CONCURRENCY;
+    private final Map<Integer, Map<Integer, EnvironmentState>> RELEASES = new HashMap<>();
+
+    /***
+     * Create the tracker
+     * @param release release api of the project
+     * @param since start of the history; releases created before it are not tracked. Pass null for the whole history
+     * @param maxConcurrency maximum number of releases fetched at the same time
+     */
+    public ReleaseDeploymentTracker(ReleaseDetails release, Instant since, int maxConcurrency) {
+        this.RELEASE = release.uncached();
+        this.SINCE = since == null ? null : since.toString();
+        this.MAX_CONCURRENCY = Math.max(1, maxConcurrency);
+    }
+
+    /***
+     * Get the number of releases with pending environments that are tracked
+     * @return number of releases
+     */
+    public int size() {
+        return RELEASES.size();
+    }
+
+    /***
+     * Pass the changes since the last poll to the listener. The first poll adds all the listed releases.
+     * @param listener listener for the changes {@link ReleaseDeploymentListener}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public void poll(ReleaseDeploymentListener listener) throws ConnectionException, AzDException {
+        var listed = list();
+        var finished = new TreeMap<Integer, Release>();
+        var missing = RELEASES.keySet().stream().filter(id -> !listed.containsKey(id)).mapToInt(Integer::intValue).sorted().toArray();
+
+        try {
+            ChunkedFetch.run("azd-release-deployment-tracker", missing, PAGE_SIZE, MAX_CONCURRENCY,
+                    ids -> getReleases(null, 0, ids),
+                    releases -> {
+                        if (releases != null) for (var release : releases) finished.put(release.getId(), release);
+                    });
+
+            // the states are compared as listed, since a release fetched in full can have more of them bound
+            var changed = new TreeMap<Integer, Map<Integer, EnvironmentState>>();
+            var current = new HashMap<Integer, Map<Integer, EnvironmentState>>();
+            for (var releases : List.of(listed, finished)) {
+                for (var release : releases.values()) {
+                    var states = toStates(release);
+                    var previous = RELEASES.get(release.getId());
+                    if (previous == null) {
+                        RELEASES.put(release.getId(), states);
+                        listener.added(release);
+                    } else if (!previous.equals(states)) {
+                        changed.put(release.getId(), previous);
+                        current.put(release.getId(), states);
+                    } else if (releases == finished) {
+                        RELEASES.remove(release.getId());
+                    }
+                }
+            }
+
+            for (var id : missing) {
+                if (finished.containsKey(id)) continue;
+                RELEASES.remove(id);
+                listener.removed(id);
+            }
+
+            var ids = changed.keySet().stream().mapToInt(Integer::intValue).toArray();
+            ChunkedFetch.run("azd-release-deployment-tracker", ids, 1, MAX_CONCURRENCY,
+                    chunk -> RELEASE.getRelease(chunk[0]),
+                    release -> {
+                        var previous = changed.get(release.getId());
+                        var states = current.get(release.getId());
+                        if (release.getEnvironments() != null) {
+                            for (var environment : release.getEnvironments()) {
+                                var state = previous.get(environment.getId());
+                                if (!Objects.equals(state, states.get(environment.getId())))
+                                    listener.environmentChanged(release, environment, state == null ? null : state.STATUS);
+                            }
+                        }
+                        if (finished.containsKey(release.getId())) RELEASES.remove(release.getId());
+                        else RELEASES.put(release.getId(), states);
+                    });
+        } catch (IOException e) {
+            throw new AzDException(e);
+        }
+    }
+
+    /***
+     * Lists the active releases with pending environments in the order of creation
+     * @return listed releases by id
+     */
+    private Map<Integer, Release> list() throws ConnectionException, AzDException {
+        var listed = new TreeMap<Integer, Release>();
+        new TimeCursor(null, (int[]) null).page(SINCE, PAGE_SIZE,
+                (since, afterId) -> getReleases(since, PENDING, null),
+                Release::getCreatedOn, Release::getId, null,
+                releases -> releases.forEach(release -> listed.putIfAbsent(release.getId(), release)));
+        return listed;
+    }
+
+    /***
+     * Lists a page of active releases with the environments expanded, in the order of creation
+     */
+    private List<Release> getReleases(String minCreatedTime, int environmentStatusFilter, int[] ids)
+            throws ConnectionException, AzDException {
+        var releaseIdFilter = ids == null ? null : Arrays.stream(ids).mapToObj(String::valueOf).toArray(String[]::new);
+        var top = ids == null ? PAGE_SIZE : ids.length;
+        var releases = RELEASE.getReleases(ReleaseExpands.ENVIRONMENTS, top, null, null, 0, null, 0, 0,
+                environmentStatusFilter, false, null, minCreatedTime, null, null, ReleaseQueryOrder.ASCENDING,
+                releaseIdFilter, null, null, null, ids == null ? ReleaseStatus.ACTIVE : null, null).getReleases();
+        return releases == null ? List.of() : releases;
+    }
+
+    private static Map<Integer, EnvironmentState> toStates(Release release) {
+        var states = new HashMap<Integer, EnvironmentState>();
+        if (release.getEnvironments() == null) return states;
+        for (var environment : release.getEnvironments()) states.put(environment.getId(), new EnvironmentState(environment));
+        return states;
+    }
+
+    /***
+     * Status, rank and approvals of an environment when it was last listed
+     */
+    private static final class EnvironmentState {
+        private final String STATUS;
+        private final int RANK;
+        private final String APPROVALS;
+
+        EnvironmentState(ReleaseEnvironment environment) {
+            this.STATUS = environment.getStatus();
+            this.RANK = environment.getRank();
+            this.APPROVALS = approvals(environment.getPreDeployApprovals()) + "|" + approvals(environment.getPostDeployApprovals());
+        }
+
+        private static String approvals(List<ReleaseApproval> approvals) {
+            if (approvals == null) return "";
+            var sorted = new TreeMap<Integer, String>();
+            for (var approval : approvals) sorted.put(approval.getId(), approval.getStatus());
+            return sorted.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EnvironmentState)) return false;
+            var other = (EnvironmentState) o;
+            return RANK == other.RANK && Objects.equals(STATUS, other.STATUS) && APPROVALS.equals(other.APPROVALS);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(STATUS, RANK, APPROVALS);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.azd.utils;
+
+import java.util.Arrays;
+
+/***
+ * Sorted set of ids in an int array, used by the in-memory indexes. Ids are mostly added in increasing order, so
+ * adding usually appends.
+ */
+final class SortedIds {
+    static final SortedIds EMPTY = new SortedIds();
+    private int[] values = new int[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int i) {
+        return values[i];
+    }
+
+    void add(int id) {
+        if (size > 0 && values[size - 1] < id) {
+            insert(size, id);
+            return;
+        }
+        var i = Arrays.binarySearch(values, 0, size, id);
+        if (i < 0) insert(-i - 1, id);
+    }
+
+    boolean remove(int id) {
+        var i = Arrays.binarySearch(values, 0, size, id);
+        if (i < 0) return false;
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        size--;
+        return true;
+    }
+
+    private void insert(int at, int id) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = id;
+        size++;
+    }
+}
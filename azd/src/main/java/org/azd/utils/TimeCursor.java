@@ -0,0 +1,184 @@
+package org.azd.utils;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/***
+ * Position in a list that is ordered by a time, e.g., the changed date of the work items or the queue time of the
+ * builds; the latest time listed and the ids listed at that time.
+ * <p>
+ *     {@link #page} requests the pages of the list from the cursor. An api that can continue after an id at the same
+ *     time is passed the largest id listed at the time of the cursor; the others list again from the time of the
+ *     cursor and the items listed before at that time are skipped. A full page that lists nothing new can't be
+ *     continued, e.g., a page of builds that were all queued at the same time, and fails instead of silently
+ *     dropping the items after it.
+ * </p>
+ */
+final class TimeCursor {
+    private String time;
+    private Instant instant;
+    private Map<Integer, Integer> versions = new HashMap<>();
+    private int lastId;
+    private long moves;
+
+    /***
+     * Lists a page of items in ascending order of time
+     * @param <T> type of the items
+     */
+    @FunctionalInterface
+    interface Lister<T> {
+        /***
+         * List a page
+         * @param time time to list from, inclusive, or null to list from the start
+         * @param afterId largest id listed at the time; an api that orders by time and id can list only the items at
+         *                the time with a larger id. 0 when none of the items at the time was listed by this page run
+         * @return the page; a null item counts towards the size of the page but is skipped, e.g., a work item that
+         * was deleted after it was queried
+         */
+        List<T> list(String time, int afterId) throws ConnectionException, AzDException;
+    }
+
+    /***
+     * Receives the items of each page that were not listed before
+     * @param <T> type of the items
+     */
+    @FunctionalInterface
+    interface Visitor<T> {
+        void visit(List<T> items) throws ConnectionException, AzDException;
+    }
+
+    /***
+     * Create the cursor
+     * @param time latest time listed or null to start from the beginning
+     * @param ids ids listed at the time or null
+     */
+    TimeCursor(String time, int[] ids) {
+        this.time = time;
+        this.instant = time == null ? null : Instant.parse(time);
+        if (ids != null) for (var id : ids) versions.put(id, 0);
+    }
+
+    /***
+     * Create the cursor
+     * @param time latest time listed or null to start from the beginning
+     * @param versions versions of the items listed at the time by id, e.g., the revisions of the work items, or null
+     */
+    TimeCursor(String time, Map<Integer, Integer> versions) {
+        this.time = time;
+        this.instant = time == null ? null : Instant.parse(time);
+        if (versions != null) this.versions.putAll(versions);
+    }
+
+    String getTime() {
+        return time;
+    }
+
+    /***
+     * Get the ids listed at the time of the cursor
+     * @return sorted ids
+     */
+    int[] getIds() {
+        return versions.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /***
+     * Get the versions of the items listed at the time of the cursor
+     * @return versions by id
+     */
+    Map<Integer, Integer> getVersions() {
+        return new HashMap<>(versions);
+    }
+
+    /***
+     * Check if an item is listed: it is at an earlier time than the cursor, or at the time of the cursor and listed
+     * @param id id of the item
+     * @param time time of the item as an ISO 8601 instant
+     * @return true if the item is listed
+     */
+    boolean isListed(int id, String time) {
+        if (instant == null) return false;
+        var order = Instant.parse(time).compareTo(instant);
+        return order < 0 || (order == 0 && versions.containsKey(id));
+    }
+
+    /***
+     * Moves the cursor to the item
+     * @param id id of the item
+     * @param version version of the item; an item listed before at the same time is listed again with a newer version
+     * @param time time of the item as an ISO 8601 instant
+     * @return false if the item is already listed at the time of the cursor with this version or a newer one
+     */
+    boolean add(int id, int version, String time) {
+        Instant t;
+        try {
+            t = Instant.parse(time);
+        } catch (DateTimeParseException e) {
+            // an item without a time that can be ordered is listed but doesn't move the cursor.
+            return true;
+        }
+        var order = instant == null ? 1 : t.compareTo(instant);
+        if (order < 0) return true;
+        if (order > 0) {
+            this.time = time;
+            this.instant = t;
+            this.versions = new HashMap<>();
+            this.lastId = 0;
+        }
+        lastId = Math.max(lastId, id);
+        var listed = versions.get(id);
+        if (listed != null && listed >= version) return false;
+        versions.put(id, version);
+        moves++;
+        return true;
+    }
+
+    /***
+     * Lists the pages from the cursor and moves the cursor
+     * @param start time to list from when the cursor has no time, or null for the start of the list
+     * @param pageSize size of a full page
+     * @param lister lists a page
+     * @param timeOf time of an item, or null if it has none; items without a time are always visited
+     * @param idOf id of an item
+     * @param versionOf version of an item, or null if the items have none
+     * @param visitor receives the items of each page that were not listed before
+     * @param <T> type of the items
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler, or if a full page can't be continued.
+     */
+    <T> void page(String start, int pageSize, Lister<T> lister, Function<T, String> timeOf, ToIntFunction<T> idOf,
+                  ToIntFunction<T> versionOf, Visitor<T> visitor) throws ConnectionException, AzDException {
+        // the ids of the cursor may be of an earlier run that didn't list by id, so the first page lists the whole time.
+        lastId = 0;
+        while (true) {
+            var afterId = lastId;
+            var page = lister.list(time == null ? start : time, afterId);
+            if (page == null) page = List.of();
+
+            var moved = moves;
+            var items = new ArrayList<T>();
+            for (var item : page) {
+                if (item == null) continue;
+                var t = timeOf.apply(item);
+                if (t != null && !add(idOf.applyAsInt(item), versionOf == null ? 0 : versionOf.applyAsInt(item), t)) continue;
+                items.add(item);
+            }
+            visitor.visit(items);
+
+            if (page.size() < pageSize) return;
+            // a page of items listed before moves on only if the api continues after the last id.
+            if (moved == moves && afterId == lastId)
+                throw new AzDException("PagingException", "A full page of " + pageSize + " items lists nothing new after " +
+                        time + "; the api can't page past more items than a page with the same time.");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.azd.utils;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.interfaces.WorkItemExportWriter;
+import org.azd.interfaces.WorkItemTrackingDetails;
+import org.azd.workitemtracking.types.WorkItemFieldLayout;
+import org.azd.workitemtracking.types.WorkItemFieldReference;
+import org.azd.workitemtracking.types.WorkItemReference;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+/***
+ * Exports the result of a WIQL query to a {@link WorkItemExportWriter}, e.g., a {@link ColumnarWorkItemWriter}.
+ * <p>
+ *     The query returns the ids and the columns. The work items are fetched in chunks of 200 ids with only the
+ *     columns of the query as fields, several chunks at the same time, and each chunk is passed to the writer in
+ *     query order as soon as it and the chunks before it are fetched. At most the given number of chunks are in
+ *     memory at any time, so the size of the result doesn't matter.
+ * </p>
+ * <pre>
+ *     var exporter = new WorkItemExporter(client.getWorkItemTrackingApi(), 4);
+ *     try (var writer = new ColumnarWorkItemWriter(Files.newOutputStream(Path.of("work-items.azdc")))) {
+ *         exporter.export("myTeam", "Select [System.Id], [System.State], [System.AreaPath] From WorkItems", writer);
+ *     }
+ * </pre>
+ */
+public class WorkItemExporter {
+    private static final int CHUNK_SIZE = 200;
+    private final WorkItemTrackingDetails WIT;
+    private final int MAX_CONCURRENCY;
+
+    /***
+     * Create the exporter
+     * @param wit work item tracking api of the project to export from
+     * @param maxConcurrency maximum number of chunks to fetch at the same time
+     */
+    public WorkItemExporter(WorkItemTrackingDetails wit, int maxConcurrency) {
+        this.WIT = wit;
+        this.MAX_CONCURRENCY = Math.max(1, maxConcurrency);
+    }
+
+    /***
+     * Run the query and write the work items it returns
+     * @param team Team ID or team name
+     * @param query WIQL query. The selected fields are the columns of the export
+     * @param writer writer for the rows {@link WorkItemExportWriter}
+     * @return number of rows written
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public long export(String team, String query, WorkItemExportWriter writer) throws ConnectionException, AzDException {
+        var result = WIT.queryByWiql(team, query);
+        var columns = result.getColumns().stream()
+                .map(WorkItemFieldReference::getReferenceName)
+                .collect(Collectors.toList());
+        var ids = result.getWorkItems() == null ? new int[0] :
+                result.getWorkItems().stream().mapToInt(WorkItemReference::getId).toArray();
+        var fields = columns.toArray(new String[0]);
+        var layout = new WorkItemFieldLayout();
+        for (var column : columns) layout.add(column);
+
+        var rows = new long[1];
+        try {
+            writer.start(columns);
+            ChunkedFetch.run("azd-work-item-exporter", ids, CHUNK_SIZE, MAX_CONCURRENCY,
+                    chunk -> WIT.getCompactWorkItems(chunk, fields, layout),
+                    chunk -> {
+                        writer.write(chunk);
+                        rows[0] += chunk.size();
+                    });
+            writer.finish(rows[0]);
+        } catch (IOException e) {
+            throw new AzDException("Couldn't write the exported work items: " + e.getMessage());
+        }
+        return rows[0];
+    }
+}
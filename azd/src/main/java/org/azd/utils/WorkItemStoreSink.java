@@ -0,0 +1,77 @@
+package org.azd.utils;
+
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.JsonMapper;
+import org.azd.helpers.LocalStore;
+import org.azd.interfaces.WorkItemSyncSink;
+import org.azd.workitemtracking.types.WorkItem;
+import org.azd.workitemtracking.types.WorkItemSyncWatermark;
+
+/***
+ * Mirrors the work items of a project into a {@link LocalStore} with a {@link WorkItemSync}.
+ * <p>
+ *     Each work item is stored as type "workItem" with its id and System.Rev, and the watermark of the sync as type
+ *     "workItemSyncWatermark" with the name of the project, so a restarted process resumes the sync from the last
+ *     checkpoint instead of reading all the work items again.
+ * </p>
+ * <pre>
+ *     var sink = new WorkItemStoreSink(store, "myProject");
+ *     new WorkItemSync(client.getWorkItemTrackingApi(), "myProject", "myProject Team", 4).sync(sink.getWatermark(), sink);
+ *     var workItem = sink.getWorkItem(42);
+ * </pre>
+ */
+public class WorkItemStoreSink implements WorkItemSyncSink {
+    public static final String WORK_ITEM = "workItem";
+    public static final String WATERMARK = "workItemSyncWatermark";
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
+    private final LocalStore STORE;
+    private final String PROJECT;
+
+    /***
+     * Create the sink
+     * @param store store to mirror the work items to {@link LocalStore}
+     * @param project name of the project that is synced
+     */
+    public WorkItemStoreSink(LocalStore store, String project) {
+        this.STORE = store;
+        this.PROJECT = project;
+    }
+
+    /***
+     * Get the watermark of the last checkpoint
+     * @return watermark to resume the sync from or null if the project was never synced {@link WorkItemSyncWatermark}
+     * @throws AzDException if the store can't be read
+     */
+    public WorkItemSyncWatermark getWatermark() throws AzDException {
+        var stored = STORE.get(WATERMARK, PROJECT);
+        return stored == null ? null : MAPPER.mapJsonResponse(stored.getJson(), WorkItemSyncWatermark.class);
+    }
+
+    /***
+     * Get a mirrored work item
+     * @param id id of the work item
+     * @return the work item or null if it isn't stored {@link WorkItem}
+     * @throws AzDException if the store can't be read
+     */
+    public WorkItem getWorkItem(int id) throws AzDException {
+        var stored = STORE.get(WORK_ITEM, String.valueOf(id));
+        return stored == null ? null : MAPPER.mapJsonResponse(stored.getJson(), WorkItem.class);
+    }
+
+    @Override
+    public void changed(WorkItem workItem) throws AzDException {
+        var rev = workItem.getFields() == null ? workItem.getRev() : workItem.getFields().getSystemRev();
+        STORE.put(WORK_ITEM, String.valueOf(workItem.getId()), rev, MAPPER.convertToString(workItem));
+    }
+
+    @Override
+    public void deleted(int id) throws AzDException {
+        STORE.delete(WORK_ITEM, String.valueOf(id));
+    }
+
+    @Override
+    public void checkpoint(WorkItemSyncWatermark watermark) throws AzDException {
+        STORE.put(WATERMARK, PROJECT, 0, MAPPER.convertToString(watermark));
+        STORE.flush();
+    }
+}
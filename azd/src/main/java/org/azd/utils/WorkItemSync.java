@@ -0,0 +1,160 @@
+package org.azd.utils;
+
+import org.azd.enums.WorkItemErrorPolicy;
+import org.azd.enums.WorkItemExpand;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.interfaces.WorkItemSyncSink;
+import org.azd.interfaces.WorkItemTrackingDetails;
+import org.azd.workitemtracking.types.WorkItem;
+import org.azd.workitemtracking.types.WorkItemDeleteShallowReference;
+import org.azd.workitemtracking.types.WorkItemReference;
+import org.azd.workitemtracking.types.WorkItemSyncWatermark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/***
+ * Keeps a local copy of the work items of a project up to date by fetching only what changed since the last sync.
+ * <p>
+ *     Each sync queries the ids of the work items of the project whose System.ChangedDate is at or after the
+ *     watermark, in pages of 2000 ordered by System.ChangedDate and System.Id, and continues each page after the
+ *     changed date and id of the last one, so any number of work items changed at the same time is synced. The work
+ *     items of a page are fetched in chunks of 200 as of the time of the query, several chunks at the same time, and
+ *     passed to the sink in order. Work items changed at the watermark that were already synced with the same
+ *     System.Rev are skipped. Work items moved to the recycle bin since the last sync are passed to the sink as
+ *     deleted. The first sync, without a watermark, passes all the work items and only the deletions made while it
+ *     runs. The requests are sent through the {@link WorkItemTrackingDetails#uncached()} api, so a local store of
+ *     the connection never returns a stale recycle bin.
+ * </p>
+ * <p>
+ *     The queries and the recycle bin are of the project of the connection of the work item tracking api; the project
+ *     name passed to the sync must be that project, and a work item of another project fails the sync.
+ * </p>
+ * <pre>
+ *     var sync = new WorkItemSync(client.getWorkItemTrackingApi(), "myProject", "myProject Team", 4);
+ *     var watermark = sync.sync(load(), sink);
+ *     save(watermark);
+ * </pre>
+ */
+public class WorkItemSync {
+    private static final int CHUNK_SIZE = 200;
+    private static final int PAGE_SIZE = 2000;
+    private final WorkItemTrackingDetails WIT;
+    private final String PROJECT;
+    private final String TEAM;
+    private final int MAX_CONCURRENCY;
+
+    /***
+     * Create the sync
+     * @param wit work item tracking api of the project
+     * @param project name of the project of the connection of the work item tracking api
+     * @param team name or id of a team of the project to run the queries with
+     * @param maxConcurrency maximum number of chunks to fetch at the same time
+     */
+    public WorkItemSync(WorkItemTrackingDetails wit, String project, String team, int maxConcurrency) {
+        this.WIT = wit.uncached();
+        this.PROJECT = project;
+        this.TEAM = team;
+        this.MAX_CONCURRENCY = maxConcurrency;
+    }
+
+    /***
+     * Pass the changes since the watermark to the sink
+     * @param from watermark returned by the last sync or null to sync all the work items {@link WorkItemSyncWatermark}
+     * @param sink sink for the changes {@link WorkItemSyncSink}
+     * @return watermark to pass to the next sync
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    public WorkItemSyncWatermark sync(WorkItemSyncWatermark from, WorkItemSyncSink sink) throws ConnectionException, AzDException {
+        if (from != null && from.getProject() != null && !from.getProject().equalsIgnoreCase(PROJECT))
+            throw new AzDException("The watermark is of the project " + from.getProject() + ", not " + PROJECT + ".");
+
+        var state = new State(from);
+        // without a watermark there is nothing to diff the recycle bin with, so it is read before the work items to
+        // pass the work items deleted during a long first sync.
+        if (state.deletedIds == null) state.deletedIds = getDeletedIds();
+
+        state.cursor.page(null, PAGE_SIZE, this::list, w -> w.getFields().getSystemChangedDate(), WorkItem::getId,
+                w -> w.getFields().getSystemRev(), workItems -> {
+                    for (var workItem : workItems) sink.changed(workItem);
+                    sink.checkpoint(state.toWatermark());
+                });
+
+        var deleted = getDeletedIds();
+        for (var id : deleted) if (Arrays.binarySearch(state.deletedIds, id) < 0) sink.deleted(id);
+        state.deletedIds = deleted;
+
+        var watermark = state.toWatermark();
+        sink.checkpoint(watermark);
+        return watermark;
+    }
+
+    /***
+     * Queries a page of the work items changed at or after the changed date, or after the id at that date, and
+     * fetches them
+     */
+    private List<WorkItem> list(String changedDate, int afterId) throws ConnectionException, AzDException {
+        var query = "Select [System.Id] From WorkItems Where [System.TeamProject] = @project";
+        if (changedDate != null && afterId == 0) query += " And [System.ChangedDate] >= '" + changedDate + "'";
+        if (changedDate != null && afterId > 0) query += " And ([System.ChangedDate] > '" + changedDate + "'" +
+                " Or ([System.ChangedDate] = '" + changedDate + "' And [System.Id] > " + afterId + "))";
+        query += " Order By [System.ChangedDate] Asc, [System.Id] Asc";
+
+        var result = WIT.queryByWiql(TEAM, query, PAGE_SIZE, true);
+        var ids = result.getWorkItems() == null ? new int[0] :
+                result.getWorkItems().stream().mapToInt(WorkItemReference::getId).toArray();
+        var workItems = new ArrayList<WorkItem>(ids.length);
+        try {
+            ChunkedFetch.run("azd-work-item-sync", ids, CHUNK_SIZE, MAX_CONCURRENCY,
+                    chunk -> WIT.getWorkItems(chunk, WorkItemExpand.NONE, null, result.getAsOf(), WorkItemErrorPolicy.OMIT),
+                    chunk -> {
+                        for (var workItem : chunk.getWorkItems()) {
+                            // omitted work items are deleted after the query
+                            if (workItem == null || workItem.getFields() == null) continue;
+                            var project = workItem.getFields().getSystemTeamProject();
+                            if (project != null && !project.equalsIgnoreCase(PROJECT))
+                                throw new AzDException("The work item tracking api is connected to the project " +
+                                        project + ", not " + PROJECT + ".");
+                            workItems.add(workItem);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new AzDException(e);
+        }
+        // the omitted work items count towards the page.
+        while (workItems.size() < ids.length) workItems.add(null);
+        return workItems;
+    }
+
+    private int[] getDeletedIds() throws ConnectionException, AzDException {
+        var bin = WIT.getDeletedWorkItemsFromRecycleBin().getWorkItemDeleteShallowReferences();
+        return bin == null ? new int[0] : bin.stream().mapToInt(WorkItemDeleteShallowReference::getId).sorted().toArray();
+    }
+
+    /***
+     * Position of the sync while it runs
+     */
+    private final class State {
+        private final TimeCursor cursor;
+        private int[] deletedIds;
+
+        State(WorkItemSyncWatermark from) {
+            this.cursor = from == null ? new TimeCursor(null, (int[]) null) : new TimeCursor(from.getChangedDate(), from.getRevisions());
+            this.deletedIds = from == null ? null : from.getDeletedIds();
+        }
+
+        WorkItemSyncWatermark toWatermark() {
+            var watermark = new WorkItemSyncWatermark();
+            watermark.setProject(PROJECT);
+            watermark.setChangedDate(cursor.getTime());
+            watermark.setRevisions(cursor.getVersions());
+            watermark.setDeletedIds(deletedIds);
+            return watermark;
+        }
+    }
+}
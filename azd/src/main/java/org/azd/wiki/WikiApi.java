@@ -23,7 +23,7 @@ public class WikiApi implements WikiDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "wiki/wikis";
     private final String WIKI = "bf7d82a0-8aa5-4613-94ef-6172a5ea01f3";
 
@@ -49,14 +49,15 @@ public class WikiApi implements WikiDetails {
     @Override
     public WikiV2 createWiki(String branchName, WikiType type, String wikiName, String projectId,
                              String repositoryId, String mappedPath) throws ConnectionException, AzDException {
-        var b = new HashMap<String, Object>(){{
-           put("version", new HashMap<String, Object>(){{ put("version", branchName); }});
-           put("type", WikiType.CODEWIKI.toString().toLowerCase());
-           put("name", wikiName);
-           put("projectId", projectId);
-           put("repositoryId", repositoryId);
-           put("mappedPath", mappedPath);
-        }};
+        var b = new HashMap<String, Object>();
+        var version = new HashMap<String, Object>();
+        version.put("version", branchName);
+        b.put("version", version);
+        b.put("type", WikiType.CODEWIKI.toString().toLowerCase());
+        b.put("name", wikiName);
+        b.put("projectId", projectId);
+        b.put("repositoryId", repositoryId);
+        b.put("mappedPath", mappedPath);
 
         String r = send(RequestMethod.POST, CONNECTION, WIKI, CONNECTION.getProject(),
                 AREA,null , null, ApiVersion.WIKI, null, b);
@@ -26,7 +26,7 @@ public class WorkApi implements WorkDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "work";
     private final String WORK = "1d4f49f9-02b9-4e26-b826-2cdb6195f2a9";
 
@@ -66,9 +66,8 @@ public class WorkApi implements WorkDetails {
     @Override
     public TeamSettingsIterations getTeamSettingsIterations(String teamName, IterationsTimeFrame timeFrame) throws ConnectionException, AzDException {
 
-        var q = new HashMap<String, Object>(){{
-            put("$timeframe", timeFrame.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$timeframe", timeFrame.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WORK,
                 (CONNECTION.getProject() + "/" + encodeSpace(teamName)),
@@ -8,8 +8,10 @@ import org.azd.enums.WorkItemExpand;
 import org.azd.enums.WorkItemOperation;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.helpers.JsonMapper;
 import org.azd.interfaces.WorkItemTrackingDetails;
+import org.azd.utils.Client;
 import org.azd.workitemtracking.types.*;
 
 import java.util.*;
@@ -25,7 +27,7 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      * Connection object
      */
     private final Connection CONNECTION;
-    private final JsonMapper MAPPER = new JsonMapper();
+    private final JsonMapper MAPPER = JsonMapper.getInstance();
     private final String AREA = "wit";
     private final String WIT = "5264459e-e5e0-4bd8-b118-0985e68a4ec5";
 
@@ -35,6 +37,14 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     public WorkItemTrackingApi(Connection connection) { this.CONNECTION = connection; }
 
+    /***
+     * Get an api that sends its GET requests to the API even if a fresh response is in the local store of the
+     * connection, e.g., to poll for changes from any number of threads
+     * @return work item tracking api bound to the uncached view of the connection {@link Connection#uncached()}
+     */
+    @Override
+    public WorkItemTrackingApi uncached() { return CONNECTION.isUncached() ? this : new WorkItemTrackingApi(CONNECTION.uncached()); }
+
     /***
      * Creates a single work item.
      * @param workItemType The work item type of the work item to create. e.g., "user story", "bug", "task"
@@ -49,12 +59,11 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
     public WorkItem createWorkItem(String workItemType,
                                    WorkItemOperation operation,
                                    String title) throws ConnectionException, AzDException {
-        var req = new HashMap<String, Object>(){{
-            put("op", operation.toString().toLowerCase());
-            put("path", "/fields/System.Title");
-            put("from", null);
-            put("value", title);
-        }};
+        var req = new HashMap<String, Object>();
+        req.put("op", operation.toString().toLowerCase());
+        req.put("path", "/fields/System.Title");
+        req.put("from", null);
+        req.put("value", title);
 
         String r = send(RequestMethod.POST, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems",  null, "$"+ encodeSpace(workItemType), ApiVersion.WORK_ITEM_TRACKING,
@@ -79,26 +88,23 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
     public WorkItem createWorkItem(String workItemType,
                                    WorkItemOperation operation, String title,
                                    String description, String[] tags) throws ConnectionException, AzDException {
-        var t = new HashMap<String, Object>(){{
-            put("op", operation.toString().toLowerCase());
-            put("path", "/fields/System.Title");
-            put("from", null);
-            put("value", title);
-        }};
-
-        var d = new HashMap<String, Object>(){{
-            put("op", operation.toString().toLowerCase());
-            put("path", "/fields/System.Description");
-            put("from", null);
-            put("value", description);
-        }};
-
-        var tt = new HashMap<String, Object>(){{
-            put("op", operation.toString().toLowerCase());
-            put("path", "/fields/System.Tags");
-            put("from", null);
-            put("value", String.join(",", tags));
-        }};
+        var t = new HashMap<String, Object>();
+        t.put("op", operation.toString().toLowerCase());
+        t.put("path", "/fields/System.Title");
+        t.put("from", null);
+        t.put("value", title);
+
+        var d = new HashMap<String, Object>();
+        d.put("op", operation.toString().toLowerCase());
+        d.put("path", "/fields/System.Description");
+        d.put("from", null);
+        d.put("value", description);
+
+        var tt = new HashMap<String, Object>();
+        tt.put("op", operation.toString().toLowerCase());
+        tt.put("path", "/fields/System.Tags");
+        tt.put("from", null);
+        tt.put("value", String.join(",", tags));
 
         var req = new ArrayList<>();
         req.add(t);
@@ -129,30 +135,27 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
             throws ConnectionException, AzDException {
         var req = new ArrayList<>();
 
-        var t = new HashMap<String, Object>(){{
-            put("op", "add");
-            put("path", "/fields/System.Title");
-            put("from", null);
-            put("value", title);
-        }};
+        var t = new HashMap<String, Object>();
+        t.put("op", "add");
+        t.put("path", "/fields/System.Title");
+        t.put("from", null);
+        t.put("value", title);
 
-        var d = new HashMap<String, Object>(){{
-            put("op", "add");
-            put("path", "/fields/System.Description");
-            put("from", null);
-            put("value", description);
-        }};
+        var d = new HashMap<String, Object>();
+        d.put("op", "add");
+        d.put("path", "/fields/System.Description");
+        d.put("from", null);
+        d.put("value", description);
 
         req.add(t);
         req.add(d);
 
         for (var key : additionalFields.keySet()) {
-            var i = new HashMap<String, Object>(){{
-                put("op", "add");
-                put("path", "/fields/" + key);
-                put("from", null);
-                put("value", additionalFields.get(key));
-            }};
+            var i = new HashMap<String, Object>();
+            i.put("op", "add");
+            i.put("path", "/fields/" + key);
+            i.put("from", null);
+            i.put("value", additionalFields.get(key));
 
             req.add(i);
         }
@@ -195,7 +198,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
     @Override
     public void deleteWorkItem(int id, boolean destroy) throws ConnectionException, AzDException {
         try {
-            var q = new HashMap<String, Object>(){{put("destroy", destroy);}};
+            var q = new HashMap<String, Object>();
+            q.put("destroy", destroy);
 
             String r = send(RequestMethod.DELETE, CONNECTION, WIT, CONNECTION.getProject(),
                     AREA + "/workitems",  String.valueOf(id),null , ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -234,9 +238,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItem getWorkItem(int id, WorkItemExpand expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-           put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(id), null, ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -257,10 +260,9 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItem getWorkItem(int id, WorkItemExpand expand, String asOf) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("asOf", asOf);
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("asOf", asOf);
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(id), null, ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -281,10 +283,9 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItem getWorkItem(int id, WorkItemExpand expand, String[] fields) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("fields", String.join(",", fields));
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("fields", String.join(",", fields));
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(id), null, ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -306,11 +307,10 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItem getWorkItem(int id, WorkItemExpand expand, String[] fields, String asOf) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("fields", String.join(",", fields));
-            put("asOf", asOf);
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("fields", String.join(",", fields));
+        q.put("asOf", asOf);
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(id), null, ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -328,10 +328,10 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItems(int[] ids) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{put("ids", intArrayToString(ids));}};
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
 
-        String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
-                AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q, null);
+        String r = getWorkItemsResponse(q);
 
         return MAPPER.mapJsonResponse(r, WorkItemList.class);
     }
@@ -348,13 +348,11 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItems(int[] ids, WorkItemExpand expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("ids", intArrayToString(ids));
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
+        q.put("$expand", expand.toString().toLowerCase());
 
-        String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
-                AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q, null);
+        String r = getWorkItemsResponse(q);
 
         return MAPPER.mapJsonResponse(r, WorkItemList.class);
     }
@@ -372,14 +370,12 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItems(int[] ids, WorkItemExpand expand, String asOf) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("ids", intArrayToString(ids));
-            put("$expand", expand.toString().toLowerCase());
-            put("fields", asOf);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("asOf", asOf);
 
-        String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
-                AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q, null);
+        String r = getWorkItemsResponse(q);
 
         return MAPPER.mapJsonResponse(r, WorkItemList.class);
     }
@@ -397,14 +393,12 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItems(int[] ids, WorkItemExpand expand, String[] fields) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("ids", intArrayToString(ids));
-            put("$expand", expand.toString().toLowerCase());
-            put("fields", String.join(",", fields));
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("fields", fields);
 
-        String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
-                AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q, null);
+        String r = getWorkItemsResponse(q);
 
         return MAPPER.mapJsonResponse(r, WorkItemList.class);
     }
@@ -425,20 +419,77 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItems(int[] ids, WorkItemExpand expand, String[] fields, String asOf, WorkItemErrorPolicy errorPolicy) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("ids", intArrayToString(ids));
-            put("$expand", expand.toString().toLowerCase());
-            put("asOf", asOf);
-            put("fields", String.join(",", fields));
-            put("errorPolicy", errorPolicy.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("asOf", asOf);
+        q.put("fields", fields);
+        q.put("errorPolicy", errorPolicy.toString().toLowerCase());
 
-        String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
-                AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q, null);
+        String r = getWorkItemsResponse(q);
 
         return MAPPER.mapJsonResponse(r, WorkItemList.class);
     }
 
+    /***
+     * Returns a list of work items (Maximum 200) and only binds the given properties of each work item.
+     * The work item fields of the projection, e.g., "fields/System.State", are passed to the API so that
+     * only those fields are returned.
+     * @param ids Integer array of requested work item ids. (Maximum 200 ids allowed).
+     * @param projection properties of the work item to bind, e.g., FieldProjection.of("id", "rev", "fields/System.State") {@link FieldProjection}
+     * @return {@link WorkItemList}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public WorkItemList getWorkItems(int[] ids, FieldProjection projection) throws ConnectionException, AzDException {
+        var fields = projection.getFields("fields");
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
+        if (!fields.isEmpty()) q.put("fields", fields);
+
+        String r = getWorkItemsResponse(q);
+
+        return MAPPER.mapJsonResponse(r, WorkItemList.class, projection);
+    }
+
+    /***
+     * Returns a list of work items (Maximum 200) that hold their fields in compact arrays instead of bound objects.
+     * Use one layout for all the work items that are kept in memory so that the field names are shared.
+     * @param ids Integer array of requested work item ids. (Maximum 200 ids allowed).
+     * @param layout layout of the work item fields, e.g., from getWorkItemFieldLayout() {@link WorkItemFieldLayout}
+     * @return list of compact work items {@link CompactWorkItem}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public List<CompactWorkItem> getCompactWorkItems(int[] ids, WorkItemFieldLayout layout) throws ConnectionException, AzDException {
+        return getCompactWorkItems(ids, null, layout);
+    }
+
+    /***
+     * Returns a list of work items (Maximum 200) with only the given fields, held in compact arrays instead of bound objects.
+     * @param ids Integer array of requested work item ids. (Maximum 200 ids allowed).
+     * @param fields Comma-separated list of requested fields; all the fields are returned when null.
+     * @param layout layout of the work item fields, e.g., from getWorkItemFieldLayout() {@link WorkItemFieldLayout}
+     * @return list of compact work items {@link CompactWorkItem}
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    @Override
+    public List<CompactWorkItem> getCompactWorkItems(int[] ids, String[] fields, WorkItemFieldLayout layout) throws ConnectionException, AzDException {
+        var q = new HashMap<String, Object>();
+        q.put("ids", ids);
+        if (fields != null && fields.length > 0) q.put("fields", fields);
+
+        String r = getWorkItemsResponse(q);
+
+        return CompactWorkItem.fromJson(r, layout);
+    }
+
     /***
      * Returns the list of fully hydrated work item revisions.
      * @param workItemId The id of the work item
@@ -467,7 +518,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItemRevisions(int workItemId, WorkItemExpand expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{put("$expand", expand.toString().toLowerCase());}};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(workItemId), "revisions", ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -490,11 +542,10 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemList getWorkItemRevisions(int workItemId, WorkItemExpand expand, int top, int skip) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-            put("$expand", expand.toString().toLowerCase());
-            put("$top", top);
-            put("$skip", skip);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
+        q.put("$top", top);
+        q.put("$skip", skip);
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(workItemId), "revisions", ApiVersion.WORK_ITEM_TRACKING, q, null);
@@ -533,7 +584,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItem getWorkItemRevision(int workItemId, int revisionNumber, WorkItemExpand expand) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{put("$expand", expand.toString().toLowerCase());}};
+        var q = new HashMap<String, Object>();
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems", Integer.toString(workItemId), "revisions/" + revisionNumber,
@@ -553,7 +605,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemQueryResult queryByWiql(String team, String query) throws ConnectionException, AzDException {
-        var body = new HashMap<String, Object>(){{put("query", query);}};
+        var body = new HashMap<String, Object>();
+        body.put("query", query);
 
         String r = send(RequestMethod.POST, CONNECTION, WIT, CONNECTION.getProject() + "/" + encodeSpace(team),
                 AREA, null, "wiql", ApiVersion.WIT_WIQL, null, body);
@@ -574,12 +627,12 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemQueryResult queryByWiql(String team, String query, int top, boolean timePrecision) throws ConnectionException, AzDException {
-        var body = new HashMap<String, Object>(){{put("query", query);}};
+        var body = new HashMap<String, Object>();
+        body.put("query", query);
 
-        var q = new HashMap<String, Object>(){{
-            put("$top", top);
-            put("timePrecision", timePrecision);
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("$top", top);
+        q.put("timePrecision", timePrecision);
 
         String r = send(RequestMethod.POST, CONNECTION, WIT, CONNECTION.getProject() + "/" + encodeSpace(team),
                 AREA, null, "wiql", ApiVersion.WIT_WIQL, q, body);
@@ -646,9 +699,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemDeleteReferences getDeletedWorkItemsFromRecycleBin(int[] ids) throws ConnectionException, AzDException {
-        var q = new HashMap<String, Object>(){{
-           put("ids", intArrayToString(ids));
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("ids", intArrayToString(ids));
 
         String r = send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/recyclebin", null, null, ApiVersion.WIT_RECYCLE_BIN, q, null);
@@ -666,9 +718,8 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
      */
     @Override
     public WorkItemDeleteReference restoreWorkItemFromRecycleBin(int id) throws ConnectionException, AzDException {
-        var b = new HashMap<String, Object>(){{
-            put("isDeleted", false);
-        }};
+        var b = new HashMap<String, Object>();
+        b.put("isDeleted", false);
 
         String r = send(RequestMethod.PATCH, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/recyclebin", Integer.toString(id), null, ApiVersion.WIT_RECYCLE_BIN, null, b);
@@ -690,12 +741,11 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
         var req = new ArrayList<>();
 
         for (var key : fieldsToUpdate.keySet()) {
-            var i = new HashMap<String, Object>(){{
-                put("op", "add");
-                put("path", "/fields/" + key);
-                put("from", null);
-                put("value", fieldsToUpdate.get(key));
-            }};
+            var i = new HashMap<String, Object>();
+            i.put("op", "add");
+            i.put("path", "/fields/" + key);
+            i.put("from", null);
+            i.put("value", fieldsToUpdate.get(key));
 
             req.add(i);
         }
@@ -726,22 +776,20 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
         var req = new ArrayList<>();
 
         for (var key : fieldsToUpdate.keySet()) {
-            var i = new HashMap<String, Object>(){{
-                put("op", "add");
-                put("path", "/fields/" + key);
-                put("from", null);
-                put("value", fieldsToUpdate.get(key));
-            }};
+            var i = new HashMap<String, Object>();
+            i.put("op", "add");
+            i.put("path", "/fields/" + key);
+            i.put("from", null);
+            i.put("value", fieldsToUpdate.get(key));
 
             req.add(i);
         }
 
-        var q = new HashMap<String, Object>(){{
-            put("validateOnly", validateOnly);
-            put("bypassRules", bypassRules);
-            put("suppressNotifications", suppressNotifications);
-            put("$expand", expand.toString().toLowerCase());
-        }};
+        var q = new HashMap<String, Object>();
+        q.put("validateOnly", validateOnly);
+        q.put("bypassRules", bypassRules);
+        q.put("suppressNotifications", suppressNotifications);
+        q.put("$expand", expand.toString().toLowerCase());
 
         String r = send(RequestMethod.PATCH, CONNECTION, WIT, CONNECTION.getProject(),
                 AREA + "/workitems",  Integer.toString(workItemId), null, ApiVersion.WORK_ITEM_TRACKING,
@@ -781,6 +829,40 @@ public class WorkItemTrackingApi implements WorkItemTrackingDetails {
         return MAPPER.mapJsonResponse(r, WorkItemType.class);
     }
 
+    /***
+     * Returns the layout of the fields of all the work item types of the project to read compact work items with.
+     * @return layout of the work item fields {@link WorkItemFieldLayout}
+     * @throws ConnectionException set the default parameters organization name, project name and
+     * personal access token to work with any API in this library.
+     * @throws AzDException Handles errors from REST API and validates passed arguments
+     */
+    @Override
+    public WorkItemFieldLayout getWorkItemFieldLayout() throws ConnectionException, AzDException {
+        return WorkItemFieldLayout.of(getWorkItemTypes());
+    }
+
+    /***
+     * Gets the work items with the query parameters of the workitems endpoint, or posts them to the workitemsbatch
+     * endpoint when the url would be longer than the limit, e.g., for many ids with many fields.
+     * @param q query parameters; ids and fields as arrays or lists
+     * @return json response of the work items
+     * @throws ConnectionException A connection object should be created with Azure DevOps organization name, personal access token
+     * and project. This validates the connection object and throws exception if it is not provided.
+     * @throws AzDException Default Api Exception handler.
+     */
+    private String getWorkItemsResponse(HashMap<String, Object> q) throws ConnectionException, AzDException {
+        if (!Client.exceedsMaxUrlLength(CONNECTION, WIT, CONNECTION.getProject(),
+                AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q))
+            return send(RequestMethod.GET, CONNECTION, WIT, CONNECTION.getProject(),
+                    AREA + "/workitems", null, null, ApiVersion.WORK_ITEM_TRACKING, q, null);
+
+        var body = new LinkedHashMap<String, Object>();
+        for (var entry : q.entrySet()) if (entry.getValue() != null) body.put(entry.getKey(), entry.getValue());
+
+        return send(RequestMethod.POST, CONNECTION, WIT, CONNECTION.getProject(),
+                AREA + "/workitemsbatch", null, null, ApiVersion.WORK_ITEMS_BATCH, null, body);
+    }
+
     /***
      * Helper method to convert integer array to string.
      * @param i integer array
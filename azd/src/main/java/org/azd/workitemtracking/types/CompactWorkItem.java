@@ -0,0 +1,423 @@
+package org.azd.workitemtracking.types;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.azd.common.types.Author;
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.JsonMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/***
+ * Work item that holds its fields in parallel arrays instead of a bound {@link WorkItemFields} object.
+ * <p>
+ *     Only the fields that have a value are stored, sorted by their ordinal in the {@link WorkItemFieldLayout}.
+ *     Numbers, booleans and dates are stored unboxed in a long array; strings and identities in a string array.
+ *     Dates are stored as microseconds since epoch when the text can be written back unchanged, otherwise as
+ *     strings. Identities and other objects are kept as json and bound on access.
+ * </p>
+ * <pre>
+ *     var layout = wit.getWorkItemFieldLayout();
+ *     for (var workItem : wit.getCompactWorkItems(ids, layout)) {
+ *         var state = workItem.getString("System.State");
+ *         var points = workItem.getDouble("Microsoft.VSTS.Scheduling.StoryPoints");
+ *         var changed = workItem.getInstant("System.ChangedDate");
+ *     }
+ * </pre>
+ */
+public final class CompactWorkItem {
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte DATE = 4;
+    private static final byte STRING = 5;
+    private static final byte OBJECT = 6;
+
+    /***
+     * Layout that assigns the ordinals of the fields.
+     */
+    private final WorkItemFieldLayout layout;
+    /***
+     * The work item ID.
+     */
+    private final int id;
+    /***
+     * Revision number of the work item.
+     */
+    private final int rev;
+    /***
+     * Ordinals of the fields that have a value, in ascending order.
+     */
+    private final char[] ordinals;
+    /***
+     * Kind of the value of each field.
+     */
+    private final byte[] kinds;
+    /***
+     * Numbers, booleans and dates of the fields; unused for strings and objects.
+     */
+    private final long[] primitives;
+    /***
+     * Strings and json of the fields; null for numbers, booleans and dates.
+     */
+    private final String[] strings;
+
+    private CompactWorkItem(WorkItemFieldLayout layout, int id, int rev, char[] ordinals, byte[] kinds,
+                            long[] primitives, String[] strings) {
+        this.layout = layout;
+        this.id = id;
+        this.rev = rev;
+        this.ordinals = ordinals;
+        this.kinds = kinds;
+        this.primitives = primitives;
+        this.strings = strings;
+    }
+
+    /***
+     * Read the work items of a response
+     * @param content json of a work item or of a list of work items
+     * @param layout layout of the fields {@link WorkItemFieldLayout}
+     * @return list of compact work items
+     * @throws AzDException if the content is not a work item or is an error response from API
+     */
+    public static List<CompactWorkItem> fromJson(String content, WorkItemFieldLayout layout) throws AzDException {
+        var items = new ArrayList<CompactWorkItem>();
+        try (var p = MAPPER.createResponseParser(content)) {
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new AzDException("Couldn't parse the response content, expected a json object. \n" + content);
+            // a list has the work items in "value", a single work item has "fields".
+            var buffer = new Buffer();
+            int id = 0, rev = 0;
+            boolean single = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                var name = p.getCurrentName();
+                var token = p.nextToken();
+                if (name.equals("value") && token == JsonToken.START_ARRAY) {
+                    while (p.nextToken() == JsonToken.START_OBJECT) items.add(read(p, layout, buffer));
+                } else if (name.equals("fields") && token == JsonToken.START_OBJECT) {
+                    readFields(p, layout, buffer);
+                    single = true;
+                } else if (name.equals("id") && token == JsonToken.VALUE_NUMBER_INT) {
+                    id = p.getIntValue();
+                } else if (name.equals("rev") && token == JsonToken.VALUE_NUMBER_INT) {
+                    rev = p.getIntValue();
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (single) items.add(buffer.build(layout, id, rev));
+        } catch (IOException e) {
+            throw new AzDException("Couldn't parse the response content, validate the arguments passed. \n" + content);
+        }
+        return items;
+    }
+
+    /***
+     * Reads a work item; the parser is positioned on its START_OBJECT and is left on its END_OBJECT
+     */
+    private static CompactWorkItem read(JsonParser p, WorkItemFieldLayout layout, Buffer buffer) throws IOException {
+        int id = 0, rev = 0;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            var name = p.getCurrentName();
+            var token = p.nextToken();
+            if (name.equals("fields") && token == JsonToken.START_OBJECT) readFields(p, layout, buffer);
+            else if (name.equals("id") && token == JsonToken.VALUE_NUMBER_INT) id = p.getIntValue();
+            else if (name.equals("rev") && token == JsonToken.VALUE_NUMBER_INT) rev = p.getIntValue();
+            else p.skipChildren();
+        }
+        return buffer.build(layout, id, rev);
+    }
+
+    private static void readFields(JsonParser p, WorkItemFieldLayout layout, Buffer buffer) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            var ordinal = layout.add(p.getCurrentName());
+            switch (p.nextToken()) {
+                case VALUE_NUMBER_INT:
+                    buffer.add(ordinal, LONG, p.getLongValue(), null);
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    buffer.add(ordinal, DOUBLE, Double.doubleToRawLongBits(p.getDoubleValue()), null);
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    buffer.add(ordinal, BOOLEAN, p.getBooleanValue() ? 1 : 0, null);
+                    break;
+                case VALUE_STRING:
+                    var text = p.getText();
+                    var micros = toMicros(text);
+                    if (micros != null) buffer.add(ordinal, DATE, micros, null);
+                    else buffer.add(ordinal, STRING, 0, text);
+                    break;
+                case START_OBJECT:
+                case START_ARRAY:
+                    buffer.add(ordinal, OBJECT, 0, MAPPER.readTree(p).toString());
+                    break;
+                default:
+                    // nulls are not stored
+                    break;
+            }
+        }
+    }
+
+    /***
+     * Converts an ISO-8601 instant to microseconds since epoch if it can be written back unchanged
+     * @param text string value of a field
+     * @return microseconds or null if the text is not such an instant
+     */
+    private static Long toMicros(String text) {
+        if (text.length() < 20 || text.length() > 30 || text.charAt(4) != '-' || text.charAt(10) != 'T'
+                || text.charAt(text.length() - 1) != 'Z') return null;
+        try {
+            var instant = Instant.parse(text);
+            if (instant.getNano() % 1000 != 0) return null;
+            var micros = Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+            return toInstant(micros).toString().equals(text) ? micros : null;
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static Instant toInstant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+    }
+
+    private int index(String referenceName) {
+        int ordinal = layout.ordinal(referenceName);
+        return ordinal < 0 ? -1 : Arrays.binarySearch(ordinals, (char) ordinal);
+    }
+
+    /***
+     * Get the id of the work item
+     * @return work item id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /***
+     * Get the revision number of the work item
+     * @return revision number
+     */
+    public int getRev() {
+        return rev;
+    }
+
+    /***
+     * Get the layout that the fields were read with; shared by the work items of the same layout
+     * @return layout {@link WorkItemFieldLayout}
+     */
+    public WorkItemFieldLayout getLayout() {
+        return layout;
+    }
+
+    /***
+     * Get the number of fields that have a value
+     * @return number of fields
+     */
+    public int size() {
+        return ordinals.length;
+    }
+
+    /***
+     * Check if a field has a value
+     * @param referenceName reference name of the field, e.g., System.State
+     * @return true if the field has a value
+     */
+    public boolean has(String referenceName) {
+        return index(referenceName) >= 0;
+    }
+
+    /***
+     * Get the reference names of the fields that have a value
+     * @return list of reference names
+     */
+    public List<String> getReferenceNames() {
+        var names = new ArrayList<String>(ordinals.length);
+        for (var ordinal : ordinals) names.add(layout.getReferenceName(ordinal));
+        return names;
+    }
+
+    /***
+     * Get the value of a field as string. Numbers, booleans and dates are converted to their json text and objects
+     * are returned as json.
+     * @param referenceName reference name of the field, e.g., System.State
+     * @return value or null if the field has no value
+     */
+    public String getString(String referenceName) {
+        int i = index(referenceName);
+        if (i < 0) return null;
+        switch (kinds[i]) {
+            case LONG: return Long.toString(primitives[i]);
+            case DOUBLE: return Double.toString(Double.longBitsToDouble(primitives[i]));
+            case BOOLEAN: return Boolean.toString(primitives[i] != 0);
+            case DATE: return toInstant(primitives[i]).toString();
+            default: return strings[i];
+        }
+    }
+
+    /***
+     * Get the value of a numeric field as int
+     * @param referenceName reference name of the field, e.g., System.AreaId
+     * @return value or 0 if the field has no value or is not a number
+     */
+    public int getInt(String referenceName) {
+        return (int) getLong(referenceName);
+    }
+
+    /***
+     * Get the value of a numeric field as long
+     * @param referenceName reference name of the field, e.g., System.Id
+     * @return value or 0 if the field has no value or is not a number
+     */
+    public long getLong(String referenceName) {
+        int i = index(referenceName);
+        if (i < 0) return 0L;
+        if (kinds[i] == LONG) return primitives[i];
+        if (kinds[i] == DOUBLE) return (long) Double.longBitsToDouble(primitives[i]);
+        return 0L;
+    }
+
+    /***
+     * Get the value of a numeric field as double
+     * @param referenceName reference name of the field, e.g., Microsoft.VSTS.Scheduling.StoryPoints
+     * @return value or 0 if the field has no value or is not a number
+     */
+    public double getDouble(String referenceName) {
+        int i = index(referenceName);
+        if (i < 0) return 0d;
+        if (kinds[i] == DOUBLE) return Double.longBitsToDouble(primitives[i]);
+        if (kinds[i] == LONG) return primitives[i];
+        return 0d;
+    }
+
+    /***
+     * Get the value of a boolean field
+     * @param referenceName reference name of the field
+     * @return value or false if the field has no value or is not a boolean
+     */
+    public boolean getBoolean(String referenceName) {
+        int i = index(referenceName);
+        return i >= 0 && kinds[i] == BOOLEAN && primitives[i] != 0;
+    }
+
+    /***
+     * Get the value of a date field
+     * @param referenceName reference name of the field, e.g., System.ChangedDate
+     * @return value or null if the field has no value or is not a date
+     */
+    public Instant getInstant(String referenceName) {
+        int i = index(referenceName);
+        if (i < 0) return null;
+        if (kinds[i] == DATE) return toInstant(primitives[i]);
+        if (kinds[i] != STRING) return null;
+        try {
+            return Instant.parse(strings[i]);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /***
+     * Get the value of an identity field
+     * @param referenceName reference name of the field, e.g., System.AssignedTo
+     * @return identity {@link Author} or null if the field has no value or is not an identity
+     * @throws AzDException if the value can't be bound
+     */
+    public Author getAuthor(String referenceName) throws AzDException {
+        return getObject(referenceName, Author.class);
+    }
+
+    /***
+     * Bind the value of an object field
+     * @param referenceName reference name of the field
+     * @param valueType type to bind the value to
+     * @param <T> Type name
+     * @return value or null if the field has no value or is not an object
+     * @throws AzDException if the value can't be bound
+     */
+    public <T> T getObject(String referenceName, Class<T> valueType) throws AzDException {
+        int i = index(referenceName);
+        if (i < 0 || kinds[i] != OBJECT) return null;
+        return MAPPER.mapJsonResponse(strings[i], valueType);
+    }
+
+    /***
+     * Get the value of a field as the type it has in the json; Long, Double, Boolean, Instant or String.
+     * Objects are returned as json.
+     * @param referenceName reference name of the field
+     * @return value or null if the field has no value
+     */
+    public Object getValue(String referenceName) {
+        int i = index(referenceName);
+        if (i < 0) return null;
+        switch (kinds[i]) {
+            case LONG: return primitives[i];
+            case DOUBLE: return Double.longBitsToDouble(primitives[i]);
+            case BOOLEAN: return primitives[i] != 0;
+            case DATE: return toInstant(primitives[i]);
+            default: return strings[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        var fields = new StringBuilder();
+        for (int i = 0; i < ordinals.length; i++) {
+            if (i > 0) fields.append(", ");
+            fields.append(layout.getReferenceName(ordinals[i])).append('=').append(getString(layout.getReferenceName(ordinals[i])));
+        }
+        return "CompactWorkItem{" +
+                "id=" + id +
+                ", rev=" + rev +
+                ", fields={" + fields +
+                "}}";
+    }
+
+    /***
+     * Collects the fields of a work item while it is read and builds the trimmed, sorted arrays.
+     * Reused for all the work items of a response.
+     */
+    private static final class Buffer {
+        private char[] ordinals = new char[64];
+        private byte[] kinds = new byte[64];
+        private long[] primitives = new long[64];
+        private String[] strings = new String[64];
+        private int size;
+
+        void add(int ordinal, byte kind, long primitive, String string) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                kinds = Arrays.copyOf(kinds, size * 2);
+                primitives = Arrays.copyOf(primitives, size * 2);
+                strings = Arrays.copyOf(strings, size * 2);
+            }
+            // keep the arrays sorted by ordinal; the fields mostly come in the order of the layout.
+            int i = size++;
+            while (i > 0 && ordinals[i - 1] > ordinal) {
+                ordinals[i] = ordinals[i - 1];
+                kinds[i] = kinds[i - 1];
+                primitives[i] = primitives[i - 1];
+                strings[i] = strings[i - 1];
+                i--;
+            }
+            ordinals[i] = (char) ordinal;
+            kinds[i] = kind;
+            primitives[i] = primitive;
+            strings[i] = string;
+        }
+
+        CompactWorkItem build(WorkItemFieldLayout layout, int id, int rev) {
+            var item = new CompactWorkItem(layout, id, rev, Arrays.copyOf(ordinals, size), Arrays.copyOf(kinds, size),
+                    Arrays.copyOf(primitives, size), Arrays.copyOf(strings, size));
+            Arrays.fill(strings, 0, size, null);
+            size = 0;
+            return item;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.azd.workitemtracking.types;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/***
+ * Assigns an ordinal to each work item field reference name. The layout is shared by all the {@link CompactWorkItem}s
+ * read with it, so each reference name is held once no matter how many work items are in memory.
+ * <p>
+ *     Create the layout from the field instances of the work item types of the process. Fields that are not in the
+ *     layout are added when a work item that has them is read.
+ * </p>
+ */
+public final class WorkItemFieldLayout {
+    /***
+     * Ordinal of each reference name.
+     */
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    /***
+     * Reference names by ordinal; replaced by a longer copy when a field is added.
+     */
+    private volatile String[] names = new String[0];
+
+    /***
+     * Create an empty layout
+     */
+    public WorkItemFieldLayout() { }
+
+    /***
+     * Create a layout from the field instances of a work item type
+     * @param fields field instances {@link WorkItemTypeFieldInstance}
+     * @return layout {@link WorkItemFieldLayout}
+     */
+    public static WorkItemFieldLayout of(List<WorkItemTypeFieldInstance> fields) {
+        var layout = new WorkItemFieldLayout();
+        if (fields != null) for (var field : fields) layout.add(field.getReferenceName());
+        return layout;
+    }
+
+    /***
+     * Create a layout from the fields of all the work item types
+     * @param types work item types {@link WorkItemTypes}
+     * @return layout {@link WorkItemFieldLayout}
+     */
+    public static WorkItemFieldLayout of(WorkItemTypes types) {
+        var layout = new WorkItemFieldLayout();
+        if (types == null || types.getWorkItemTypes() == null) return layout;
+        for (var type : types.getWorkItemTypes()) {
+            var fields = type.getFields() != null ? type.getFields() : type.getFieldInstances();
+            if (fields != null) for (var field : fields) layout.add(field.getReferenceName());
+        }
+        return layout;
+    }
+
+    /***
+     * Add a field to the layout
+     * @param referenceName reference name of the field, e.g., System.State
+     * @return ordinal of the field
+     */
+    public int add(String referenceName) {
+        var ordinal = ordinals.get(referenceName);
+        if (ordinal != null) return ordinal;
+        synchronized (this) {
+            ordinal = ordinals.get(referenceName);
+            if (ordinal != null) return ordinal;
+            if (names.length == Character.MAX_VALUE)
+                throw new IllegalStateException("The layout can't hold more than " + (int) Character.MAX_VALUE + " fields.");
+            int next = names.length;
+            var grown = Arrays.copyOf(names, next + 1);
+            grown[next] = referenceName.intern();
+            names = grown;
+            ordinals.put(grown[next], next);
+            return next;
+        }
+    }
+
+    /***
+     * Get the ordinal of a field
+     * @param referenceName reference name of the field, e.g., System.State
+     * @return ordinal or -1 if the field is not in the layout
+     */
+    public int ordinal(String referenceName) {
+        var ordinal = ordinals.get(referenceName);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /***
+     * Get the reference name of a field
+     * @param ordinal ordinal of the field
+     * @return reference name
+     */
+    public String getReferenceName(int ordinal) {
+        return names[ordinal];
+    }
+
+    /***
+     * Get the reference names of all the fields in the order of their ordinals
+     * @return list of reference names
+     */
+    public List<String> getReferenceNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /***
+     * Get the number of fields in the layout
+     * @return number of fields
+     */
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkItemFieldLayout{" + "size=" + names.length + '}';
+    }
+}
@@ -0,0 +1,75 @@
+package org.azd.workitemtracking.types;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/***
+ * Position of a work item sync. Persist it after each sync and pass it to the next one so that only the changes
+ * since then are fetched.
+ */
+public class WorkItemSyncWatermark {
+    /***
+     * Name of the project that is synced.
+     */
+    @JsonProperty("project")
+    private String project;
+    /***
+     * Latest System.ChangedDate that is synced.
+     */
+    @JsonProperty("changedDate")
+    private String changedDate;
+    /***
+     * Revision of the work items changed at the changed date, keyed by id, which are skipped by the next sync unless
+     * they change again.
+     */
+    @JsonProperty("revisions")
+    private Map<Integer, Integer> revisions;
+    /***
+     * Ids of the work items in the recycle bin, sorted.
+     */
+    @JsonProperty("deletedIds")
+    private int[] deletedIds;
+
+    public String getProject() {
+        return project;
+    }
+
+    public void setProject(String project) {
+        this.project = project;
+    }
+
+    public String getChangedDate() {
+        return changedDate;
+    }
+
+    public void setChangedDate(String changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    public Map<Integer, Integer> getRevisions() {
+        return revisions;
+    }
+
+    public void setRevisions(Map<Integer, Integer> revisions) {
+        this.revisions = revisions;
+    }
+
+    public int[] getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(int[] deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkItemSyncWatermark{" +
+                "project='" + project + '\'' +
+                ", changedDate='" + changedDate + '\'' +
+                ", revisions=" + revisions +
+                ", deletedIds=" + (deletedIds == null ? 0 : deletedIds.length) +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Compares the time to the first response of the JVM and the native image against the same stub server.
+# Build first with: mvn -Pnative -DskipTests package
+set -euo pipefail
+cd "$(dirname "$0")/../.."
+
+RUNS=${RUNS:-10}
+CP="target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)"
+
+java -cp "$CP" org.azd.nativeimage.StubServer 8089 &
+STUB=$!
+trap 'kill $STUB' EXIT
+sleep 1
+
+for i in $(seq "$RUNS"); do
+  echo "jvm    $(java -cp "$CP" org.azd.nativeimage.StartupBenchmark http://127.0.0.1:8089/)"
+done
+if [ -x target/azd-smoke ]; then
+  for i in $(seq "$RUNS"); do
+    echo "native $(target/azd-smoke http://127.0.0.1:8089/)"
+  done
+else
+  echo "target/azd-smoke not found, build it with: mvn -Pnative -DskipTests package" >&2
+fi
@@ -0,0 +1,42 @@
+package org.azd.nativeimage;
+
+import org.azd.utils.AzDClientApi;
+import org.azd.utils.Client;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/***
+ * Smoke test and startup benchmark of the library, run both on the JVM and as a native image. It queues a build
+ * against a stub server and prints the time from the start of the process to the first response.
+ * <pre>
+ *     java -cp target/classes:... org.azd.nativeimage.StartupBenchmark [stub url]
+ *     target/azd-smoke [stub url]
+ * </pre>
+ * When no url is passed an embedded {@link StubServer} is started.
+ */
+public class StartupBenchmark {
+    public static void main(String[] args) throws Exception {
+        StubServer stub = null;
+        var url = args.length > 0 ? args[0] : null;
+        if (url == null) {
+            stub = new StubServer(0);
+            url = stub.start();
+        }
+
+        try {
+            Client.setInstanceUrl(url);
+            var build = new AzDClientApi("org", "project", "token").getBuildApi().queueBuild(1);
+            var now = Instant.now();
+            var started = ProcessHandle.current().info().startInstant().orElse(now);
+
+            if (build.getId() != 1 || build.getDefinition() == null || !"azd-smoke".equals(build.getDefinition().getName())) {
+                System.err.println("Unexpected build: " + build);
+                System.exit(1);
+            }
+            System.out.println("first response after " + Duration.between(started, now).toMillis() + " ms");
+        } finally {
+            if (stub != null) stub.stop();
+        }
+    }
+}
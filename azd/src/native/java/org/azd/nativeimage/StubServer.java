@@ -0,0 +1,81 @@
+package org.azd.nativeimage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/***
+ * Minimal Azure DevOps stub for the native smoke test and the startup benchmark. It answers the resource area lookup
+ * with its own url, a queued build for POST _apis/build/builds and an empty object for everything else.
+ */
+public class StubServer {
+    private static final String BUILD = "{\"id\":1,\"buildNumber\":\"20211020.1\",\"status\":\"notStarted\"," +
+            "\"queueTime\":\"2021-10-20T10:00:00.000Z\",\"priority\":\"normal\",\"reason\":\"manual\"," +
+            "\"definition\":{\"id\":1,\"name\":\"azd-smoke\",\"path\":\"\\\\\",\"type\":\"build\",\"revision\":1}," +
+            "\"project\":{\"id\":\"00000000-0000-0000-0000-000000000000\",\"name\":\"project\",\"state\":\"wellFormed\"}," +
+            "\"tags\":[],\"properties\":{},\"retainedByRelease\":false}";
+    private final HttpServer SERVER;
+
+    /***
+     * Create the stub
+     * @param port port to listen on; 0 picks a free port
+     * @throws IOException if the port can't be bound
+     */
+    public StubServer(int port) throws IOException {
+        SERVER = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        SERVER.createContext("/", this::handle);
+    }
+
+    /***
+     * Start the stub
+     * @return url of the stub ending with '/'
+     */
+    public String start() {
+        SERVER.start();
+        return getUrl();
+    }
+
+    /***
+     * Get the url of the stub
+     * @return url ending with '/'
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + SERVER.getAddress().getPort() + "/";
+    }
+
+    /***
+     * Stop the stub
+     */
+    public void stop() {
+        SERVER.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var path = exchange.getRequestURI().getPath();
+        var body = "{}";
+
+        if (path.contains("/_apis/resourceAreas/")) {
+            var organization = path.substring(1, path.indexOf('/', 1));
+            body = "{\"id\":\"" + path.substring(path.lastIndexOf('/') + 1) + "\",\"name\":\"stub\"," +
+                    "\"locationUrl\":\"" + getUrl() + organization + "/\"}";
+        } else if (path.endsWith("/_apis/build/builds") && exchange.getRequestMethod().equals("POST")) {
+            body = BUILD;
+        }
+
+        exchange.getRequestBody().readAllBytes();
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        var stub = new StubServer(args.length > 0 ? Integer.parseInt(args[0]) : 8089);
+        System.out.println(stub.start());
+    }
+}
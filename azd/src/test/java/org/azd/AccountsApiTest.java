@@ -1,5 +1,6 @@
 package org.azd;
 
+import org.azd.connection.Connection;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
 import org.azd.helpers.JsonMapper;
@@ -7,6 +8,8 @@ import org.azd.interfaces.AccountsDetails;
 import org.azd.interfaces.AzDClient;
 import org.azd.interfaces.MemberEntitlementManagementDetails;
 import org.azd.utils.AzDClientApi;
+import org.azd.utils.AzDClientRegistry;
+import org.azd.utils.FanOutExecutor;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -17,14 +20,16 @@ public class AccountsApiTest {
     private static MemberEntitlementManagementDetails mem;
     private static AccountsDetails a;
     private static AzDClient webApi;
+    private static String organization;
+    private static String token;
 
     @Before
     public void init() throws AzDException {
         String dir = System.getProperty("user.dir");
         File file = new File(dir + "/src/test/java/org/azd/_unitTest.json");
         MockParameters m = MAPPER.mapJsonFromFile(file, MockParameters.class);
-        String organization = m.getO();
-        String token = m.getT();
+        organization = m.getO();
+        token = m.getT();
         String project = m.getP();
         webApi = new AzDClientApi(organization, project, token);
         mem = webApi.getMemberEntitlementManagementApi();
@@ -59,4 +64,19 @@ public class AccountsApiTest {
     public void shouldGetAUserProfileWithId() throws ConnectionException, AzDException {
         a.getProfile(a.getProfile().getId());
     }
+
+    @Test
+    public void shouldGetProjectsOfAllAccessibleOrganizations() throws ConnectionException, AzDException {
+        try (var registry = new AzDClientRegistry(new Connection(null, token), 10)) {
+            var fanOut = new FanOutExecutor(registry, 4);
+            fanOut.forOrganizations(fanOut.getOrganizations(organization), c -> c.getCoreApi().getProjects());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFanOutAboveRegistryParallelism() {
+        try (var registry = new AzDClientRegistry(new Connection(null, token), 10, 4)) {
+            new FanOutExecutor(registry, 8);
+        }
+    }
 }
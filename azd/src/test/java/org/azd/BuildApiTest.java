@@ -1,15 +1,33 @@
 package org.azd;
 
+import org.azd.build.types.Build;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.helpers.JsonMapper;
+import org.azd.helpers.JsonPatcher;
 import org.azd.interfaces.AzDClient;
 import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.BuildHistoryListener;
 import org.azd.utils.AzDClientApi;
+import org.azd.utils.BuildHistoryTracker;
+import org.azd.utils.BuildMatrix;
+import org.azd.utils.CompletionWatcher;
+import org.azd.utils.HistoryCrawler;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class BuildApiTest {
     private static final JsonMapper MAPPER = new JsonMapper();
@@ -98,6 +116,64 @@ public class BuildApiTest {
         b.getBuilds(2);
     }
 
+    @Test
+    public void shouldReturnTopTwoBuildsWithOnlyProjectedFields() throws ConnectionException, AzDException {
+        var build = b.getBuilds(2, FieldProjection.of("id", "status", "result")).getBuildResults().get(0);
+        assertNull(build.getDefinition());
+    }
+
+    @Test
+    public void shouldTrackOnlyNewBuildsSinceWatermark() throws ConnectionException, AzDException {
+        var tracker = new BuildHistoryTracker(b, Instant.now().minus(Duration.ofDays(7)), null);
+        var added = new ArrayList<Integer>();
+        BuildHistoryListener listener = new BuildHistoryListener() {
+            @Override
+            public void added(Build build) { added.add(build.getId()); }
+
+            @Override
+            public void updated(Build build, String previousStatus, String previousResult) { }
+
+            @Override
+            public void deleted(int id) { }
+        };
+
+        var watermark = tracker.poll(null, listener);
+        var count = added.size();
+        tracker.poll(watermark, listener);
+
+        assertEquals(count, tracker.getIndex().size());
+        assertEquals(count, added.size());
+    }
+
+    @Test
+    public void shouldCrawlBuildHistoryInTimeSlices() throws ConnectionException, AzDException {
+        var to = Instant.now();
+        var from = to.minus(Duration.ofDays(7));
+        var ids = new HashSet<Integer>();
+        var crawled = HistoryCrawler.builds(b, null, 4, null)
+                .crawl(from, to, Duration.ofDays(1), (start, end, builds) -> builds.forEach(build -> ids.add(build.getId())));
+
+        assertEquals(crawled, ids.size());
+    }
+
+    @Test
+    public void shouldWatchBuildToCompletion() throws Exception {
+        try (var watcher = new CompletionWatcher(b, null)) {
+            var build = watcher.watchBuild(buildId).get(30, TimeUnit.MINUTES);
+            assertEquals("completed", build.getStatus());
+        }
+    }
+
+    @Test
+    public void shouldRunBuildMatrix() {
+        var result = new BuildMatrix(b, 2, null)
+                .add(new int[]{ 22 }, List.of(Map.of("sourceBranch", "refs/heads/master")))
+                .setFailFast(true)
+                .run();
+
+        assertEquals(1, result.getCells().size());
+    }
+
     @Test
     public void shouldQueueTheBuild() throws ConnectionException, AzDException {
         b.queueBuild(22);
@@ -119,6 +195,19 @@ public class BuildApiTest {
         b.createBuildDefinition("");
     }
 
+    @Test(expected = AzDException.class)
+    public void shouldNotPostMalformedDefinitionTemplate() throws ConnectionException, AzDException {
+        b.createBuildDefinition("{\"name\": \"Demo-CI\", \"process\": {", JsonPatcher.create().set("name", "Demo-CI-Copy"));
+    }
+
+    @Test
+    public void shouldCloneBuildDefinitionWithPatch() throws ConnectionException, AzDException {
+        var patch = JsonPatcher.create().set("name", "Demo-CI-Clone").set("path", "\\Clones");
+        var definition = b.cloneBuildDefinition(9, patch);
+        assertEquals("Demo-CI-Clone", definition.getName());
+        b.deleteBuildDefinition(definition.getId());
+    }
+
     @Test
     public void shouldDeleteABuildDefinition() throws ConnectionException, AzDException {
         b.deleteBuildDefinition(13);
@@ -129,6 +218,13 @@ public class BuildApiTest {
         b.getBuildDefinition(9);
     }
 
+    @Test
+    public void shouldReturnLazyBuildDefinition() throws ConnectionException, AzDException {
+        var definition = b.getLazyBuildDefinition(9);
+        definition.getProcess();
+        assertEquals(b.getBuildDefinition(9).getName(), definition.getName());
+    }
+
     @Test
     public void shouldReturnBuildDefinitionWithOptionalParameters() throws ConnectionException, AzDException {
         b.getBuildDefinition(9, true, null, 2);
@@ -0,0 +1,212 @@
+package org.azd;
+
+import org.azd.exceptions.AzDException;
+import org.azd.utils.ColumnarWorkItemWriter;
+import org.azd.workitemtracking.types.CompactWorkItem;
+import org.azd.workitemtracking.types.WorkItemFieldLayout;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ColumnarWorkItemWriterTest {
+    private static final List<String> COLUMNS = List.of("System.Id", "System.State", "System.ChangedDate",
+            "Microsoft.VSTS.Scheduling.StoryPoints", "Custom.Blocked", "System.AssignedTo", "System.Title");
+    private static final String ASSIGNED_TO = "{\"displayName\":\"Jamal Hartnett\",\"id\":\"d291b0c4\",\"uniqueName\":\"fabrikamfiber4@hotmail.com\"}";
+
+    /***
+     * Decoded columnar file
+     */
+    static class Table {
+        final List<String> columns = new ArrayList<>();
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        final List<List<Byte>> types = new ArrayList<>();
+        long rowCount;
+    }
+
+    /***
+     * Decodes a file written by {@link ColumnarWorkItemWriter}; timestamps are read as instants, the other values
+     * as the boxed type of their column.
+     */
+    static Table read(byte[] bytes) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        var table = new Table();
+        var magic = new byte[4];
+        in.readFully(magic);
+        assertEquals("AZDC", new String(magic, StandardCharsets.US_ASCII));
+        assertEquals(ColumnarWorkItemWriter.VERSION, in.readByte());
+
+        var dictionaries = new ArrayList<List<String>>();
+        var columnCount = in.readInt();
+        for (int c = 0; c < columnCount; c++) {
+            table.columns.add(readString(in));
+            table.types.add(new ArrayList<>());
+            dictionaries.add(new ArrayList<>());
+        }
+
+        int rows;
+        while ((rows = in.readInt()) != -1) {
+            var group = new ArrayList<Map<String, Object>>();
+            for (int r = 0; r < rows; r++) group.add(new HashMap<>());
+            for (int c = 0; c < columnCount; c++) {
+                var name = table.columns.get(c);
+                var type = in.readByte();
+                table.types.get(c).add(type);
+                if (type == 0) continue;
+                if (type == 5) {
+                    var dictionary = dictionaries.get(c);
+                    var added = in.readInt();
+                    for (int i = 0; i < added; i++) dictionary.add(readString(in));
+                    for (int r = 0; r < rows; r++) {
+                        var code = in.readInt();
+                        if (code >= 0) group.get(r).put(name, dictionary.get(code));
+                    }
+                    continue;
+                }
+                if (type == 6) {
+                    for (int r = 0; r < rows; r++) {
+                        var value = readString(in);
+                        if (value != null) group.get(r).put(name, value);
+                    }
+                    continue;
+                }
+                var validity = new byte[(rows + 7) / 8];
+                in.readFully(validity);
+                for (int r = 0; r < rows; r++) {
+                    Object value;
+                    if (type == 1) value = in.readLong();
+                    else if (type == 2) value = in.readDouble();
+                    else if (type == 3) value = in.readByte() != 0;
+                    else {
+                        var micros = in.readLong();
+                        value = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+                    }
+                    if ((validity[r / 8] & (1 << (r % 8))) != 0) group.get(r).put(name, value);
+                }
+            }
+            table.rows.addAll(group);
+        }
+        table.rowCount = in.readLong();
+        assertEquals(-1, in.read());
+        return table;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var length = in.readInt();
+        if (length < 0) return null;
+        var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String workItem(int id, String state, String changedDate, String points, Boolean blocked, String assignedTo, String title) {
+        var fields = new StringBuilder("\"System.Id\":" + id);
+        if (state != null) fields.append(",\"System.State\":\"").append(state).append('"');
+        if (changedDate != null) fields.append(",\"System.ChangedDate\":\"").append(changedDate).append('"');
+        if (points != null) fields.append(",\"Microsoft.VSTS.Scheduling.StoryPoints\":").append(points);
+        if (blocked != null) fields.append(",\"Custom.Blocked\":").append(blocked);
+        if (assignedTo != null) fields.append(",\"System.AssignedTo\":").append(assignedTo);
+        if (title != null) fields.append(",\"System.Title\":\"").append(title).append('"');
+        return "{\"id\":" + id + ",\"rev\":1,\"fields\":{" + fields + "}}";
+    }
+
+    private static List<CompactWorkItem> batch(WorkItemFieldLayout layout, String... workItems) throws AzDException {
+        return CompactWorkItem.fromJson("{\"count\":" + workItems.length + ",\"value\":[" + String.join(",", workItems) + "]}", layout);
+    }
+
+    @Test
+    public void shouldWriteValuesThatDecodeToTheWorkItemFields() throws AzDException, IOException {
+        // Given
+        var layout = new WorkItemFieldLayout();
+        var first = batch(layout,
+                workItem(1, "Active", "2023-05-01T10:15:30.123Z", "3", true, ASSIGNED_TO, "First"),
+                workItem(2, "Closed", "2023-05-02T08:00:00Z", "2.5", false, null, "Second"),
+                workItem(3, "Active", null, null, null, null, "Third"));
+        var second = batch(layout,
+                workItem(4, "Closed", "2023-05-03T00:00:00.5Z", "8", null, ASSIGNED_TO, "Fourth"),
+                workItem(5, "New", "2023-05-04T12:00:00Z", "1", true, null, null));
+        var out = new ByteArrayOutputStream();
+
+        // When
+        try (var writer = new ColumnarWorkItemWriter(out, 4)) {
+            writer.start(COLUMNS);
+            writer.write(first);
+            writer.write(second);
+            writer.finish(5);
+        }
+        var table = read(out.toByteArray());
+
+        // Then
+        assertEquals(COLUMNS, table.columns);
+        assertEquals(5, table.rowCount);
+        assertEquals(5, table.rows.size());
+        var items = new ArrayList<>(first);
+        items.addAll(second);
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            var row = table.rows.get(i);
+            assertEquals(item.getLong("System.Id"), row.get("System.Id"));
+            assertEquals(item.getString("System.State"), row.get("System.State"));
+            assertEquals(item.getInstant("System.ChangedDate"), row.get("System.ChangedDate"));
+            var points = (Number) row.get("Microsoft.VSTS.Scheduling.StoryPoints");
+            assertEquals(item.has("Microsoft.VSTS.Scheduling.StoryPoints"), points != null);
+            if (points != null) assertEquals(item.getDouble("Microsoft.VSTS.Scheduling.StoryPoints"), points.doubleValue(), 0d);
+            assertEquals(item.has("Custom.Blocked") ? item.getBoolean("Custom.Blocked") : null, row.get("Custom.Blocked"));
+            assertEquals(item.getString("System.AssignedTo"), row.get("System.AssignedTo"));
+            assertEquals(item.getString("System.Title"), row.get("System.Title"));
+        }
+        // identities are written as their raw json
+        assertEquals("Jamal Hartnett", items.get(0).getAuthor("System.AssignedTo").getDisplayName());
+        assertEquals(items.get(0).getString("System.AssignedTo"), table.rows.get(3).get("System.AssignedTo"));
+        assertNull(table.rows.get(4).get("System.Title"));
+    }
+
+    @Test
+    public void shouldWriteColumnTypesPerRowGroup() throws AzDException, IOException {
+        // Given
+        var layout = new WorkItemFieldLayout();
+        var first = batch(layout,
+                workItem(1, "Active", null, "3", null, null, "First"),
+                workItem(2, "Active", null, "2.5", null, null, "Second"));
+        var second = batch(layout,
+                workItem(3, "Closed", null, "5", null, null, "Third"),
+                workItem(4, "Resolved", null, "8", null, null, "Fourth"),
+                workItem(5, "Removed", null, "13", null, null, "Fifth"));
+        var out = new ByteArrayOutputStream();
+
+        // When
+        try (var writer = new ColumnarWorkItemWriter(out, 4)) {
+            writer.start(COLUMNS);
+            writer.write(first);
+            writer.write(List.of());
+            writer.write(second);
+            writer.finish(5);
+        }
+        var table = read(out.toByteArray());
+
+        // Then
+        // mixed numbers widen to double, a missing column is null and a full dictionary falls back to strings
+        assertEquals(Arrays.asList((byte) 1, (byte) 1), table.types.get(COLUMNS.indexOf("System.Id")));
+        assertEquals(Arrays.asList((byte) 2, (byte) 1), table.types.get(COLUMNS.indexOf("Microsoft.VSTS.Scheduling.StoryPoints")));
+        assertEquals(Arrays.asList((byte) 0, (byte) 0), table.types.get(COLUMNS.indexOf("System.ChangedDate")));
+        assertEquals(Arrays.asList((byte) 5, (byte) 5), table.types.get(COLUMNS.indexOf("System.State")));
+        assertEquals(Arrays.asList((byte) 5, (byte) 6), table.types.get(COLUMNS.indexOf("System.Title")));
+        assertEquals("Active", table.rows.get(1).get("System.State"));
+        assertEquals("Removed", table.rows.get(4).get("System.State"));
+        assertEquals("Fifth", table.rows.get(4).get("System.Title"));
+        assertEquals(2.5d, table.rows.get(1).get("Microsoft.VSTS.Scheduling.StoryPoints"));
+        assertEquals(13L, table.rows.get(4).get("Microsoft.VSTS.Scheduling.StoryPoints"));
+    }
+}
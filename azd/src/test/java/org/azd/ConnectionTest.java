@@ -1,10 +1,35 @@
 package org.azd;
 
+import org.azd.build.types.Builds;
 import org.azd.connection.Connection;
+import org.azd.core.types.Project;
+import org.azd.enums.InternScope;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.JsonMapper;
+import org.azd.helpers.URLHelper;
+import org.azd.oauth.types.AuthorizedToken;
+import org.azd.utils.AzDClientApi;
+import org.azd.utils.AzDClientRegistry;
+import org.azd.utils.BaseClient;
 import org.junit.Test;
 
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 
 public class ConnectionTest {
@@ -44,4 +69,210 @@ public class ConnectionTest {
         // Then(assert and act)
         assertNull(defaultParameters.getOrganization());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnSameApiInstance() {
+        // Given
+        var webApi = new AzDClientApi("Test", "myPersonalAccessToken");
+
+        // Then(assert and act)
+        assertSame(webApi.getBuildApi(), webApi.getBuildApi());
+        assertSame(webApi.getGitApi(), webApi.getGitApi());
+    }
+
+    @Test
+    public void shouldReturnOauthTokenWhenNotExpired() throws AzDException, ConnectionException {
+        // Given
+        var token = new AuthorizedToken();
+        token.setAccessToken("myAccessToken");
+        token.setExpiresIn(3600);
+        token.setReceivedTimestamp(System.currentTimeMillis());
+
+        // When
+        Connection connection = new Connection("Test", token, "appSecret", "https://localhost/callback");
+
+        // Then(assert and act)
+        assertEquals("myAccessToken", connection.getPersonalAccessToken());
+    }
+
+    @Test
+    public void shouldRebindRegistryClientToNewContext() {
+        // Given
+        var registry = new AzDClientRegistry(new Connection(null, "myPersonalAccessToken"), 10);
+        var client = registry.newClient("Test", "myProject");
+        var other = registry.newClient("Test", "myProject");
+        var buildApi = client.getBuildApi();
+
+        // When
+        client.setOrganization("Check");
+
+        // Then(assert and act)
+        assertEquals("Check", client.getOrganization());
+        assertEquals("Test", other.getOrganization());
+        assertNotSame(buildApi, client.getBuildApi());
+        assertSame(client.getBuildApi(), client.getBuildApi());
+        assertSame(registry.getRateLimiter("Test"), registry.getContext("Test", "myProject").getRateLimiter());
+    }
+
+    @Test
+    public void shouldShareCredentialsWithConnectionContext() throws AzDException, ConnectionException {
+        // Given
+        var credentials = new Connection(null, "myPersonalAccessToken");
+        var registry = new AzDClientRegistry(credentials);
+        var context = registry.getContext("Test", "myProject");
+
+        // When
+        var connection = context.createConnection();
+        connection.setProject("Check");
+        connection.setPersonalAccessToken("myNewPersonalAccessToken");
+
+        // Then(assert and act)
+        assertEquals("Test", connection.getOrganization());
+        assertEquals("Check", connection.getProject());
+        assertEquals("myProject", context.getProject());
+        assertEquals("myProject", context.createConnection().getProject());
+        assertNull(credentials.getProject());
+        assertEquals("myNewPersonalAccessToken", credentials.getPersonalAccessToken());
+        assertEquals("myNewPersonalAccessToken", context.createConnection().getPersonalAccessToken());
+    }
+
+    @Test
+    public void shouldWarmUpSharedMapper() throws AzDException {
+        // Given
+        var mapper = JsonMapper.getInstance();
+
+        // When
+        var count = mapper.warmUp();
+
+        // Then
+        assertTrue(count > 0);
+        assertEquals("1", mapper.mapJsonResponse("{\"id\": \"1\", \"unknownProperty\": true}", Project.class).getId());
+    }
+
+    @Test
+    public void shouldReadTypesWithGeneratedReaders() throws AzDException {
+        // Given
+        var mapper = JsonMapper.getInstance();
+        var json = "{\"count\": 1, \"value\": [{\"id\": 5, \"buildNumber\": \"20210101.1\", \"tags\": [\"ci\"], " +
+                "\"definition\": {\"id\": 1, \"name\": \"Demo-CI\"}, \"unknownProperty\": {\"a\": [1]}}]}";
+
+        // When
+        var builds = mapper.mapJsonResponse(json, Builds.class);
+        Builds expected;
+        mapper.setGeneratedReadersEnabled(false);
+        try {
+            expected = mapper.mapJsonResponse(json, Builds.class);
+        } finally {
+            mapper.setGeneratedReadersEnabled(true);
+        }
+
+        // Then
+        assertTrue(mapper.isGeneratedReadersEnabled());
+        assertEquals(mapper.convertToString(expected), mapper.convertToString(builds));
+    }
+
+    @Test
+    public void shouldInternReferenceObjectsWithinResponse() throws AzDException {
+        // Given
+        var mapper = new JsonMapper();
+        var json = "{\"count\": 2, \"value\": [" +
+                "{\"id\": 1, \"project\": {\"id\": \"p1\"}, \"requestedBy\": {\"id\": \"u1\", \"displayName\": \"Sam\"}}," +
+                "{\"id\": 2, \"project\": {\"id\": \"p1\"}, \"requestedBy\": {\"id\": \"u1\", \"displayName\": \"Sam\"}}]}";
+
+        // When
+        mapper.setInternScope(InternScope.RESPONSE);
+        var builds = mapper.mapJsonResponse(json, Builds.class).getBuildResults();
+        var next = mapper.mapJsonResponse(json, Builds.class).getBuildResults();
+
+        // Then
+        assertSame(builds.get(0).getProject(), builds.get(1).getProject());
+        assertSame(builds.get(0).getRequestedBy(), builds.get(1).getRequestedBy());
+        assertNotSame(builds.get(0).getProject(), next.get(0).getProject());
+    }
+
+    @Test
+    public void shouldEncodeQueryString() {
+        // Given
+        var q = new HashMap<String, Object>();
+        q.put("searchText", null);
+        q.put("$top", 10);
+        q.put("ids", new int[]{ 3, 1, 2 });
+        q.put("branchName", "refs/heads/feature a&b");
+
+        // When
+        var queryString = URLHelper.encodeQueryString(q);
+
+        // Then
+        assertEquals("&$top=10&branchName=refs/heads/feature%20a%26b&ids=3,1,2", queryString);
+    }
+
+    @Test
+    public void shouldDecodeGzipResponse() throws Exception {
+        // Given
+        var json = "{\"value\": [" + "{\"id\": 1, \"name\": \"Demo-CI\"},".repeat(20000) + "{}]}";
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Then(assert and act)
+        assertEquals(json, serve("gzip", out.toByteArray()));
+    }
+
+    @Test
+    public void shouldDecodeDeflateResponse() throws Exception {
+        // Given
+        var json = "{\"id\": 1, \"name\": \"Démo-CI\"}";
+        var out = new ByteArrayOutputStream();
+        try (var deflate = new DeflaterOutputStream(out)) {
+            deflate.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Then(assert and act)
+        assertEquals(json, serve("deflate", out.toByteArray()));
+    }
+
+    @Test
+    public void shouldReadIdentityResponse() throws Exception {
+        // Given
+        var json = "{\"id\": 1, \"name\": \"Démo-CI\"}";
+
+        // Then(assert and act)
+        assertEquals(json, serve(null, json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void shouldReadEmptyCompressedResponse() throws Exception {
+        assertEquals("", serve("gzip", new byte[0]));
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void shouldThrowForTruncatedGzipResponse() throws Exception {
+        // Given
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write("{\"id\": 1, \"name\": \"Demo-CI\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        var bytes = out.toByteArray();
+
+        // Then(assert and act)
+        serve("gzip", Arrays.copyOf(bytes, bytes.length - 12));
+    }
+
+    private static String serve(String encoding, byte[] body) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            if (encoding != null) exchange.getResponseHeaders().add("Content-Encoding", encoding);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            return BaseClient.get("http://localhost:" + server.getAddress().getPort() + "/");
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.azd;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.JsonMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/***
+ * Reads a sample of each type of the org.azd.*.types packages with the generated reader and with Jackson, and
+ * compares the results. The first sample sets every property with nested objects, lists with null items and unknown
+ * properties; the second one sets every property to null and ends with an unknown property.
+ */
+@RunWith(Parameterized.class)
+public class GeneratedReadersTest {
+    private static final JsonMapper GENERATED = new JsonMapper();
+    private static final JsonMapper JACKSON = new JsonMapper();
+    private final Class<?> type;
+
+    static {
+        JACKSON.setGeneratedReadersEnabled(false);
+    }
+
+    public GeneratedReadersTest(String name, Class<?> type) {
+        this.type = type;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> types() throws IOException, URISyntaxException, ClassNotFoundException {
+        var classes = Paths.get(JsonMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        var types = new ArrayList<Object[]>();
+        try (var files = Files.walk(classes.resolve("org/azd"))) {
+            for (var name : files.map(f -> classes.relativize(f).toString().replace('\\', '/'))
+                    .filter(f -> f.matches("org/azd/[^/]+/types/[^/$]+\\.class")).sorted().collect(Collectors.toList())) {
+                var type = Class.forName(name.substring(0, name.length() - 6).replace('/', '.'));
+                if (!type.isInterface() && !type.isEnum()) types.add(new Object[]{ type.getSimpleName(), type });
+            }
+        }
+        return types;
+    }
+
+    @Test
+    public void shouldReadSampleLikeJackson() {
+        var javaType = JACKSON.constructType(type);
+        assertEquals(read(JACKSON, sample(javaType, 0)), read(GENERATED, sample(javaType, 0)));
+    }
+
+    @Test
+    public void shouldReadNullsLikeJackson() {
+        var json = new StringBuilder("{\"unknownProperty\": null");
+        for (var property : JACKSON.getDeserializationConfig().introspect(JACKSON.constructType(type)).findProperties())
+            if (property.hasSetter() || property.hasField()) json.append(", \"").append(property.getName()).append("\": null");
+        json.append(", \"lastUnknownProperty\": 1}");
+
+        assertEquals(read(JACKSON, json.toString()), read(GENERATED, json.toString()));
+    }
+
+    /***
+     * Reads the json and serializes the result again, or names the exception if it can't be read
+     */
+    private String read(JsonMapper mapper, String json) {
+        try {
+            return mapper.convertToString(mapper.mapJsonResponse(json, type));
+        } catch (AzDException e) {
+            return AzDException.class.getName();
+        } catch (RuntimeException e) {
+            return e.toString();
+        }
+    }
+
+    private static String sample(JavaType type, int depth) {
+        var c = type.getRawClass();
+        if (c == String.class) return "\"s\"";
+        if (c == int.class || c == Integer.class || c == long.class || c == Long.class || c == short.class) return "7";
+        if (c == double.class || c == Double.class || c == float.class) return "1.5";
+        if (c == boolean.class || c == Boolean.class) return "true";
+        if (c == JsonNode.class || c == Object.class || Map.class.isAssignableFrom(c)) return "{\"a\": [1, \"b\"]}";
+        if (type.isArrayType() || type.isCollectionLikeType())
+            return depth > 3 ? "[]" : "[" + sample(type.getContentType(), depth + 1) + ", null]";
+        if (c.isEnum()) return "\"" + c.getEnumConstants()[0] + "\"";
+        if (depth > 3) return "null";
+
+        var json = new StringBuilder("{\"unknownProperty\": {\"x\": [1, {}]}");
+        for (var property : JACKSON.getDeserializationConfig().introspect(type).findProperties()) {
+            if (!property.hasSetter() && !property.hasField()) continue;
+            var propertyType = property.hasSetter() ? property.getSetter().getParameterType(0) : property.getField().getType();
+            json.append(", \"").append(property.getName()).append("\": ").append(sample(propertyType, depth + 1));
+        }
+        return json.append("}").toString();
+    }
+}
@@ -3,15 +3,23 @@ package org.azd;
 import org.azd.enums.PullRequestStatus;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.git.types.PullRequest;
 import org.azd.git.types.WebApiTagDefinition;
 import org.azd.helpers.JsonMapper;
 import org.azd.interfaces.AzDClient;
 import org.azd.interfaces.GitDetails;
+import org.azd.interfaces.PullRequestListener;
 import org.azd.utils.AzDClientApi;
+import org.azd.utils.PullRequestIndex;
+import org.azd.utils.PullRequestTracker;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
 
 public class GitApiTest {
     private static final JsonMapper MAPPER = new JsonMapper();
@@ -190,4 +198,39 @@ public class GitApiTest {
         g.updatePullRequestReviewer(8, "testRepository",
                 "10bb49f0-c425-6735-b8de-71ecf84728d6", true, false);
     }
+
+    @Test
+    public void shouldTrackOnlyChangedPullRequests() throws ConnectionException, AzDException {
+        var tracker = new PullRequestTracker(g, null, 4);
+        var created = new ArrayList<Integer>();
+        PullRequestListener listener = new PullRequestListener() {
+            @Override
+            public void created(PullRequest pullRequest) { created.add(pullRequest.getPullRequestId()); }
+
+            @Override
+            public void updated(PullRequest pullRequest, PullRequestIndex.Entry previous) { }
+
+            @Override
+            public void closed(PullRequest pullRequest, PullRequestIndex.Entry previous) { }
+        };
+
+        tracker.poll(listener);
+        var count = created.size();
+        tracker.poll(listener);
+
+        assertEquals(count, tracker.getIndex().getPullRequestIds(null, null, null, "active").length);
+        assertEquals(count, created.size());
+    }
+
+    @Test
+    public void shouldStreamPullRequestsInPageOrder() throws ConnectionException, AzDException {
+        var expected = g.getPullRequestsByProject(0, 50, null, false, null, null, null, null,
+                PullRequestStatus.COMPLETED, null).getPullRequests();
+
+        try (var pullRequests = g.streamPullRequestsByProject(10, 4, null, false, null, null, null, null,
+                PullRequestStatus.COMPLETED, null)) {
+            var streamed = pullRequests.limit(expected.size()).map(PullRequest::getPullRequestId).collect(Collectors.toList());
+            assertEquals(expected.stream().map(PullRequest::getPullRequestId).collect(Collectors.toList()), streamed);
+        }
+    }
 }
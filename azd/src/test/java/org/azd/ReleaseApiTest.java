@@ -6,12 +6,22 @@ import org.azd.exceptions.ConnectionException;
 import org.azd.helpers.JsonMapper;
 import org.azd.interfaces.AzDClient;
 import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.ReleaseDeploymentListener;
 import org.azd.interfaces.ReleaseDetails;
+import org.azd.release.types.Release;
+import org.azd.release.types.ReleaseEnvironment;
 import org.azd.utils.AzDClientApi;
+import org.azd.utils.ReleaseDeploymentTracker;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
 
 public class ReleaseApiTest {
     private static final JsonMapper MAPPER = new JsonMapper();
@@ -50,6 +60,13 @@ public class ReleaseApiTest {
         r.getRelease(rId);
     }
 
+    @Test
+    public void shouldGetALazyRelease() throws ConnectionException, AzDException {
+        var rId = r.getReleases().getReleases().stream().findFirst().get().getId();
+        var release = r.getLazyRelease(rId);
+        for (var environment : release.getEnvironments()) environment.getDeployPhasesSnapshot();
+    }
+
     @Test
     public void shouldGetReleaseEnvironmentDetails() throws ConnectionException, AzDException {
         var rId = r.getReleases().getReleases().stream().findFirst().get().getId();
@@ -71,4 +88,35 @@ public class ReleaseApiTest {
     public void shouldGetReleaseDefinitionHistory() throws ConnectionException, AzDException {
         r.getReleaseDefinitionHistory(2);
     }
+
+    @Test
+    public void shouldTrackOnlyChangedReleaseEnvironments() throws ConnectionException, AzDException {
+        var tracker = new ReleaseDeploymentTracker(r, Instant.now().minus(Duration.ofDays(30)), 4);
+        var added = new ArrayList<Integer>();
+        ReleaseDeploymentListener listener = new ReleaseDeploymentListener() {
+            @Override
+            public void added(Release release) { added.add(release.getId()); }
+
+            @Override
+            public void environmentChanged(Release release, ReleaseEnvironment environment, String previousStatus) { }
+        };
+
+        tracker.poll(listener);
+        var count = added.size();
+        tracker.poll(listener);
+
+        assertEquals(count, added.size());
+    }
+
+    @Test
+    public void shouldStreamReleasesInTimeSlices() throws ConnectionException, AzDException {
+        var to = Instant.now();
+        var from = to.minus(Duration.ofDays(90));
+
+        try (var all = r.streamReleases(null, 50, from, to, null, 1, 0, null, null);
+             var sliced = r.streamReleases(null, 50, from, to, Duration.ofDays(30), 3, 0, null, null)) {
+            assertEquals(all.map(Release::getId).collect(Collectors.toList()),
+                    sliced.map(Release::getId).collect(Collectors.toList()));
+        }
+    }
 }
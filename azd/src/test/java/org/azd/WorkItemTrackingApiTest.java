@@ -4,14 +4,25 @@ import org.azd.enums.WorkItemExpand;
 import org.azd.enums.WorkItemOperation;
 import org.azd.exceptions.AzDException;
 import org.azd.exceptions.ConnectionException;
+import org.azd.helpers.FieldProjection;
 import org.azd.helpers.JsonMapper;
 import org.azd.interfaces.AzDClient;
+import org.azd.interfaces.WorkItemSyncSink;
 import org.azd.utils.AzDClientApi;
+import org.azd.utils.ColumnarWorkItemWriter;
+import org.azd.utils.WorkItemExporter;
+import org.azd.utils.WorkItemSync;
 import org.azd.workitemtracking.WorkItemTrackingApi;
+import org.azd.workitemtracking.types.WorkItem;
+import org.azd.workitemtracking.types.WorkItemFieldLayout;
+import org.azd.workitemtracking.types.WorkItemReference;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import static org.junit.Assert.assertEquals;
@@ -73,6 +84,19 @@ public class WorkItemTrackingApiTest {
         w.getWorkItems(new int[]{1,2,3});
     }
 
+    @Test
+    public void shouldGetWorkItemsWithOnlyProjectedFields() throws ConnectionException, AzDException {
+        w.getWorkItems(new int[]{1,2,3}, FieldProjection.of("id", "rev", "fields/System.State"));
+    }
+
+    @Test
+    public void shouldGetCompactWorkItems() throws ConnectionException, AzDException {
+        var layout = w.getWorkItemFieldLayout();
+        var r = w.getCompactWorkItems(new int[]{1,2,3}, layout);
+        assertEquals(r.get(0).getId(), r.get(0).getInt("System.Id"));
+        assertEquals(r.get(0).getString("System.TeamProject"), r.get(1).getString("System.TeamProject"));
+    }
+
     @Test
     public void shouldGetWorkItemRevisions() throws ConnectionException, AzDException {
         var r = w.getWorkItemRevisions(3, WorkItemExpand.ALL)
@@ -101,6 +125,45 @@ public class WorkItemTrackingApiTest {
         assertEquals(1, res);
     }
 
+    @Test
+    public void shouldExportQueryResultToColumnarFile() throws ConnectionException, AzDException, IOException {
+        var query = "Select [System.Id], [System.State], [System.AreaPath] From WorkItems Where [System.WorkItemType] = 'User Story'";
+        var team = "azure-devops-java-sdk Team";
+        var ids = w.queryByWiql(team, query).getWorkItems().stream().mapToInt(WorkItemReference::getId).toArray();
+        var out = new ByteArrayOutputStream();
+        try (var writer = new ColumnarWorkItemWriter(out)) {
+            assertEquals(ids.length, new WorkItemExporter(w, 4).export(team, query, writer));
+        }
+
+        var table = ColumnarWorkItemWriterTest.read(out.toByteArray());
+        assertEquals(ids.length, table.rowCount);
+        var layout = new WorkItemFieldLayout();
+        for (int i = 0; i < Math.min(ids.length, 200); i++) {
+            var expected = w.getCompactWorkItems(new int[]{ ids[i] }, new String[]{ "System.Id", "System.State", "System.AreaPath" }, layout).get(0);
+            var row = table.rows.get(i);
+            assertEquals(expected.getLong("System.Id"), row.get("System.Id"));
+            assertEquals(expected.getString("System.State"), row.get("System.State"));
+            assertEquals(expected.getString("System.AreaPath"), row.get("System.AreaPath"));
+        }
+    }
+
+    @Test
+    public void shouldSyncOnlyChangedWorkItems() throws ConnectionException, AzDException {
+        var changed = new ArrayList<WorkItem>();
+        var sink = new WorkItemSyncSink() {
+            @Override
+            public void changed(WorkItem workItem) { changed.add(workItem); }
+
+            @Override
+            public void deleted(int id) { }
+        };
+        var sync = new WorkItemSync(w, "azure-devops-java-sdk", "azure-devops-java-sdk Team", 4);
+        var watermark = sync.sync(null, sink);
+        changed.clear();
+        sync.sync(watermark, sink);
+        assertEquals(0, changed.size());
+    }
+
     @Test(expected = AzDException.class)
     public void shouldRemoveWorkItemFromRecycleBin() throws ConnectionException, AzDException {
         w.removeWorkItemFromRecycleBin(93);
@@ -0,0 +1,113 @@
+package org.azd.connection;
+
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.oauth.types.AuthorizedToken;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OAuthTokenManagerTest {
+
+    @Test
+    public void shouldRefreshTokenAheadOfExpiry() throws AzDException, ConnectionException, InterruptedException {
+        // Given
+        var refreshed = new CountDownLatch(1);
+        var manager = new OAuthTokenManager(token("current", 60, 45), current -> token("next", 3600, 0),
+                newToken -> refreshed.countDown());
+
+        // When
+        var accessToken = manager.getAccessToken();
+
+        // Then
+        assertEquals("current", accessToken);
+        assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+        assertEquals("next", manager.getAccessToken());
+    }
+
+    @Test
+    public void shouldWaitForRefreshOfExpiredToken() throws AzDException, ConnectionException {
+        // Given
+        var manager = new OAuthTokenManager(token("current", 60, 120), current -> token("next", 3600, 0), newToken -> { });
+
+        // Then(assert and act)
+        assertEquals("next", manager.getAccessToken());
+    }
+
+    @Test
+    public void shouldBackOffAfterFailedRefresh() throws Exception {
+        // Given
+        var calls = new AtomicInteger();
+        var failures = new CountDownLatch(1);
+        var manager = new OAuthTokenManager(token("current", 60, 45), current -> {
+            calls.incrementAndGet();
+            throw new AzDException("InvalidRefreshToken", "The refresh token is invalid.");
+        }, new Connection.TokenRefreshedHandler() {
+            @Override
+            public void tokenRefreshed(AuthorizedToken newToken) { }
+
+            @Override
+            public void refreshFailed(Throwable e) { failures.countDown(); }
+        });
+
+        // When
+        manager.getAccessToken();
+        assertTrue(failures.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) assertEquals("current", manager.getAccessToken());
+
+        // Then
+        assertEquals(1, calls.get());
+        assertNotNull(manager.getRefreshFailure());
+    }
+
+    @Test
+    public void shouldRethrowFailedRefreshOfExpiredTokenDuringBackoff() throws ConnectionException {
+        // Given
+        var calls = new AtomicInteger();
+        var manager = new OAuthTokenManager(token("current", 60, 120), current -> {
+            calls.incrementAndGet();
+            throw new AzDException("InvalidRefreshToken", "The refresh token is invalid.");
+        }, newToken -> { });
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            try {
+                manager.getAccessToken();
+                fail();
+            } catch (AzDException e) {
+                assertEquals("InvalidRefreshToken: The refresh token is invalid.", e.getMessage());
+            }
+        }
+
+        // Then
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void shouldKeepRefreshedTokenWhenHandlerFails() throws AzDException, ConnectionException {
+        // Given
+        var manager = new OAuthTokenManager(token("current", 60, 120), current -> token("next", 3600, 0), newToken -> {
+            throw new IllegalStateException("The handler failed.");
+        });
+
+        // Then(assert and act)
+        assertEquals("next", manager.getAccessToken());
+        assertEquals("next", manager.getAccessToken());
+    }
+
+    private static AuthorizedToken token(String accessToken, int expiresIn, int age) {
+        var token = new AuthorizedToken();
+        token.setAccessToken(accessToken);
+        token.setRefreshToken("refresh-" + accessToken);
+        token.setExpiresIn(expiresIn);
+        token.setReceivedTimestamp(System.currentTimeMillis() - age * 1000L);
+        return token;
+    }
+}
@@ -0,0 +1,81 @@
+package org.azd.helpers;
+
+import org.azd.build.types.Build;
+import org.azd.build.types.Builds;
+import org.azd.core.types.ProjectProperty;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FieldProjectionTest {
+    private static final JsonMapper MAPPER = JsonMapper.getInstance();
+    private static final String BUILD = "{\"id\": 1, \"status\": \"completed\", \"buildNumber\": \"20230501.1\", " +
+            "\"definition\": {\"id\": 7, \"name\": \"WebApp-CI\", \"project\": {\"id\": \"p1\", \"name\": \"Demo\"}}, " +
+            "\"queue\": {\"id\": 3, \"name\": \"Default\"}}";
+
+    @Test
+    public void shouldProjectEachItemOfAListWrapper() throws Exception {
+        // Given
+        var projection = FieldProjection.of("id", "definition/name");
+
+        // When
+        var builds = MAPPER.mapJsonResponse("{\"count\": 2, \"value\": [" + BUILD + ", " + BUILD.replace("\"id\": 1", "\"id\": 2") + "]}",
+                Builds.class, projection).getBuildResults();
+
+        // Then
+        assertEquals(2, builds.size());
+        assertEquals(2, builds.get(1).getId());
+        assertEquals("WebApp-CI", builds.get(0).getDefinition().getName());
+        assertNull(builds.get(0).getDefinition().getId());
+        assertNull(builds.get(0).getDefinition().getProject());
+        assertNull(builds.get(0).getStatus());
+        assertNull(builds.get(0).getQueue());
+    }
+
+    @Test
+    public void shouldProjectNestedPropertiesOfAnObject() throws Exception {
+        // Given
+        var projection = FieldProjection.of("status", "definition/name", "definition/project/name");
+
+        // When
+        var build = MAPPER.mapJsonResponse(BUILD, Build.class, projection);
+
+        // Then
+        assertEquals(0, build.getId());
+        assertEquals("completed", build.getStatus());
+        assertEquals("WebApp-CI", build.getDefinition().getName());
+        assertEquals("Demo", build.getDefinition().getProject().getName());
+        assertNull(build.getDefinition().getProject().getId());
+        assertNull(build.getBuildNumber());
+    }
+
+    @Test
+    public void shouldNotTreatTheValueOfAnObjectAsAListWrapper() throws Exception {
+        // Given
+        var projection = FieldProjection.of("name");
+
+        // When
+        var property = MAPPER.mapJsonResponse("{\"name\": \"System.Process Template\", \"value\": \"Agile\"}",
+                ProjectProperty.class, projection);
+
+        // Then
+        assertEquals("System.Process Template", property.getName());
+        assertNull(property.getValue());
+    }
+
+    @Test
+    public void shouldSkipUnknownProperties() throws Exception {
+        // Given
+        var projection = FieldProjection.of("id", "unknown", "definition/unknown", "queue/unknown");
+
+        // When
+        var build = MAPPER.mapJsonResponse(BUILD, Build.class, projection);
+
+        // Then
+        assertEquals(1, build.getId());
+        assertNull(build.getStatus());
+        assertNull(build.getDefinition().getName());
+        assertNull(build.getQueue().getName());
+    }
+}
@@ -0,0 +1,266 @@
+package org.azd.helpers;
+
+import com.sun.net.httpserver.HttpServer;
+import org.azd.connection.Connection;
+import org.azd.enums.CacheMode;
+import org.azd.enums.RequestMethod;
+import org.azd.exceptions.AzDException;
+import org.azd.exceptions.ConnectionException;
+import org.azd.utils.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LocalStoreTest {
+    private Path directory;
+    private LocalStore store;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("azd-store");
+    }
+
+    @After
+    public void cleanUp() throws AzDException, IOException {
+        if (store != null) store.close();
+        try (var files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(file);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /***
+     * Flips the last byte of a segment, which is in the body of its last record
+     */
+    private static void corrupt(Path segment) throws IOException {
+        try (var file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            var last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+    }
+
+    @Test
+    public void shouldKeepLatestRevisions() throws AzDException {
+        // Given
+        store = new LocalStore(directory, 256);
+        for (int rev = 1; rev <= 10; rev++) store.put("build", "1", rev, "{\"id\": 1, \"rev\": " + rev + "}");
+        store.put("build", "2", 1, "{\"id\": 2}");
+        store.delete("build", "2");
+
+        // When
+        store.compact();
+        store.close();
+        store = new LocalStore(directory, 256);
+
+        // Then
+        assertEquals(10, store.get("build", "1").getRev());
+        assertEquals("{\"id\": 1, \"rev\": 10}", store.get("build", "1").getJson());
+        assertNull(store.get("build", "2"));
+        assertEquals(0, store.getGarbageSize());
+    }
+
+    @Test
+    public void shouldDropPartlyWrittenRecordAtTheEndOfTheLastSegment() throws AzDException, IOException {
+        // Given
+        store = new LocalStore(directory);
+        store.put("build", "1", 1, "{\"id\": 1}");
+        store.close();
+        var segment = segments().get(0);
+        var size = Files.size(segment);
+        // the length and crc of a record of 100 bytes of which only 10 were written
+        var torn = new byte[18];
+        torn[3] = 100;
+        Files.write(segment, torn, StandardOpenOption.APPEND);
+
+        // When
+        store = new LocalStore(directory);
+        store.put("build", "2", 1, "{\"id\": 2}");
+        store.close();
+        store = new LocalStore(directory);
+
+        // Then
+        assertEquals("{\"id\": 1}", store.get("build", "1").getJson());
+        assertEquals("{\"id\": 2}", store.get("build", "2").getJson());
+        assertTrue(Files.size(segment) > size);
+        assertEquals(1, segments().size());
+    }
+
+    @Test
+    public void shouldDropRecordWithBadCrcAtTheEndOfTheLastSegment() throws AzDException, IOException {
+        // Given
+        store = new LocalStore(directory);
+        store.put("build", "1", 1, "{\"id\": 1, \"rev\": 1}");
+        store.close();
+        var size = Files.size(segments().get(0));
+        store = new LocalStore(directory);
+        store.put("build", "1", 2, "{\"id\": 1, \"rev\": 2}");
+        store.close();
+        corrupt(segments().get(0));
+
+        // When
+        store = new LocalStore(directory);
+
+        // Then
+        assertEquals(1, store.get("build", "1").getRev());
+        assertEquals(size, Files.size(segments().get(0)));
+    }
+
+    @Test
+    public void shouldFailWhenARecordOfAnEarlierSegmentIsCorrupt() throws AzDException, IOException {
+        // Given
+        store = new LocalStore(directory, 128);
+        for (int id = 1; id <= 10; id++) store.put("build", String.valueOf(id), 1, "{\"id\": " + id + "}");
+        store.close();
+        store = null;
+        var first = segments().get(0);
+        var size = Files.size(first);
+        corrupt(first);
+
+        // When
+        try {
+            store = new LocalStore(directory, 128);
+            fail();
+        } catch (AzDException e) {
+            // Then
+            assertTrue(e.getMessage().startsWith("LocalStoreException: "));
+            assertEquals(size, Files.size(first));
+        }
+    }
+
+    private static String get(Connection connection, String resource) throws ConnectionException, AzDException {
+        return Client.send(RequestMethod.GET, connection, null, "myProject", "build", null, resource, "7.0", null, null);
+    }
+
+    @Test
+    public void shouldReadResponsesFromTheStoreByCacheMode() throws Exception {
+        // Given
+        var requests = new AtomicInteger();
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            var body = ("{\"count\": " + requests.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        Client.setInstanceUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        store = new LocalStore(directory);
+        var connection = new Connection("Test", "myPersonalAccessToken");
+        var uncached = connection.uncached();
+
+        try {
+            // When
+            connection.setLocalStore(store, CacheMode.READ_THROUGH, null);
+            var first = get(connection, "builds");
+            var cached = get(connection, "builds");
+            // the uncached view skips the store on any thread
+            var polled = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return get(uncached, "builds");
+                } catch (ConnectionException | AzDException e) {
+                    throw new CompletionException(e);
+                }
+            }).join();
+            var afterPoll = get(connection, "builds");
+            connection.setLocalStore(store, CacheMode.OFFLINE, null);
+            var offline = get(connection, "builds");
+
+            // Then
+            assertEquals("{\"count\": 1}", first);
+            assertEquals("{\"count\": 1}", cached);
+            assertEquals("{\"count\": 2}", polled);
+            assertEquals("{\"count\": 2}", afterPoll);
+            assertEquals("{\"count\": 2}", offline);
+            assertEquals(2, requests.get());
+            try {
+                get(connection, "definitions");
+                fail();
+            } catch (AzDException e) {
+                assertEquals(2, requests.get());
+            }
+            try {
+                get(uncached, "builds");
+                fail();
+            } catch (AzDException e) {
+                assertEquals(2, requests.get());
+            }
+        } finally {
+            server.stop(0);
+            Client.setInstanceUrl(System.getProperty("azd.instance.url", "https://dev.azure.com/"));
+        }
+    }
+
+    @Test
+    public void shouldKeepTheResponseHeadersWithTheResponse() throws Exception {
+        // Given
+        var requests = new AtomicInteger();
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            var count = requests.incrementAndGet();
+            var body = ("{\"count\": " + count + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.getResponseHeaders().add("x-ms-continuationtoken", String.valueOf(count * 10));
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        Client.setInstanceUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        store = new LocalStore(directory);
+        var connection = new Connection("Test", "myPersonalAccessToken");
+        connection.setLocalStore(store, CacheMode.READ_THROUGH, null);
+        var first = new HashMap<String, String>();
+        var cached = new HashMap<String, String>();
+        var offline = new HashMap<String, String>();
+
+        try {
+            // When
+            // stored without its headers by a request that doesn't read them
+            Client.send(RequestMethod.GET, connection, null, "myProject", "release", null, "releases", "7.0", null, null);
+            var firstResponse = Client.get(connection, null, "myProject", "release", null, "releases", "7.0", null, first);
+            var cachedResponse = Client.get(connection, null, "myProject", "release", null, "releases", "7.0", null, cached);
+            connection.setLocalStore(store, CacheMode.OFFLINE, null);
+            var offlineResponse = Client.get(connection, null, "myProject", "release", null, "releases", "7.0", null, offline);
+
+            // Then
+            assertEquals("{\"count\": 2}", firstResponse);
+            assertEquals("{\"count\": 2}", cachedResponse);
+            assertEquals("{\"count\": 2}", offlineResponse);
+            assertEquals("20", first.get("x-ms-continuationtoken"));
+            assertEquals("20", cached.get("x-ms-continuationtoken"));
+            assertEquals("20", offline.get("x-ms-continuationtoken"));
+            assertEquals(2, requests.get());
+        } finally {
+            server.stop(0);
+            Client.setInstanceUrl(System.getProperty("azd.instance.url", "https://dev.azure.com/"));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.azd.helpers;
+
+import org.azd.build.types.Builds;
+import org.azd.core.types.Project;
+import org.azd.enums.InternScope;
+import org.azd.exceptions.AzDException;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReferenceInternerTest {
+    private static final String BUILDS = "{\"count\": 3, \"value\": [" +
+            "{\"id\": 1, \"project\": {\"id\": \"p1\", \"name\": \"Demo\"}, \"requestedBy\": {\"id\": \"u1\", \"displayName\": \"Sam\"}}," +
+            "{\"id\": 2, \"project\": {\"id\": \"p1\", \"name\": \"Demo\"}, \"requestedBy\": {\"id\": \"u1\", \"displayName\": \"Sam\"}}," +
+            "{\"id\": 3, \"project\": {\"id\": \"p1\", \"name\": \"Renamed\"}, \"requestedBy\": {\"id\": \"u1\"}}]}";
+
+    public static class Reference {
+        public String id;
+        public String name;
+    }
+
+    public static class References {
+        public List<Reference> value;
+    }
+
+    private static void assertInternedByValue(JsonMapper mapper) throws AzDException {
+        var builds = mapper.mapJsonResponse(BUILDS, Builds.class).getBuildResults();
+
+        assertSame(builds.get(0).getProject(), builds.get(1).getProject());
+        assertSame(builds.get(0).getRequestedBy(), builds.get(1).getRequestedBy());
+        assertNotSame(builds.get(0).getProject(), builds.get(2).getProject());
+        assertNotSame(builds.get(0).getRequestedBy(), builds.get(2).getRequestedBy());
+        assertEquals("Demo", builds.get(0).getProject().getName());
+        assertEquals("Renamed", builds.get(2).getProject().getName());
+    }
+
+    @Test
+    public void shouldInternOnlyEqualReferencesWithGeneratedReaders() throws AzDException {
+        // Given
+        var mapper = new JsonMapper();
+
+        // When
+        mapper.setInternScope(InternScope.RESPONSE);
+
+        // Then
+        assertTrue(mapper.isGeneratedReadersEnabled());
+        assertInternedByValue(mapper);
+    }
+
+    @Test
+    public void shouldInternOnlyEqualReferencesWithJackson() throws AzDException {
+        // Given
+        var mapper = new JsonMapper();
+
+        // When
+        mapper.setGeneratedReadersEnabled(false);
+        mapper.setInternScope(InternScope.RESPONSE);
+
+        // Then
+        assertInternedByValue(mapper);
+    }
+
+    @Test
+    public void shouldInternTypesRegisteredAfterFirstUse() throws AzDException {
+        // Given
+        var mapper = new JsonMapper();
+        var json = "{\"value\": [{\"id\": \"r1\", \"name\": \"main\"}, {\"id\": \"r1\", \"name\": \"main\"}]}";
+        mapper.setInternScope(InternScope.RESPONSE);
+        var before = mapper.mapJsonResponse(json, References.class).value;
+
+        // When
+        ReferenceInterner.register(Reference.class, r -> r.id);
+        var after = mapper.mapJsonResponse(json, References.class).value;
+
+        // Then
+        assertNotSame(before.get(0), before.get(1));
+        assertSame(after.get(0), after.get(1));
+    }
+
+    @Test
+    public void shouldInternAcrossResponsesInSessionScope() throws AzDException {
+        // Given
+        var mapper = new JsonMapper();
+        mapper.setInternScope(InternScope.SESSION);
+
+        // When
+        var first = mapper.mapJsonResponse(BUILDS, Builds.class).getBuildResults();
+        var second = mapper.mapJsonResponse(BUILDS, Builds.class).getBuildResults();
+        mapper.setInternScope(InternScope.NONE);
+        var third = mapper.mapJsonResponse(BUILDS, Builds.class).getBuildResults();
+
+        // Then
+        assertSame(first.get(0).getProject(), second.get(1).getProject());
+        assertSame(first.get(2).getProject(), second.get(2).getProject());
+        assertNotSame(first.get(0).getProject(), third.get(0).getProject());
+    }
+
+    @Test
+    public void shouldExpungeCollectedReferencesInSessionScope() throws InterruptedException {
+        // Given
+        var interner = new ReferenceInterner(true, new JsonMapper());
+        var project = new Project();
+        project.setId("p1");
+        assertSame(project, interner.intern(project));
+        assertEquals(1, interner.size());
+
+        // When
+        project = null;
+        var deadline = System.currentTimeMillis() + 10_000;
+        while (interner.size() > 0 && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        var next = new Project();
+        next.setId("p1");
+
+        // Then
+        assertEquals(0, interner.size());
+        assertSame(next, interner.intern(next));
+        assertEquals(1, interner.size());
+    }
+}
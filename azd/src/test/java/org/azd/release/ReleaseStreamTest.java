@@ -0,0 +1,117 @@
+package org.azd.release;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.azd.connection.Connection;
+import org.azd.exceptions.AzDException;
+import org.azd.release.types.Release;
+import org.azd.utils.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ReleaseStreamTest {
+    private static final Instant FROM = Instant.parse("2023-05-01T10:00:00Z");
+    private static final Instant TO = Instant.parse("2023-05-01T12:00:00Z");
+    // releases 3 and 4 are on the border of the two slices, which the stub lists with both of them
+    private static final Map<Integer, String> CREATED_ON = Map.of(
+            1, "2023-05-01T10:00:00Z",
+            2, "2023-05-01T10:30:00Z",
+            3, "2023-05-01T11:00:00Z",
+            4, "2023-05-01T11:00:00Z",
+            5, "2023-05-01T11:30:00Z");
+    private HttpServer server;
+    private String token;
+    private ReleaseApi releases;
+
+    @Before
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+        Client.setInstanceUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        releases = new ReleaseApi(new Connection("Test", "myProject", "myPersonalAccessToken"));
+    }
+
+    @After
+    public void cleanUp() {
+        server.stop(0);
+        Client.setInstanceUrl(System.getProperty("azd.instance.url", "https://dev.azure.com/"));
+    }
+
+    /***
+     * Lists the releases created in the time range of the query, borders included, a page at a time
+     */
+    private void respond(HttpExchange exchange) throws IOException {
+        String body;
+        if (exchange.getRequestURI().getPath().contains("/_apis/resourceAreas/")) {
+            body = "{\"locationUrl\": \"http://localhost:" + server.getAddress().getPort() + "/Test/\"}";
+        } else {
+            var q = new HashMap<String, String>();
+            for (var parameter : exchange.getRequestURI().getQuery().split("&")) {
+                var pair = parameter.split("=", 2);
+                q.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+            var min = Instant.parse(q.get("minCreatedTime"));
+            var max = Instant.parse(q.get("maxCreatedTime"));
+            var ids = CREATED_ON.keySet().stream().sorted()
+                    .filter(id -> !Instant.parse(CREATED_ON.get(id)).isBefore(min) && !Instant.parse(CREATED_ON.get(id)).isAfter(max))
+                    .collect(Collectors.toList());
+            var skip = q.containsKey("continuationToken") ? Integer.parseInt(q.get("continuationToken")) : 0;
+            var top = Integer.parseInt(q.get("$top"));
+            var page = ids.subList(Math.min(skip, ids.size()), Math.min(skip + top, ids.size()));
+            if (skip + top < ids.size())
+                exchange.getResponseHeaders().add("x-ms-continuationtoken", token != null ? token : String.valueOf(skip + top));
+            body = "{\"count\": " + page.size() + ", \"value\": [" + page.stream()
+                    .map(id -> "{\"id\": " + id + ", \"createdOn\": \"" + CREATED_ON.get(id) + "\"}")
+                    .collect(Collectors.joining(", ")) + "]}";
+        }
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    public void shouldListTheReleasesOnTheBorderOfTwoSlicesOnce() {
+        // When
+        List<Integer> ids;
+        try (var stream = releases.streamReleases(null, 1, FROM, TO, Duration.ofHours(1), 2, 0, null, null)) {
+            ids = stream.parallel().map(Release::getId).sorted().collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(List.of(1, 2, 3, 4, 5), ids);
+    }
+
+    @Test
+    public void shouldFailWhenTheContinuationTokenIsNotANumber() {
+        // Given
+        token = "next";
+
+        // When
+        try (var stream = releases.streamReleases(null, 1, FROM, TO, null, 1, 0, null, null)) {
+            stream.collect(Collectors.toList());
+            fail();
+        } catch (CompletionException e) {
+            // Then
+            assertEquals(AzDException.class, e.getCause().getClass());
+            assertEquals("PagingException", ((AzDException) e.getCause()).getExceptionType());
+        }
+    }
+}
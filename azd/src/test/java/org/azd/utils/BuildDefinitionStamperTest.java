@@ -0,0 +1,75 @@
+package org.azd.utils;
+
+import org.azd.build.types.BuildDefinition;
+import org.azd.exceptions.AzDException;
+import org.azd.helpers.JsonPatcher;
+import org.azd.interfaces.BuildDetails;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BuildDefinitionStamperTest {
+    // error text that the api returns in its responses is valid content of a definition
+    private static final String TEMPLATE = "{\"name\": \"WebApp-CI\", \"description\": \"innerException: Object moved. The request is invalid.\", "
+            + "\"repository\": {\"name\": \"WebApp\"}}";
+
+    /***
+     * Records the templates posted for the definitions after patching them
+     */
+    private static final class Project {
+        final List<String> posted = new ArrayList<>();
+
+        BuildDetails api() {
+            return Fakes.of(BuildDetails.class, (method, args) -> {
+                if (!method.equals("createBuildDefinition") || args.length != 2) return Fakes.unsupported(method);
+                var json = ((JsonPatcher) args[1]).apply((String) args[0]);
+                synchronized (posted) {
+                    posted.add(json);
+                }
+                var definition = new BuildDefinition();
+                definition.setName(((JsonPatcher) args[1]).get("name").toString());
+                return definition;
+            });
+        }
+    }
+
+    @Test
+    public void shouldCreateADefinitionForEachPatch() {
+        // Given
+        var project = new Project();
+        var stamper = new BuildDefinitionStamper(project.api(), 2);
+
+        // When
+        var result = stamper.stamp(TEMPLATE, List.of(
+                JsonPatcher.create().set("name", "Api-CI").set("repository/name", "Api"),
+                JsonPatcher.create().set("name", "Web-CI").set("repository/name", "Web")));
+
+        // Then
+        assertEquals(2, result.getSucceeded());
+        assertEquals("Api-CI", result.getResults().get("Api-CI").getName());
+        assertEquals(2, project.posted.size());
+        assertTrue(project.posted.stream().allMatch(json -> json.contains("innerException: Object moved. The request is invalid.")));
+    }
+
+    @Test
+    public void shouldFailEveryDefinitionWithoutPostingAMalformedTemplate() {
+        // Given
+        var project = new Project();
+        var stamper = new BuildDefinitionStamper(project.api(), 2);
+
+        // When
+        var result = stamper.stamp("{\"name\": \"WebApp-CI\", \"repository\": {", List.of(
+                JsonPatcher.create().set("name", "Api-CI"),
+                JsonPatcher.create().set("name", "Web-CI")));
+
+        // Then
+        assertEquals(0, result.getSucceeded());
+        assertEquals(2, result.getFailures().size());
+        assertEquals(AzDException.class, result.getFailures().get("Web-CI").getClass());
+        assertEquals(List.of(), project.posted);
+    }
+}
@@ -0,0 +1,191 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.build.types.Builds;
+import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.BuildHistoryListener;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BuildHistoryTrackerTest {
+    /***
+     * Builds of a project, listed like the builds api does with the minTime filter
+     */
+    private static final class Project {
+        private final Map<Integer, Build> builds = new TreeMap<>();
+        private int requests;
+
+        Build queue(int id, String queueTime) {
+            var build = new Build();
+            build.setId(id);
+            build.setQueueTime(queueTime);
+            build.setStatus("notStarted");
+            builds.put(id, build);
+            return build;
+        }
+
+        void start(int id, String startTime) {
+            builds.get(id).setStartTime(startTime);
+            builds.get(id).setStatus("inProgress");
+        }
+
+        void finish(int id, String finishTime, String result) {
+            builds.get(id).setFinishTime(finishTime);
+            builds.get(id).setStatus("completed");
+            builds.get(id).setResult(result);
+        }
+
+        void delete(int id, String deletedDate) {
+            builds.get(id).setDeletedDate(deletedDate);
+        }
+
+        BuildDetails api() {
+            return Fakes.of(BuildDetails.class, (method, args) -> {
+                if (!method.equals("getBuilds") || args.length != 19) return Fakes.unsupported(method);
+                return list((int) args[0], (String) args[5], (String) args[8], (String) args[10]);
+            });
+        }
+
+        private Builds list(int top, String deletedFilter, String minTime, String order) {
+            requests++;
+            Function<Build, String> time = order.startsWith("queue") ? Build::getQueueTime
+                    : order.startsWith("start") ? Build::getStartTime : Build::getFinishTime;
+            var deleted = "onlyDeleted".equals(deletedFilter);
+            var list = builds.values().stream()
+                    .filter(build -> (build.getDeletedDate() != null) == deleted)
+                    .filter(build -> time.apply(build) != null)
+                    .filter(build -> minTime == null || !Instant.parse(time.apply(build)).isBefore(Instant.parse(minTime)))
+                    .sorted(Comparator.comparing((Build build) -> Instant.parse(time.apply(build))).thenComparing(Build::getId))
+                    .limit(top)
+                    .collect(Collectors.toList());
+            var result = new Builds();
+            result.setBuildResults(list);
+            return result;
+        }
+    }
+
+    /***
+     * Records the changes passed by the tracker
+     */
+    private static final class Listener implements BuildHistoryListener {
+        final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void added(Build build) {
+            changes.add("added " + build.getId());
+        }
+
+        @Override
+        public void updated(Build build, String previousStatus, String previousResult) {
+            changes.add("updated " + build.getId() + " " + previousStatus + "/" + previousResult + " -> " + build.getStatus() + "/" + build.getResult());
+        }
+
+        @Override
+        public void deleted(int id) {
+            changes.add("deleted " + id);
+        }
+    }
+
+    private static Project project() {
+        var project = new Project();
+        project.queue(9, "2023-05-01T09:00:00Z");
+        project.finish(9, "2023-05-01T09:10:00Z", "succeeded");
+        project.delete(9, "2023-05-01T09:30:00Z");
+        project.queue(1, "2023-05-01T10:00:00Z");
+        project.start(1, "2023-05-01T10:01:00Z");
+        project.finish(1, "2023-05-01T10:05:00Z", "succeeded");
+        project.queue(2, "2023-05-01T10:02:00Z");
+        project.start(2, "2023-05-01T10:03:00Z");
+        project.queue(3, "2023-05-01T10:04:00Z");
+        return project;
+    }
+
+    private static void change(Project project) {
+        project.finish(2, "2023-05-01T11:00:00Z", "failed");
+        project.start(3, "2023-05-01T11:01:00Z");
+        project.queue(4, "2023-05-01T11:02:00Z");
+        project.delete(1, "2023-05-01T11:10:00Z");
+    }
+
+    @Test
+    public void shouldPassAddedUpdatedAndDeletedBuilds() throws Exception {
+        // Given
+        var project = project();
+        var tracker = new BuildHistoryTracker(project.api(), null, null);
+        var first = new Listener();
+        var watermark = tracker.poll(null, first);
+
+        // When
+        change(project);
+        var second = new Listener();
+        watermark = tracker.poll(watermark, second);
+        var third = new Listener();
+        watermark = tracker.poll(watermark, third);
+
+        // Then
+        assertEquals(List.of("added 1", "added 2", "added 3"), first.changes);
+        assertEquals(List.of("deleted 1", "added 4", "updated 3 notStarted/null -> inProgress/null",
+                "updated 2 inProgress/null -> completed/failed"), second.changes);
+        assertEquals(List.of(), third.changes);
+        assertEquals(Map.of(3, "inProgress", 4, "notStarted"), watermark.getOpenBuilds());
+        assertNull(tracker.getIndex().get(1));
+        assertEquals("failed", tracker.getIndex().get(2).getResult());
+    }
+
+    @Test
+    public void shouldResumeFromWatermark() throws Exception {
+        // Given
+        var project = project();
+        var watermark = new BuildHistoryTracker(project.api(), null, null).poll(null, new Listener());
+        change(project);
+
+        // When
+        var listener = new Listener();
+        var resumed = new BuildHistoryTracker(project.api(), null, null);
+        watermark = resumed.poll(watermark, listener);
+
+        // Then
+        assertEquals(List.of("deleted 1", "added 4", "updated 3 notStarted/null -> inProgress/null",
+                "updated 2 inProgress/null -> completed/failed"), listener.changes);
+        assertEquals(3, resumed.getIndex().size());
+        assertEquals(Map.of(3, "inProgress", 4, "notStarted"), watermark.getOpenBuilds());
+    }
+
+    @Test
+    public void shouldKeepOnlyTheBuildsDeletedAtTheLatestDeletionTime() throws Exception {
+        // Given
+        var project = project();
+        var tracker = new BuildHistoryTracker(project.api(), null, null);
+        var watermark = tracker.poll(null, new Listener());
+        project.delete(2, "2023-05-01T09:30:00Z");
+        project.delete(3, "2023-05-01T12:00:00Z");
+        project.delete(1, "2023-05-01T12:00:00Z");
+
+        // When
+        var listener = new Listener();
+        watermark = tracker.poll(watermark, listener);
+        var requests = project.requests;
+        var next = new Listener();
+        tracker.poll(watermark, next);
+
+        // Then
+        // build 2 is deleted at the deletion time of the watermark, which only lists build 9
+        assertEquals(List.of("deleted 2", "deleted 1", "deleted 3"), listener.changes);
+        assertEquals(List.of(), next.changes);
+        assertEquals("2023-05-01T12:00:00Z", watermark.getDeletedTime());
+        assertArrayEquals(new int[]{ 1, 3 }, watermark.getDeletedIds());
+        assertEquals(4, project.requests - requests);
+    }
+}
@@ -0,0 +1,156 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.build.types.Builds;
+import org.azd.exceptions.AzDException;
+import org.azd.interfaces.BuildDetails;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BuildMatrixTest {
+    private static final int SUCCEEDS = 1;
+    private static final int FAILS = 2;
+    private static final int RUNS = 3;
+    private static final int CANT_QUEUE = 4;
+
+    /***
+     * Builds of a project: each definition succeeds, fails or runs until it is cancelled. A build fails once the given
+     * number of builds are queued, so all of them are queued before the first failure.
+     */
+    private static final class Project {
+        private final int FAIL_AFTER;
+        private final Map<Integer, Build> builds = new HashMap<>();
+        private final List<Map<String, Object>> queued = new ArrayList<>();
+        private final List<String> cancelThreads = new ArrayList<>();
+
+        Project(int failAfter) {
+            this.FAIL_AFTER = failAfter;
+        }
+
+        @SuppressWarnings("unchecked")
+        BuildDetails api() {
+            return Fakes.of(BuildDetails.class, (method, args) -> {
+                switch (method) {
+                    case "queueBuild": return queue((Map<String, Object>) args[0]);
+                    case "getBuilds": return get((int[]) args[0]);
+                    case "cancelBuild": return cancel((int) args[0]);
+                    default: return Fakes.unsupported(method);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized Build queue(Map<String, Object> body) throws AzDException {
+            var definitionId = (int) ((Map<String, Object>) body.get("definition")).get("id");
+            if (definitionId == CANT_QUEUE) throw new AzDException("DefinitionDisabledException", "The definition is disabled.");
+            queued.add(body);
+            var build = new Build();
+            build.setId(100 + builds.size());
+            build.setStatus("notStarted");
+            build.setTags(new String[]{ String.valueOf(definitionId) });
+            builds.put(build.getId(), build);
+            return build;
+        }
+
+        private synchronized Builds get(int[] ids) {
+            var list = IntStream.of(ids).mapToObj(id -> {
+                var build = builds.get(id);
+                var definitionId = Integer.parseInt(build.getTags()[0]);
+                if (definitionId == SUCCEEDS) complete(build, "succeeded");
+                else if (definitionId == FAILS && builds.size() >= FAIL_AFTER) complete(build, "failed");
+                else if (!"completed".equals(build.getStatus())) build.setStatus("inProgress");
+                return build;
+            }).collect(Collectors.toList());
+            var result = new Builds();
+            result.setBuildResults(list);
+            return result;
+        }
+
+        private synchronized Build cancel(int id) {
+            cancelThreads.add(Thread.currentThread().getName());
+            var build = builds.get(id);
+            complete(build, "canceled");
+            return build;
+        }
+
+        private static void complete(Build build, String result) {
+            build.setStatus("completed");
+            build.setResult(result);
+        }
+    }
+
+    @Test
+    public void shouldAggregateTheResultsOfTheBuilds() {
+        // Given
+        var project = new Project(0);
+        var matrix = new BuildMatrix(project.api(), 2, null)
+                .add(new int[]{ SUCCEEDS }, List.of(Map.of("sourceBranch", "refs/heads/main"), Map.of("sourceBranch", "refs/heads/release")))
+                .add(FAILS, null)
+                .add(CANT_QUEUE, null)
+                .setPollInterval(Duration.ofMillis(10), Duration.ofMillis(50));
+
+        // When
+        var result = matrix.run();
+
+        // Then
+        assertEquals(Map.of("succeeded", 2, "failed", 1, BuildMatrixResult.NOT_QUEUED, 1), result.getResultCounts());
+        assertFalse(result.isCancelled());
+        assertFalse(result.isSucceeded());
+        assertEquals(3, project.queued.size());
+        assertEquals(List.of("refs/heads/main", "refs/heads/release"), result.getCells().subList(0, 2).stream()
+                .map(cell -> cell.getParameters().get("sourceBranch")).collect(Collectors.toList()));
+        assertTrue(result.getCells().get(3).getError() instanceof AzDException);
+        assertEquals(List.of(), project.cancelThreads);
+    }
+
+    @Test
+    public void shouldCancelTheOtherBuildsWhenABuildFails() {
+        // Given
+        var project = new Project(3);
+        var matrix = new BuildMatrix(project.api(), 4, null)
+                .add(new int[]{ RUNS, RUNS, FAILS }, List.of(Map.of()))
+                .setFailFast(true)
+                .setPollInterval(Duration.ofMillis(10), Duration.ofMillis(50));
+
+        // When
+        var result = matrix.run();
+
+        // Then
+        assertTrue(result.isCancelled());
+        assertEquals(Map.of("canceled", 2, "failed", 1), result.getResultCounts());
+        assertEquals(2, project.cancelThreads.size());
+        // the cancel requests don't run on the thread that checks the status of the builds
+        assertTrue(project.cancelThreads.stream().allMatch(name -> name.startsWith("azd-build-matrix-")));
+    }
+
+    @Test
+    public void shouldCancelTheOtherBuildsWhenABuildCantBeQueued() {
+        // Given
+        var project = new Project(0);
+        var matrix = new BuildMatrix(project.api(), 1, null)
+                .add(RUNS, null)
+                .add(CANT_QUEUE, null)
+                .add(RUNS, null)
+                .setFailFast(true)
+                .setPollInterval(Duration.ofMillis(10), Duration.ofMillis(50));
+
+        // When
+        var result = matrix.run();
+
+        // Then
+        assertTrue(result.isCancelled());
+        assertEquals(Map.of("canceled", 1, BuildMatrixResult.NOT_QUEUED, 2), result.getResultCounts());
+        assertEquals(1, project.queued.size());
+    }
+}
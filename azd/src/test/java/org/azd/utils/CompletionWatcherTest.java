@@ -0,0 +1,143 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.build.types.Builds;
+import org.azd.exceptions.AzDException;
+import org.azd.interfaces.BuildDetails;
+import org.azd.interfaces.PipelinesDetails;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompletionWatcherTest {
+    /***
+     * Answers the status checks in turn; an exception in the answers is thrown instead
+     */
+    private static final class Checks {
+        private final List<Object> answers;
+        private final List<Long> calls = new ArrayList<>();
+
+        Checks(Object... answers) {
+            this.answers = List.of(answers);
+        }
+
+        BuildDetails api() {
+            return Fakes.of(BuildDetails.class, (method, args) -> {
+                if (!method.equals("getBuilds") || args.length != 1) return Fakes.unsupported(method);
+                return answer((int[]) args[0]);
+            });
+        }
+
+        private synchronized Builds answer(int[] ids) throws Exception {
+            calls.add(System.nanoTime());
+            var answer = answers.get(Math.min(calls.size(), answers.size()) - 1);
+            if (answer instanceof Exception) throw (Exception) answer;
+            var builds = new Builds();
+            builds.setBuildResults(IntStream.of(ids).mapToObj(id -> build(id, (String) answer)).collect(Collectors.toList()));
+            return builds;
+        }
+
+        synchronized List<Long> getCalls() {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    private static Build build(int id, String status) {
+        var build = new Build();
+        build.setId(id);
+        build.setStatus(status);
+        return build;
+    }
+
+    private static CompletionWatcher watcher(BuildDetails build, PipelinesDetails pipelines) {
+        return new CompletionWatcher(build, pipelines, Duration.ofMillis(20), Duration.ofMillis(200));
+    }
+
+    @Test
+    public void shouldCompleteWhenTheBuildCompletes() throws Exception {
+        // Given
+        var checks = new Checks("notStarted", "inProgress", "completed");
+
+        // When
+        try (var watcher = watcher(checks.api(), null)) {
+            var build = watcher.watchBuild(7).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(7, build.getId());
+            assertEquals(3, checks.getCalls().size());
+            assertEquals(0, watcher.size());
+        }
+    }
+
+    @Test
+    public void shouldBackOffAfterAFailedCheck() throws Exception {
+        // Given
+        var checks = new Checks(new AzDException("ServiceUnavailable", "Try again later."),
+                new IllegalStateException("Connection reset"), "completed");
+
+        // When
+        try (var watcher = watcher(checks.api(), null)) {
+            watcher.watchBuild(7).get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        var calls = checks.getCalls();
+        assertEquals(3, calls.size());
+        // 40 and 80 ms after the failures, less the half interval an item can be checked early
+        assertTrue(calls.get(1) - calls.get(0) >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(calls.get(2) - calls.get(1) >= TimeUnit.MILLISECONDS.toNanos(70));
+    }
+
+    @Test
+    public void shouldFailAfterTheMaximumNumberOfFailedChecks() throws Exception {
+        // Given
+        var error = new IllegalStateException("Connection reset");
+        var checks = new Checks(error);
+
+        // When
+        try (var watcher = watcher(checks.api(), null)) {
+            watcher.watchBuild(7).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            // Then
+            assertSame(error, e.getCause());
+            assertEquals(5, checks.getCalls().size());
+        }
+    }
+
+    @Test
+    public void shouldFailTheRunThatCantBeReadAndKeepWatching() throws Exception {
+        // Given
+        var error = new IllegalStateException("Unexpected run");
+        var checks = new Checks("inProgress", "completed");
+        var pipelines = Fakes.of(PipelinesDetails.class, (method, args) -> {
+            if (!method.equals("getPipelineRun")) return Fakes.unsupported(method);
+            throw error;
+        });
+
+        // When
+        try (var watcher = watcher(checks.api(), pipelines)) {
+            var run = watcher.watchPipelineRun(3, 7);
+            var build = watcher.watchBuild(8);
+            try {
+                run.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                // Then
+                assertSame(error, e.getCause());
+            }
+            assertEquals(8, build.get(5, TimeUnit.SECONDS).getId());
+        }
+    }
+}
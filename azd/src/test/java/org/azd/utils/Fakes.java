@@ -0,0 +1,48 @@
+package org.azd.utils;
+
+import java.lang.reflect.Proxy;
+
+/***
+ * Fake implementations of the api interfaces for the tests that don't connect to Azure DevOps
+ */
+final class Fakes {
+    private Fakes() { }
+
+    /***
+     * Answers a call of the fake; the methods it doesn't answer throw UnsupportedOperationException
+     */
+    @FunctionalInterface
+    interface Handler {
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+
+    /***
+     * Create a fake of an api interface. The fakes have no local store, so uncached() returns the fake itself.
+     * @param type interface, e.g., BuildDetails
+     * @param handler answers the calls by method name
+     * @param <T> Type name
+     * @return the fake
+     */
+    static <T> T of(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals": return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    default: return "Fake" + type.getSimpleName();
+                }
+            }
+            if (method.getName().equals("uncached") && method.getParameterCount() == 0) return proxy;
+            return handler.invoke(method.getName(), args == null ? new Object[0] : args);
+        }));
+    }
+
+    /***
+     * Fails a call that the fake doesn't answer
+     * @param method name of the method
+     * @return never returns
+     */
+    static Object unsupported(String method) {
+        throw new UnsupportedOperationException(method);
+    }
+}
@@ -0,0 +1,50 @@
+package org.azd.utils;
+
+import org.azd.connection.Connection;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FanOutExecutorTest {
+
+    @Test
+    public void shouldNotRunTheRemainingQueriesAfterAnInterrupt() throws Exception {
+        // Given
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var result = new AtomicReference<FanOutResult<String>>();
+        try (var registry = new AzDClientRegistry(new Connection(null, "myPersonalAccessToken"), 0, 2)) {
+            var fanOut = new FanOutExecutor(registry, 1);
+            var caller = new Thread(() -> result.set(fanOut.forOrganizations(List.of("first", "second", "third"), c -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "done";
+            })));
+            caller.start();
+
+            // When
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            while (caller.getState() != Thread.State.WAITING) Thread.sleep(10);
+            caller.interrupt();
+            release.countDown();
+            caller.join(5000);
+
+            // Then
+            assertEquals(1, result.get().getSucceeded());
+            assertEquals("done", result.get().getResults().get("first"));
+            assertEquals(List.of("second", "third"), result.get().getNotRun());
+            assertFalse(result.get().hasFailures());
+        }
+    }
+}
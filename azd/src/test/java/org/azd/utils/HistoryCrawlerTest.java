@@ -0,0 +1,115 @@
+package org.azd.utils;
+
+import org.azd.build.types.Build;
+import org.azd.exceptions.AzDException;
+import org.azd.interfaces.HistorySink;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HistoryCrawlerTest {
+    private static final Instant FROM = Instant.parse("2023-05-01T10:00:00Z");
+    private static final Instant TO = Instant.parse("2023-05-01T12:00:00Z");
+
+    /***
+     * Builds of a project, listed by queue time with both borders of the range included
+     */
+    private static final class Project {
+        private final Map<Integer, Build> builds = new TreeMap<>();
+
+        Project queue(int id, String queueTime) {
+            var build = new Build();
+            build.setId(id);
+            build.setQueueTime(queueTime);
+            builds.put(id, build);
+            return this;
+        }
+
+        List<Build> list(Instant from, Instant to, int top) {
+            return builds.values().stream()
+                    .filter(build -> !Instant.parse(build.getQueueTime()).isBefore(from) && !Instant.parse(build.getQueueTime()).isAfter(to))
+                    .sorted(Comparator.comparing((Build build) -> Instant.parse(build.getQueueTime())).thenComparing(Build::getId))
+                    .limit(top)
+                    .collect(Collectors.toList());
+        }
+
+        HistoryCrawler<Build> crawler() {
+            return new HistoryCrawler<>(this::list, Build::getQueueTime, Build::getId, 2, 4, null)
+                    .setMinSlice(Duration.ofMinutes(10));
+        }
+    }
+
+    /***
+     * Records the slices written by the crawler
+     */
+    private static final class Sink implements HistorySink<Build> {
+        final Map<Instant, Instant> slices = new TreeMap<>();
+        final List<Integer> ids = new ArrayList<>();
+
+        @Override
+        public synchronized void write(Instant from, Instant to, List<Build> items) {
+            slices.put(from, to);
+            items.forEach(build -> ids.add(build.getId()));
+        }
+    }
+
+    @Test
+    public void shouldSplitFullSlicesAndWriteTheBuildsOnTheBordersOnce() throws Exception {
+        // Given
+        var project = new Project()
+                .queue(1, "2023-05-01T10:00:00Z")
+                .queue(2, "2023-05-01T10:30:00Z")
+                .queue(3, "2023-05-01T10:40:00Z")
+                .queue(4, "2023-05-01T10:45:00Z")
+                .queue(5, "2023-05-01T10:50:00Z")
+                .queue(6, "2023-05-01T11:00:00Z")
+                .queue(7, "2023-05-01T11:30:00Z")
+                .queue(8, "2023-05-01T12:00:00Z");
+        var sink = new Sink();
+
+        // When
+        var count = project.crawler().crawl(FROM, TO, Duration.ofHours(1), sink);
+
+        // Then
+        assertEquals(7, count);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), sink.ids.stream().sorted().collect(Collectors.toList()));
+        // the written slices cover the range without gaps or overlaps, and the full first hour was split
+        var start = FROM;
+        for (var slice : sink.slices.entrySet()) {
+            assertEquals(start, slice.getKey());
+            start = slice.getValue();
+        }
+        assertEquals(TO, start);
+        assertTrue(sink.slices.get(FROM).isBefore(FROM.plus(Duration.ofHours(1))));
+    }
+
+    @Test
+    public void shouldFailWhenAMinimumSliceHasMoreBuildsAtTheSameTimeThanAPage() {
+        // Given
+        var project = new Project()
+                .queue(1, "2023-05-01T10:05:00Z")
+                .queue(2, "2023-05-01T10:05:00Z")
+                .queue(3, "2023-05-01T10:05:00Z");
+
+        // When
+        try {
+            project.crawler().crawl(FROM, TO, Duration.ofHours(1), new Sink());
+            fail();
+        } catch (Exception e) {
+            // Then
+            assertEquals(AzDException.class, e.getClass());
+            assertEquals("PagingException", ((AzDException) e).getExceptionType());
+        }
+    }
+}
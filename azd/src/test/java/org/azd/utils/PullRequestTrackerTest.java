@@ -0,0 +1,214 @@
+package org.azd.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.azd.connection.Connection;
+import org.azd.enums.CacheMode;
+import org.azd.exceptions.AzDException;
+import org.azd.git.GitApi;
+import org.azd.git.types.PullRequest;
+import org.azd.git.types.Reviewers;
+import org.azd.helpers.LocalStore;
+import org.azd.interfaces.GitDetails;
+import org.azd.interfaces.PullRequestListener;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PullRequestTrackerTest {
+    /***
+     * Pull requests of a project, listed like the api does with the newest first
+     */
+    private static final class Project {
+        private final Map<Integer, PullRequest> pullRequests = new TreeMap<>();
+        private AzDException error;
+
+        void create(int id, String reviewerId, int vote) {
+            var reviewer = new Reviewers();
+            reviewer.setId(reviewerId);
+            reviewer.setVote(vote);
+            var pullRequest = new PullRequest();
+            pullRequest.setPullRequestId(id);
+            pullRequest.setStatus("active");
+            pullRequest.setTargetRefName("refs/heads/main");
+            pullRequest.setReviewers(List.of(reviewer));
+            pullRequests.put(id, pullRequest);
+        }
+
+        GitDetails api() {
+            return Fakes.of(GitDetails.class, (method, args) -> {
+                switch (method) {
+                    case "streamPullRequestsByProject":
+                        return pullRequests.values().stream()
+                                .filter(pullRequest -> "active".equals(pullRequest.getStatus()))
+                                .sorted(Comparator.comparing(PullRequest::getPullRequestId).reversed())
+                                .collect(Collectors.toList()).stream();
+                    case "getPullRequestById":
+                        if (error != null) throw error;
+                        var pullRequest = pullRequests.get((int) args[0]);
+                        if (pullRequest == null)
+                            throw new AzDException("GitPullRequestNotFoundException", "The pull request " + args[0] + " doesn't exist.");
+                        return pullRequest;
+                    default:
+                        return Fakes.unsupported(method);
+                }
+            });
+        }
+    }
+
+    /***
+     * Records the changes passed by the tracker
+     */
+    private static final class Listener implements PullRequestListener {
+        final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void created(PullRequest pullRequest) {
+            changes.add("created " + pullRequest.getPullRequestId());
+        }
+
+        @Override
+        public void updated(PullRequest pullRequest, PullRequestIndex.Entry previous) {
+            changes.add("updated " + pullRequest.getPullRequestId());
+        }
+
+        @Override
+        public void closed(PullRequest pullRequest, PullRequestIndex.Entry previous) {
+            changes.add("closed " + pullRequest.getPullRequestId() + " " + pullRequest.getStatus());
+        }
+
+        @Override
+        public void removed(PullRequestIndex.Entry previous) {
+            changes.add("removed " + previous.getPullRequestId());
+        }
+    }
+
+    @Test
+    public void shouldPassCreatedUpdatedClosedAndRemovedPullRequests() throws Exception {
+        // Given
+        var project = new Project();
+        project.create(1, "u1", 0);
+        project.create(2, "u1", 0);
+        project.create(3, "u1", 0);
+        var tracker = new PullRequestTracker(project.api(), null, 2);
+        var first = new Listener();
+        tracker.poll(first);
+
+        // When
+        project.pullRequests.get(1).getReviewers().get(0).setVote(10);
+        project.pullRequests.get(2).setStatus("completed");
+        project.pullRequests.remove(3);
+        project.create(4, "u2", 0);
+        var second = new Listener();
+        tracker.poll(second);
+        var third = new Listener();
+        tracker.poll(third);
+
+        // Then
+        assertEquals(List.of("created 3", "created 2", "created 1"), first.changes);
+        assertEquals(List.of("created 4", "updated 1", "closed 2 completed", "removed 3"), second.changes);
+        assertEquals(List.of(), third.changes);
+        assertEquals(10, (int) tracker.getIndex().get(1).getVote("u1"));
+        assertEquals("completed", tracker.getIndex().get(2).getStatus());
+        assertEquals(3, tracker.getIndex().size());
+    }
+
+    @Test
+    public void shouldFailWhenAMissingPullRequestCantBeRead() throws Exception {
+        // Given
+        var project = new Project();
+        project.create(1, "u1", 0);
+        var tracker = new PullRequestTracker(project.api(), null, 2);
+        tracker.poll(new Listener());
+        project.pullRequests.get(1).setStatus("abandoned");
+        project.error = new AzDException("UnauthorizedRequestException", "The token can't read the pull request.");
+
+        // When
+        try {
+            tracker.poll(new Listener());
+            fail();
+        } catch (AzDException e) {
+            // Then
+            assertEquals("UnauthorizedRequestException", e.getExceptionType());
+            assertEquals("active", tracker.getIndex().get(1).getStatus());
+        }
+    }
+
+    @Test
+    public void shouldNotReadPollsFromTheLocalStore() throws Exception {
+        // Given
+        var statuses = new ConcurrentHashMap<Integer, String>(Map.of(1, "active", 2, "active"));
+        var requests = new AtomicInteger();
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            var path = exchange.getRequestURI().getPath();
+            String body;
+            if (path.contains("/_apis/resourceAreas/")) {
+                body = "{\"locationUrl\": \"http://localhost:" + server.getAddress().getPort() + "/Test/\"}";
+            } else if (path.endsWith("/pullrequests")) {
+                requests.incrementAndGet();
+                body = "{\"count\": 0, \"value\": [" + statuses.entrySet().stream()
+                        .filter(entry -> "active".equals(entry.getValue()))
+                        .map(entry -> pullRequest(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.joining(", ")) + "]}";
+            } else {
+                requests.incrementAndGet();
+                var id = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                body = pullRequest(id, statuses.get(id));
+            }
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        Client.setInstanceUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        var directory = Files.createTempDirectory("azd-store");
+        var store = new LocalStore(directory);
+        var connection = new Connection("Test", "myProject", "myPersonalAccessToken");
+        connection.setLocalStore(store, CacheMode.READ_THROUGH, Duration.ofMinutes(10));
+        var git = new GitApi(connection);
+
+        try {
+            var tracker = new PullRequestTracker(git, null, 2);
+            tracker.poll(new Listener());
+            // stores pull request 1 as active
+            git.getPullRequestById(1);
+
+            // When
+            statuses.put(1, "completed");
+            statuses.put(3, "active");
+            var listener = new Listener();
+            tracker.poll(listener);
+
+            // Then
+            assertEquals(List.of("created 3", "closed 1 completed"), listener.changes);
+            assertEquals(4, requests.get());
+        } finally {
+            server.stop(0);
+            Client.setInstanceUrl(System.getProperty("azd.instance.url", "https://dev.azure.com/"));
+            store.close();
+            try (var files = Files.walk(directory)) {
+                for (var file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(file);
+            }
+        }
+    }
+
+    private static String pullRequest(int id, String status) {
+        return "{\"pullRequestId\": " + id + ", \"status\": \"" + status + "\", \"targetRefName\": \"refs/heads/main\", \"reviewers\": []}";
+    }
+}
@@ -0,0 +1,146 @@
+package org.azd.utils;
+
+import org.azd.enums.ReleaseExpands;
+import org.azd.enums.ReleaseStatus;
+import org.azd.interfaces.ReleaseDeploymentListener;
+import org.azd.interfaces.ReleaseDetails;
+import org.azd.release.types.Release;
+import org.azd.release.types.ReleaseEnvironment;
+import org.azd.release.types.Releases;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReleaseDeploymentTrackerTest {
+    // notStarted, inProgress, queued and scheduled
+    private static final Set<String> PENDING = Set.of("notStarted", "inProgress", "queued", "scheduled");
+
+    /***
+     * Releases of a project, listed like the api does with the environmentStatusFilter and releaseIdFilter
+     */
+    private static final class Project {
+        private final Map<Integer, String> createdOn = new TreeMap<>();
+        private final Map<Integer, Map<Integer, String>> environments = new TreeMap<>();
+        private final List<String> listRequests = new ArrayList<>();
+
+        void create(int id, String created, Map<Integer, String> statuses) {
+            createdOn.put(id, created);
+            environments.put(id, new TreeMap<>(statuses));
+        }
+
+        void deploy(int id, int environmentId, String status) {
+            environments.get(id).put(environmentId, status);
+        }
+
+        void delete(int id) {
+            createdOn.remove(id);
+            environments.remove(id);
+        }
+
+        ReleaseDetails api() {
+            return Fakes.of(ReleaseDetails.class, (method, args) -> {
+                if (method.equals("getRelease") && args.length == 1) return release((int) args[0], true);
+                if (!method.equals("getReleases") || args.length != 21) return Fakes.unsupported(method);
+                assertEquals(ReleaseExpands.ENVIRONMENTS, args[0]);
+                return list((int) args[1], (int) args[8], (String) args[11], (String[]) args[15], (ReleaseStatus) args[19]);
+            });
+        }
+
+        private Releases list(int top, int environmentStatusFilter, String minCreatedTime, String[] releaseIdFilter, ReleaseStatus status) {
+            listRequests.add(releaseIdFilter == null ? "since " + minCreatedTime : "ids " + String.join(",", releaseIdFilter));
+            var ids = releaseIdFilter == null ? null : Arrays.stream(releaseIdFilter).map(Integer::parseInt).collect(Collectors.toSet());
+            var list = createdOn.keySet().stream()
+                    .filter(id -> ids == null || ids.contains(id))
+                    .filter(id -> minCreatedTime == null || !Instant.parse(createdOn.get(id)).isBefore(Instant.parse(minCreatedTime)))
+                    .filter(id -> environmentStatusFilter == 0 || environments.get(id).values().stream().anyMatch(PENDING::contains))
+                    .limit(top)
+                    .map(id -> release(id, false))
+                    .collect(Collectors.toList());
+            assertEquals(releaseIdFilter == null ? ReleaseStatus.ACTIVE : null, status);
+            var releases = new Releases();
+            releases.setReleases(list);
+            return releases;
+        }
+
+        /***
+         * Only the release fetched in full has the names of the environments
+         */
+        private Release release(int id, boolean full) {
+            var release = new Release();
+            release.setId(id);
+            release.setStatus("active");
+            release.setCreatedOn(createdOn.get(id));
+            release.setEnvironments(environments.get(id).entrySet().stream().map(entry -> {
+                var environment = new ReleaseEnvironment();
+                environment.setId(entry.getKey());
+                environment.setStatus(entry.getValue());
+                if (full) environment.setName("Stage " + entry.getKey());
+                return environment;
+            }).collect(Collectors.toList()));
+            return release;
+        }
+    }
+
+    /***
+     * Records the changes passed by the tracker
+     */
+    private static final class Listener implements ReleaseDeploymentListener {
+        final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void added(Release release) {
+            changes.add("added " + release.getId());
+        }
+
+        @Override
+        public void environmentChanged(Release release, ReleaseEnvironment environment, String previousStatus) {
+            changes.add("changed " + release.getId() + " " + environment.getName() + " " + previousStatus + " -> " + environment.getStatus());
+        }
+
+        @Override
+        public void removed(int releaseId) {
+            changes.add("removed " + releaseId);
+        }
+    }
+
+    @Test
+    public void shouldPassAddedChangedAndRemovedReleases() throws Exception {
+        // Given
+        var project = new Project();
+        project.create(1, "2023-05-01T10:00:00Z", Map.of(11, "notStarted", 12, "notStarted"));
+        project.create(2, "2023-05-01T10:01:00Z", Map.of(21, "inProgress"));
+        project.create(5, "2023-05-01T10:02:00Z", Map.of(51, "queued"));
+        project.create(6, "2023-05-01T10:03:00Z", Map.of(61, "succeeded"));
+        var tracker = new ReleaseDeploymentTracker(project.api(), Instant.parse("2023-05-01T00:00:00Z"), 2);
+        var first = new Listener();
+        tracker.poll(first);
+
+        // When
+        project.deploy(1, 11, "inProgress");
+        project.deploy(2, 21, "succeeded");
+        project.delete(5);
+        project.create(3, "2023-05-01T10:04:00Z", Map.of(31, "scheduled"));
+        var second = new Listener();
+        tracker.poll(second);
+        var third = new Listener();
+        tracker.poll(third);
+
+        // Then
+        assertEquals(List.of("added 1", "added 2", "added 5"), first.changes);
+        assertEquals(List.of("added 3", "removed 5", "changed 1 Stage 11 notStarted -> inProgress",
+                "changed 2 Stage 21 inProgress -> succeeded"), second.changes);
+        assertEquals(List.of(), third.changes);
+        assertEquals(2, tracker.size());
+        assertEquals(List.of("since 2023-05-01T00:00:00Z", "since 2023-05-01T00:00:00Z", "ids 2,5"),
+                project.listRequests.subList(0, 3));
+    }
+}
@@ -0,0 +1,117 @@
+package org.azd.utils;
+
+import org.azd.exceptions.AzDException;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TimeCursorTest {
+    /***
+     * Item of a list ordered by time
+     */
+    private static final class Item {
+        private final int id;
+        private final String time;
+
+        Item(int id, String time) {
+            this.id = id;
+            this.time = time;
+        }
+    }
+
+    /***
+     * Lists the items from a time like the apis with a minTime filter, ignoring the id
+     */
+    private static TimeCursor.Lister<Item> fromTime(List<Item> items, int pageSize, List<String> requests) {
+        return (time, afterId) -> {
+            requests.add(time);
+            return items.stream()
+                    .filter(item -> time == null || !Instant.parse(item.time).isBefore(Instant.parse(time)))
+                    .limit(pageSize)
+                    .collect(Collectors.toList());
+        };
+    }
+
+    private static List<Integer> page(TimeCursor cursor, TimeCursor.Lister<Item> lister, int pageSize) throws Exception {
+        var ids = new ArrayList<Integer>();
+        cursor.page(null, pageSize, lister, item -> item.time, item -> item.id, null,
+                items -> items.forEach(item -> ids.add(item.id)));
+        return ids;
+    }
+
+    @Test
+    public void shouldListEachItemOnceAcrossPages() throws Exception {
+        // Given
+        var items = List.of(new Item(1, "2023-05-01T10:00:00Z"), new Item(2, "2023-05-01T10:00:00Z"),
+                new Item(3, "2023-05-01T11:00:00Z"), new Item(4, "2023-05-01T12:00:00Z"), new Item(5, "2023-05-01T13:00:00Z"));
+        var requests = new ArrayList<String>();
+        var cursor = new TimeCursor(null, (int[]) null);
+
+        // When
+        var ids = page(cursor, fromTime(items, 3, requests), 3);
+
+        // Then
+        assertEquals(List.of(1, 2, 3, 4, 5), ids);
+        assertEquals(List.of("2023-05-01T11:00:00Z", "2023-05-01T13:00:00Z"), requests.subList(1, 3));
+        assertEquals("2023-05-01T13:00:00Z", cursor.getTime());
+        assertArrayEquals(new int[]{ 5 }, cursor.getIds());
+    }
+
+    @Test
+    public void shouldSkipItemsListedAtTheTimeOfTheCursor() throws Exception {
+        // Given
+        var items = List.of(new Item(1, "2023-05-01T10:00:00Z"), new Item(2, "2023-05-01T10:00:00Z"),
+                new Item(3, "2023-05-01T11:00:00Z"));
+        var cursor = new TimeCursor("2023-05-01T10:00:00Z", new int[]{ 1 });
+
+        // When
+        var ids = page(cursor, fromTime(items, 10, new ArrayList<>()), 10);
+
+        // Then
+        assertEquals(List.of(2, 3), ids);
+    }
+
+    @Test(expected = AzDException.class)
+    public void shouldFailWhenMoreItemsThanAPageHaveTheSameTime() throws Exception {
+        // Given
+        var items = new ArrayList<Item>();
+        for (int id = 1; id <= 5; id++) items.add(new Item(id, "2023-05-01T10:00:00Z"));
+        items.add(new Item(6, "2023-05-01T11:00:00Z"));
+
+        // When
+        page(new TimeCursor(null, (int[]) null), fromTime(items, 3, new ArrayList<>()), 3);
+    }
+
+    @Test
+    public void shouldContinueAfterTheLastIdWhenTheApiCan() throws Exception {
+        // Given
+        var items = new ArrayList<Item>();
+        for (int id = 1; id <= 5; id++) items.add(new Item(id, "2023-05-01T10:00:00Z"));
+        items.add(new Item(6, "2023-05-01T11:00:00Z"));
+        var cursor = new TimeCursor("2023-05-01T10:00:00Z", new int[]{ 1, 2, 3 });
+        var afterIds = new ArrayList<Integer>();
+        TimeCursor.Lister<Item> lister = (time, afterId) -> {
+            afterIds.add(afterId);
+            return items.stream()
+                    .filter(item -> {
+                        var order = Instant.parse(item.time).compareTo(Instant.parse(time));
+                        return order > 0 || (order == 0 && item.id > afterId);
+                    })
+                    .limit(3)
+                    .collect(Collectors.toList());
+        };
+
+        // When
+        var ids = page(cursor, lister, 3);
+
+        // Then
+        assertEquals(List.of(4, 5, 6), ids);
+        assertEquals(List.of(0, 3), afterIds.subList(0, 2));
+    }
+}
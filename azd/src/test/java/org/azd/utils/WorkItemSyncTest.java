@@ -0,0 +1,242 @@
+package org.azd.utils;
+
+import org.azd.exceptions.AzDException;
+import org.azd.interfaces.WorkItemSyncSink;
+import org.azd.interfaces.WorkItemTrackingDetails;
+import org.azd.workitemtracking.types.WorkItem;
+import org.azd.workitemtracking.types.WorkItemDeleteShallowReference;
+import org.azd.workitemtracking.types.WorkItemDeleteShallowReferences;
+import org.azd.workitemtracking.types.WorkItemFields;
+import org.azd.workitemtracking.types.WorkItemList;
+import org.azd.workitemtracking.types.WorkItemQueryResult;
+import org.azd.workitemtracking.types.WorkItemReference;
+import org.azd.workitemtracking.types.WorkItemSyncWatermark;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class WorkItemSyncTest {
+    private static final Pattern SINCE = Pattern.compile("\\[System.ChangedDate] >= '([^']+)'");
+    private static final Pattern AFTER = Pattern.compile("\\[System.ChangedDate] > '([^']+)' Or \\(\\[System.ChangedDate] = '[^']+' And \\[System.Id] > (\\d+)\\)");
+
+    /***
+     * Work items of a project and its recycle bin, queried like the WIQL api does
+     */
+    private static final class Project {
+        private final String name;
+        private final Map<Integer, WorkItem> workItems = new TreeMap<>();
+        private final TreeSet<Integer> bin = new TreeSet<>();
+        private final List<String> queries = new ArrayList<>();
+
+        Project(String name) {
+            this.name = name;
+        }
+
+        void save(int id, String changedDate) {
+            var previous = workItems.get(id);
+            var fields = new WorkItemFields();
+            fields.setSystemTeamProject(name);
+            fields.setSystemChangedDate(changedDate);
+            fields.setSystemRev(previous == null ? 1 : previous.getFields().getSystemRev() + 1);
+            var workItem = new WorkItem();
+            workItem.setId(id);
+            workItem.setFields(fields);
+            workItems.put(id, workItem);
+        }
+
+        void delete(int id) {
+            workItems.remove(id);
+            bin.add(id);
+        }
+
+        WorkItemTrackingDetails api() {
+            return Fakes.of(WorkItemTrackingDetails.class, (method, args) -> {
+                switch (method) {
+                    case "queryByWiql": return query((String) args[1], (int) args[2]);
+                    case "getWorkItems": return get((int[]) args[0]);
+                    case "getDeletedWorkItemsFromRecycleBin": return recycleBin();
+                    default: return Fakes.unsupported(method);
+                }
+            });
+        }
+
+        private WorkItemQueryResult query(String query, int top) {
+            queries.add(query);
+            var since = SINCE.matcher(query);
+            var after = AFTER.matcher(query);
+            var from = since.find() ? Instant.parse(since.group(1)) : null;
+            var at = after.find() ? Instant.parse(after.group(1)) : null;
+            var afterId = at == null ? 0 : Integer.parseInt(after.group(2));
+            var changed = Comparator.comparing((WorkItem w) -> Instant.parse(w.getFields().getSystemChangedDate())).thenComparing(WorkItem::getId);
+            var references = workItems.values().stream()
+                    .filter(w -> from == null || !Instant.parse(w.getFields().getSystemChangedDate()).isBefore(from))
+                    .filter(w -> {
+                        if (at == null) return true;
+                        var order = Instant.parse(w.getFields().getSystemChangedDate()).compareTo(at);
+                        return order > 0 || (order == 0 && w.getId() > afterId);
+                    })
+                    .sorted(changed)
+                    .limit(top)
+                    .map(w -> {
+                        var reference = new WorkItemReference();
+                        reference.setId(w.getId());
+                        return reference;
+                    })
+                    .collect(Collectors.toList());
+            var result = new WorkItemQueryResult();
+            result.setAsOf(Instant.now().toString());
+            result.setWorkItems(references);
+            return result;
+        }
+
+        private WorkItemList get(int[] ids) {
+            var list = new WorkItemList();
+            list.setWorkItems(Arrays.stream(ids).mapToObj(workItems::get).collect(Collectors.toList()));
+            return list;
+        }
+
+        private WorkItemDeleteShallowReferences recycleBin() {
+            var references = new WorkItemDeleteShallowReferences();
+            references.setWorkItemDeleteShallowReferences(bin.stream().map(id -> {
+                var reference = new WorkItemDeleteShallowReference();
+                reference.setId(id);
+                return reference;
+            }).collect(Collectors.toList()));
+            return references;
+        }
+    }
+
+    /***
+     * Records the changes passed by the sync
+     */
+    private static class Sink implements WorkItemSyncSink {
+        final List<Integer> changed = new ArrayList<>();
+        final List<Integer> deleted = new ArrayList<>();
+        final List<WorkItemSyncWatermark> checkpoints = new ArrayList<>();
+
+        @Override
+        public void changed(WorkItem workItem) throws AzDException {
+            changed.add(workItem.getId());
+        }
+
+        @Override
+        public void deleted(int id) {
+            deleted.add(id);
+        }
+
+        @Override
+        public void checkpoint(WorkItemSyncWatermark watermark) {
+            checkpoints.add(watermark);
+        }
+    }
+
+    @Test
+    public void shouldSyncChangedAndDeletedWorkItemsSinceWatermark() throws Exception {
+        // Given
+        var project = new Project("Demo");
+        project.save(1, "2023-05-01T10:00:00Z");
+        project.save(2, "2023-05-01T11:00:00Z");
+        project.save(3, "2023-05-01T11:00:00Z");
+        var sync = new WorkItemSync(project.api(), "Demo", "Demo Team", 2);
+        var first = new Sink();
+        var watermark = sync.sync(null, first);
+
+        // When
+        project.save(2, "2023-05-02T09:00:00Z");
+        project.save(4, "2023-05-02T09:30:00Z");
+        project.delete(1);
+        var second = new Sink();
+        watermark = sync.sync(watermark, second);
+        var third = new Sink();
+        sync.sync(watermark, third);
+
+        // Then
+        assertEquals(List.of(1, 2, 3), first.changed);
+        assertEquals(List.of(2, 4), second.changed);
+        assertEquals(List.of(1), second.deleted);
+        assertEquals(List.of(), third.changed);
+        assertEquals(List.of(), third.deleted);
+        assertEquals("2023-05-02T09:30:00Z", watermark.getChangedDate());
+        assertEquals(Map.of(4, 1), watermark.getRevisions());
+    }
+
+    @Test
+    public void shouldSyncMoreWorkItemsThanAPageChangedAtTheSameTime() throws Exception {
+        // Given
+        var project = new Project("Demo");
+        for (int id = 1; id <= 2500; id++) project.save(id, "2023-05-01T10:00:00Z");
+        project.save(2501, "2023-05-01T10:00:01Z");
+        var sync = new WorkItemSync(project.api(), "Demo", "Demo Team", 4);
+
+        // When
+        var first = new Sink();
+        var watermark = sync.sync(null, first);
+        var second = new Sink();
+        sync.sync(watermark, second);
+
+        // Then
+        assertEquals(2501, first.changed.size());
+        assertEquals(2501, new TreeSet<>(first.changed).size());
+        assertEquals(List.of(), second.changed);
+        assertEquals(1, project.queries.stream().filter(q -> q.contains("[System.Id] > 2000")).count());
+    }
+
+    @Test
+    public void shouldResumeFromCheckpoint() throws Exception {
+        // Given
+        var project = new Project("Demo");
+        for (int id = 1; id <= 2300; id++) project.save(id, "2023-05-01T10:00:00Z");
+        var sync = new WorkItemSync(project.api(), "Demo", "Demo Team", 4);
+        var failing = new Sink() {
+            @Override
+            public void changed(WorkItem workItem) throws AzDException {
+                if (!checkpoints.isEmpty()) throw new AzDException("The sink is full.");
+                super.changed(workItem);
+            }
+        };
+        try {
+            sync.sync(null, failing);
+            fail();
+        } catch (AzDException e) {
+            // the second page fails
+        }
+
+        // When
+        var resumed = new Sink();
+        sync.sync(failing.checkpoints.get(0), resumed);
+
+        // Then
+        assertEquals(2000, failing.changed.size());
+        assertEquals(300, resumed.changed.size());
+        assertEquals(2001, (int) resumed.changed.get(0));
+    }
+
+    @Test
+    public void shouldRejectWorkItemsOfAnotherProject() throws Exception {
+        // Given
+        var project = new Project("Other");
+        project.save(1, "2023-05-01T10:00:00Z");
+        var sink = new Sink();
+
+        // When
+        try {
+            new WorkItemSync(project.api(), "Demo", "Demo Team", 1).sync(null, sink);
+            fail();
+        } catch (AzDException e) {
+            // Then
+            assertEquals(List.of(), sink.changed);
+        }
+    }
+}